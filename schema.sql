@@ -32,6 +32,26 @@ CREATE TABLE `app_users` (
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `file_blobs`
+--
+
+DROP TABLE IF EXISTS `file_blobs`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `file_blobs` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `created_at` datetime(6) NOT NULL,
+  `physical_path` varchar(255) NOT NULL,
+  `ref_count` int NOT NULL,
+  `sha256` varchar(64) NOT NULL,
+  `size` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UK_file_blobs_sha256` (`sha256`),
+  UNIQUE KEY `UK_file_blobs_physical_path` (`physical_path`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `files`
 --
@@ -47,14 +67,24 @@ CREATE TABLE `files` (
   `physical_name` varchar(255) NOT NULL,
   `physical_path` varchar(255) NOT NULL,
   `size` bigint NOT NULL,
+  `share_epoch` int NOT NULL DEFAULT 0,
   `updated_at` datetime(6) NOT NULL,
+  `blob_id` bigint DEFAULT NULL,
   `folder_id` bigint DEFAULT NULL,
   `storage_path_id` bigint NOT NULL,
   PRIMARY KEY (`id`),
   UNIQUE KEY `UKkuhf57bnmgi660iy6onqko05f` (`physical_name`),
+  KEY `FK_files_blob` (`blob_id`),
+  KEY `IDX_files_storage_path_name` (`storage_path_id`,`display_name`,`id`),
+  KEY `IDX_files_storage_path_size` (`storage_path_id`,`size`,`id`),
+  KEY `IDX_files_storage_path_created` (`storage_path_id`,`created_at`,`id`),
+  KEY `IDX_files_folder_name` (`folder_id`,`display_name`,`id`),
+  KEY `IDX_files_folder_size` (`folder_id`,`size`,`id`),
+  KEY `IDX_files_folder_created` (`folder_id`,`created_at`,`id`),
   KEY `FKe9awb46i258gxwjtbjprmtpmi` (`folder_id`),
   KEY `FKnw06l8xr0j3yc6kq2yatxfso` (`storage_path_id`),
   CONSTRAINT `FKe9awb46i258gxwjtbjprmtpmi` FOREIGN KEY (`folder_id`) REFERENCES `folders` (`id`),
+  CONSTRAINT `FK_files_blob` FOREIGN KEY (`blob_id`) REFERENCES `file_blobs` (`id`),
   CONSTRAINT `FKnw06l8xr0j3yc6kq2yatxfso` FOREIGN KEY (`storage_path_id`) REFERENCES `storage_paths` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=11 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -73,7 +103,14 @@ CREATE TABLE `folders` (
   `updated_at` datetime(6) NOT NULL,
   `parent_folder_id` bigint DEFAULT NULL,
   `storage_path_id` bigint NOT NULL,
+  `path` varchar(760) NOT NULL,
+  `depth` int NOT NULL,
+  `normalized_name` varchar(255) NOT NULL,
+  `parent_scope` bigint NOT NULL,
   PRIMARY KEY (`id`),
+  UNIQUE KEY `UK_folders_sibling_name` (`storage_path_id`,`parent_scope`,`normalized_name`),
+  KEY `IDX_folders_path` (`path`),
+  KEY `IDX_folders_storage_path_depth` (`storage_path_id`,`depth`),
   KEY `FKiohfylsa0e068vfrh56nwqv5w` (`parent_folder_id`),
   KEY `FKgbkqa45fbhj4j8e3nt7ip79b2` (`storage_path_id`),
   CONSTRAINT `FKgbkqa45fbhj4j8e3nt7ip79b2` FOREIGN KEY (`storage_path_id`) REFERENCES `storage_paths` (`id`),
@@ -81,6 +118,37 @@ CREATE TABLE `folders` (
 ) ENGINE=InnoDB AUTO_INCREMENT=12 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `reclaim_queue`
+--
+
+DROP TABLE IF EXISTS `reclaim_queue`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `reclaim_queue` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `blob_id` bigint DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `physical_path` varchar(255) DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `scheduler_locks`
+--
+
+DROP TABLE IF EXISTS `scheduler_locks`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `scheduler_locks` (
+  `name` varchar(64) NOT NULL,
+  `locked_by` varchar(255) NOT NULL,
+  `locked_until` datetime(6) NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `shared_links`
 --
@@ -95,16 +163,42 @@ CREATE TABLE `shared_links` (
   `link_token` varchar(255) NOT NULL,
   `file_id` bigint DEFAULT NULL,
   `folder_id` bigint DEFAULT NULL,
+  `storage_path_id` bigint NOT NULL,
   PRIMARY KEY (`id`),
   UNIQUE KEY `UK9baout737aw0wkhjn0cjiasny` (`link_token`),
   KEY `FK5314fp6wvm0pa8eycwpmkqs10` (`file_id`),
   KEY `FK_shared_links_folder` (`folder_id`),
+  KEY `IDX_shared_links_storage_path_created` (`storage_path_id`,`created_at`,`id`),
+  KEY `IDX_shared_links_expires_at` (`expires_at`,`id`),
   CONSTRAINT `FK5314fp6wvm0pa8eycwpmkqs10` FOREIGN KEY (`file_id`) REFERENCES `files` (`id`),
   CONSTRAINT `FK_shared_links_folder` FOREIGN KEY (`folder_id`) REFERENCES `folders` (`id`),
+  CONSTRAINT `FK_shared_links_storage_path` FOREIGN KEY (`storage_path_id`) REFERENCES `storage_paths` (`id`),
   CONSTRAINT `CHK_file_or_folder` CHECK ((((`file_id` is not null) and (`folder_id` is null)) or ((`file_id` is null) and (`folder_id` is not null))))
 ) ENGINE=InnoDB AUTO_INCREMENT=21 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `sms_outbox`
+--
+
+DROP TABLE IF EXISTS `sms_outbox`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sms_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `attempts` int NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `last_error` varchar(500) DEFAULT NULL,
+  `message` varchar(1000) DEFAULT NULL,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `phone_number` varchar(20) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_sms_outbox_status_next_attempt` (`status`,`next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `storage_paths`
 --
@@ -122,6 +216,43 @@ CREATE TABLE `storage_paths` (
   CONSTRAINT `FKdsjio3twt11x9lftl6bjiexkf` FOREIGN KEY (`app_user_id`) REFERENCES `app_users` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `upload_sessions`
+--
+
+DROP TABLE IF EXISTS `upload_sessions`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `upload_sessions` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `chunk_count` int NOT NULL,
+  `chunk_size` int NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  `file_id` bigint DEFAULT NULL,
+  `file_name` varchar(255) NOT NULL,
+  `folder_id` bigint DEFAULT NULL,
+  `mime_type` varchar(255) DEFAULT NULL,
+  `physical_name` varchar(255) NOT NULL,
+  `physical_path` varchar(255) NOT NULL,
+  `received_bytes` bigint NOT NULL,
+  `received_chunks` varbinary(8192) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `total_size` bigint NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `upload_id` varchar(36) NOT NULL,
+  `version` bigint DEFAULT NULL,
+  `storage_path_id` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UK_upload_sessions_upload_id` (`upload_id`),
+  UNIQUE KEY `UK_upload_sessions_physical_name` (`physical_name`),
+  KEY `FK_upload_sessions_storage_path` (`storage_path_id`),
+  KEY `IDX_upload_sessions_status_expires` (`status`,`expires_at`),
+  KEY `IDX_upload_sessions_status_updated` (`status`,`updated_at`),
+  CONSTRAINT `FK_upload_sessions_storage_path` FOREIGN KEY (`storage_path_id`) REFERENCES `storage_paths` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;
@@ -8,7 +8,20 @@ import org.aspectj.lang.annotation.Aspect;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Aspect
 @Component
@@ -17,8 +30,27 @@ import java.lang.reflect.Field;
 @Slf4j
 public class SanitizationAspect {
 
+    // Arguments of these types never carry @SanitizedField values
+    private static final List<Class<?>> SKIPPED_TYPES = List.of(
+            CharSequence.class, Number.class, Boolean.class, Character.class, Enum.class,
+            MultipartFile.class, Authentication.class, Principal.class,
+            ServletRequest.class, ServletResponse.class, InputStream.class, Resource.class);
+
+    private static final SanitizedAccessor[] NO_FIELDS = new SanitizedAccessor[0];
+
     private final SanitizationService sanitizationService;
 
+    // Resolved once per argument class, so the request path does no reflection
+    private final ClassValue<SanitizedAccessor[]> sanitizedFields = new ClassValue<>() {
+        @Override
+        protected SanitizedAccessor[] computeValue(Class<?> type) {
+            return resolveSanitizedFields(type);
+        }
+    };
+
+    private record SanitizedAccessor(String name, VarHandle handle) {
+    }
+
     /**
      * Intercepts controller method calls and sanitizes request body objects
      */
@@ -31,7 +63,7 @@ public class SanitizationAspect {
         
         // Sanitize each argument that might contain user input
         for (Object arg : args) {
-            if (arg != null && !isPrimitiveOrWrapper(arg.getClass())) {
+            if (arg != null) {
                 sanitizeObject(arg);
             }
         }
@@ -43,60 +75,58 @@ public class SanitizationAspect {
      * Sanitizes fields marked with @SanitizedField annotation
      */
     private void sanitizeObject(Object inputObject) {
-        if (inputObject == null) {
-            return;
-        }
-
-        Class<?> clazz = inputObject.getClass();
-        log.debug("Sanitizing object of type: {}", clazz.getSimpleName());
-
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            if (field.isAnnotationPresent(SanitizedField.class)) {
-                sanitizeField(inputObject, field);
-            }
+        SanitizedAccessor[] accessors = sanitizedFields.get(inputObject.getClass());
+        for (SanitizedAccessor accessor : accessors) {
+            sanitizeField(inputObject, accessor);
         }
     }
 
     /**
      * Sanitizes a specific field
      */
-    private void sanitizeField(Object object, Field field) {
+    private void sanitizeField(Object object, SanitizedAccessor accessor) {
         try {
-            field.setAccessible(true);
-            Object fieldValue = field.get(object);
-            
-            if (fieldValue instanceof String) {
-                String originalValue = (String) fieldValue;
+            if (accessor.handle().get(object) instanceof String originalValue) {
                 String sanitizedValue = sanitizationService.sanitizeInput(originalValue);
-                field.set(object, sanitizedValue);
+                accessor.handle().set(object, sanitizedValue);
                 
-                log.debug("Sanitized field '{}' in {}", field.getName(), object.getClass().getSimpleName());
+                log.debug("Sanitized field '{}' in {}", accessor.name(), object.getClass().getSimpleName());
             }
-        } catch (IllegalAccessException e) {
-            log.error("Failed to sanitize field '{}' in {}: {}", 
-                     field.getName(), object.getClass().getSimpleName(), e.getMessage());
-            // Continue processing - don't break the flow for sanitization failures
         } catch (Exception e) {
             log.error("Unexpected error during sanitization of field '{}': {}", 
-                     field.getName(), e.getMessage());
+                     accessor.name(), e.getMessage());
             // Continue processing
         }
     }
 
     /**
-     * Checks if a class is a primitive or wrapper type
+     * Builds accessors for the annotated fields that can hold a String
      */
-    private boolean isPrimitiveOrWrapper(Class<?> clazz) {
-        return clazz.isPrimitive() || 
-               clazz == String.class ||
-               clazz == Integer.class ||
-               clazz == Long.class ||
-               clazz == Double.class ||
-               clazz == Float.class ||
-               clazz == Boolean.class ||
-               clazz == Character.class ||
-               clazz == Byte.class ||
-               clazz == Short.class;
+    private static SanitizedAccessor[] resolveSanitizedFields(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || SKIPPED_TYPES.stream().anyMatch(skipped -> skipped.isAssignableFrom(type))) {
+            return NO_FIELDS;
+        }
+
+        List<SanitizedAccessor> accessors = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(SanitizedField.class) || !field.getType().isAssignableFrom(String.class)) {
+                continue;
+            }
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                log.warn("Ignoring @SanitizedField on static or final field '{}' in {}", field.getName(), type.getSimpleName());
+                continue;
+            }
+            try {
+                VarHandle handle = MethodHandles.privateLookupIn(type, MethodHandles.lookup()).unreflectVarHandle(field);
+                accessors.add(new SanitizedAccessor(field.getName(), handle));
+            } catch (IllegalAccessException e) {
+                log.error("Failed to access field '{}' in {}: {}", field.getName(), type.getSimpleName(), e.getMessage());
+            }
+        }
+
+        if (!accessors.isEmpty()) {
+            log.debug("Cached {} sanitized field(s) for {}", accessors.size(), type.getSimpleName());
+        }
+        return accessors.isEmpty() ? NO_FIELDS : accessors.toArray(NO_FIELDS);
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,28 @@ package com.cerebra.secure_file_sharing_app.Aspects.Sanitization;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+
+/**
+ * Character-scanning sanitizer. Produces exactly what the former chain of regex
+ * replacements did, in two linear passes and without compiling any patterns:
+ * <ol>
+ *     <li>drop {@code --} and whole-word SQL keywords (word boundaries are judged after
+ *     {@code --} removal, as the regex chain did);</li>
+ *     <li>drop quotes that lead into an SQL operator, HTML-escape, drop stray semicolons,
+ *     collapse whitespace and trim.</li>
+ * </ol>
+ */
 @Service
 @Slf4j
 public class SanitizationService {
 
+    // Removed when they form a whole word, indexed by length
+    private static final char[][][] REMOVED_KEYWORDS = byLength("union", "select", "drop", "insert", "update", "delete", "from");
+
+    // A quote directly ahead of one of these (whitespace allowed) is removed, even mid-word
+    private static final char[][] QUOTE_LEAD_INS = toChars("or", "and", "union", "select", "drop", "insert", "update", "delete");
+
     /**
      * Sanitizes the input to protect against SQL Injection and XSS.
      * @param input The raw input string.
@@ -19,30 +37,198 @@ public class SanitizationService {
 
         log.debug("Sanitizing input: {}", input);
 
-        String sanitized = input;
+        String sanitized = escape(stripSql(input));
 
-        // Remove potential SQL injection patterns (case-insensitive)
-        sanitized = sanitized.replaceAll("--", "")                     // SQL comments
-                .replaceAll("(?i)\\b(union|select|drop|insert|update|delete|from)\\b", "")  // SQL keywords
-                .replaceAll("'(?=\\s*(?i)(or|and|union|select|drop|insert|update|delete))", ""); // SQL injection attempts
+        if (!input.equals(sanitized)) {
+            log.info("Input sanitized. Original length: {}, Sanitized length: {}", input.length(), sanitized.length());
+        }
 
-        // XSS protection - escape HTML characters (do ' BEFORE & to avoid double encoding)
-        sanitized = sanitized.replaceAll("'", "&#x27;")               // Do this FIRST
-                .replaceAll("<", "&lt;")
-                .replaceAll(">", "&gt;")
-                .replaceAll("\"", "&quot;")
-                .replaceAll("&(?![a-zA-Z0-9#]+;)", "&amp;");   // Don't double-encode existing entities
+        return sanitized;
+    }
 
-        // Remove semicolons ONLY if they're not part of HTML entities
-        sanitized = sanitized.replaceAll("(?<!&[a-zA-Z0-9#]+);", "");  // Remove ; not preceded by HTML entity pattern
+    /**
+     * Pass 1: removes "--" pairs (left to right, non-overlapping) and SQL keywords that
+     * stand as whole words in the comment-free text.
+     */
+    private static char[] stripSql(String input) {
+        int length = input.length();
+        char[] out = new char[length];
+        int size = 0;
+        int wordStart = -1;
 
-        // Remove excessive whitespace
-        sanitized = sanitized.replaceAll("\\s+", " ").trim();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '-' && i + 1 < length && input.charAt(i + 1) == '-') {
+                i++;
+                continue;
+            }
+            if (isWordChar(c)) {
+                if (wordStart < 0) {
+                    wordStart = size;
+                }
+            } else if (wordStart >= 0) {
+                if (isRemovedKeyword(out, wordStart, size)) {
+                    size = wordStart;
+                }
+                wordStart = -1;
+            }
+            out[size++] = c;
+        }
+        if (wordStart >= 0 && isRemovedKeyword(out, wordStart, size)) {
+            size = wordStart;
+        }
 
-        if (!input.equals(sanitized)) {
-            log.info("Input sanitized. Original length: {}, Sanitized length: {}", input.length(), sanitized.length());
+        return size == length ? out : Arrays.copyOf(out, size);
+    }
+
+    /**
+     * Pass 2: quote removal, HTML escaping, semicolon removal, whitespace collapsing and trimming.
+     */
+    private static String escape(char[] text) {
+        int length = text.length;
+        StringBuilder out = new StringBuilder(length + 16);
+
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            switch (c) {
+                case '\'' -> {
+                    if (!leadsIntoOperator(text, i + 1)) {
+                        out.append("&#x27;");
+                    }
+                }
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                // Existing entities are left alone; every other '&' is escaped
+                case '&' -> out.append(startsEntityName(text, i + 1) ? "&" : "&amp;");
+                // Only the terminator of an entity survives
+                case ';' -> {
+                    if (endsEntityName(out)) {
+                        out.append(';');
+                    }
+                }
+                default -> {
+                    if (isWhitespace(c)) {
+                        if (out.isEmpty() || out.charAt(out.length() - 1) != ' ') {
+                            out.append(' ');
+                        }
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
         }
 
-        return sanitized;
+        return trim(out);
+    }
+
+    private static boolean isRemovedKeyword(char[] text, int start, int end) {
+        int length = end - start;
+        if (length >= REMOVED_KEYWORDS.length) {
+            return false;
+        }
+        for (char[] keyword : REMOVED_KEYWORDS[length]) {
+            if (regionMatchesAsciiIgnoreCase(text, start, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean leadsIntoOperator(char[] text, int from) {
+        int i = from;
+        while (i < text.length && isWhitespace(text[i])) {
+            i++;
+        }
+        for (char[] leadIn : QUOTE_LEAD_INS) {
+            if (i + leadIn.length <= text.length && regionMatchesAsciiIgnoreCase(text, i, leadIn)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Escaping never produces entity chars, so this matches the escaped text once removed quotes are skipped
+    private static boolean startsEntityName(char[] text, int from) {
+        int i = from;
+        int nameLength = 0;
+        while (i < text.length) {
+            if (isEntityChar(text[i])) {
+                nameLength++;
+            } else if (text[i] != '\'' || !leadsIntoOperator(text, i + 1)) {
+                break;
+            }
+            i++;
+        }
+        return nameLength > 0 && i < text.length && text[i] == ';';
+    }
+
+    private static boolean endsEntityName(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && isEntityChar(out.charAt(i))) {
+            i--;
+        }
+        return i < out.length() - 1 && i >= 0 && out.charAt(i) == '&';
+    }
+
+    private static boolean regionMatchesAsciiIgnoreCase(char[] text, int start, char[] lowerCase) {
+        for (int k = 0; k < lowerCase.length; k++) {
+            char c = text[start + k];
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCase[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same as String.trim(): strips every char up to and including ' '
+    private static String trim(StringBuilder out) {
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(start, end);
+    }
+
+    // Regex \w
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isEntityChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '#';
+    }
+
+    // Regex \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static char[][] toChars(String... words) {
+        char[][] chars = new char[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            chars[i] = words[i].toCharArray();
+        }
+        return chars;
+    }
+
+    private static char[][][] byLength(String... words) {
+        int maxLength = 0;
+        for (String word : words) {
+            maxLength = Math.max(maxLength, word.length());
+        }
+        char[][][] table = new char[maxLength + 1][][];
+        for (int length = 0; length <= maxLength; length++) {
+            final int wanted = length;
+            table[length] = toChars(Arrays.stream(words).filter(w -> w.length() == wanted).toArray(String[]::new));
+        }
+        return table;
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,80 @@
 package com.cerebra.secure_file_sharing_app.Config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * HTTP client for the SMS gateway. Connections are pooled and kept alive between
+ * sends; pool usage is published under httpcomponents.httpclient.pool.* tagged httpclient=sms.
+ */
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Value("${sms.service.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${sms.service.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${sms.service.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMillis;
+
+    @Value("${sms.service.http.read-timeout-ms:10000}")
+    private long readTimeoutMillis;
+
+    // How long a send waits for a free pooled connection before failing
+    @Value("${sms.service.http.pool-timeout-ms:2000}")
+    private long poolTimeoutMillis;
+
+    @Value("${sms.service.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${sms.service.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager smsConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "sms").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient smsHttpClient(PoolingHttpClientConnectionManager smsConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(smsConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .evictExpiredConnections()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 seconds
-        factory.setReadTimeout(10000);   // 10 seconds
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(CloseableHttpClient smsHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(smsHttpClient));
     }
-}
\ No newline at end of file
+}
@@ -2,24 +2,37 @@ package com.cerebra.secure_file_sharing_app.Controllers;
 
 import com.cerebra.secure_file_sharing_app.Entities.*;
 
+import com.cerebra.secure_file_sharing_app.Services.FileDownloadService;
 import com.cerebra.secure_file_sharing_app.Services.FileService;
-import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Services.UploadSessionService;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
 import com.cerebra.secure_file_sharing_app.Shared.FileUploadResponse;
+import com.cerebra.secure_file_sharing_app.Shared.InitiateUploadRequest;
+import com.cerebra.secure_file_sharing_app.Shared.TargetFolderRequest;
+import com.cerebra.secure_file_sharing_app.Shared.UploadSessionResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 @RestController
@@ -30,7 +43,11 @@ import java.util.List;
 public class FileController {
 
     private final FileService fileService;
-    private final StoragePathService storagePathService;
+    private final OwnershipContext ownershipContext;
+    private final FileDownloadService fileDownloadService;
+    private final UploadSessionService uploadSessionService;
+
+    private static final int MAX_REPORTED_MISSING_CHUNKS = 1000;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
@@ -70,35 +87,165 @@ public class FileController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/uploads")
+    @Operation(
+            summary = "Start a resumable upload",
+            description = "Open a chunked upload session for large files. Send the chunks with PUT /api/files/uploads/{uploadId}?offset=N, then call complete."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload session created"),
+            @ApiResponse(responseCode = "400", description = "Invalid file name or size"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to folder")
+    })
+    public ResponseEntity<UploadSessionResponse> initiateUpload(
+            @Valid @RequestBody InitiateUploadRequest request,
+            Authentication authentication) {
+
+        log.info("Chunked upload request: {} ({} bytes) by user: {}",
+                request.getFileName(), request.getTotalSize(), authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        UploadSession session = uploadSessionService.initiateUpload(
+                request.getFileName(), request.getTotalSize(), request.getMimeType(), request.getFolderId(), userId);
+
+        return ResponseEntity.ok(toUploadSessionResponse(session));
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload one chunk",
+            description = "Write a chunk at the given offset. Offsets must be multiples of the session chunk size; re-sending a chunk is safe."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Chunk stored"),
+            @ApiResponse(responseCode = "400", description = "Misaligned offset or wrong chunk length"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to upload"),
+            @ApiResponse(responseCode = "404", description = "Upload session not found or expired")
+    })
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable String uploadId,
+
+            @Parameter(description = "Byte offset of this chunk", required = true)
+            @RequestParam("offset") long offset,
+
+            Authentication authentication,
+            HttpServletRequest request) throws IOException {
+
+        log.debug("Chunk upload: {} at offset {} by user: {}", uploadId, offset, authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        UploadSession session = uploadSessionService.uploadChunk(
+                uploadId, offset, request.getInputStream(), request.getContentLengthLong(), userId);
+
+        return ResponseEntity.ok(toUploadSessionResponse(session));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Get upload progress",
+            description = "Report received bytes and the offsets still missing, so an interrupted upload can resume."
+    )
+    public ResponseEntity<UploadSessionResponse> getUploadSession(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable String uploadId,
+
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        UploadSession session = uploadSessionService.getUploadSession(uploadId, userId);
+
+        return ResponseEntity.ok(toUploadSessionResponse(session));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(
+            summary = "Complete a resumable upload",
+            description = "Create the file once every chunk has been received"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Chunks still missing"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Upload session not found or expired")
+    })
+    public ResponseEntity<FileUploadResponse> completeUpload(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable String uploadId,
+
+            Authentication authentication) {
+
+        log.info("Complete upload request: {} by user: {}", uploadId, authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        File uploadedFile = uploadSessionService.completeUpload(uploadId, userId);
+
+        FileUploadResponse response = FileUploadResponse.builder()
+                .fileId(uploadedFile.getId())
+                .fileName(uploadedFile.getDisplayName())
+                .fileSize(uploadedFile.getSize())
+                .mimeType(uploadedFile.getMimeType())
+                .uploadedAt(uploadedFile.getCreatedAt())
+                .message("File uploaded successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Abort a resumable upload",
+            description = "Discard an unfinished upload and its partial data"
+    )
+    public ResponseEntity<String> abortUpload(
+            @Parameter(description = "Upload session ID", required = true)
+            @PathVariable String uploadId,
+
+            Authentication authentication) {
+
+        log.info("Abort upload request: {} by user: {}", uploadId, authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        uploadSessionService.abortUpload(uploadId, userId);
+
+        return ResponseEntity.ok("Upload aborted successfully");
+    }
+
     @GetMapping("/{fileId}/download")
     @Operation(
             summary = "Download a file",
-            description = "Download a file by its ID. User must own the file."
+            description = "Download a file by its ID. User must own the file. Supports Range / If-Range for resumable and partial downloads."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "File downloaded successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range(s) returned"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
             @ApiResponse(responseCode = "403", description = "Access denied to file"),
-            @ApiResponse(responseCode = "404", description = "File not found")
+            @ApiResponse(responseCode = "404", description = "File not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
     })
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @Parameter(description = "File ID", required = true)
             @PathVariable Long fileId,
 
-            Authentication authentication) {
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         log.info("File download request: {} by user: {}", fileId, authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
-        Resource resource = fileService.downloadFile(fileId, userId);
-
-        // Get file info for headers
-        File fileEntity = fileService.findById(fileId).orElseThrow();
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(fileEntity.getMimeType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileEntity.getDisplayName() + "\"")
-                .body(resource);
+        File fileEntity = fileService.getFileForDownload(fileId, userId);
+
+        fileDownloadService.streamFile(
+                fileEntity.getPhysicalPath(),
+                fileEntity.getDisplayName(),
+                fileEntity.getMimeType(),
+                request,
+                response
+        );
     }
 
     @DeleteMapping("/{fileId}")
@@ -126,76 +273,169 @@ public class FileController {
         return ResponseEntity.ok("File deleted successfully");
     }
 
+    @PostMapping("/{fileId}/move")
+    @Operation(
+            summary = "Move a file",
+            description = "Move a file into another folder, or into the default folder when no target is given."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File moved successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to file or folder"),
+            @ApiResponse(responseCode = "404", description = "File or folder not found")
+    })
+    public ResponseEntity<FileSummaryResponse> moveFile(
+            @Parameter(description = "File ID", required = true)
+            @PathVariable Long fileId,
+            @RequestBody TargetFolderRequest request,
+            Authentication authentication) {
+
+        log.info("File move request: {} to folder {} by user: {}", fileId, request.getTargetFolderId(), authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        File file = fileService.moveFile(fileId, request.getTargetFolderId(), userId);
+
+        return ResponseEntity.ok(toFileSummary(file));
+    }
+
+    @PostMapping("/{fileId}/copy")
+    @Operation(
+            summary = "Copy a file",
+            description = "Copy a file into another folder, or into the default folder when no target is given. " +
+                    "The copy shares the stored content with the original, so no data is duplicated."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File copied successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to file or folder"),
+            @ApiResponse(responseCode = "404", description = "File or folder not found")
+    })
+    public ResponseEntity<FileSummaryResponse> copyFile(
+            @Parameter(description = "File ID", required = true)
+            @PathVariable Long fileId,
+            @RequestBody TargetFolderRequest request,
+            Authentication authentication) {
+
+        log.info("File copy request: {} to folder {} by user: {}", fileId, request.getTargetFolderId(), authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        File copy = fileService.copyFile(fileId, request.getTargetFolderId(), userId);
+
+        return ResponseEntity.ok(toFileSummary(copy));
+    }
+
     @GetMapping("/my-files")
     @Operation(
             summary = "Get all user files",
-            description = "Retrieve all files belonging to the authenticated user"
+            description = "Retrieve one page of the authenticated user's files. Pass nextCursor back as cursor for the next page"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Files retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, direction or cursor"),
             @ApiResponse(responseCode = "401", description = "User not authenticated")
     })
-    public ResponseEntity<List<File>> getMyFiles(Authentication authentication) {
+    public ResponseEntity<FilePageResponse> getMyFiles(
+            @ParameterObject FilePageRequest pageRequest,
+
+            Authentication authentication) {
 
         log.info("Get my files request by user: {}", authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
-        List<File> files = fileService.getUserFiles(userId);
+        FilePageResponse page = fileService.getUserFilesPage(userId, pageRequest);
 
-        return ResponseEntity.ok(files);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/folder/{folderId}")
     @Operation(
             summary = "Get files in folder",
-            description = "Retrieve all files in a specific folder"
+            description = "Retrieve one page of the files in a specific folder"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Files retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, direction or cursor"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
             @ApiResponse(responseCode = "403", description = "Access denied to folder"),
             @ApiResponse(responseCode = "404", description = "Folder not found")
     })
-    public ResponseEntity<List<File>> getFolderFiles(
+    public ResponseEntity<FilePageResponse> getFolderFiles(
             @Parameter(description = "Folder ID", required = true)
             @PathVariable Long folderId,
 
+            @ParameterObject FilePageRequest pageRequest,
+
             Authentication authentication) {
 
         log.info("Get folder files request: {} by user: {}", folderId, authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
-        List<File> files = fileService.getFolderFiles(folderId, userId);
+        FilePageResponse page = fileService.getFolderFilesPage(folderId, userId, pageRequest);
 
-        return ResponseEntity.ok(files);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/root")
     @Operation(
             summary = "Get root files",
-            description = "Retrieve files in the user's root directory (not in any folder)"
+            description = "Retrieve one page of the files in the user's root directory (not in any folder)"
     )
-    public ResponseEntity<List<File>> getRootFiles(Authentication authentication) {
+    public ResponseEntity<FilePageResponse> getRootFiles(
+            @ParameterObject FilePageRequest pageRequest,
+
+            Authentication authentication) {
 
         log.info("Get root files request by user: {}", authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
         Long storagePathId = getCurrentUserStoragePathId(userId);
-        List<File> files = fileService.findRootFiles(storagePathId);
+        FilePageResponse page = fileService.getRootFilesPage(storagePathId, pageRequest);
 
-        return ResponseEntity.ok(files);
+        return ResponseEntity.ok(page);
     }
 
     // Fixed helper methods
+    private FileSummaryResponse toFileSummary(File file) {
+        return FileSummaryResponse.builder()
+                .id(file.getId())
+                .displayName(file.getDisplayName())
+                .size(file.getSize())
+                .mimeType(file.getMimeType())
+                .folderId(file.getFolder() != null ? file.getFolder().getId() : null)
+                .createdAt(file.getCreatedAt())
+                .updatedAt(file.getUpdatedAt())
+                .build();
+    }
+
+    private UploadSessionResponse toUploadSessionResponse(UploadSession session) {
+        BitSet received = BitSet.valueOf(session.getReceivedChunks());
+        List<Long> missingOffsets = new ArrayList<>();
+        for (int index = received.nextClearBit(0);
+             index < session.getChunkCount() && missingOffsets.size() < MAX_REPORTED_MISSING_CHUNKS;
+             index = received.nextClearBit(index + 1)) {
+            missingOffsets.add((long) index * session.getChunkSize());
+        }
+
+        return UploadSessionResponse.builder()
+                .uploadId(session.getUploadId())
+                .fileName(session.getFileName())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .receivedBytes(session.getReceivedBytes())
+                .missingOffsets(missingOffsets)
+                .status(session.getStatus().name())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
     private Long getCurrentUserId(Authentication authentication) {
         AppUser user = (AppUser) authentication.getPrincipal();
         return user.getId();
     }
 
     private Long getCurrentUserStoragePathId(Long userId) {
-        return storagePathService.findByAppUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User storage path not found"))
-                .getId();
+        return ownershipContext.findStoragePathId(userId)
+                .orElseThrow(() -> new RuntimeException("User storage path not found"));
     }
 }
 
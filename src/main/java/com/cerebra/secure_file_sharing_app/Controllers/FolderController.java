@@ -26,7 +26,7 @@ import java.util.stream.Collectors;
 public class FolderController {
 
     private final FolderService folderService;
-    private final StoragePathService storagePathService;
+    private final OwnershipContext ownershipContext;
 
     @PostMapping
     @Operation(
@@ -56,7 +56,8 @@ public class FolderController {
     @DeleteMapping("/{folderId}")
     @Operation(
             summary = "Delete a folder",
-            description = "Delete a folder. Folder must be empty (no subfolders or files)."
+            description = "Delete a folder. Folder must be empty (no subfolders or files) unless recursive=true, " +
+                    "which removes the whole subtree, its files and their share links; disk space is freed in the background."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Folder deleted successfully"),
@@ -68,16 +69,75 @@ public class FolderController {
     public ResponseEntity<String> deleteFolder(
             @Parameter(description = "Folder ID", required = true)
             @PathVariable Long folderId,
+            @Parameter(description = "Also delete subfolders and files")
+            @RequestParam(value = "recursive", defaultValue = "false") boolean recursive,
             Authentication authentication) {
 
-        log.info("Delete folder request: {} by user: {}", folderId, authentication.getName());
+        log.info("Delete folder request: {} (recursive: {}) by user: {}", folderId, recursive, authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
-        folderService.deleteFolder(folderId, userId);
+        if (recursive) {
+            folderService.deleteFolderRecursive(folderId, userId);
+        } else {
+            folderService.deleteFolder(folderId, userId);
+        }
 
         return ResponseEntity.ok("Folder deleted successfully");
     }
 
+    @PostMapping("/{folderId}/move")
+    @Operation(
+            summary = "Move a folder",
+            description = "Move a folder and everything under it into another folder, or to the root level when no target is given."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Folder moved successfully"),
+            @ApiResponse(responseCode = "400", description = "Duplicate name at the destination or nesting too deep"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied, or destination inside the folder"),
+            @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<FolderResponse> moveFolder(
+            @Parameter(description = "Folder ID", required = true)
+            @PathVariable Long folderId,
+            @RequestBody TargetFolderRequest request,
+            Authentication authentication) {
+
+        log.info("Move folder request: {} to {} by user: {}", folderId, request.getTargetFolderId(), authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        Folder folder = folderService.moveFolder(folderId, request.getTargetFolderId(), userId);
+
+        return ResponseEntity.ok(mapToFolderResponse(folder));
+    }
+
+    @PostMapping("/{folderId}/copy")
+    @Operation(
+            summary = "Copy a folder",
+            description = "Copy a folder and everything under it into another folder, or to the root level when no target is given. " +
+                    "Copied files share the stored content with the originals, so no data is duplicated."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Folder copied successfully"),
+            @ApiResponse(responseCode = "400", description = "Duplicate name at the destination or nesting too deep"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied, or destination inside the folder"),
+            @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<FolderResponse> copyFolder(
+            @Parameter(description = "Folder ID", required = true)
+            @PathVariable Long folderId,
+            @RequestBody TargetFolderRequest request,
+            Authentication authentication) {
+
+        log.info("Copy folder request: {} to {} by user: {}", folderId, request.getTargetFolderId(), authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        Folder copy = folderService.copyFolder(folderId, request.getTargetFolderId(), userId);
+
+        return ResponseEntity.ok(mapToFolderResponse(copy));
+    }
+
     @GetMapping("/my-folders")
     @Operation(
             summary = "Get all user folders",
@@ -103,6 +163,33 @@ public class FolderController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/tree")
+    @Operation(
+            summary = "Get folder tree",
+            description = "Retrieve the user's folders as a nested tree with per-folder file counts. " +
+                    "Limit the levels with 'depth'; folders cut off by the limit carry an 'expandCursor' " +
+                    "that loads the levels below them."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Folder tree retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid depth or cursor"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to expanded folder"),
+            @ApiResponse(responseCode = "404", description = "Expanded folder not found")
+    })
+    public ResponseEntity<FolderTreeResponse> getFolderTree(
+            @Parameter(description = "Levels to return (all when omitted)")
+            @RequestParam(value = "depth", required = false) Integer depth,
+            @Parameter(description = "expandCursor of a folder to load the levels below it")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Authentication authentication) {
+
+        log.info("Get folder tree request by user: {}, depth: {}", authentication.getName(), depth);
+
+        Long userId = getCurrentUserId(authentication);
+        return ResponseEntity.ok(folderService.getFolderTree(userId, depth, cursor));
+    }
+
     @GetMapping("/root")
     @Operation(
             summary = "Get root folders",
@@ -161,6 +248,32 @@ public class FolderController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{folderId}/ancestors")
+    @Operation(
+            summary = "Get folder breadcrumbs",
+            description = "Retrieve the folder's ancestors from the root level down to the folder itself"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ancestors retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Access denied to folder"),
+            @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<List<FolderResponse>> getAncestors(
+            @Parameter(description = "Folder ID", required = true)
+            @PathVariable Long folderId,
+            Authentication authentication) {
+
+        log.info("Get folder ancestors request: {} by user: {}", folderId, authentication.getName());
+
+        Long userId = getCurrentUserId(authentication);
+        List<FolderResponse> response = folderService.findAncestors(folderId, userId).stream()
+                .map(this::mapToFolderResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{folderId}")
     @Operation(
             summary = "Get folder details",
@@ -181,12 +294,9 @@ public class FolderController {
 
         Long userId = getCurrentUserId(authentication);
 
-        if (!folderService.hasAccess(folderId, userId)) {
-            throw new RuntimeException("Access denied to folder: " + folderId);
-        }
-
-        Folder folder = folderService.findById(folderId)
-                .orElseThrow(() -> new RuntimeException("Folder not found: " + folderId));
+        // Authorizes and loads in one query
+        Folder folder = ownershipContext.findOwnedFolder(folderId, userId)
+                .orElseThrow(() -> new RuntimeException("Access denied to folder: " + folderId));
 
         FolderResponse response = mapToFolderResponse(folder);
         return ResponseEntity.ok(response);
@@ -199,9 +309,8 @@ public class FolderController {
     }
 
     private Long getCurrentUserStoragePathId(Long userId) {
-        return storagePathService.findByAppUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User storage path not found"))
-                .getId();
+        return ownershipContext.findStoragePathId(userId)
+                .orElseThrow(() -> new RuntimeException("User storage path not found"));
     }
 
     private FolderResponse mapToFolderResponse(Folder folder) {
@@ -2,6 +2,7 @@ package com.cerebra.secure_file_sharing_app.Controllers;
 
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
+import com.cerebra.secure_file_sharing_app.Services.FileDownloadService;
 import com.cerebra.secure_file_sharing_app.Services.SharedLinkService;
 import com.cerebra.secure_file_sharing_app.Shared.*;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,16 +10,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +34,7 @@ import java.util.stream.Collectors;
 public class SharedLinkController {
 
     private final SharedLinkService sharedLinkService;
+    private final FileDownloadService fileDownloadService;
 
     @PostMapping("/api/files/{fileId}/share")
     @Operation(
@@ -87,76 +93,33 @@ public class SharedLinkController {
     }
 
     @GetMapping("/public/shared/{linkToken}")
-    public ResponseEntity<Resource> downloadSharedFile(@PathVariable String linkToken) {
+    public ResponseEntity<StreamingResponseBody> downloadSharedFile(
+            @PathVariable String linkToken,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         log.info("Public download request for token: {}", linkToken);
 
-        Resource resource = sharedLinkService.downloadSharedFile(linkToken);
-
-        // Get share details
-        SharedLink sharedLink = sharedLinkService.findByLinkToken(linkToken)
-                .orElseThrow(() -> new RuntimeException("Share not found"));
-
-        String filename;
-        String mimeType;
-
-        if (sharedLink.getFile() != null) {
-            // File download
-            filename = sharedLink.getFile().getDisplayName();
-            mimeType = sharedLink.getFile().getMimeType();
-        } else if (sharedLink.getFolder() != null) {
-            // Folder download (ZIP)
-            filename = sharedLink.getFolder().getName() + ".zip";
-            mimeType = "application/zip";  // Correct MIME type for ZIP files
-        } else {
-            filename = "shared-item";
-            mimeType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-        }
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(mimeType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(resource);
+        return serveSharedItem(linkToken, request, response);
     }
 
     @GetMapping("/public/shared")
-    public ResponseEntity<Resource> downloadSharedFileByUrl(@RequestParam("url") String shareUrlOrToken) {
+    public ResponseEntity<StreamingResponseBody> downloadSharedFileByUrl(
+            @RequestParam("url") String shareUrlOrToken,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         log.info("Public download request by URL: {}", shareUrlOrToken);
 
         String linkToken = extractTokenFromUrl(shareUrlOrToken);
-        Resource resource = sharedLinkService.downloadSharedFile(linkToken);
-
-        // Get share details
-        SharedLink sharedLink = sharedLinkService.findByLinkToken(linkToken)
-                .orElseThrow(() -> new RuntimeException("Share not found"));
-
-        String filename;
-        String mimeType;
-
-        if (sharedLink.getFile() != null) {
-            // File download
-            filename = sharedLink.getFile().getDisplayName();
-            mimeType = sharedLink.getFile().getMimeType();
-        } else if (sharedLink.getFolder() != null) {
-            // Folder download (ZIP)
-            filename = sharedLink.getFolder().getName() + ".zip";
-            mimeType = "application/zip";  // Correct MIME type for ZIP files
-        } else {
-            filename = "shared-item";
-            mimeType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-        }
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(mimeType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(resource);
+        return serveSharedItem(linkToken, request, response);
     }
 
     @DeleteMapping("/api/shared/{shareId}")
     @Operation(
             summary = "Revoke shared link",
-            description = "Revoke a shared link. User must own the shared file/folder."
+            description = "Revoke a shared link. User must own the shared file/folder. With signed URLs enabled, "
+                    + "revoking a file share revokes all shares of that file."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Share revoked successfully"),
@@ -209,24 +172,24 @@ public class SharedLinkController {
     @GetMapping("/api/shared/my-shares")
     @Operation(
             summary = "Get my shares",
-            description = "Get all shared links created by the authenticated user"
+            description = "Get one page of the shared links created by the authenticated user, newest first"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Shares retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "401", description = "User not authenticated")
     })
-    public ResponseEntity<List<ShareResponse>> getMyShares(Authentication authentication) {
+    public ResponseEntity<SharePageResponse> getMyShares(
+            @ParameterObject SharePageRequest pageRequest,
+
+            Authentication authentication) {
 
         log.info("Get my shares request by user: {}", authentication.getName());
 
         Long userId = getCurrentUserId(authentication);
-        List<SharedLink> shares = sharedLinkService.getUserShares(userId);
+        SharePageResponse page = sharedLinkService.getUserSharesPage(userId, pageRequest);
 
-        List<ShareResponse> response = shares.stream()
-                .map(share -> mapToShareResponse(share, share.getFile() != null ? "file" : "folder"))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/public/shared/{linkToken}/info")
@@ -252,6 +215,32 @@ public class SharedLinkController {
     }
 
     // Helper methods
+    private ResponseEntity<StreamingResponseBody> serveSharedItem(String linkToken, HttpServletRequest request,
+                                                                  HttpServletResponse response) throws IOException {
+
+        ResolvedShare share = sharedLinkService.resolveSharedItem(linkToken);
+
+        if (share.isFile()) {
+            // File download - Range aware, written synchronously so sendfile can be used
+            fileDownloadService.streamFile(
+                    share.physicalPath(),
+                    share.itemName(),
+                    share.mimeType(),
+                    request,
+                    response
+            );
+            return null; // response already written by the download engine
+        }
+
+        // Folder download (ZIP) - streamed to the client while it is being built
+        StreamingResponseBody body = sharedLinkService.streamFolderAsZip(share);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + share.itemName() + ".zip\"")
+                .body(body);
+    }
+
     private Long getCurrentUserId(Authentication authentication) {
         AppUser user = (AppUser) authentication.getPrincipal();
         return user.getId();
@@ -269,7 +258,7 @@ public class SharedLinkController {
         return ShareResponse.builder()
                 .shareId(sharedLink.getId())
                 .linkToken(sharedLink.getLinkToken())
-                .shareUrl("http://localhost:8080/public/shared/" + sharedLink.getLinkToken())
+                .shareUrl(sharedLinkService.shareUrl(sharedLink))
                 .itemType(type)
                 .itemName(itemName)
                 .itemId(itemId)
@@ -291,8 +280,8 @@ public class SharedLinkController {
 
         String url = shareUrl.trim();
 
-        // If it's just a token (UUID format), return as-is
-        if (url.matches("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$")) {
+        // If it's just a token (UUID or signed format), return as-is
+        if (isShareToken(url)) {
             return url;
         }
 
@@ -305,8 +294,8 @@ public class SharedLinkController {
                 lastPart = lastPart.split("\\?")[0];
             }
 
-            // Validate it's a UUID format
-            if (lastPart.matches("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$")) {
+            // Validate it's a UUID or signed token
+            if (isShareToken(lastPart)) {
                 return lastPart;
             }
         }
@@ -314,4 +303,8 @@ public class SharedLinkController {
         throw new IllegalArgumentException("Invalid share URL format: " + shareUrl);
     }
 
-}
\ No newline at end of file
+    private boolean isShareToken(String token) {
+        return token.matches("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$")
+                || token.matches("^s1\\.[0-9.]+\\.[A-Za-z0-9_-]+$");
+    }
+}
@@ -7,7 +7,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "files")
+@Table(name = "files", indexes = {
+        // Keyset listing: one index per scope and sort key, id as tiebreaker
+        @Index(name = "IDX_files_storage_path_name", columnList = "storage_path_id, display_name, id"),
+        @Index(name = "IDX_files_storage_path_size", columnList = "storage_path_id, size, id"),
+        @Index(name = "IDX_files_storage_path_created", columnList = "storage_path_id, created_at, id"),
+        @Index(name = "IDX_files_folder_name", columnList = "folder_id, display_name, id"),
+        @Index(name = "IDX_files_folder_size", columnList = "folder_id, size, id"),
+        @Index(name = "IDX_files_folder_created", columnList = "folder_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,14 +32,26 @@ public class File {
     @Column(nullable = false, unique = true)
     private String physicalName;
     
+    // BlobStore key of the content - the shared blob's key when the file is deduplicated
     @Column(nullable = false)
     private String physicalPath;
-    
+
+    // Null for files stored before content deduplication
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_id")
+    @ToString.Exclude
+    @JsonIgnore
+    private FileBlob blob;
+
     @Column(nullable = false)
     private Long size;
     
     private String mimeType;
     
+    // Part of every signed share URL for this file; bumping it revokes them all
+    @Column(nullable = false)
+    private Integer shareEpoch;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -57,6 +77,9 @@ public class File {
     
     @PrePersist
     protected void onCreate() {
+        if (shareEpoch == null) {
+            shareEpoch = 0;
+        }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
@@ -0,0 +1,41 @@
+package com.cerebra.secure_file_sharing_app.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "file_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the content - one row per distinct content
+    @Column(nullable = false, unique = true, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // BlobStore key; rows written before the blob store hold an absolute local path
+    @Column(nullable = false, unique = true)
+    private String physicalPath;
+
+    // Number of File rows pointing here; only changed through atomic repository updates
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
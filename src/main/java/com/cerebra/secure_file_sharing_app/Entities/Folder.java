@@ -4,22 +4,50 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "folders")
+@Table(name = "folders", uniqueConstraints = {
+        // Case-insensitive sibling names; parent_scope rather than the nullable parent id, since
+        // NULLs never collide in a unique index and root-level names would go unchecked
+        @UniqueConstraint(name = Folder.SIBLING_NAME_CONSTRAINT,
+                columnNames = {"storage_path_id", "parent_scope", "normalized_name"})
+}, indexes = {
+        // Subtree reads are a prefix range scan on the materialized path
+        @Index(name = "IDX_folders_path", columnList = "path"),
+        @Index(name = "IDX_folders_storage_path_depth", columnList = "storage_path_id, depth")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Folder {
-    
+
+    public static final String SIBLING_NAME_CONSTRAINT = "UK_folders_sibling_name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     @Column(nullable = false)
     private String name;
+
+    // Derived from name on every write; what sibling uniqueness is checked against
+    @Column(nullable = false)
+    private String normalizedName;
+
+    // Parent folder id, 0 at the root level; derived from parentFolder on every write
+    @Column(nullable = false)
+    private Long parentScope;
     
+    // Ids from the root down to this folder, e.g. "/3/17/42/"; its subtree is every path with this prefix
+    @Column(nullable = false, length = 760)
+    private String path;
+
+    // 0 for a root folder
+    @Column(nullable = false)
+    private Integer depth;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -48,11 +76,34 @@ public class Folder {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        depth = parentFolder != null ? parentFolder.getDepth() + 1 : 0;
+        path = parentFolder != null ? parentFolder.getPath() : "/";
+        deriveSiblingKey();
+    }
+
+    // The id only exists once the row is inserted; the save that inserted it flushes the completed path
+    @PostPersist
+    protected void onPersisted() {
+        path = path + id + "/";
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        deriveSiblingKey();
+    }
+
+    private void deriveSiblingKey() {
+        normalizedName = normalizeName(name);
+        parentScope = parentScopeOf(parentFolder != null ? parentFolder.getId() : null);
+    }
+
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static long parentScopeOf(Long parentFolderId) {
+        return parentFolderId != null ? parentFolderId : 0L;
     }
     
     public Folder(String name, StoragePath storagePath) {
@@ -0,0 +1,28 @@
+package com.cerebra.secure_file_sharing_app.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Storage still to be freed for a file row that is already gone; plain ids so the row can be deleted first
+@Entity
+@Table(name = "reclaim_queue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReclaimTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // One reference to drop on the shared blob
+    private Long blobId;
+
+    // Content key of a file stored before deduplication; null when blobId is set
+    private String physicalPath;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
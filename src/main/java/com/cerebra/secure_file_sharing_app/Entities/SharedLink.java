@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shared_links")
+@Table(name = "shared_links", indexes = {
+        // "My shares" listing: newest first within one owner, id as tiebreaker
+        @Index(name = "IDX_shared_links_storage_path_created", columnList = "storage_path_id, created_at, id"),
+        // Expiry sweeper range scan
+        @Index(name = "IDX_shared_links_expires_at", columnList = "expires_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,6 +40,12 @@ public class SharedLink {
     @ToString.Exclude
     private Folder folder;
 
+    // Owner of the shared item, copied on creation so listings never join through file or folder
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "storage_path_id", nullable = false)
+    @ToString.Exclude
+    private StoragePath storagePath;
+
     // Single @PrePersist method combining both responsibilities
     @PrePersist
     protected void onCreate() {
@@ -45,6 +56,10 @@ public class SharedLink {
         if ((file == null && folder == null) || (file != null && folder != null)) {
             throw new IllegalStateException("SharedLink must reference either a file or a folder, but not both");
         }
+
+        if (storagePath == null) {
+            storagePath = file != null ? file.getStoragePath() : folder.getStoragePath();
+        }
     }
 
     // Keep @PreUpdate separate for updates
@@ -0,0 +1,118 @@
+package com.cerebra.secure_file_sharing_app.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+@Entity
+@Table(name = "upload_sessions",
+        indexes = {
+                @Index(name = "IDX_upload_sessions_status_expires", columnList = "status, expires_at"),
+                @Index(name = "IDX_upload_sessions_status_updated", columnList = "status, updated_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    // COMPLETING is held by the one completeUpload call that claimed the session
+    public enum Status { IN_PROGRESS, COMPLETING, COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String uploadId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private String mimeType;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    @Column(nullable = false)
+    private Integer chunkCount;
+
+    // One bit per chunk, set once the chunk is fully on disk
+    @Column(nullable = false, length = 8192)
+    @ToString.Exclude
+    private byte[] receivedChunks;
+
+    @Column(nullable = false)
+    private Long receivedBytes;
+
+    @Column(nullable = false, unique = true)
+    private String physicalName;
+
+    @Column(nullable = false)
+    private String physicalPath;
+
+    // Plain id rather than a relation so folders can still be deleted mid-upload
+    private Long folderId;
+
+    private Long fileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "storage_path_id", nullable = false)
+    @ToString.Exclude
+    private StoragePath storagePath;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isChunkReceived(int index) {
+        return BitSet.valueOf(receivedChunks).get(index);
+    }
+
+    public void markChunkReceived(int index, long length) {
+        BitSet bits = BitSet.valueOf(receivedChunks);
+        if (!bits.get(index)) {
+            bits.set(index);
+            byte[] updated = new byte[receivedChunks.length];
+            byte[] packed = bits.toByteArray();
+            System.arraycopy(packed, 0, updated, 0, packed.length);
+            receivedChunks = updated;
+            receivedBytes += length;
+        }
+    }
+
+    public boolean isComplete() {
+        return BitSet.valueOf(receivedChunks).cardinality() == chunkCount;
+    }
+
+    public boolean isExpired() {
+        return status == Status.IN_PROGRESS && LocalDateTime.now().isAfter(expiresAt);
+    }
+}
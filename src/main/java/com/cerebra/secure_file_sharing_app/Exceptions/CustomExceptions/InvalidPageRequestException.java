@@ -0,0 +1,7 @@
+package com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+    public UploadSessionNotFoundException(String message) {
+        super(message);
+    }
+}
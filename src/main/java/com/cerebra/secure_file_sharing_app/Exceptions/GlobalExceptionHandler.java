@@ -45,7 +45,8 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
-    @ExceptionHandler({FileNotFoundException.class, FolderNotFoundException.class, ShareNotFoundException.class})
+    @ExceptionHandler({FileNotFoundException.class, FolderNotFoundException.class, ShareNotFoundException.class,
+            UploadSessionNotFoundException.class})
     public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException ex, WebRequest request) {
         log.warn("Resource not found: {}", ex.getMessage());
         ErrorResponse error = ErrorResponse.builder()
@@ -69,7 +70,7 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
     }
 
-    @ExceptionHandler({FileStorageException.class, InvalidFolderNameException.class})
+    @ExceptionHandler({FileStorageException.class, InvalidFolderNameException.class, InvalidPageRequestException.class})
     public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex, WebRequest request) {
         log.warn("Bad request: {}", ex.getMessage());
         ErrorResponse error = ErrorResponse.builder()
@@ -0,0 +1,44 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, Long> {
+    Optional<FileBlob> findBySha256(String sha256);
+
+    // Scalar query so a stale cached entity is never consulted
+    @Query("SELECT b.physicalPath FROM FileBlob b WHERE b.id = :id")
+    Optional<String> findPhysicalPathById(@Param("id") Long id);
+
+    // A blob at zero references is being reclaimed and must not be revived
+    @Transactional
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.id = :id AND b.refCount > 0")
+    int incrementRefCount(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.id = :id AND b.refCount > 0")
+    int decrementRefCount(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FileBlob b WHERE b.id = :id AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+
+    // One more reference per file under the path, in one statement; blobs already at zero are left alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + " +
+            "(SELECT COUNT(f) FROM File f JOIN f.folder d WHERE f.blob = b AND d.path LIKE CONCAT(:path, '%')) " +
+            "WHERE b.refCount > 0 AND b.id IN (SELECT f.blob.id FROM File f JOIN f.folder d WHERE d.path LIKE CONCAT(:path, '%'))")
+    int retainSubtree(@Param("path") String path);
+}
@@ -0,0 +1,18 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Shared.FileSortField;
+
+/**
+ * One keyset page of files. Exactly one scope applies: a whole storage path,
+ * only its root files, or a single folder. {@code afterKey}/{@code afterId} are the
+ * sort key and id of the last row of the previous page, or null for the first page.
+ */
+public record FileListingQuery(Long storagePathId,
+                               Long folderId,
+                               boolean rootOnly,
+                               FileSortField sort,
+                               boolean descending,
+                               Comparable<?> afterKey,
+                               Long afterId,
+                               int limit) {
+}
@@ -1,16 +1,69 @@
 package com.cerebra.secure_file_sharing_app.Repositories;
 
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FileRepository extends JpaRepository<File, Long> {
+public interface FileRepository extends JpaRepository<File, Long>, FileRepositoryCustom {
     List<File> findByStoragePathId(Long storagePathId);
     List<File> findByFolderId(Long folderId);
     List<File> findByStoragePathIdAndFolderIsNull(Long storagePathId);
     Optional<File> findByPhysicalName(String physicalName);
+    List<File> findByFolderIdIn(Collection<Long> folderIds);
+
+    // Ownership check and fetch in one query: primary key plus the storage path's user key
+    @Query("SELECT f FROM File f WHERE f.id = :fileId AND f.storagePath.appUser.id = :userId")
+    Optional<File> findOwnedFile(@Param("fileId") Long fileId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE File f SET f.shareEpoch = f.shareEpoch + 1 WHERE f.id = :id")
+    int incrementShareEpoch(@Param("id") Long id);
+
+    // Files stored before deduplication, walked by id so a file that cannot be moved is not retried forever
+    List<File> findByBlobIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Only swaps the content if the row still points where the migrator read it from
+    @Transactional
+    @Modifying
+    @Query("UPDATE File f SET f.blob = :blob, f.physicalPath = :key " +
+            "WHERE f.id = :id AND f.blob IS NULL AND f.physicalPath = :legacyPath")
+    int attachBlob(@Param("id") Long id, @Param("blob") FileBlob blob,
+                   @Param("key") String key, @Param("legacyPath") String legacyPath);
+
+    // Recursive folder delete: every file under the path in one statement
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM File f WHERE f.folder.id IN (SELECT d.id FROM Folder d WHERE d.path LIKE CONCAT(:path, '%'))")
+    int deleteBySubtree(@Param("path") String path);
+
+    // Folder copy: clones a folder's deduplicated files onto the same blobs without reading any content.
+    // The physical name only has to be unique; source file and fresh target folder make it so
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO files (display_name, physical_name, physical_path, blob_id, size, mime_type, " +
+            "share_epoch, created_at, updated_at, storage_path_id, folder_id) " +
+            "SELECT f.display_name, CONCAT('copy-', :targetFolderId, '-', f.id), f.physical_path, f.blob_id, f.size, " +
+            "f.mime_type, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, f.storage_path_id, :targetFolderId " +
+            "FROM files f WHERE f.folder_id = :sourceFolderId AND f.blob_id IS NOT NULL",
+            nativeQuery = true)
+    int copyBlobFilesToFolder(@Param("sourceFolderId") Long sourceFolderId, @Param("targetFolderId") Long targetFolderId);
+
+    @Query("SELECT COUNT(DISTINCT f.blob.id) FROM File f JOIN f.folder d WHERE d.path LIKE CONCAT(:path, '%')")
+    long countDistinctBlobsInSubtree(@Param("path") String path);
+
+    // Files from before deduplication have no blob to share
+    @Query("SELECT f FROM File f JOIN f.folder d WHERE f.blob IS NULL AND d.path LIKE CONCAT(:path, '%')")
+    List<File> findLegacyInSubtree(@Param("path") String path);
 }
@@ -0,0 +1,9 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
+
+import java.util.List;
+
+public interface FileRepositoryCustom {
+    List<FileSummaryResponse> findPage(FileListingQuery query);
+}
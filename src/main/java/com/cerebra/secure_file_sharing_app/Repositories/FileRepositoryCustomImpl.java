@@ -0,0 +1,74 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FileRepositoryCustomImpl implements FileRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FileSummaryResponse> findPage(FileListingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FileSummaryResponse> cq = cb.createQuery(FileSummaryResponse.class);
+        Root<File> file = cq.from(File.class);
+
+        // Foreign key columns only - no joins to folders or storage_paths
+        Path<Long> folderId = file.get("folder").get("id");
+        Path<Comparable<Object>> key = file.get(query.sort().getAttribute());
+        Path<Long> id = file.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.storagePathId() != null) {
+            predicates.add(cb.equal(file.get("storagePath").get("id"), query.storagePathId()));
+        }
+        if (query.folderId() != null) {
+            predicates.add(cb.equal(folderId, query.folderId()));
+        }
+        if (query.rootOnly()) {
+            predicates.add(cb.isNull(folderId));
+        }
+        if (query.afterId() != null) {
+            predicates.add(after(cb, key, id, query));
+        }
+
+        cq.select(cb.construct(FileSummaryResponse.class,
+                        id,
+                        file.get("displayName"),
+                        file.get("size"),
+                        file.get("mimeType"),
+                        folderId,
+                        file.get("createdAt"),
+                        file.get("updatedAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(query.descending()
+                        ? List.of(cb.desc(key), cb.desc(id))
+                        : List.of(cb.asc(key), cb.asc(id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.limit())
+                .getResultList();
+    }
+
+    // (key, id) strictly past the cursor, spelled out so it can use the (scope, key, id) indexes
+    @SuppressWarnings("unchecked")
+    private Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Long> id, FileListingQuery query) {
+        Comparable<Object> afterKey = (Comparable<Object>) query.afterKey();
+
+        if (query.descending()) {
+            return cb.or(
+                    cb.lessThan(key, afterKey),
+                    cb.and(cb.equal(key, afterKey), cb.lessThan(id, query.afterId())));
+        }
+        return cb.or(
+                cb.greaterThan(key, afterKey),
+                cb.and(cb.equal(key, afterKey), cb.greaterThan(id, query.afterId())));
+    }
+}
@@ -2,19 +2,80 @@ package com.cerebra.secure_file_sharing_app.Repositories;
 
 import com.cerebra.secure_file_sharing_app.Entities.File;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderFileCountView;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FolderRepository extends JpaRepository<Folder, Long> {
     List<Folder> findByStoragePathId(Long storagePathId);
     List<Folder> findByParentFolderId(Long parentFolderId);
     List<Folder> findByStoragePathIdAndParentFolderIsNull(Long storagePathId);
+    boolean existsByStoragePathIdAndParentScopeAndNormalizedName(Long storagePathId, Long parentScope, String normalizedName);
 
     @Query("SELECT f FROM File f WHERE f.folder.id = :folderId")
     List<File> findFilesByFolderId(@Param("folderId") Long folderId);
+
+    // Ownership check and fetch in one query: primary key plus the storage path's user key
+    @Query("SELECT f FROM Folder f WHERE f.id = :folderId AND f.storagePath.appUser.id = :userId")
+    Optional<Folder> findOwnedFolder(@Param("folderId") Long folderId, @Param("userId") Long userId);
+
+    // Whole subtree (root included) as one range scan on the path index
+    @Query("SELECT f.id AS id, p.id AS parentFolderId, f.name AS name, f.depth AS depth " +
+            "FROM Folder f LEFT JOIN f.parentFolder p WHERE f.path LIKE CONCAT(:path, '%')")
+    List<FolderNodeView> findSubtree(@Param("path") String path);
+
+    @Query("SELECT f.id AS id, p.id AS parentFolderId, f.name AS name, f.depth AS depth " +
+            "FROM Folder f LEFT JOIN f.parentFolder p WHERE f.path LIKE CONCAT(:path, '%') AND f.depth <= :maxDepth " +
+            "ORDER BY f.depth")
+    List<FolderNodeView> findSubtreeToDepth(@Param("path") String path, @Param("maxDepth") int maxDepth);
+
+    // Every folder a user owns down to a depth, root levels first
+    @Query("SELECT f.id AS id, p.id AS parentFolderId, f.name AS name, f.depth AS depth " +
+            "FROM Folder f LEFT JOIN f.parentFolder p WHERE f.storagePath.id = :storagePathId AND f.depth <= :maxDepth " +
+            "ORDER BY f.depth")
+    List<FolderNodeView> findTreeToDepth(@Param("storagePathId") Long storagePathId, @Param("maxDepth") int maxDepth);
+
+    // Files directly in each folder of a user's tree, counted in one grouped scan
+    @Query("SELECT d.id AS folderId, COUNT(f) AS fileCount FROM File f JOIN f.folder d " +
+            "WHERE d.storagePath.id = :storagePathId AND d.depth <= :maxDepth GROUP BY d.id")
+    List<FolderFileCountView> countFilesInTree(@Param("storagePathId") Long storagePathId, @Param("maxDepth") int maxDepth);
+
+    @Query("SELECT d.id AS folderId, COUNT(f) AS fileCount FROM File f JOIN f.folder d " +
+            "WHERE d.path LIKE CONCAT(:path, '%') AND d.depth <= :maxDepth GROUP BY d.id")
+    List<FolderFileCountView> countFilesInSubtree(@Param("path") String path, @Param("maxDepth") int maxDepth);
+
+    // Ancestor ids come from the path itself, so breadcrumbs are one primary-key lookup
+    List<Folder> findByIdInOrderByDepthAsc(Collection<Long> ids);
+
+    @Query("SELECT MAX(f.depth) FROM Folder f WHERE f.path LIKE CONCAT(:path, '%')")
+    int findMaxSubtreeDepth(@Param("path") String path);
+
+    // Re-roots a moved subtree: swaps the old path prefix for the new one on every row under it
+    @Transactional
+    @Modifying
+    @Query("UPDATE Folder f SET f.path = CONCAT(:newPath, SUBSTRING(f.path, LENGTH(:oldPath) + 1)), " +
+            "f.depth = f.depth + :depthDelta WHERE f.path LIKE CONCAT(:oldPath, '%')")
+    int rebaseSubtree(@Param("oldPath") String oldPath, @Param("newPath") String newPath,
+                      @Param("depthDelta") int depthDelta);
+
+    // Cuts parent links first so the bulk delete does not trip the self-reference in row order
+    @Transactional
+    @Modifying
+    @Query("UPDATE Folder f SET f.parentFolder = NULL WHERE f.path LIKE CONCAT(:path, '%')")
+    int detachSubtree(@Param("path") String path);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Folder f WHERE f.path LIKE CONCAT(:path, '%')")
+    int deleteSubtree(@Param("path") String path);
 }
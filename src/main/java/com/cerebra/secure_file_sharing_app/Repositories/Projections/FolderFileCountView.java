@@ -0,0 +1,9 @@
+package com.cerebra.secure_file_sharing_app.Repositories.Projections;
+
+/**
+ * Number of files directly inside one folder, from a grouped count.
+ */
+public interface FolderFileCountView {
+    Long getFolderId();
+    Long getFileCount();
+}
@@ -0,0 +1,11 @@
+package com.cerebra.secure_file_sharing_app.Repositories.Projections;
+
+/**
+ * Lightweight folder row (no entity graph) used when walking folder trees.
+ */
+public interface FolderNodeView {
+    Long getId();
+    Long getParentFolderId();
+    String getName();
+    Integer getDepth();
+}
@@ -0,0 +1,19 @@
+package com.cerebra.secure_file_sharing_app.Repositories.Projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's share listing, with the shared item's name joined in.
+ * Exactly one of the file or folder columns is set.
+ */
+public interface ShareListingView {
+    Long getShareId();
+    String getLinkToken();
+    Long getFileId();
+    String getFileName();
+    Integer getFileShareEpoch();
+    Long getFolderId();
+    String getFolderName();
+    LocalDateTime getExpiresAt();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,34 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.ReclaimTask;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ReclaimTaskRepository extends JpaRepository<ReclaimTask, Long> {
+
+    // One task per file under the path, copied server-side so no file row is loaded
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO reclaim_queue (blob_id, physical_path, created_at) " +
+            "SELECT f.blob_id, CASE WHEN f.blob_id IS NULL THEN f.physical_path END, CURRENT_TIMESTAMP " +
+            "FROM files f JOIN folders d ON f.folder_id = d.id WHERE d.path LIKE CONCAT(:path, '%')",
+            nativeQuery = true)
+    int enqueueSubtree(@Param("path") String path);
+
+    @Query("SELECT t FROM ReclaimTask t ORDER BY t.id")
+    List<ReclaimTask> findBatch(Limit limit);
+
+    // Taking the row is the claim; 0 means another reclaimer got it first
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReclaimTask t WHERE t.id = :id")
+    int claim(@Param("id") Long id);
+}
@@ -0,0 +1,40 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.SMSOutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SMSOutboxRepository extends JpaRepository<SMSOutboxMessage, Long> {
+
+    @Query("SELECT m FROM SMSOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now " +
+            "ORDER BY m.nextAttemptAt, m.id")
+    List<SMSOutboxMessage> findDue(@Param("status") SMSOutboxMessage.Status status,
+                                   @Param("now") LocalDateTime now,
+                                   Limit limit);
+
+    // Pushes the message past the lease so no other dispatcher picks it up; 0 means someone else did
+    @Transactional
+    @Modifying
+    @Query("UPDATE SMSOutboxMessage m SET m.nextAttemptAt = :leaseUntil " +
+            "WHERE m.id = :id AND m.status = :status AND m.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("status") SMSOutboxMessage.Status status,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SMSOutboxMessage m WHERE m.status IN :statuses AND m.updatedAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<SMSOutboxMessage.Status> statuses,
+                             @Param("cutoff") LocalDateTime cutoff);
+}
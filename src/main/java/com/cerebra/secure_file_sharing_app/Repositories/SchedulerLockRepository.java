@@ -0,0 +1,41 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Takes over a lease that has run out; 0 means another node still holds it
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedBy = :owner " +
+            "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Plain insert rather than save(), which would merge into a row another node just created
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_until, locked_by) VALUES (:name, :lockedUntil, :owner)",
+            nativeQuery = true)
+    int create(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
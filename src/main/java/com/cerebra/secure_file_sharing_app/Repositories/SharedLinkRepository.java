@@ -1,8 +1,14 @@
 package com.cerebra.secure_file_sharing_app.Repositories;
 
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.ShareListingView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +16,48 @@ import java.util.Optional;
 @Repository
 public interface SharedLinkRepository extends JpaRepository<SharedLink, Long> {
     Optional<SharedLink> findByLinkToken(String linkToken);
+
+    // Public downloads: the link and its item in one query
+    @Query("SELECT s FROM SharedLink s LEFT JOIN FETCH s.file LEFT JOIN FETCH s.folder WHERE s.linkToken = :linkToken")
+    Optional<SharedLink> findWithItemByLinkToken(@Param("linkToken") String linkToken);
     List<SharedLink> findByFileId(Long fileId);
-    List<SharedLink> findByExpiresAtBefore(LocalDateTime dateTime);
+
+    @Query("SELECT s.id FROM SharedLink s WHERE s.file.id = :fileId")
+    List<Long> findIdsByFileId(@Param("fileId") Long fileId);
+
+    // Oldest expired links first, read from IDX_shared_links_expires_at without loading entities
+    @Query("SELECT s.id FROM SharedLink s WHERE s.expiresAt < :now ORDER BY s.expiresAt, s.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Re-checks expiry so a link extended since the id scan is kept
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SharedLink s WHERE s.id IN :ids AND s.expiresAt < :now")
+    int deleteExpiredByIds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    String SHARE_LISTING = "SELECT s.id AS shareId, s.linkToken AS linkToken," +
+            " fi.id AS fileId, fi.displayName AS fileName, fi.shareEpoch AS fileShareEpoch, fo.id AS folderId, fo.name AS folderName," +
+            " s.expiresAt AS expiresAt, s.createdAt AS createdAt" +
+            " FROM SharedLink s LEFT JOIN s.file fi LEFT JOIN s.folder fo" +
+            " WHERE s.storagePath.id = :storagePathId";
+
+    String NEWEST_FIRST = " ORDER BY s.createdAt DESC, s.id DESC";
+
+    // Keyset pages over IDX_shared_links_storage_path_created
+    @Query(SHARE_LISTING + NEWEST_FIRST)
+    List<ShareListingView> findSharePage(@Param("storagePathId") Long storagePathId, Limit limit);
+
+    @Query(SHARE_LISTING +
+            " AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id))" + NEWEST_FIRST)
+    List<ShareListingView> findSharePageAfter(@Param("storagePathId") Long storagePathId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // Links to any folder under the path or to any file inside those folders
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SharedLink s WHERE s.folder.id IN (SELECT d.id FROM Folder d WHERE d.path LIKE CONCAT(:path, '%'))" +
+            " OR s.file.id IN (SELECT f.id FROM File f JOIN f.folder d WHERE d.path LIKE CONCAT(:path, '%'))")
+    int deleteBySubtree(@Param("path") String path);
 }
@@ -0,0 +1,70 @@
+package com.cerebra.secure_file_sharing_app.Repositories;
+
+import com.cerebra.secure_file_sharing_app.Entities.UploadSession;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+    Optional<UploadSession> findByUploadId(String uploadId);
+
+    List<UploadSession> findByStatusAndExpiresAtBeforeOrderById(UploadSession.Status status, LocalDateTime cutoff, Limit limit);
+
+    // Transitions stamp updated_at, so it tells how long a session has been in its status
+    List<UploadSession> findByStatusAndUpdatedAtBeforeOrderById(UploadSession.Status status, LocalDateTime cutoff, Limit limit);
+
+    @Query("SELECT u.id FROM UploadSession u WHERE u.status = :status AND u.updatedAt < :cutoff ORDER BY u.id")
+    List<Long> findIdsUpdatedBefore(@Param("status") UploadSession.Status status,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    Limit limit);
+
+    // The version bump makes a concurrent chunk save with the old status fail and reload
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession u SET u.status = :to, u.updatedAt = :now, u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") UploadSession.Status from,
+                   @Param("to") UploadSession.Status to,
+                   @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession u SET u.status = :to, u.fileId = :fileId, u.updatedAt = :now, u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.status = :from")
+    int transitionWithFile(@Param("id") Long id,
+                           @Param("from") UploadSession.Status from,
+                           @Param("to") UploadSession.Status to,
+                           @Param("fileId") Long fileId,
+                           @Param("now") LocalDateTime now);
+
+    // Taking the row is the claim; 0 means the session was completed or removed meanwhile
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadSession u WHERE u.id = :id AND u.status = :status")
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("status") UploadSession.Status status);
+
+    // Re-checks the claim age so a completion that finished or was handed back meanwhile is kept
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadSession u WHERE u.id = :id AND u.status = :status AND u.updatedAt < :cutoff")
+    int deleteStale(@Param("id") Long id,
+                    @Param("status") UploadSession.Status status,
+                    @Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadSession u WHERE u.id IN :ids AND u.status = :status AND u.updatedAt < :cutoff")
+    int deleteStaleByIds(@Param("ids") List<Long> ids,
+                         @Param("status") UploadSession.Status status,
+                         @Param("cutoff") LocalDateTime cutoff);
+}
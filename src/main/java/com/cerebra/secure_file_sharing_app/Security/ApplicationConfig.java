@@ -17,9 +17,11 @@ public class ApplicationConfig {
 
     private final AppUserRepository userRepository;
 
+    private final PrincipalCache principalCache;
+
     @Bean
     public UserDetailsService userDetailsService(){
-        return phoneNumber -> userRepository.findByPhoneNumber(phoneNumber)
+        return phoneNumber -> principalCache.get(phoneNumber, () -> userRepository.findByPhoneNumber(phoneNumber))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with phone: " + phoneNumber));
     }
 
@@ -2,16 +2,24 @@ package com.cerebra.secure_file_sharing_app.Security.JWT;
 
 import com.cerebra.secure_file_sharing_app.Security.SecurityUtils;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
@@ -27,6 +35,54 @@ public class JwtService {
         }
     }
 
+    // Decoded once - the key never changes for the lifetime of the process
+    private final SecretKey signingKey = SecurityUtils.getSignInKey(SECRET_KEY);
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // SHA-256 of the token -> claims, kept until the token's own expiry
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    // 0 disables the cache
+    @Value("${app.jwt.verified-token-cache-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    private record VerifiedToken(Claims claims, long expiresAtMillis) {
+    }
+
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims, or
+     * empty for any invalid token. Recently verified tokens are answered from the
+     * cache without parsing again.
+     */
+    public Optional<Claims> validateToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String digest = verifiedTokenCacheSize > 0 ? digest(token) : null;
+        if (digest != null) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (System.currentTimeMillis() < cached.expiresAtMillis()) {
+                    return Optional.of(cached.claims());
+                }
+                verifiedTokens.remove(digest, cached);
+            }
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty(); // Any JWT parsing exception means invalid token
+        }
+
+        if (digest != null && claims.getExpiration() != null) {
+            remember(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return Optional.of(claims);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -37,17 +93,11 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token){
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private SecretKey getSignInKey() {
-        return SecurityUtils.getSignInKey(SECRET_KEY);
-    }
-
     public String generateToken(UserDetails userDetails){
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -62,28 +112,39 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-                .signWith(SignatureAlgorithm.HS256, getSignInKey())
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        if (token == null || token.trim().isEmpty() || userDetails == null) {
+        if (userDetails == null) {
             return false;
         }
 
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false; // Any JWT parsing exception means invalid token
-        }
+        // The parser rejects expired tokens, so valid claims are also unexpired
+        return validateToken(token)
+                .map(claims -> userDetails.getUsername().equals(claims.getSubject()))
+                .orElse(false);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void remember(String digest, VerifiedToken token) {
+        if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+                // Full of live tokens - skip caching rather than grow without bound
+                return;
+            }
+        }
+        verifiedTokens.put(digest, token);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package com.cerebra.secure_file_sharing_app.Security.OTP;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node OTP store. Entries are bounded in total and per phone number, and a
+ * scheduled sweep removes abandoned codes so unverified requests cannot pile up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOTPStore implements OTPStore {
+
+    private final Map<String, OTPEntry> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.otp.max-entries:100000}")
+    private int maxEntries;
+
+    // Codes a phone may request per window, resends included
+    @Value("${app.otp.max-requests-per-phone:5}")
+    private int maxRequestsPerPhone;
+
+    @Value("${app.otp.request-window-seconds:900}")
+    private long requestWindowSeconds;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    // A null otp means the code was revoked or used up but the request count still applies
+    private record OTPEntry(String otp, long expiresAtMillis, int attempts,
+                            int requests, long windowEndsAtMillis) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+
+        boolean isEvictable(long now) {
+            return isExpired(now) && now >= windowEndsAtMillis;
+        }
+
+        OTPEntry withoutCode() {
+            return new OTPEntry(null, expiresAtMillis, attempts, requests, windowEndsAtMillis);
+        }
+    }
+
+    @Override
+    public boolean issue(String phoneNumber, String otp, Duration ttl) {
+        if (entries.size() >= maxEntries && !entries.containsKey(phoneNumber)) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                log.warn("OTP store full ({} entries), rejecting request for {}", maxEntries, phoneNumber);
+                return false;
+            }
+        }
+
+        boolean[] accepted = {true};
+        entries.compute(phoneNumber, (phone, current) -> {
+            long now = System.currentTimeMillis();
+            long expiresAt = now + ttl.toMillis();
+            if (current == null || now >= current.windowEndsAtMillis()) {
+                return new OTPEntry(otp, expiresAt, 0, 1, now + requestWindowSeconds * 1000);
+            }
+            if (current.requests() >= maxRequestsPerPhone) {
+                accepted[0] = false;
+                return current;
+            }
+            return new OTPEntry(otp, expiresAt, 0, current.requests() + 1, current.windowEndsAtMillis());
+        });
+
+        if (!accepted[0]) {
+            log.warn("OTP request limit reached for {}", phoneNumber);
+        }
+        return accepted[0];
+    }
+
+    @Override
+    public VerifyResult verify(String phoneNumber, String otp) {
+        VerifyResult[] result = {VerifyResult.NOT_FOUND};
+        entries.computeIfPresent(phoneNumber, (phone, current) -> {
+            long now = System.currentTimeMillis();
+            if (current.otp() == null) {
+                return current;
+            }
+            if (current.isExpired(now)) {
+                result[0] = VerifyResult.EXPIRED;
+                return current.withoutCode();
+            }
+            if (current.otp().equals(otp)) {
+                result[0] = VerifyResult.VERIFIED;
+                return current.withoutCode();
+            }
+
+            int attempts = current.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                result[0] = VerifyResult.TOO_MANY_ATTEMPTS;
+                return current.withoutCode();
+            }
+            result[0] = VerifyResult.MISMATCH;
+            return new OTPEntry(current.otp(), current.expiresAtMillis(), attempts,
+                    current.requests(), current.windowEndsAtMillis());
+        });
+        return result[0];
+    }
+
+    @Override
+    public void revoke(String phoneNumber) {
+        entries.computeIfPresent(phoneNumber, (phone, current) -> current.withoutCode());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.otp.sweep-interval-ms:60000}")
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map.Entry<String, OTPEntry> entry : entries.entrySet()) {
+            // Conditional remove so a code issued during the sweep survives
+            if (entry.getValue().isEvictable(now) && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Purged {} expired OTP entries", removed);
+        }
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.cerebra.secure_file_sharing_app.Security.OTP;
+
+import java.time.Duration;
+
+/**
+ * Holds outstanding OTPs keyed by phone number. Implementations must make
+ * {@link #issue} and {@link #verify} atomic per phone number, so that a shared
+ * key-value backed store can serve several backend nodes without losing attempts.
+ */
+public interface OTPStore {
+
+    enum VerifyResult {
+        VERIFIED,
+        MISMATCH,
+        EXPIRED,
+        NOT_FOUND,
+        TOO_MANY_ATTEMPTS
+    }
+
+    /**
+     * Stores a new code for the phone number, replacing any previous one.
+     * Returns false when the phone has used up its requests for the current
+     * window or the store is full.
+     */
+    boolean issue(String phoneNumber, String otp, Duration ttl);
+
+    /**
+     * Checks the code and counts the attempt. A verified code is consumed, and a
+     * code that runs out of attempts is discarded.
+     */
+    VerifyResult verify(String phoneNumber, String otp);
+
+    /**
+     * Discards the outstanding code but keeps the request count, so a failed
+     * delivery does not reset the per-phone cap.
+     */
+    void revoke(String phoneNumber);
+
+    /**
+     * Drops entries whose code and request window have both expired.
+     * Returns the number of entries removed.
+     */
+    int purgeExpired();
+}
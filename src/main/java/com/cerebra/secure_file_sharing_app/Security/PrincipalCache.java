@@ -0,0 +1,112 @@
+package com.cerebra.secure_file_sharing_app.Security;
+
+import com.cerebra.secure_file_sharing_app.Entities.AppUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of authenticated principals keyed by phone number, so that
+ * JwtAuthFilter does not hit the database on every request. Entries expire after
+ * the configured TTL and are dropped explicitly whenever a user is saved or deleted.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    // 0 disables the cache
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private record CachedPrincipal(AppUser user, long expiresAtMillis) {
+    }
+
+    public PrincipalCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("app.security.principal.cache")
+                .description("Principal lookups answered from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("app.security.principal.cache")
+                .description("Principal lookups that went to the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.security.principal.cache.size", List.of(), principals);
+    }
+
+    /**
+     * Returns the cached principal for the phone number, or loads it and caches it.
+     * Unknown users are never cached so a later registration is seen immediately.
+     */
+    public Optional<AppUser> get(String phoneNumber, Supplier<Optional<AppUser>> loader) {
+        if (ttlSeconds > 0) {
+            CachedPrincipal cached = principals.get(phoneNumber);
+            if (cached != null) {
+                if (System.currentTimeMillis() < cached.expiresAtMillis()) {
+                    hits.increment();
+                    return Optional.of(copyOf(cached.user()));
+                }
+                principals.remove(phoneNumber, cached);
+            }
+        }
+
+        misses.increment();
+        Optional<AppUser> loaded = loader.get();
+        if (ttlSeconds > 0) {
+            loaded.ifPresent(user -> remember(phoneNumber, user));
+        }
+        return loaded;
+    }
+
+    public void invalidate(String phoneNumber) {
+        if (phoneNumber != null) {
+            principals.remove(phoneNumber);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            principals.values().removeIf(entry -> userId.equals(entry.user().getId()));
+        }
+    }
+
+    public void invalidateAll() {
+        principals.clear();
+    }
+
+    private void remember(String phoneNumber, AppUser user) {
+        if (principals.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            principals.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (principals.size() >= maxSize) {
+                log.debug("Principal cache full ({} entries), not caching {}", maxSize, phoneNumber);
+                return;
+            }
+        }
+        principals.put(phoneNumber, new CachedPrincipal(copyOf(user), System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    // Detached snapshot - callers never share or mutate the cached instance
+    private AppUser copyOf(AppUser user) {
+        return AppUser.builder()
+                .id(user.getId())
+                .phoneNumber(user.getPhoneNumber())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.cerebra.secure_file_sharing_app.Security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stateless share tokens of the form {@code s1.<fileId>.<epoch>.<expiresAt>.<signature>}.
+ * The signature is an HMAC-SHA256 over everything before it, so a token can be checked
+ * with CPU work alone. Tokens are revoked by bumping the file's share epoch, which makes
+ * every token signed for an older epoch stop matching.
+ */
+@Slf4j
+@Service
+public class SignedShareTokenService {
+
+    private static final String VERSION = "s1";
+    private static final Pattern FORMAT = Pattern.compile("^s1\\.\\d{1,19}\\.\\d{1,10}\\.\\d{1,19}\\.[A-Za-z0-9_-]{43}$");
+
+    private final boolean enabled;
+    private final SecretKey signingKey;
+
+    // Initialised once; signing clones it instead of looking the algorithm up again
+    private final Mac prototype;
+
+    public record SignedShare(Long fileId, int epoch, LocalDateTime expiresAt) {
+    }
+
+    public SignedShareTokenService(@Value("${app.share.signed-urls.enabled:false}") boolean enabled,
+                                   @Value("${app.share.signed-urls.secret:}") String secret) {
+        this.enabled = enabled;
+        String key = secret;
+        if (!StringUtils.hasText(key)) {
+            try {
+                key = SecurityUtils.secretKey();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Failed to generate share signing key", e);
+            }
+            if (enabled) {
+                log.warn("app.share.signed-urls.secret is not set - signed share URLs will not survive a restart " +
+                        "or work across nodes");
+            }
+        }
+        this.signingKey = SecurityUtils.getSignInKey(key);
+        this.prototype = newMac();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSignedToken(String token) {
+        return token != null && FORMAT.matcher(token).matches();
+    }
+
+    public String sign(Long fileId, int epoch, LocalDateTime expiresAt) {
+        String payload = VERSION + "." + fileId + "." + epoch + "." + expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return payload + "." + signature(payload);
+    }
+
+    /**
+     * Returns the signed claims when the signature matches, whether or not the token has
+     * expired; empty for anything malformed or tampered with.
+     */
+    public Optional<SignedShare> verify(String token) {
+        if (!isSignedToken(token)) {
+            return Optional.empty();
+        }
+
+        int signatureStart = token.lastIndexOf('.');
+        String payload = token.substring(0, signatureStart);
+        byte[] expected = signature(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+
+        String[] parts = payload.split("\\.");
+        try {
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(Long.parseLong(parts[3])), ZoneId.systemDefault());
+            return Optional.of(new SignedShare(Long.valueOf(parts[1]), Integer.parseInt(parts[2]), expiresAt));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String signature(String payload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac();
+        }
+        byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cerebra.secure_file_sharing_app.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Repositories.AppUserRepository;
+import com.cerebra.secure_file_sharing_app.Security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
@@ -14,10 +15,15 @@ import java.util.Optional;
 public class AppUserServiceImpl implements AppUserService {
     
     private final AppUserRepository appUserRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public AppUser save(AppUser appUser) {
-        return appUserRepository.save(appUser);
+        AppUser saved = appUserRepository.save(appUser);
+        // By id as well, in case the phone number itself changed
+        principalCache.invalidate(appUser.getId());
+        principalCache.invalidate(appUser.getPhoneNumber());
+        return saved;
     }
 
     @Override
@@ -38,6 +44,7 @@ public class AppUserServiceImpl implements AppUserService {
     @Override
     public void deleteById(Long id) {
         appUserRepository.deleteById(id);
+        principalCache.invalidate(id);
     }
 
     @Override
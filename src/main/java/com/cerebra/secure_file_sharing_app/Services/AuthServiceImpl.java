@@ -8,28 +8,29 @@ import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.OTPExpire
 import com.cerebra.secure_file_sharing_app.Security.DTO.AuthResponse;
 import com.cerebra.secure_file_sharing_app.Security.DTO.OTPResponse;
 import com.cerebra.secure_file_sharing_app.Security.JWT.JwtService;
+import com.cerebra.secure_file_sharing_app.Security.OTP.OTPStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
     
-    private final HttpSMSService smsService;
+    private final SMSOutboxService smsOutboxService;
     private final JwtService jwtService;
     private final AppUserService appUserService;
     private final StoragePathService storagePathService;
     private final FolderService folderService;
+    private final OTPStore otpStore;
+
+    private static final Duration OTP_TTL = Duration.ofMinutes(5);
 
-    // In-memory OTP storage - consider Redis for production
-    private final Map<String, OTPSession> otpStorage = new ConcurrentHashMap<>();
     private final Random random = new Random();
     
     @Override
@@ -39,26 +40,23 @@ public class AuthServiceImpl implements AuthService {
         try {
             // Generate 6-digit OTP
             String otp = generateOTP();
-            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(5);
+            LocalDateTime expiresAt = LocalDateTime.now().plus(OTP_TTL);
             
-            // Store OTP in memory
-            otpStorage.put(phoneNumber, new OTPSession(otp, expiresAt));
+            // Store OTP, refused once the phone has used up its requests
+            if (!otpStore.issue(phoneNumber, otp, OTP_TTL)) {
+                return OTPResponse.failure("Too many OTP requests. Please try again later");
+            }
             
-            // Send SMS
+            // Queue SMS - delivery and retries happen off the request thread
             String message = String.format("Your verification code is: %s. Valid for 5 minutes.", otp);
-            var smsResponse = smsService.sendSMS(phoneNumber, message);
+            smsOutboxService.enqueue(phoneNumber, message);
             
-            if (smsResponse.isSuccess()) {
-                log.info("OTP sent successfully to: {}", phoneNumber);
-                return OTPResponse.success(phoneNumber, expiresAt, otp);
-            } else {
-                log.error("Failed to send SMS to {}: {}", phoneNumber, smsResponse.getMessage());
-                otpStorage.remove(phoneNumber); // Clean up on SMS failure
-                return OTPResponse.failure("Failed to send OTP: " + smsResponse.getMessage());
-            }
+            log.info("OTP queued for: {}", phoneNumber);
+            return OTPResponse.success(phoneNumber, expiresAt, otp);
             
         } catch (Exception e) {
             log.error("Error generating OTP for {}: {}", phoneNumber, e.getMessage(), e);
+            otpStore.revoke(phoneNumber); // Clean up when the SMS could not be queued
             return OTPResponse.failure("Internal server error");
         }
     }
@@ -67,29 +65,27 @@ public class AuthServiceImpl implements AuthService {
     public AuthResponse verifyOTP(String phoneNumber, String otp) {
         log.info("OTP verification for phone number: {}", phoneNumber);
         
-        // Check if OTP exists
-        OTPSession session = otpStorage.get(phoneNumber);
-        if (session == null) {
-            log.warn("No OTP found for phone number: {}", phoneNumber);
-            throw new InvalidOTPException("Invalid or expired OTP");
-        }
-        
-        // Check if OTP is expired
-        if (LocalDateTime.now().isAfter(session.getExpiresAt())) {
-            log.warn("Expired OTP for phone number: {}", phoneNumber);
-            otpStorage.remove(phoneNumber);
-            throw new OTPExpiredException("OTP has expired");
-        }
-        
-        // Verify OTP
-        if (!session.getOtp().equals(otp)) {
-            log.warn("Invalid OTP for phone number: {}", phoneNumber);
-            throw new InvalidOTPException("Invalid OTP");
+        // Verify OTP - the store counts the attempt and consumes a matching code
+        switch (otpStore.verify(phoneNumber, otp)) {
+            case VERIFIED -> { }
+            case NOT_FOUND -> {
+                log.warn("No OTP found for phone number: {}", phoneNumber);
+                throw new InvalidOTPException("Invalid or expired OTP");
+            }
+            case EXPIRED -> {
+                log.warn("Expired OTP for phone number: {}", phoneNumber);
+                throw new OTPExpiredException("OTP has expired");
+            }
+            case TOO_MANY_ATTEMPTS -> {
+                log.warn("Too many OTP attempts for phone number: {}", phoneNumber);
+                throw new InvalidOTPException("Invalid OTP - too many attempts, request a new code");
+            }
+            case MISMATCH -> {
+                log.warn("Invalid OTP for phone number: {}", phoneNumber);
+                throw new InvalidOTPException("Invalid OTP");
+            }
         }
         
-        // OTP is valid - clean up
-        otpStorage.remove(phoneNumber);
-        
         // Find or create user
         AppUser user = appUserService.findByPhoneNumber(phoneNumber)
                 .orElseGet(() -> createNewUser(phoneNumber));
@@ -129,18 +125,4 @@ public class AuthServiceImpl implements AuthService {
 
         return newUser;
     }
-    
-    // Inner class for OTP session
-    private static class OTPSession {
-        private final String otp;
-        private final LocalDateTime expiresAt;
-        
-        public OTPSession(String otp, LocalDateTime expiresAt) {
-            this.otp = otp;
-            this.expiresAt = expiresAt;
-        }
-        
-        public String getOtp() { return otp; }
-        public LocalDateTime getExpiresAt() { return expiresAt; }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface FileBlobService {
+
+    /**
+     * Streams the content to disk while hashing it. Returns the existing blob when
+     * the content is already stored, otherwise a new one. Either way the caller
+     * holds one new reference.
+     */
+    FileBlob store(InputStream content);
+
+    /**
+     * Same as {@link #store(InputStream)} for content already on disk. The source
+     * file is moved into the blob store or deleted if the content is a duplicate.
+     */
+    FileBlob adopt(Path source);
+
+    /**
+     * Takes one more reference on existing content, for a copy that shares it.
+     * Fails if the last reference has already been dropped.
+     */
+    void retain(Long blobId);
+
+    /**
+     * Stores content kept outside the blob store (files from before deduplication)
+     * as a blob. The source is left in place; the caller holds one new reference.
+     */
+    FileBlob storeCopy(String key);
+
+    /**
+     * Drops one reference and deletes the content once nothing points at it.
+     */
+    void release(Long blobId);
+}
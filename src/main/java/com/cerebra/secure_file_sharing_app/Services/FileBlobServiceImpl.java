@@ -0,0 +1,196 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileStorageException;
+import com.cerebra.secure_file_sharing_app.Repositories.FileBlobRepository;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileBlobServiceImpl implements FileBlobService {
+
+    private static final String BLOB_DIR = "blobs";
+    private static final String TEMP_DIR = "tmp";
+    private static final int MAX_STORE_ATTEMPTS = 5;
+
+    private final FileBlobRepository fileBlobRepository;
+    private final BlobStore blobStore;
+
+    @Value("${app.storage.root-path:/app-storage}")
+    private String rootStoragePath;
+
+    @Override
+    public FileBlob store(InputStream content) {
+        Path tempFile = null;
+        try {
+            // Hashing needs local scratch space whichever store ends up holding the content
+            Path tempDir = Paths.get(rootStoragePath, BLOB_DIR, TEMP_DIR);
+            Files.createDirectories(tempDir);
+            tempFile = tempDir.resolve(UUID.randomUUID() + ".tmp");
+
+            // Hash on the way to disk so the content is read exactly once
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, tempFile);
+            }
+
+            return storeHashed(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+
+        } catch (IOException e) {
+            log.error("Failed to store blob: {}", e.getMessage(), e);
+            throw new FileStorageException("Failed to store file: " + e.getMessage());
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public FileBlob adopt(Path source) {
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            return storeHashed(source, HexFormat.of().formatHex(digest.digest()), Files.size(source));
+
+        } catch (IOException e) {
+            log.error("Failed to store blob from {}: {}", source, e.getMessage(), e);
+            throw new FileStorageException("Failed to store file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void retain(Long blobId) {
+        // A blob at zero references is being reclaimed; reviving it would race the content delete
+        if (fileBlobRepository.incrementRefCount(blobId) == 0) {
+            throw new FileNotFoundException("File content is no longer available");
+        }
+    }
+
+    @Override
+    public FileBlob storeCopy(String key) {
+        try (InputStream content = blobStore.get(key)) {
+            return store(content);
+        } catch (IOException e) {
+            log.error("Failed to copy {} into the blob store: {}", key, e.getMessage(), e);
+            throw new FileStorageException("Failed to copy file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(Long blobId) {
+        if (fileBlobRepository.decrementRefCount(blobId) == 0) {
+            log.warn("Blob {} has no references left to release", blobId);
+            return;
+        }
+
+        // Only the caller that removes the row deletes the content
+        Optional<String> physicalPath = fileBlobRepository.findPhysicalPathById(blobId);
+        if (physicalPath.isPresent() && fileBlobRepository.deleteIfUnreferenced(blobId) == 1) {
+            deleteBlobQuietly(physicalPath.get());
+            log.info("Reclaimed blob {}", blobId);
+        }
+    }
+
+    /**
+     * Takes one reference on the blob holding this content, creating it from
+     * {@code source} if needed. On success the source has been deleted.
+     */
+    private FileBlob storeHashed(Path source, String sha256, long size) throws IOException {
+        for (int attempt = 1; attempt <= MAX_STORE_ATTEMPTS; attempt++) {
+            Optional<FileBlob> existing = fileBlobRepository.findBySha256(sha256);
+
+            if (existing.isPresent()) {
+                FileBlob blob = existing.get();
+                if (fileBlobRepository.incrementRefCount(blob.getId()) == 1) {
+                    Files.deleteIfExists(source);
+                    blob.setRefCount(blob.getRefCount() + 1);
+                    log.info("Deduplicated {} bytes against blob {}", size, sha256);
+                    return blob;
+                }
+                // Its last reference was just dropped - finish reclaiming it, then store afresh
+                if (fileBlobRepository.deleteIfUnreferenced(blob.getId()) == 1) {
+                    deleteBlobQuietly(blob.getPhysicalPath());
+                }
+                continue;
+            }
+
+            // Content goes in place before the row exists so a visible blob is always readable
+            String key = blobKey(sha256);
+            blobStore.put(key, source);
+
+            try {
+                FileBlob saved = fileBlobRepository.saveAndFlush(FileBlob.builder()
+                        .sha256(sha256)
+                        .size(size)
+                        .physicalPath(key)
+                        .refCount(1)
+                        .build());
+                Files.deleteIfExists(source);
+                log.info("Stored new blob {} ({} bytes)", sha256, size);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent upload of the same content created the row first
+                deleteBlobQuietly(key);
+            }
+        }
+
+        throw new FileStorageException("Failed to store file: content is being updated concurrently");
+    }
+
+    // Fan out on the hash prefix; the random suffix keeps a reclaimed blob's
+    // late delete from hitting a newer copy of the same content
+    private String blobKey(String sha256) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return BLOB_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + "-" + suffix;
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteBlobQuietly(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
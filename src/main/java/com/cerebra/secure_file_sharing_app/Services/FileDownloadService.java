@@ -0,0 +1,17 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+public interface FileDownloadService {
+
+    /**
+     * Writes the content stored under the BlobStore key to the response, honouring Range / If-Range headers.
+     * Full downloads answer 200, satisfiable ranges answer 206 (multipart/byteranges
+     * for more than one range) and unsatisfiable ranges answer 416.
+     */
+    void streamFile(String storageKey, String fileName, String mimeType,
+                    HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,276 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStat;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileDownloadServiceImpl implements FileDownloadService {
+
+    // Request attributes understood by Tomcat's NIO/NIO2 connectors for sendfile
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    private final BlobStore blobStore;
+
+    @Value("${app.download.sendfile-enabled:true}")
+    private boolean sendfileEnabled;
+
+    @Value("${app.download.max-ranges:16}")
+    private int maxRanges;
+
+    @Override
+    public void streamFile(String storageKey, String fileName, String mimeType,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        Optional<BlobStat> stat = blobStore.stat(storageKey);
+        if (stat.isEmpty()) {
+            log.error("File not found or not readable: {}", storageKey);
+            throw new FileNotFoundException("File not found or not readable");
+        }
+
+        // Local content keeps the zero-copy paths; remote content is streamed through
+        Path filePath = blobStore.localPath(storageKey).orElse(null);
+        long length = stat.get().size();
+        long lastModified = stat.get().lastModifiedMillis();
+        String eTag = buildETag(length, lastModified);
+        String contentType = StringUtils.hasText(mimeType) ? mimeType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        List<long[]> ranges = resolveRanges(request, eTag, lastModified, length);
+        boolean headRequest = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges == null) {
+            // No (usable) Range header - full download
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!headRequest) {
+                transfer(storageKey, filePath, 0, length, request, response);
+            }
+            log.info("Served full download: {} ({} bytes)", fileName, length);
+
+        } else if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            log.warn("Unsatisfiable range requested for {}: {}", fileName, request.getHeader(HttpHeaders.RANGE));
+
+        } else if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            if (!headRequest) {
+                transfer(storageKey, filePath, start, end - start + 1, request, response);
+            }
+            log.info("Served partial download: {} bytes {}-{}/{}", fileName, start, end, length);
+
+        } else {
+            writeMultipartRanges(storageKey, filePath, contentType, length, ranges, headRequest, response);
+            log.info("Served multi-range download: {} ({} ranges)", fileName, ranges.size());
+        }
+    }
+
+    /**
+     * Returns null when the whole file should be sent, an empty list when the
+     * Range header is syntactically valid but unsatisfiable, and otherwise the
+     * satisfiable [start, end] pairs in request order.
+     */
+    private List<long[]> resolveRanges(HttpServletRequest request, String eTag, long lastModified, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (!StringUtils.hasText(rangeHeader)) {
+            return null;
+        }
+
+        if (!ifRangeMatches(request, eTag, lastModified)) {
+            return null;
+        }
+
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // Malformed Range headers are ignored, as required by RFC 9110
+            log.debug("Ignoring malformed Range header '{}': {}", rangeHeader, e.getMessage());
+            return null;
+        }
+
+        if (httpRanges.isEmpty() || httpRanges.size() > maxRanges) {
+            return null;
+        }
+
+        List<long[]> satisfiable = new ArrayList<>();
+        for (HttpRange httpRange : httpRanges) {
+            long start = httpRange.getRangeStart(length);
+            long end = httpRange.getRangeEnd(length);
+            if (start < length && start <= end) {
+                satisfiable.add(new long[]{start, end});
+            }
+        }
+        return satisfiable;
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Strong comparison only - weak validators never match
+            return ifRange.equals(eTag);
+        }
+
+        try {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return ifRangeDate != -1 && ifRangeDate / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeMultipartRanges(String storageKey, Path filePath, String contentType, long length,
+                                      List<long[]> ranges, boolean headRequest, HttpServletResponse response)
+            throws IOException {
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            String partHeader = CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range[0], range[1], length) + CRLF
+                    + CRLF;
+            byte[] headerBytes = partHeader.getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(headerBytes);
+            contentLength += headerBytes.length + (range[1] - range[0] + 1);
+        }
+        byte[] closingBoundary = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closingBoundary.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+
+        if (headRequest) {
+            return;
+        }
+
+        ServletOutputStream out = response.getOutputStream();
+        if (filePath != null) {
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                for (int i = 0; i < ranges.size(); i++) {
+                    long[] range = ranges.get(i);
+                    out.write(partHeaders.get(i));
+                    transferTo(channel, range[0], range[1] - range[0] + 1, target);
+                }
+            }
+        } else {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                out.write(partHeaders.get(i));
+                copyRange(storageKey, range[0], range[1] - range[0] + 1, out);
+            }
+        }
+        out.write(closingBoundary);
+        out.flush();
+    }
+
+    private void transfer(String storageKey, Path filePath, long start, long count, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+
+        if (count == 0) {
+            return;
+        }
+
+        if (filePath == null) {
+            ServletOutputStream out = response.getOutputStream();
+            copyRange(storageKey, start, count, out);
+            out.flush();
+            return;
+        }
+
+        // Let the connector hand the region straight to the kernel when it can
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, filePath.toRealPath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+
+        ServletOutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            transferTo(channel, start, count, Channels.newChannel(out));
+        }
+        out.flush();
+    }
+
+    private void copyRange(String storageKey, long start, long count, OutputStream out) throws IOException {
+        try (InputStream in = blobStore.getRange(storageKey, start, count)) {
+            if (in.transferTo(out) != count) {
+                throw new IOException("Content truncated while streaming " + storageKey);
+            }
+        }
+    }
+
+    private void transferTo(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new IOException("File truncated while streaming at position " + position);
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    private String buildETag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+}
@@ -1,6 +1,9 @@
 package com.cerebra.secure_file_sharing_app.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageResponse;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,11 +22,20 @@ public interface FileService {
     void deleteById(Long id);
 
     File uploadFile(MultipartFile multipartFile, Long folderId, Long userId);
+    Folder resolveTargetFolder(Long folderId, Long userId);
     Resource downloadFile(Long fileId, Long userId);
+    File getFileForDownload(Long fileId, Long userId);
     void deleteFile(Long fileId, Long userId);
+    File moveFile(Long fileId, Long targetFolderId, Long userId);
+    File copyFile(Long fileId, Long targetFolderId, Long userId);
     List<File> getUserFiles(Long userId);
     List<File> getFolderFiles(Long folderId, Long userId);
 
-    Resource downloadSharedFile(Long fileId);
+    // Keyset-paginated listings returning lightweight summaries
+    FilePageResponse getUserFilesPage(Long userId, FilePageRequest pageRequest);
+    FilePageResponse getFolderFilesPage(Long folderId, Long userId, FilePageRequest pageRequest);
+    FilePageResponse getRootFilesPage(Long storagePathId, FilePageRequest pageRequest);
+
+    void revokeSignedShares(Long fileId);
 
 }
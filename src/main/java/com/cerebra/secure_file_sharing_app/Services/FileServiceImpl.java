@@ -1,42 +1,61 @@
 package com.cerebra.secure_file_sharing_app.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.FileListingQuery;
 import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.FileSortField;
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileServiceImpl implements FileService {
-    
+
+    private static final String ASC = "asc";
+    private static final String DESC = "desc";
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final FileRepository fileRepository;
-    private final StoragePathService storagePathService;
+    private final OwnershipContext ownershipContext;
     private final FolderService folderService;
+    private final FileBlobService fileBlobService;
+    private final SharedLinkCache sharedLinkCache;
+    private final BlobStore blobStore;
+
+    // Larger files go through the resumable upload API
+    @Value("${app.upload.max-multipart-size:52428800}")
+    private long maxMultipartSize;
 
-    @Value("${app.storage.root-path:/app-storage}")
-    private String rootStoragePath;
+    @Value("${app.files.max-page-size:200}")
+    private int maxPageSize;
 
     @Override
     public File save(File file) {
@@ -90,50 +109,51 @@ public class FileServiceImpl implements FileService {
         StoragePath storagePath = getUserStoragePath(userId);
 
         // Handle folder logic
-        Folder targetFolder;
-        if (folderId != null) {
-            // Use specified folder (with validation)
-            targetFolder = validateFolderAccess(folderId, userId);
-        } else {
-            // Create or get default folder
-            targetFolder = getOrCreateDefaultFolder(storagePath);
+        Folder targetFolder = resolveTargetFolder(folderId, userId);
+
+        // Generate unique physical file name; the content itself lives in the shared blob store
+        String originalFilename = StringUtils.cleanPath(Objects.requireNonNull(multipartFile.getOriginalFilename()));
+        String physicalFileName = generatePhysicalFileName(originalFilename);
+
+        FileBlob blob;
+        try (InputStream content = multipartFile.getInputStream()) {
+            blob = fileBlobService.store(content);
+        } catch (IOException e) {
+            log.error("Failed to store file: {}", e.getMessage(), e);
+            throw new FileStorageException("Failed to store file: " + e.getMessage());
         }
 
-        try {
-            // Generate unique physical file name
-            String originalFilename = StringUtils.cleanPath(Objects.requireNonNull(multipartFile.getOriginalFilename()));
-            String physicalFileName = generatePhysicalFileName(originalFilename);
-
-            // Create full physical path
-            Path userStorageDir = Paths.get(rootStoragePath, storagePath.getBasePath());
-            Path targetLocation = userStorageDir.resolve(physicalFileName);
-
-            // Create directories if they don't exist
-            Files.createDirectories(userStorageDir);
-
-            // Copy file to target location
-            Files.copy(multipartFile.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Create File entity
-            File fileEntity = File.builder()
-                    .displayName(originalFilename)
-                    .physicalName(physicalFileName)
-                    .physicalPath(targetLocation.toString())
-                    .size(multipartFile.getSize())
-                    .mimeType(multipartFile.getContentType())
-                    .storagePath(storagePath)
-                    .folder(targetFolder)
-                    .build();
+        // Create File entity
+        File fileEntity = File.builder()
+                .displayName(originalFilename)
+                .physicalName(physicalFileName)
+                .physicalPath(blob.getPhysicalPath())
+                .blob(blob)
+                .size(blob.getSize())
+                .mimeType(multipartFile.getContentType())
+                .storagePath(storagePath)
+                .folder(targetFolder)
+                .build();
 
+        try {
             File savedFile = save(fileEntity);
-            log.info("File uploaded successfully: {} -> {}", originalFilename, physicalFileName);
-
+            log.info("File uploaded successfully: {} -> {}", originalFilename, blob.getSha256());
             return savedFile;
+        } catch (RuntimeException e) {
+            fileBlobService.release(blob.getId());
+            throw e;
+        }
+    }
 
-        } catch (IOException e) {
-            log.error("Failed to store file: {}", e.getMessage(), e);
-            throw new FileStorageException("Failed to store file: " + e.getMessage());
+    @Override
+    public Folder resolveTargetFolder(Long folderId, Long userId) {
+        if (folderId != null) {
+            // Use specified folder (with validation)
+            return validateFolderAccess(folderId, userId);
         }
+
+        // Create or get default folder
+        return getOrCreateDefaultFolder(getUserStoragePath(userId));
     }
 
     @Override
@@ -141,27 +161,19 @@ public class FileServiceImpl implements FileService {
         log.info("Downloading file: {} for user: {}", fileId, userId);
 
         // Find and validate file access
-        File file = findById(fileId)
-                .orElseThrow(() -> new FileNotFoundException("File not found: " + fileId));
+        File file = findOwnedFile(fileId, userId);
 
-        validateFileAccess(file, userId);
+        Resource resource = openContent(file);
+        log.info("File download successful: {}", file.getDisplayName());
+        return resource;
+    }
 
-        try {
-            Path filePath = Paths.get(file.getPhysicalPath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                log.info("File download successful: {}", file.getDisplayName());
-                return resource;
-            } else {
-                log.error("File not found or not readable: {}", file.getPhysicalPath());
-                throw new FileNotFoundException("File not found or not readable");
-            }
+    @Override
+    public File getFileForDownload(Long fileId, Long userId) {
+        log.info("Resolving file for download: {} for user: {}", fileId, userId);
 
-        } catch (MalformedURLException e) {
-            log.error("Malformed file path: {}", file.getPhysicalPath(), e);
-            throw new FileStorageException("Invalid file path: " + e.getMessage());
-        }
+        File file = findOwnedFile(fileId, userId);
+        return file;
     }
 
     @Override
@@ -169,24 +181,75 @@ public class FileServiceImpl implements FileService {
         log.info("Deleting file: {} for user: {}", fileId, userId);
 
         // Find and validate file access
-        File file = findById(fileId)
-                .orElseThrow(() -> new FileNotFoundException("File not found: " + fileId));
+        File file = findOwnedFile(fileId, userId);
 
-        validateFileAccess(file, userId);
+        // Delete database record first so a failure never leaves a row pointing at missing content
+        deleteById(fileId);
+        sharedLinkCache.invalidateFile(fileId);
 
-        try {
-            // Delete physical file
-            Path filePath = Paths.get(file.getPhysicalPath());
-            Files.deleteIfExists(filePath);
+        if (file.getBlob() != null) {
+            // Shared content goes away only with its last reference
+            fileBlobService.release(file.getBlob().getId());
+        } else {
+            try {
+                blobStore.delete(file.getPhysicalPath());
+            } catch (IOException e) {
+                log.warn("Failed to delete physical file: {}", file.getPhysicalPath(), e);
+            }
+        }
 
-            // Delete database record
-            deleteById(fileId);
+        log.info("File deleted successfully: {}", file.getDisplayName());
+    }
 
-            log.info("File deleted successfully: {}", file.getDisplayName());
+    @Override
+    public File moveFile(Long fileId, Long targetFolderId, Long userId) {
+        log.info("Moving file {} to folder {} for user: {}", fileId, targetFolderId, userId);
 
-        } catch (IOException e) {
-            log.error("Failed to delete physical file: {}", file.getPhysicalPath(), e);
-            throw new FileStorageException("Failed to delete file: " + e.getMessage());
+        File file = findOwnedFile(fileId, userId);
+        Folder targetFolder = resolveTargetFolder(targetFolderId, userId);
+
+        // Only the row moves; content, share links and signed URLs stay valid
+        file.setFolder(targetFolder);
+        File movedFile = save(file);
+        log.info("File moved successfully: {} -> folder {}", file.getDisplayName(), targetFolder.getId());
+        return movedFile;
+    }
+
+    @Override
+    public File copyFile(Long fileId, Long targetFolderId, Long userId) {
+        log.info("Copying file {} to folder {} for user: {}", fileId, targetFolderId, userId);
+
+        File file = findOwnedFile(fileId, userId);
+        Folder targetFolder = resolveTargetFolder(targetFolderId, userId);
+
+        // The copy is one more reference on the same blob; no bytes are read or written
+        FileBlob blob = file.getBlob();
+        String physicalPath = file.getPhysicalPath();
+        if (blob != null) {
+            fileBlobService.retain(blob.getId());
+        } else {
+            blob = fileBlobService.storeCopy(physicalPath);
+            physicalPath = blob.getPhysicalPath();
+        }
+
+        File copy = File.builder()
+                .displayName(file.getDisplayName())
+                .physicalName(generatePhysicalFileName(file.getDisplayName()))
+                .physicalPath(physicalPath)
+                .blob(blob)
+                .size(file.getSize())
+                .mimeType(file.getMimeType())
+                .storagePath(file.getStoragePath())
+                .folder(targetFolder)
+                .build();
+
+        try {
+            File savedCopy = save(copy);
+            log.info("File copied successfully: {} -> {}", file.getDisplayName(), savedCopy.getId());
+            return savedCopy;
+        } catch (RuntimeException e) {
+            fileBlobService.release(blob.getId());
+            throw e;
         }
     }
 
@@ -211,32 +274,100 @@ public class FileServiceImpl implements FileService {
     }
 
     @Override
-    public Resource downloadSharedFile(Long fileId) {
-        log.info("Downloading shared file: {}", fileId);
+    public FilePageResponse getUserFilesPage(Long userId, FilePageRequest pageRequest) {
+        log.info("Getting files page for user: {}", userId);
 
-        // Find file (no user validation for shared downloads)
-        File file = findById(fileId)
-                .orElseThrow(() -> new FileNotFoundException("File not found: " + fileId));
+        StoragePath storagePath = getUserStoragePath(userId);
+        return listPage(storagePath.getId(), null, false, pageRequest);
+    }
 
-        try {
-            Path filePath = Paths.get(file.getPhysicalPath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                log.info("Shared file download successful: {}", file.getDisplayName());
-                return resource;
-            } else {
-                log.error("Shared file not found or not readable: {}", file.getPhysicalPath());
-                throw new FileNotFoundException("File not found or not readable");
+    @Override
+    public FilePageResponse getFolderFilesPage(Long folderId, Long userId, FilePageRequest pageRequest) {
+        log.info("Getting files page for folder: {} and user: {}", folderId, userId);
+
+        validateFolderAccess(folderId, userId);
+        return listPage(null, folderId, false, pageRequest);
+    }
+
+    @Override
+    public FilePageResponse getRootFilesPage(Long storagePathId, FilePageRequest pageRequest) {
+        log.info("Getting root files page for storage path: {}", storagePathId);
+
+        return listPage(storagePathId, null, true, pageRequest);
+    }
+
+    @Override
+    public void revokeSignedShares(Long fileId) {
+        fileRepository.incrementShareEpoch(fileId);
+        sharedLinkCache.invalidateFile(fileId);
+        log.info("Signed share URLs revoked for file: {}", fileId);
+    }
+
+    // Private Helper Methods
+    private FilePageResponse listPage(Long storagePathId, Long folderId, boolean rootOnly, FilePageRequest pageRequest) {
+        FileSortField sort = FileSortField.fromParam(pageRequest.getSort());
+        boolean descending = parseDirection(pageRequest.getDirection());
+        int limit = Math.max(1, Math.min(pageRequest.getLimit(), maxPageSize));
+
+        Comparable<?> afterKey = null;
+        Long afterId = null;
+        if (StringUtils.hasText(pageRequest.getCursor())) {
+            String[] parts = decodeCursor(pageRequest.getCursor());
+            if (!parts[0].equals(sort.getParam()) || descending != DESC.equals(parts[1])) {
+                throw new InvalidPageRequestException("Cursor was issued for a different sort order");
             }
+            try {
+                afterId = Long.valueOf(parts[2]);
+                afterKey = sort.parseKey(parts[3]);
+            } catch (RuntimeException e) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<FileSummaryResponse> rows = fileRepository.findPage(new FileListingQuery(
+                storagePathId, folderId, rootOnly, sort, descending, afterKey, afterId, limit + 1));
 
-        } catch (MalformedURLException e) {
-            log.error("Malformed file path: {}", file.getPhysicalPath(), e);
-            throw new FileStorageException("Invalid file path: " + e.getMessage());
+        boolean hasMore = rows.size() > limit;
+        List<FileSummaryResponse> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return FilePageResponse.builder()
+                .files(page)
+                .nextCursor(hasMore ? encodeCursor(sort, descending, page.get(page.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private boolean parseDirection(String direction) {
+        if (direction == null || ASC.equalsIgnoreCase(direction)) {
+            return false;
         }
+        if (DESC.equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new InvalidPageRequestException("Unsupported direction: " + direction + " (use asc or desc)");
+    }
+
+    // Opaque to clients: sort|direction|id|key, key last since names may contain '|'
+    private String encodeCursor(FileSortField sort, boolean descending, FileSummaryResponse last) {
+        String raw = String.join(CURSOR_SEPARATOR,
+                sort.getParam(), descending ? DESC : ASC, String.valueOf(last.getId()), sort.keyOf(last));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(Pattern.quote(CURSOR_SEPARATOR), 4);
+            if (parts.length == 4) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not base64 - reported below
+        }
+        throw new InvalidPageRequestException("Invalid cursor");
     }
 
-    // Private Helper Methods
     private void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new FileStorageException("Cannot store empty file");
@@ -247,9 +378,7 @@ public class FileServiceImpl implements FileService {
             throw new FileStorageException("Invalid file path: " + filename);
         }
 
-        // Add file size validation (e.g., max 50MB)
-        long maxFileSize = 50 * 1024 * 1024; // 50MB
-        if (file.getSize() > maxFileSize) {
+        if (file.getSize() > maxMultipartSize) {
             throw new FileStorageException("File size exceeds maximum allowed size");
         }
     }
@@ -266,33 +395,42 @@ public class FileServiceImpl implements FileService {
         return "";
     }
 
+    // Remote content is opened only when the resource is read
+    private Resource openContent(File file) {
+        String key = file.getPhysicalPath();
+        try {
+            if (blobStore.stat(key).isEmpty()) {
+                log.error("File not found or not readable: {}", key);
+                throw new FileNotFoundException("File not found or not readable");
+            }
+        } catch (IOException e) {
+            log.error("Failed to read file metadata: {}", key, e);
+            throw new FileStorageException("Failed to read file: " + e.getMessage());
+        }
+
+        return blobStore.localPath(key)
+                .<Resource>map(FileSystemResource::new)
+                .orElseGet(() -> new InputStreamResource(() -> blobStore.get(key), file.getDisplayName()));
+    }
+
     private StoragePath getUserStoragePath(Long userId) {
-        return storagePathService.findByAppUserId(userId)
+        return ownershipContext.findStoragePath(userId)
                 .orElseThrow(() -> new FileStorageException("User storage path not found"));
     }
 
+    // A single query authorizes; only a failed check pays for telling "missing" from "not yours"
     private Folder validateFolderAccess(Long folderId, Long userId) {
-        Optional<Folder> folderOpt = folderService.findById(folderId);
-        if (folderOpt.isEmpty()) {
-            throw new FileNotFoundException("Folder not found: " + folderId);
-        }
-
-        Folder folder = folderOpt.get();
-        StoragePath userStoragePath = getUserStoragePath(userId);
-
-        if (!folder.getStoragePath().getId().equals(userStoragePath.getId())) {
-            throw new FileAccessDeniedException("Access denied to folder: " + folderId);
-        }
-
-        return folder;
+        return ownershipContext.findOwnedFolder(folderId, userId)
+                .orElseThrow(() -> folderService.findById(folderId).isPresent()
+                        ? new FileAccessDeniedException("Access denied to folder: " + folderId)
+                        : new FileNotFoundException("Folder not found: " + folderId));
     }
 
-    private void validateFileAccess(File file, Long userId) {
-        StoragePath userStoragePath = getUserStoragePath(userId);
-
-        if (!file.getStoragePath().getId().equals(userStoragePath.getId())) {
-            throw new FileAccessDeniedException("Access denied to file: " + file.getId());
-        }
+    private File findOwnedFile(Long fileId, Long userId) {
+        return ownershipContext.findOwnedFile(fileId, userId)
+                .orElseThrow(() -> fileRepository.existsById(fileId)
+                        ? new FileAccessDeniedException("Access denied to file: " + fileId)
+                        : new FileNotFoundException("File not found: " + fileId));
     }
 
     private Folder getOrCreateDefaultFolder(StoragePath storagePath) {
@@ -304,11 +442,18 @@ public class FileServiceImpl implements FileService {
         }
 
         // Create default folder if none exists
-        return folderService.save(Folder.builder()
-                .name("My Files")
-                .storagePath(storagePath)
-                .parentFolder(null)
-                .build());
+        try {
+            return folderService.save(Folder.builder()
+                    .name("My Files")
+                    .storagePath(storagePath)
+                    .parentFolder(null)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload created it first
+            return folderService.findByStoragePathIdAndParentFolderIsNull(storagePath.getId()).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
     }
 
 }
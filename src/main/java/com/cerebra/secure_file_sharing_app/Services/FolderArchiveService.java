@@ -0,0 +1,16 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+
+import java.util.List;
+
+public interface FolderArchiveService {
+
+    /**
+     * Collects the archive entries for a folder and all of its descendants, with entry
+     * names mirroring the folder hierarchy relative to the given folder. Files directly
+     * in the folder sit at the archive root; every subfolder gets its own directory entry
+     * so empty folders survive the round trip.
+     */
+    List<ZipStreamingService.Entry> collectEntries(Folder folder);
+}
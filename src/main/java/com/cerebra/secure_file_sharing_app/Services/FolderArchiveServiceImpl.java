@@ -0,0 +1,90 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FolderArchiveServiceImpl implements FolderArchiveService {
+
+    private final FolderRepository folderRepository;
+    private final FileRepository fileRepository;
+
+    @Override
+    public List<ZipStreamingService.Entry> collectEntries(Folder folder) {
+        // A missing path would turn the prefix query into "no folders" or "every folder"
+        if (folder.getPath() == null) {
+            throw new IllegalArgumentException("Folder " + folder.getId() + " has no path to archive");
+        }
+
+        // One path-prefix query for the folder tree, one IN query for every file in it
+        List<FolderNodeView> nodes = folderRepository.findSubtree(folder.getPath());
+        Map<Long, List<FolderNodeView>> childrenByParent = new HashMap<>();
+        List<Long> folderIds = new ArrayList<>(nodes.size());
+        for (FolderNodeView node : nodes) {
+            folderIds.add(node.getId());
+            if (node.getParentFolderId() != null && !node.getId().equals(folder.getId())) {
+                childrenByParent.computeIfAbsent(node.getParentFolderId(), id -> new ArrayList<>()).add(node);
+            }
+        }
+        if (folderIds.isEmpty()) {
+            folderIds.add(folder.getId());
+        }
+
+        Map<Long, List<File>> filesByFolder = new HashMap<>();
+        for (File file : fileRepository.findByFolderIdIn(folderIds)) {
+            filesByFolder.computeIfAbsent(file.getFolder().getId(), id -> new ArrayList<>()).add(file);
+        }
+
+        List<ZipStreamingService.Entry> entries = new ArrayList<>();
+        appendFolder(folder.getId(), "", childrenByParent, filesByFolder, entries);
+
+        log.info("Collected {} archive entries from {} folders under folder {}",
+                entries.size(), folderIds.size(), folder.getId());
+        return entries;
+    }
+
+    /**
+     * Depth-first, name-ordered walk: a folder's files come before its subfolders.
+     */
+    private void appendFolder(Long folderId, String prefix, Map<Long, List<FolderNodeView>> childrenByParent,
+                              Map<Long, List<File>> filesByFolder, List<ZipStreamingService.Entry> entries) {
+
+        List<File> files = filesByFolder.computeIfAbsent(folderId, id -> new ArrayList<>());
+        files.sort(Comparator.comparing(File::getDisplayName, String.CASE_INSENSITIVE_ORDER));
+        for (File file : files) {
+            entries.add(ZipStreamingService.Entry.file(
+                    prefix + sanitizeSegment(file.getDisplayName()),
+                    file.getPhysicalPath(),
+                    file.getMimeType(),
+                    file.getUpdatedAt()));
+        }
+
+        List<FolderNodeView> children = childrenByParent.computeIfAbsent(folderId, id -> new ArrayList<>());
+        children.sort(Comparator.comparing(FolderNodeView::getName, String.CASE_INSENSITIVE_ORDER));
+        for (FolderNodeView child : children) {
+            String childPrefix = prefix + sanitizeSegment(child.getName()) + "/";
+            entries.add(ZipStreamingService.Entry.directory(childPrefix, null));
+            appendFolder(child.getId(), childPrefix, childrenByParent, filesByFolder, entries);
+        }
+    }
+
+    // Names come from users - never let them escape their directory inside the archive
+    private String sanitizeSegment(String name) {
+        String cleaned = name.replace('/', '_').replace('\\', '_');
+        return cleaned.equals(".") || cleaned.equals("..") ? "_" : cleaned;
+    }
+}
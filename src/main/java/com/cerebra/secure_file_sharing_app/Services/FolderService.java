@@ -1,6 +1,7 @@
 package com.cerebra.secure_file_sharing_app.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +20,11 @@ public interface FolderService {
 
     Folder createFolder(String name, Long parentFolderId, Long userId);
     void deleteFolder(Long folderId, Long userId);
+    int deleteFolderRecursive(Long folderId, Long userId);
+    Folder moveFolder(Long folderId, Long targetParentFolderId, Long userId);
+    Folder copyFolder(Long folderId, Long targetParentFolderId, Long userId);
+    List<Folder> findAncestors(Long folderId, Long userId);
+    FolderTreeResponse getFolderTree(Long userId, Integer depth, String cursor);
     boolean hasAccess(Long folderId, Long userId);
     boolean isValidFolderName(String name);
 }
@@ -1,13 +1,37 @@
 package com.cerebra.secure_file_sharing_app.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Repositories.FileBlobRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
 import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderFileCountView;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
+import com.cerebra.secure_file_sharing_app.Repositories.ReclaimTaskRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.SharedLinkRepository;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeNode;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeResponse;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
@@ -18,9 +42,23 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class FolderServiceImpl implements FolderService {
-    
+
+    // Keeps the path index key within MySQL's limit; about 40 levels with realistic ids
+    private static final int MAX_PATH_LENGTH = 760;
+    private static final int MAX_ID_SEGMENT_LENGTH = 20;
+    private static final String TREE_CURSOR_PREFIX = "tree|";
+    private static final Comparator<FolderTreeNode> BY_NAME =
+            Comparator.comparing(FolderTreeNode::getName, String.CASE_INSENSITIVE_ORDER);
+
     private final FolderRepository folderRepository;
-    private final StoragePathService storagePathService;
+    private final FileRepository fileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final SharedLinkRepository sharedLinkRepository;
+    private final ReclaimTaskRepository reclaimTaskRepository;
+    private final FileBlobService fileBlobService;
+    private final OwnershipContext ownershipContext;
+    private final SharedLinkCache sharedLinkCache;
+    private final TransactionTemplate transactionTemplate;
 
 
     @Override
@@ -77,11 +115,12 @@ public class FolderServiceImpl implements FolderService {
         Folder parentFolder = null;
         if (parentFolderId != null) {
             parentFolder = validateFolderAccess(parentFolderId, userId);
+            validateNestingDepth(parentFolder.getPath().length() + MAX_ID_SEGMENT_LENGTH);
         }
 
-        // Check for duplicate folder names in same location
+        // Check for duplicate folder names in same location; the unique index settles concurrent creates
         if (isDuplicateFolderName(name, parentFolderId, storagePath.getId())) {
-            throw new InvalidFolderNameException("Folder with name '" + name + "' already exists in this location");
+            throw duplicateName(name);
         }
 
         // Create folder
@@ -91,7 +130,12 @@ public class FolderServiceImpl implements FolderService {
                 .parentFolder(parentFolder)
                 .build();
 
-        Folder savedFolder = save(newFolder);
+        Folder savedFolder;
+        try {
+            savedFolder = save(newFolder);
+        } catch (DataIntegrityViolationException e) {
+            throw translateSiblingConflict(e, name);
+        }
         log.info("Folder created successfully: {} (ID: {})", name, savedFolder.getId());
 
         return savedFolder;
@@ -123,17 +167,272 @@ public class FolderServiceImpl implements FolderService {
 
         // Safe to delete
         deleteById(folderId);
+        sharedLinkCache.invalidateFolder(folderId);
         log.info("Folder deleted successfully: {}", folder.getName());
     }
 
+    /**
+     * Deletes a folder with everything under it. The rows go in a handful of set-based
+     * statements in one transaction, whatever the size of the subtree; the content is queued
+     * for {@link ReclaimQueueService} and freed in the background after the rows are gone.
+     */
     @Override
-    public boolean hasAccess(Long folderId, Long userId) {
+    @Transactional
+    public int deleteFolderRecursive(Long folderId, Long userId) {
+        log.info("Recursively deleting folder: {} for user: {}", folderId, userId);
+
+        Folder folder = validateFolderAccess(folderId, userId);
+        String path = folder.getPath();
+
+        // Queued in the same transaction, so storage is only freed for rows that are really gone
+        int files = reclaimTaskRepository.enqueueSubtree(path);
+        int shares = sharedLinkRepository.deleteBySubtree(path);
+        fileRepository.deleteBySubtree(path);
+        folderRepository.detachSubtree(path);
+        int folders = folderRepository.deleteSubtree(path);
+
+        // Which links pointed into the subtree is not known without loading them; drop the lot once committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sharedLinkCache.invalidateAll();
+            }
+        });
+
+        log.info("Folder {} deleted with {} folder(s), {} file(s) and {} share(s)", folder.getName(), folders, files, shares);
+        return files;
+    }
+
+    /**
+     * Re-parents a folder (null target moves it to the root level). The folder row and the
+     * paths of everything under it change in one transaction; the subtree is rewritten with a
+     * single bulk update rather than folder by folder.
+     */
+    @Override
+    @Transactional
+    public Folder moveFolder(Long folderId, Long targetParentFolderId, Long userId) {
+        log.info("Moving folder {} under {} for user: {}", folderId, targetParentFolderId, userId);
+
+        Folder folder = validateFolderAccess(folderId, userId);
+        Folder target = targetParentFolderId != null ? validateFolderAccess(targetParentFolderId, userId) : null;
+
+        String oldPath = folder.getPath();
+        Long currentParentId = folder.getParentFolder() != null ? folder.getParentFolder().getId() : null;
+        if (Objects.equals(currentParentId, targetParentFolderId)) {
+            return folder;
+        }
+        if (target != null && target.getPath().startsWith(oldPath)) {
+            throw new FolderAccessDeniedException("Cannot move folder '" + folder.getName() + "' into itself or one of its subfolders");
+        }
+        if (isDuplicateFolderName(folder.getName(), targetParentFolderId, folder.getStoragePath().getId())) {
+            throw duplicateName(folder.getName());
+        }
+
+        String newPath = (target != null ? target.getPath() : "/") + folder.getId() + "/";
+        int depthDelta = (target != null ? target.getDepth() + 1 : 0) - folder.getDepth();
+        int deepest = folderRepository.findMaxSubtreeDepth(oldPath);
+        validateNestingDepth(newPath.length() + (deepest - folder.getDepth()) * MAX_ID_SEGMENT_LENGTH);
+
+        folderRepository.rebaseSubtree(oldPath, newPath, depthDelta);
+        folder.setParentFolder(target);
+        folder.setPath(newPath);
+        folder.setDepth(folder.getDepth() + depthDelta);
+        Folder moved;
         try {
-            validateFolderAccess(folderId, userId);
-            return true;
-        } catch (Exception e) {
-            return false;
+            // Flushed here so a sibling-name conflict surfaces now, not at commit
+            moved = folderRepository.saveAndFlush(folder);
+        } catch (DataIntegrityViolationException e) {
+            throw translateSiblingConflict(e, folder.getName());
+        }
+
+        log.info("Folder {} moved: {} -> {}", folderId, oldPath, newPath);
+        return moved;
+    }
+
+    /**
+     * Copies a folder and everything under it below the target (null for the root level).
+     * Folders are created parent first. File rows are cloned with one statement per folder
+     * and share the source blobs, whose reference counts go up in one bulk update, so no
+     * content is read or written however large the files are. Files from before
+     * deduplication have no blob to share; their content is copied into the blob store
+     * before the transaction starts, so no rows stay locked meanwhile, and those blobs are
+     * released again if the copy fails.
+     */
+    @Override
+    public Folder copyFolder(Long folderId, Long targetParentFolderId, Long userId) {
+        log.info("Copying folder {} under {} for user: {}", folderId, targetParentFolderId, userId);
+
+        Folder source = validateFolderAccess(folderId, userId);
+        List<File> legacyFiles = fileRepository.findLegacyInSubtree(source.getPath());
+        List<FileBlob> legacyCopies = new ArrayList<>();
+        try {
+            for (File legacy : legacyFiles) {
+                legacyCopies.add(fileBlobService.storeCopy(legacy.getPhysicalPath()));
+            }
+            return transactionTemplate.execute(status ->
+                    copySubtree(folderId, targetParentFolderId, userId, legacyFiles, legacyCopies));
+        } catch (RuntimeException e) {
+            // Rolled back, so no file row references the copied content
+            legacyCopies.forEach(blob -> fileBlobService.release(blob.getId()));
+            throw e;
+        }
+    }
+
+    private Folder copySubtree(Long folderId, Long targetParentFolderId, Long userId,
+                               List<File> legacyFiles, List<FileBlob> legacyCopies) {
+        Folder folder = validateFolderAccess(folderId, userId);
+        Folder target = targetParentFolderId != null ? validateFolderAccess(targetParentFolderId, userId) : null;
+
+        String sourcePath = folder.getPath();
+        if (target != null && target.getPath().startsWith(sourcePath)) {
+            throw new FolderAccessDeniedException("Cannot copy folder '" + folder.getName() + "' into itself or one of its subfolders");
+        }
+        StoragePath storagePath = folder.getStoragePath();
+        if (isDuplicateFolderName(folder.getName(), targetParentFolderId, storagePath.getId())) {
+            throw duplicateName(folder.getName());
+        }
+
+        // The copy's own id is not known yet; count it as a full segment
+        int deepest = folderRepository.findMaxSubtreeDepth(sourcePath);
+        int targetPathLength = target != null ? target.getPath().length() : 1;
+        validateNestingDepth(targetPathLength + (deepest - folder.getDepth() + 1) * MAX_ID_SEGMENT_LENGTH);
+
+        List<FolderNodeView> nodes = new ArrayList<>(folderRepository.findSubtree(sourcePath));
+        nodes.sort(Comparator.comparing(FolderNodeView::getDepth));
+        Map<Long, Folder> copies = new HashMap<>();
+        try {
+            for (FolderNodeView node : nodes) {
+                Folder parent = node.getId().equals(folderId) ? target : copies.get(node.getParentFolderId());
+                Folder copy = folderRepository.save(Folder.builder()
+                        .name(node.getName())
+                        .storagePath(storagePath)
+                        .parentFolder(parent)
+                        .build());
+                copies.put(node.getId(), copy);
+                fileRepository.copyBlobFilesToFolder(node.getId(), copy.getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw translateSiblingConflict(e, folder.getName());
+        }
+
+        // Only the new rows are counted, so files added to the source meanwhile cannot skew the totals
+        Folder root = copies.get(folderId);
+        long sharedBlobs = fileRepository.countDistinctBlobsInSubtree(root.getPath());
+        if (fileBlobRepository.retainSubtree(root.getPath()) != sharedBlobs) {
+            throw new FileNotFoundException("Content of a copied file was deleted during the copy");
+        }
+
+        for (int i = 0; i < legacyFiles.size(); i++) {
+            File legacy = legacyFiles.get(i);
+            FileBlob blob = legacyCopies.get(i);
+            Folder copyFolder = copies.get(legacy.getFolder().getId());
+            if (copyFolder == null) {
+                throw new FolderNotFoundException("Folder of a copied file was deleted during the copy");
+            }
+            fileRepository.save(File.builder()
+                    .displayName(legacy.getDisplayName())
+                    .physicalName("copy-" + copyFolder.getId() + "-" + legacy.getId())
+                    .physicalPath(blob.getPhysicalPath())
+                    .blob(blob)
+                    .size(blob.getSize())
+                    .mimeType(legacy.getMimeType())
+                    .storagePath(storagePath)
+                    .folder(copyFolder)
+                    .build());
         }
+
+        log.info("Folder {} copied as {} with {} subfolder(s) and {} shared blob(s)",
+                folder.getName(), root.getId(), copies.size() - 1, sharedBlobs);
+        return root;
+    }
+
+    /**
+     * Breadcrumbs from the root level down to the folder itself, read in one query
+     * from the ids already in the folder's path.
+     */
+    @Override
+    public List<Folder> findAncestors(Long folderId, Long userId) {
+        Folder folder = validateFolderAccess(folderId, userId);
+        List<Long> ids = Arrays.stream(folder.getPath().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+        return folderRepository.findByIdInOrderByDepthAsc(ids);
+    }
+
+    /**
+     * Builds the tree from two queries: the folders, depth-ordered so every parent is placed
+     * before its children, and a grouped file count. One level past the depth limit is read
+     * only to learn which cut-off folders still have subfolders to expand.
+     */
+    @Override
+    public FolderTreeResponse getFolderTree(Long userId, Integer depth, String cursor) {
+        if (depth != null && depth < 1) {
+            throw new InvalidPageRequestException("depth must be at least 1");
+        }
+
+        Folder expanded = StringUtils.hasText(cursor) ? validateFolderAccess(decodeTreeCursor(cursor), userId) : null;
+        int topDepth = expanded != null ? expanded.getDepth() + 1 : 0;
+        // Deepest level returned; the level below it is only probed
+        int lastDepth = depth != null ? topDepth + depth - 1 : Integer.MAX_VALUE - 1;
+
+        List<FolderNodeView> nodes;
+        List<FolderFileCountView> counts;
+        if (expanded != null) {
+            nodes = folderRepository.findSubtreeToDepth(expanded.getPath(), lastDepth + 1);
+            counts = folderRepository.countFilesInSubtree(expanded.getPath(), lastDepth);
+        } else {
+            Long storagePathId = ownershipContext.findStoragePathId(userId)
+                    .orElseThrow(() -> new FolderAccessDeniedException("User storage path not found"));
+            nodes = folderRepository.findTreeToDepth(storagePathId, lastDepth + 1);
+            counts = folderRepository.countFilesInTree(storagePathId, lastDepth);
+        }
+
+        Map<Long, Long> fileCounts = new HashMap<>();
+        for (FolderFileCountView count : counts) {
+            fileCounts.put(count.getFolderId(), count.getFileCount());
+        }
+
+        Map<Long, FolderTreeNode> placed = new HashMap<>();
+        List<FolderTreeNode> top = new ArrayList<>();
+        for (FolderNodeView node : nodes) {
+            if (node.getDepth() < topDepth) {
+                continue;
+            }
+            FolderTreeNode parent = node.getParentFolderId() != null ? placed.get(node.getParentFolderId()) : null;
+            if (node.getDepth() > lastDepth) {
+                if (parent != null && parent.getExpandCursor() == null) {
+                    parent.setExpandCursor(encodeTreeCursor(parent.getId()));
+                }
+                continue;
+            }
+
+            FolderTreeNode treeNode = FolderTreeNode.builder()
+                    .id(node.getId())
+                    .name(node.getName())
+                    .parentFolderId(node.getParentFolderId())
+                    .fileCount(fileCounts.getOrDefault(node.getId(), 0L))
+                    .build();
+            placed.put(node.getId(), treeNode);
+            if (node.getDepth() == topDepth) {
+                top.add(treeNode);
+            } else if (parent != null) {
+                parent.getChildren().add(treeNode);
+            }
+        }
+
+        top.sort(BY_NAME);
+        placed.values().forEach(treeNode -> treeNode.getChildren().sort(BY_NAME));
+
+        return FolderTreeResponse.builder()
+                .folders(top)
+                .folderCount(placed.size())
+                .build();
+    }
+
+    @Override
+    public boolean hasAccess(Long folderId, Long userId) {
+        return ownershipContext.findOwnedFolder(folderId, userId).isPresent();
     }
 
     @Override
@@ -149,24 +448,40 @@ public class FolderServiceImpl implements FolderService {
 
     // Helper Methods
     private StoragePath getUserStoragePath(Long userId) {
-        return storagePathService.findByAppUserId(userId)
+        return ownershipContext.findStoragePath(userId)
                 .orElseThrow(() -> new FolderAccessDeniedException("User storage path not found"));
     }
 
+    // A single query authorizes; only a failed check pays for telling "missing" from "not yours"
     private Folder validateFolderAccess(Long folderId, Long userId) {
-        Optional<Folder> folderOpt = findById(folderId);
-        if (folderOpt.isEmpty()) {
-            throw new FolderNotFoundException("Folder not found: " + folderId);
-        }
+        return ownershipContext.findOwnedFolder(folderId, userId)
+                .orElseThrow(() -> folderRepository.existsById(folderId)
+                        ? new FolderAccessDeniedException("Access denied to folder: " + folderId)
+                        : new FolderNotFoundException("Folder not found: " + folderId));
+    }
 
-        Folder folder = folderOpt.get();
-        StoragePath userStoragePath = getUserStoragePath(userId);
+    // Opaque to clients, like the listing cursors
+    private String encodeTreeCursor(Long folderId) {
+        String raw = TREE_CURSOR_PREFIX + folderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (!folder.getStoragePath().getId().equals(userStoragePath.getId())) {
-            throw new FolderAccessDeniedException("Access denied to folder: " + folderId);
+    private Long decodeTreeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(TREE_CURSOR_PREFIX)) {
+                return Long.valueOf(raw.substring(TREE_CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not a number - reported below
         }
+        throw new InvalidPageRequestException("Invalid cursor");
+    }
 
-        return folder;
+    private void validateNestingDepth(int pathLength) {
+        if (pathLength > MAX_PATH_LENGTH) {
+            throw new InvalidFolderNameException("Folders are nested too deeply");
+        }
     }
 
     private void validateFolderName(String name) {
@@ -197,17 +512,23 @@ public class FolderServiceImpl implements FolderService {
         }
     }
 
+    // One lookup on the sibling-name unique index instead of loading every sibling
     private boolean isDuplicateFolderName(String name, Long parentFolderId, Long storagePathId) {
-        List<Folder> existingFolders;
+        return folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(
+                storagePathId, Folder.parentScopeOf(parentFolderId), Folder.normalizeName(name));
+    }
 
-        if (parentFolderId != null) {
-            existingFolders = findByParentFolderId(parentFolderId);
-        } else {
-            existingFolders = findRootFolders(storagePathId);
-        }
+    private InvalidFolderNameException duplicateName(String name) {
+        return new InvalidFolderNameException("Folder with name '" + name + "' already exists in this location");
+    }
 
-        return existingFolders.stream()
-                .anyMatch(folder -> folder.getName().equalsIgnoreCase(name.trim()));
+    // A concurrent create or move took the name between the check and the write
+    private RuntimeException translateSiblingConflict(DataIntegrityViolationException e, String name) {
+        String cause = e.getMostSpecificCause().getMessage();
+        if (cause != null && cause.toUpperCase(Locale.ROOT).contains(Folder.SIBLING_NAME_CONSTRAINT.toUpperCase(Locale.ROOT))) {
+            return duplicateName(name);
+        }
+        return e;
     }
 
 }
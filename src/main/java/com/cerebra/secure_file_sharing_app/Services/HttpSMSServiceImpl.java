@@ -23,9 +23,10 @@ public class HttpSMSServiceImpl implements HttpSMSService {
     @Value("${sms.service.url}")
     private String smsServiceUrl;
     
-    @Value("${sms.service.retry.attempts}")
-    private int maxRetryAttempts;
-    
+    /**
+     * Makes a single delivery attempt. Retries and backoff are handled by the SMS
+     * outbox, so failures are reported rather than retried on the caller's thread.
+     */
     @Override
     public SMSResponse sendSMS(String phoneNumber, String message) {
         log.info("Attempting to send SMS to: {} via HTTP service", phoneNumber);
@@ -35,40 +36,22 @@ public class HttpSMSServiceImpl implements HttpSMSService {
                 .message(message)
                 .build();
         
-        // Try sending SMS with retry logic
-        for (int attempt = 1; attempt <= maxRetryAttempts; attempt++) {
-            try {
-                SMSResponse response = callSMSService(request, attempt);
-                if (response.isSuccess()) {
-                    log.info("SMS sent successfully to: {} on attempt {}", phoneNumber, attempt);
-                    return response;
-                } else {
-                    log.warn("SMS service returned failure for {}: {} (attempt {})", 
-                            phoneNumber, response.getMessage(), attempt);
-                }
-            } catch (Exception e) {
-                log.error("SMS service call failed for {} (attempt {}): {}", 
-                         phoneNumber, attempt, e.getMessage());
-                
-                if (attempt < maxRetryAttempts) {
-                    // Wait before retry with exponential backoff
-                    try {
-                        long waitTime = (long) Math.pow(2, attempt - 1) * 1000; // 1s, 2s, 4s
-                        Thread.sleep(waitTime);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+        try {
+            SMSResponse response = callSMSService(request);
+            if (response.isSuccess()) {
+                log.info("SMS sent successfully to: {}", phoneNumber);
+            } else {
+                log.warn("SMS service returned failure for {}: {}", phoneNumber, response.getMessage());
             }
+            return response;
+        } catch (Exception e) {
+            log.error("SMS service call failed for {}: {}", phoneNumber, e.getMessage());
+            return SMSResponse.failure("SMS service call failed: " + e.getMessage());
         }
-        
-        // All attempts failed - fallback to console logging
-        return fallbackToConsoleLogging(phoneNumber, message);
     }
     
-    private SMSResponse callSMSService(SMSRequest request, int attempt) {
-        log.debug("Calling SMS service (attempt {}): {}", attempt, smsServiceUrl);
+    private SMSResponse callSMSService(SMSRequest request) {
+        log.debug("Calling SMS service: {}", smsServiceUrl);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -84,15 +67,4 @@ public class HttpSMSServiceImpl implements HttpSMSService {
             throw new RestClientException("Empty response from SMS service");
         }
     }
-    
-    private SMSResponse fallbackToConsoleLogging(String phoneNumber, String message) {
-        log.warn("=".repeat(80));
-        log.warn("SMS SERVICE UNAVAILABLE - FALLBACK TO CONSOLE LOGGING");
-        log.warn("Phone: {}", phoneNumber);
-        log.warn("Message: {}", message);
-        log.warn("=".repeat(80));
-        
-        // Return success response to not break the user flow
-        return SMSResponse.success("SMS service unavailable - message logged to console");
-    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+
+import java.util.Optional;
+
+/**
+ * Resolves what a user owns. The user's storage path is looked up at most once per
+ * HTTP request, and files and folders are authorized with a single query each.
+ * An empty result from the access checks means "missing or not yours"; callers
+ * decide which of the two to report.
+ */
+public interface OwnershipContext {
+    Optional<StoragePath> findStoragePath(Long userId);
+    Optional<Long> findStoragePathId(Long userId);
+    Optional<File> findOwnedFile(Long fileId, Long userId);
+    Optional<Folder> findOwnedFolder(Long folderId, Long userId);
+}
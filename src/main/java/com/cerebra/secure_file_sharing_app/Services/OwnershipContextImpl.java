@@ -0,0 +1,65 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class OwnershipContextImpl implements OwnershipContext {
+
+    private static final String STORAGE_PATH_ATTRIBUTE = OwnershipContext.class.getName() + ".storagePath.";
+
+    private final StoragePathService storagePathService;
+    private final FileRepository fileRepository;
+    private final FolderRepository folderRepository;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<StoragePath> findStoragePath(Long userId) {
+        // Outside a web request (startup, background work) there is nothing to memoize into
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return storagePathService.findByAppUserId(userId);
+        }
+
+        String key = STORAGE_PATH_ATTRIBUTE + userId;
+        Object cached = request.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return (Optional<StoragePath>) cached;
+        }
+
+        Optional<StoragePath> storagePath = storagePathService.findByAppUserId(userId);
+        request.setAttribute(key, storagePath, RequestAttributes.SCOPE_REQUEST);
+        return storagePath;
+    }
+
+    @Override
+    public Optional<Long> findStoragePathId(Long userId) {
+        return findStoragePath(userId).map(StoragePath::getId);
+    }
+
+    @Override
+    public Optional<File> findOwnedFile(Long fileId, Long userId) {
+        if (fileId == null || userId == null) {
+            return Optional.empty();
+        }
+        return fileRepository.findOwnedFile(fileId, userId);
+    }
+
+    @Override
+    public Optional<Folder> findOwnedFolder(Long folderId, Long userId) {
+        if (folderId == null || userId == null) {
+            return Optional.empty();
+        }
+        return folderRepository.findOwnedFolder(folderId, userId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+public interface ReclaimQueueService {
+
+    /**
+     * Frees the storage queued by bulk deletes: drops blob references and removes
+     * pre-deduplication content. Returns how many queued entries were processed.
+     */
+    int reclaimQueued();
+}
@@ -0,0 +1,80 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.ReclaimTask;
+import com.cerebra.secure_file_sharing_app.Repositories.ReclaimTaskRepository;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReclaimQueueServiceImpl implements ReclaimQueueService {
+
+    private final ReclaimTaskRepository reclaimTaskRepository;
+    private final FileBlobService fileBlobService;
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.reclaim.batch-size:500}")
+    private int batchSize;
+
+    // Caps one run so a huge delete does not hold the scheduler thread; the rest waits for the next run
+    @Value("${app.storage.reclaim.max-batches:20}")
+    private int maxBatches;
+
+    /**
+     * Each task is claimed by deleting its row before the storage is touched, so concurrent
+     * reclaimers never release the same reference twice. A crash between the two leaks the
+     * content instead of corrupting a reference count.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.storage.reclaim.interval-ms:10000}")
+    public int reclaimQueued() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int reclaimed = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                List<ReclaimTask> tasks = reclaimTaskRepository.findBatch(Limit.of(batchSize));
+                for (ReclaimTask task : tasks) {
+                    if (reclaimTaskRepository.claim(task.getId()) == 1) {
+                        reclaim(task);
+                        reclaimed++;
+                    }
+                }
+                if (tasks.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("app.storage.reclaim.run"));
+            meterRegistry.counter("app.storage.reclaim.reclaimed").increment(reclaimed);
+        }
+
+        if (reclaimed > 0) {
+            log.info("Reclaimed storage for {} deleted files", reclaimed);
+        }
+        return reclaimed;
+    }
+
+    private void reclaim(ReclaimTask task) {
+        try {
+            if (task.getBlobId() != null) {
+                fileBlobService.release(task.getBlobId());
+            } else if (task.getPhysicalPath() != null) {
+                blobStore.delete(task.getPhysicalPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not reclaim storage for task {}: {}", task.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+public interface SMSOutboxService {
+    void enqueue(String phoneNumber, String message);
+    int dispatchDue();
+    int purgeFinished();
+}
@@ -0,0 +1,159 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.SMSOutboxMessage;
+import com.cerebra.secure_file_sharing_app.Repositories.SMSOutboxRepository;
+import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Persistent SMS outbox. Callers enqueue and return at once; a scheduled dispatcher
+ * sends due messages in batches, reschedules failures with exponential backoff and
+ * stops calling the SMS service while its circuit breaker is open.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SMSOutboxServiceImpl implements SMSOutboxService {
+
+    private final SMSOutboxRepository outboxRepository;
+    private final HttpSMSService smsService;
+
+    @Value("${app.sms.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${sms.service.retry.attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.sms.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.sms.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMillis;
+
+    // How long a claimed message stays invisible to other dispatchers
+    @Value("${app.sms.outbox.lease-ms:60000}")
+    private long leaseMillis;
+
+    @Value("${app.sms.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.sms.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.sms.circuit.open-ms:30000}")
+    private long openMillis;
+
+    // Circuit breaker state, guarded by dispatchDue being synchronized
+    private int consecutiveFailures;
+    private long openUntilMillis;
+
+    @Override
+    public void enqueue(String phoneNumber, String message) {
+        SMSOutboxMessage queued = outboxRepository.save(SMSOutboxMessage.builder()
+                .phoneNumber(phoneNumber)
+                .message(message)
+                .status(SMSOutboxMessage.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        log.info("SMS to {} queued as outbox message {}", phoneNumber, queued.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.sms.outbox.poll-interval-ms:1000}")
+    public synchronized int dispatchDue() {
+        long nowMillis = System.currentTimeMillis();
+        boolean circuitOpen = consecutiveFailures >= failureThreshold;
+        if (circuitOpen && nowMillis < openUntilMillis) {
+            return 0;
+        }
+
+        // Half-open: a single trial message decides whether the circuit closes again
+        LocalDateTime now = LocalDateTime.now();
+        List<SMSOutboxMessage> due = outboxRepository.findDue(
+                SMSOutboxMessage.Status.PENDING, now, Limit.of(circuitOpen ? 1 : batchSize));
+
+        int sent = 0;
+        for (SMSOutboxMessage message : due) {
+            if (outboxRepository.claim(message.getId(), SMSOutboxMessage.Status.PENDING,
+                    now, now.plusNanos(leaseMillis * 1_000_000)) == 0) {
+                continue;
+            }
+
+            if (deliver(message)) {
+                sent++;
+            } else if (consecutiveFailures >= failureThreshold) {
+                openUntilMillis = System.currentTimeMillis() + openMillis;
+                log.warn("SMS circuit open for {} ms after {} consecutive failures", openMillis, consecutiveFailures);
+                break;
+            }
+        }
+        return sent;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.sms.outbox.purge-interval-ms:3600000}")
+    public int purgeFinished() {
+        int removed = outboxRepository.deleteFinishedBefore(
+                EnumSet.of(SMSOutboxMessage.Status.SENT, SMSOutboxMessage.Status.FAILED),
+                LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} finished SMS outbox messages", removed);
+        }
+        return removed;
+    }
+
+    private boolean deliver(SMSOutboxMessage message) {
+        SMSResponse response;
+        try {
+            response = smsService.sendSMS(message.getPhoneNumber(), message.getMessage());
+        } catch (Exception e) {
+            response = SMSResponse.failure(e.getMessage());
+        }
+
+        message.setAttempts(message.getAttempts() + 1);
+        if (response != null && response.isSuccess()) {
+            consecutiveFailures = 0;
+            message.setStatus(SMSOutboxMessage.Status.SENT);
+            message.setMessage(null);
+            message.setLastError(null);
+            outboxRepository.save(message);
+            log.info("SMS outbox message {} sent to {} on attempt {}",
+                    message.getId(), message.getPhoneNumber(), message.getAttempts());
+            return true;
+        }
+
+        consecutiveFailures++;
+        String error = response != null ? response.getMessage() : "Empty response from SMS service";
+        message.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(SMSOutboxMessage.Status.FAILED);
+            fallbackToConsoleLogging(message);
+        } else {
+            long backoff = Math.min(initialBackoffMillis << Math.min(message.getAttempts() - 1, 20), maxBackoffMillis);
+            message.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+            log.warn("SMS outbox message {} to {} failed (attempt {}): {} - retrying in {} ms",
+                    message.getId(), message.getPhoneNumber(), message.getAttempts(), error, backoff);
+        }
+        outboxRepository.save(message);
+        return false;
+    }
+
+    private void fallbackToConsoleLogging(SMSOutboxMessage message) {
+        log.warn("=".repeat(80));
+        log.warn("SMS SERVICE UNAVAILABLE - FALLBACK TO CONSOLE LOGGING");
+        log.warn("Phone: {}", message.getPhoneNumber());
+        log.warn("Message: {}", message.getMessage());
+        log.warn("=".repeat(80));
+    }
+}
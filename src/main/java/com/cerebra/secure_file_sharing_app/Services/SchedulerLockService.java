@@ -0,0 +1,8 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import java.time.Duration;
+
+public interface SchedulerLockService {
+    boolean tryAcquire(String name, Duration leaseTime);
+    void release(String name);
+}
@@ -0,0 +1,54 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Repositories.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease rows in {@code scheduler_locks} that keep a scheduled job to one node at a time.
+ * A lease is taken with a conditional update, so it needs no database-specific locking,
+ * and it simply runs out if its holder dies before releasing it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+
+    // Identifies this application instance as the lease holder
+    private final String owner = UUID.randomUUID().toString();
+
+    @Override
+    public boolean tryAcquire(String name, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(leaseTime);
+
+        if (lockRepository.acquire(name, owner, now, lockedUntil) == 1) {
+            return true;
+        }
+        if (lockRepository.existsById(name)) {
+            log.debug("Lock '{}' is held by another node", name);
+            return false;
+        }
+
+        // First run of this job anywhere: create the row, racing nodes lose on the primary key
+        try {
+            return lockRepository.create(name, owner, lockedUntil) == 1;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock '{}' was created concurrently by another node", name);
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String name) {
+        lockRepository.release(name, owner, LocalDateTime.now());
+    }
+}
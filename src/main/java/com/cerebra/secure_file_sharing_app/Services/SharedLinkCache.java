@@ -0,0 +1,150 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of resolved share tokens, so that popular public links do not hit the
+ * database on every download. Unknown tokens are cached too, for a shorter time, so
+ * guessing or replaying dead links stays cheap. Entries are dropped whenever the share or
+ * the item behind it is deleted; expiry is checked by the caller against the cached value.
+ */
+@Slf4j
+@Component
+public class SharedLinkCache {
+
+    private final Map<String, CachedShare> shares = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    // Bumped by every invalidation; a load that raced one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // 0 disables the cache
+    @Value("${app.share.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.share.cache.negative-ttl-seconds:10}")
+    private long negativeTtlSeconds;
+
+    @Value("${app.share.cache.max-size:10000}")
+    private int maxSize;
+
+    // share is null for tokens that do not exist
+    private record CachedShare(ResolvedShare share, long expiresAtMillis) {
+    }
+
+    public SharedLinkCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("app.shares.cache")
+                .description("Share token lookups answered from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("app.shares.cache")
+                .description("Share token lookups that went to the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("app.shares.cache.size", List.of(), shares);
+    }
+
+    /**
+     * Returns the cached resolution of the token, or loads it and caches it, including
+     * the fact that the token is unknown.
+     */
+    public Optional<ResolvedShare> get(String linkToken, Supplier<Optional<ResolvedShare>> loader) {
+        if (ttlSeconds > 0) {
+            CachedShare cached = shares.get(linkToken);
+            if (cached != null) {
+                if (System.currentTimeMillis() < cached.expiresAtMillis()) {
+                    hits.increment();
+                    return Optional.ofNullable(cached.share());
+                }
+                shares.remove(linkToken, cached);
+            }
+        }
+
+        misses.increment();
+        long loadedAt = generation.get();
+        Optional<ResolvedShare> loaded = loader.get();
+        if (ttlSeconds > 0) {
+            remember(linkToken, loaded.orElse(null), loadedAt);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String linkToken) {
+        if (linkToken != null) {
+            generation.incrementAndGet();
+            shares.remove(linkToken);
+        }
+    }
+
+    public void invalidateShares(Collection<Long> shareIds) {
+        if (!shareIds.isEmpty()) {
+            // Signed-URL entries carry no share id
+            removeIf(share -> share.shareId() != null && shareIds.contains(share.shareId()));
+        }
+    }
+
+    public void invalidateFile(Long fileId) {
+        if (fileId != null) {
+            removeIf(share -> fileId.equals(share.fileId()));
+        }
+    }
+
+    public void invalidateFolder(Long folderId) {
+        if (folderId != null) {
+            removeIf(share -> folderId.equals(share.folderId()));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        shares.clear();
+    }
+
+    private void removeIf(Predicate<ResolvedShare> matches) {
+        generation.incrementAndGet();
+        shares.values().removeIf(entry -> entry.share() != null && matches.test(entry.share()));
+    }
+
+    private void remember(String linkToken, ResolvedShare share, long loadedAt) {
+        if (shares.size() >= maxSize) {
+            evict();
+        }
+        long ttlMillis = (share != null ? ttlSeconds : negativeTtlSeconds) * 1000;
+        shares.put(linkToken, new CachedShare(share, System.currentTimeMillis() + ttlMillis));
+
+        // Invalidated while loading: what was just read may already be gone
+        if (generation.get() != loadedAt) {
+            shares.remove(linkToken);
+        }
+    }
+
+    // Drops expired entries, then arbitrary ones until a tenth of the capacity is free
+    private void evict() {
+        long now = System.currentTimeMillis();
+        shares.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<CachedShare> entries = shares.values().iterator();
+        while (shares.size() > target && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+        log.debug("Share cache evicted down to {} entries", shares.size());
+    }
+}
@@ -1,7 +1,11 @@
 package com.cerebra.secure_file_sharing_app.Services;
 
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
-import org.springframework.core.io.Resource;
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageResponse;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,13 +18,21 @@ public interface SharedLinkService {
     List<SharedLink> findByFileId(Long fileId);
     List<SharedLink> findAll();
     void deleteById(Long id);
-    void deleteExpiredLinks();
+    int deleteExpiredLinks();
 
     // Business operations
     SharedLink createFileShare(Long fileId, Long userId, String recipientPhone);
     SharedLink createFolderShare(Long folderId, Long userId, String recipientPhone);
-    Resource downloadSharedFile(String linkToken);
+    SharedLink resolveShare(String linkToken);
+    ResolvedShare resolveSharedItem(String linkToken);
+    String shareUrl(SharedLink sharedLink);
+    StreamingResponseBody streamFolderAsZip(Folder folder);
+    StreamingResponseBody streamFolderAsZip(ResolvedShare share);
+    /**
+     * Deletes one share. With signed URLs enabled, revoking a file share revokes every signed URL
+     * to that file, so all of the file's shares are deleted together.
+     */
     void revokeShare(Long shareId, Long userId);
-    List<SharedLink> getUserShares(Long userId);
+    SharePageResponse getUserSharesPage(Long userId, SharePageRequest pageRequest);
     boolean isValidShareToken(String linkToken);
 }
\ No newline at end of file
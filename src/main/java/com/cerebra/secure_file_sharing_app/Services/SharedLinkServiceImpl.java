@@ -3,39 +3,55 @@ package com.cerebra.secure_file_sharing_app.Services;
 import com.cerebra.secure_file_sharing_app.Entities.File;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
-import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.ShareListingView;
 import com.cerebra.secure_file_sharing_app.Repositories.SharedLinkRepository;
+import com.cerebra.secure_file_sharing_app.Security.SignedShareTokenService;
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.ShareResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
-import org.springframework.core.io.UrlResource;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SharedLinkServiceImpl implements SharedLinkService {
 
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String EXPIRY_SWEEP_LOCK = "shared-link-expiry-sweep";
+
     private final SharedLinkRepository sharedLinkRepository;
     private final FileService fileService;
     private final FolderService folderService;
-    private final HttpSMSService smsService;
-    private final StoragePathService storagePathService;
+    private final SMSOutboxService smsOutboxService;
+    private final OwnershipContext ownershipContext;
+    private final ZipStreamingService zipStreamingService;
+    private final FolderArchiveService folderArchiveService;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+    private final SharedLinkCache sharedLinkCache;
+    private final SignedShareTokenService signedShareTokens;
 
     @Value("${app.share.expiration-days:7}")
     private int shareExpirationDays;
@@ -43,6 +59,19 @@ public class SharedLinkServiceImpl implements SharedLinkService {
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
+    @Value("${app.shares.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.share.expiry-sweep.batch-size:500}")
+    private int sweepBatchSize;
+
+    // Caps one sweep so it finishes well inside its lease; the rest waits for the next run
+    @Value("${app.share.expiry-sweep.max-batches:20}")
+    private int sweepMaxBatches;
+
+    @Value("${app.share.expiry-sweep.lease-ms:600000}")
+    private long sweepLeaseMillis;
+
     // Basic CRUD Operations
     @Override
     public SharedLink save(SharedLink sharedLink) {
@@ -72,13 +101,45 @@ public class SharedLinkServiceImpl implements SharedLinkService {
     @Override
     public void deleteById(Long id) {
         sharedLinkRepository.deleteById(id);
+        sharedLinkCache.invalidateShares(List.of(id));
     }
 
+    /**
+     * Deletes expired links in bounded batches, each its own short bulk DELETE. Only the node
+     * holding the sweep lease runs; others return 0 straight away.
+     */
     @Override
-    public void deleteExpiredLinks() {
-        List<SharedLink> expiredLinks = sharedLinkRepository.findByExpiresAtBefore(LocalDateTime.now());
-        sharedLinkRepository.deleteAll(expiredLinks);
-        log.info("Deleted {} expired shared links", expiredLinks.size());
+    @Scheduled(fixedDelayString = "${app.share.expiry-sweep.interval-ms:300000}")
+    public int deleteExpiredLinks() {
+        if (!schedulerLockService.tryAcquire(EXPIRY_SWEEP_LOCK, Duration.ofMillis(sweepLeaseMillis))) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int deleted = 0;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (int batch = 0; batch < sweepMaxBatches; batch++) {
+                List<Long> expiredIds = sharedLinkRepository.findExpiredIds(now, Limit.of(sweepBatchSize));
+                if (expiredIds.isEmpty()) {
+                    break;
+                }
+                deleted += sharedLinkRepository.deleteExpiredByIds(expiredIds, now);
+                sharedLinkCache.invalidateShares(expiredIds);
+                if (expiredIds.size() < sweepBatchSize) {
+                    break;
+                }
+            }
+        } finally {
+            schedulerLockService.release(EXPIRY_SWEEP_LOCK);
+            sample.stop(meterRegistry.timer("app.shares.expiry.sweep"));
+            meterRegistry.counter("app.shares.expired.purged").increment(deleted);
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} expired shared links", deleted);
+        }
+        return deleted;
     }
 
     // Business Operations
@@ -87,10 +148,8 @@ public class SharedLinkServiceImpl implements SharedLinkService {
         log.info("Creating file share for file: {} by user: {}", fileId, userId);
 
         // Validate file exists and user has access
-        File file = fileService.findById(fileId)
-                .orElseThrow(() -> new FileNotFoundException("File not found: " + fileId));
-
-        validateFileAccess(file, userId);
+        File file = ownershipContext.findOwnedFile(fileId, userId)
+                .orElseThrow(() -> new FileNotFoundException("File not found or access denied: " + fileId));
 
         // Generate unique link token
         String linkToken = generateLinkToken();
@@ -107,7 +166,7 @@ public class SharedLinkServiceImpl implements SharedLinkService {
 
         // Send SMS if recipient phone provided
         if (recipientPhone != null && !recipientPhone.trim().isEmpty()) {
-            sendShareNotification(recipientPhone, linkToken, file.getDisplayName());
+            sendShareNotification(recipientPhone, shareUrl(savedLink), file.getDisplayName());
         }
 
         log.info("File share created successfully: {} expires at {}", linkToken, expiresAt);
@@ -119,12 +178,8 @@ public class SharedLinkServiceImpl implements SharedLinkService {
         log.info("Creating folder share for folder: {} by user: {}", folderId, userId);
 
         // Validate folder exists and user has access
-        if (!folderService.hasAccess(folderId, userId)) {
-            throw new FolderNotFoundException("Folder not found or access denied: " + folderId);
-        }
-
-        Folder folder = folderService.findById(folderId)
-                .orElseThrow(() -> new FolderNotFoundException("Folder not found: " + folderId));
+        Folder folder = ownershipContext.findOwnedFolder(folderId, userId)
+                .orElseThrow(() -> new FolderNotFoundException("Folder not found or access denied: " + folderId));
 
         // Generate unique link token
         String linkToken = generateLinkToken();
@@ -142,7 +197,7 @@ public class SharedLinkServiceImpl implements SharedLinkService {
 
         // Send SMS if recipient phone provided
         if (recipientPhone != null && !recipientPhone.trim().isEmpty()) {
-            sendShareNotification(recipientPhone, linkToken, "Folder: " + folder.getName());
+            sendShareNotification(recipientPhone, shareUrl(savedLink), "Folder: " + folder.getName());
         }
 
         log.info("Folder share created successfully: {} expires at {}", linkToken, expiresAt);
@@ -150,10 +205,7 @@ public class SharedLinkServiceImpl implements SharedLinkService {
     }
 
     @Override
-    public Resource downloadSharedFile(String linkToken) {
-        log.info("Attempting to download shared item with token: {}", linkToken);
-
-        // Find and validate share link
+    public SharedLink resolveShare(String linkToken) {
         SharedLink sharedLink = findByLinkToken(linkToken)
                 .orElseThrow(() -> new ShareNotFoundException("Invalid or expired share link"));
 
@@ -163,22 +215,75 @@ public class SharedLinkServiceImpl implements SharedLinkService {
             throw new ShareExpiredException("Share link has expired");
         }
 
-        // Handle file or folder download
-        if (sharedLink.getFile() != null) {
-            // File sharing - direct download
-            log.info("Downloading shared file: {}", sharedLink.getFile().getDisplayName());
-            return downloadSharedFileResource(sharedLink.getFile());
+        if (sharedLink.getFile() == null && sharedLink.getFolder() == null) {
+            throw new ShareNotFoundException("Invalid share - no file or folder associated");
+        }
 
-        } else if (sharedLink.getFolder() != null) {
-            // Folder sharing - ZIP download
-            log.info("Downloading shared folder as ZIP: {}", sharedLink.getFolder().getName());
-            return downloadFolderAsZip(sharedLink.getFolder());
+        return sharedLink;
+    }
 
-        } else {
+    /**
+     * Resolves a token for the public download endpoints, from the share cache when possible.
+     * Expiry is checked on every call, so a cached share stops working the moment it expires.
+     */
+    @Override
+    public ResolvedShare resolveSharedItem(String linkToken) {
+        if (signedShareTokens.isSignedToken(linkToken)) {
+            return resolveSignedShare(linkToken);
+        }
+
+        ResolvedShare share = sharedLinkCache.get(linkToken,
+                        () -> sharedLinkRepository.findWithItemByLinkToken(linkToken).map(this::toResolvedShare))
+                .orElseThrow(() -> new ShareNotFoundException("Invalid or expired share link"));
+
+        if (LocalDateTime.now().isAfter(share.expiresAt())) {
+            log.warn("Expired share link accessed: {}", linkToken);
+            throw new ShareExpiredException("Share link has expired");
+        }
+
+        if (share.fileId() == null && share.folderId() == null) {
             throw new ShareNotFoundException("Invalid share - no file or folder associated");
         }
+
+        return share;
+    }
+
+    /**
+     * Public URL for a share: signed when signed URLs are enabled and the share is a file,
+     * otherwise the plain token URL.
+     */
+    @Override
+    public String shareUrl(SharedLink sharedLink) {
+        File file = sharedLink.getFile();
+        return shareUrl(sharedLink.getLinkToken(), file != null ? file.getId() : null,
+                file != null ? file.getShareEpoch() : null, sharedLink.getExpiresAt());
+    }
+
+    // Listings and new shares must hand out the same URL, signed from the file's current epoch when enabled
+    private String shareUrl(String linkToken, Long fileId, Integer shareEpoch, LocalDateTime expiresAt) {
+        if (signedShareTokens.isEnabled() && fileId != null && shareEpoch != null) {
+            return baseUrl + "/public/shared/" + signedShareTokens.sign(fileId, shareEpoch, expiresAt);
+        }
+        return baseUrl + "/public/shared/" + linkToken;
     }
 
+    @Override
+    public StreamingResponseBody streamFolderAsZip(ResolvedShare share) {
+        // The subtree is read by path, which moves change, so it is not taken from the cached share
+        Folder folder = folderService.findById(share.folderId())
+                .orElseThrow(() -> new FolderNotFoundException("Folder not found: " + share.folderId()));
+        return streamFolderAsZip(folder);
+    }
+
+    @Override
+    public StreamingResponseBody streamFolderAsZip(Folder folder) {
+        log.info("Streaming shared folder as ZIP: {}", folder.getName());
+
+        // Resolve entries on the request thread so lookup errors still map to HTTP errors
+        List<ZipStreamingService.Entry> entries = folderArchiveService.collectEntries(folder);
+
+        return outputStream -> zipStreamingService.writeZip(entries, outputStream);
+    }
 
     @Override
     public void revokeShare(Long shareId, Long userId) {
@@ -187,9 +292,25 @@ public class SharedLinkServiceImpl implements SharedLinkService {
         SharedLink sharedLink = findById(shareId)
                 .orElseThrow(() -> new ShareNotFoundException("Share not found: " + shareId));
 
-        // Validate user owns the shared file
-        if (sharedLink.getFile() != null) {
-            validateFileAccess(sharedLink.getFile(), userId);
+        // Checked before anything is deleted or any signed URL is revoked; someone else's share looks missing
+        boolean owned = sharedLink.getFile() != null
+                ? ownershipContext.findOwnedFile(sharedLink.getFile().getId(), userId).isPresent()
+                : sharedLink.getFolder() != null
+                        && ownershipContext.findOwnedFolder(sharedLink.getFolder().getId(), userId).isPresent();
+        if (!owned) {
+            throw new ShareNotFoundException("Share not found or access denied: " + shareId);
+        }
+
+        if (signedShareTokens.isEnabled() && sharedLink.getFile() != null) {
+            // Signed URLs never touch this row, so they are revoked through the file's epoch. The epoch
+            // is per file, so the file's other shares die with it and are removed rather than listed as live
+            Long fileId = sharedLink.getFile().getId();
+            List<Long> fileShareIds = sharedLinkRepository.findIdsByFileId(fileId);
+            sharedLinkRepository.deleteAllByIdInBatch(fileShareIds);
+            sharedLinkCache.invalidateShares(fileShareIds);
+            fileService.revokeSignedShares(fileId);
+            log.info("Share {} revoked together with {} other share(s) of file {}", shareId, fileShareIds.size() - 1, fileId);
+            return;
         }
 
         deleteById(shareId);
@@ -197,23 +318,37 @@ public class SharedLinkServiceImpl implements SharedLinkService {
     }
 
     @Override
-    public List<SharedLink> getUserShares(Long userId) {
-        // Get user's storage path
-        StoragePath userStoragePath = getUserStoragePath(userId);
-
-        // Find all shares for user's files and folders
-        List<SharedLink> userShares = sharedLinkRepository.findAll().stream()
-                .filter(share -> {
-                    if (share.getFile() != null) {
-                        return share.getFile().getStoragePath().getId().equals(userStoragePath.getId());
-                    } else if (share.getFolder() != null) {
-                        return share.getFolder().getStoragePath().getId().equals(userStoragePath.getId());
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
-
-        return userShares;
+    public SharePageResponse getUserSharesPage(Long userId, SharePageRequest pageRequest) {
+        log.info("Getting shares page for user: {}", userId);
+
+        Long storagePathId = getUserStoragePathId(userId);
+        int limit = Math.max(1, Math.min(pageRequest.getLimit(), maxPageSize));
+
+        // One extra row tells whether another page exists without a count query
+        List<ShareListingView> rows;
+        if (StringUtils.hasText(pageRequest.getCursor())) {
+            String[] after = decodeCursor(pageRequest.getCursor());
+            LocalDateTime afterCreatedAt;
+            Long afterId;
+            try {
+                afterCreatedAt = LocalDateTime.parse(after[0]);
+                afterId = Long.valueOf(after[1]);
+            } catch (RuntimeException e) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+            rows = sharedLinkRepository.findSharePageAfter(storagePathId, afterCreatedAt, afterId, Limit.of(limit + 1));
+        } else {
+            rows = sharedLinkRepository.findSharePage(storagePathId, Limit.of(limit + 1));
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ShareListingView> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return SharePageResponse.builder()
+                .shares(page.stream().map(this::toShareResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
@@ -228,112 +363,89 @@ public class SharedLinkServiceImpl implements SharedLinkService {
     }
 
     // Helper Methods
-    private String generateLinkToken() {
-        return UUID.randomUUID().toString();
-    }
 
-    private void validateFileAccess(File file, Long userId) {
-        // Get user's storage path and validate ownership
-        // This logic should match FileService validation
-        // For now, simplified validation
-        log.debug("Validating file access for user: {} and file: {}", userId, file.getId());
-    }
+    // Signature and expiry are checked with no I/O; the file itself comes from the share cache
+    private ResolvedShare resolveSignedShare(String token) {
+        SignedShareTokenService.SignedShare signed = signedShareTokens.verify(token)
+                .filter(claims -> signedShareTokens.isEnabled())
+                .orElseThrow(() -> new ShareNotFoundException("Invalid or expired share link"));
 
-    private void sendShareNotification(String recipientPhone, String linkToken, String itemName) {
-        try {
-            String shareUrl = baseUrl + "/public/shared/" + linkToken;
-            String message = String.format("You have received a shared file: %s. Access it here: %s", itemName, shareUrl);
+        if (LocalDateTime.now().isAfter(signed.expiresAt())) {
+            throw new ShareExpiredException("Share link has expired");
+        }
 
-            var smsResponse = smsService.sendSMS(recipientPhone, message);
+        return sharedLinkCache.get(token, () -> fileService.findById(signed.fileId())
+                        .filter(file -> file.getShareEpoch() != null && file.getShareEpoch() == signed.epoch())
+                        .map(file -> new ResolvedShare(null, token, file.getId(), null, file.getDisplayName(),
+                                file.getPhysicalPath(), file.getSize(), file.getMimeType(), signed.expiresAt())))
+                .orElseThrow(() -> new ShareNotFoundException("Invalid or expired share link"));
+    }
 
-            if (smsResponse.isSuccess()) {
-                log.info("Share notification sent successfully to: {}", recipientPhone);
-            } else {
-                log.error("Failed to send share notification to {}: {}", recipientPhone, smsResponse.getMessage());
-            }
-        } catch (Exception e) {
-            log.error("Error sending share notification: {}", e.getMessage(), e);
-        }
+    private ResolvedShare toResolvedShare(SharedLink link) {
+        File file = link.getFile();
+        Folder folder = link.getFolder();
+        return new ResolvedShare(
+                link.getId(),
+                link.getLinkToken(),
+                file != null ? file.getId() : null,
+                file == null && folder != null ? folder.getId() : null,
+                file != null ? file.getDisplayName() : folder != null ? folder.getName() : null,
+                file != null ? file.getPhysicalPath() : null,
+                file != null ? file.getSize() : null,
+                file != null ? file.getMimeType() : null,
+                link.getExpiresAt());
     }
 
-    private Resource getFileResource(File file) {
-        // Direct file access bypassing user validation
-        try {
-            return fileService.downloadSharedFile(file.getId());
-        } catch (Exception e) {
-            throw new FileNotFoundException("Cannot access shared file: " + e.getMessage());
-        }
+    private ShareResponse toShareResponse(ShareListingView row) {
+        boolean isFile = row.getFileId() != null;
+        return ShareResponse.builder()
+                .shareId(row.getShareId())
+                .linkToken(row.getLinkToken())
+                .shareUrl(shareUrl(row.getLinkToken(), row.getFileId(), row.getFileShareEpoch(), row.getExpiresAt()))
+                .itemType(isFile ? "file" : "folder")
+                .itemName(isFile ? row.getFileName() : row.getFolderName())
+                .itemId(isFile ? row.getFileId() : row.getFolderId())
+                .expiresAt(row.getExpiresAt())
+                .createdAt(row.getCreatedAt())
+                .build();
     }
 
-    // New helper methods
-    private Resource downloadSharedFileResource(File file) {
-        return fileService.downloadSharedFile(file.getId());
+    // Opaque to clients: createdAt|id of the last row on the page
+    private String encodeCursor(ShareListingView last) {
+        String raw = last.getCreatedAt() + CURSOR_SEPARATOR + last.getShareId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    private Resource downloadFolderAsZip(Folder folder) {
+    private String[] decodeCursor(String cursor) {
         try {
-            // Get all files in the folder
-            List<File> files = fileService.getFolderFiles(folder.getId(), null); // null userId for shared access
-
-            if (files.isEmpty()) {
-                // Create empty ZIP for empty folders
-                return createEmptyZip(folder.getName());
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(Pattern.quote(CURSOR_SEPARATOR));
+            if (parts.length == 2) {
+                return parts;
             }
-
-            // Create ZIP file with all folder contents
-            return createZipFromFiles(files, folder.getName());
-
-        } catch (Exception e) {
-            log.error("Error creating ZIP for folder {}: {}", folder.getName(), e.getMessage(), e);
-            throw new FileStorageException("Failed to create folder ZIP: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // Not base64 - reported below
         }
+        throw new InvalidPageRequestException("Invalid cursor");
     }
 
-    private Resource createZipFromFiles(List<File> files, String folderName) throws IOException {
-        // Create temporary ZIP file
-        Path tempZipPath = Files.createTempFile("shared-folder-", ".zip");
-
-        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(tempZipPath))) {
-
-            for (File file : files) {
-                // Add file to ZIP
-                ZipEntry zipEntry = new ZipEntry(file.getDisplayName());
-                zipOut.putNextEntry(zipEntry);
-
-                // Copy file content to ZIP
-                Path filePath = Paths.get(file.getPhysicalPath());
-                Files.copy(filePath, zipOut);
-                zipOut.closeEntry();
-            }
-        }
-
-        // Return ZIP file as resource
-        return new UrlResource(tempZipPath.toUri()) {
-            @Override
-            public String getFilename() {
-                return folderName + ".zip";
-            }
-        };
+    private String generateLinkToken() {
+        return UUID.randomUUID().toString();
     }
 
-    private Resource createEmptyZip(String folderName) throws IOException {
-        // Create temporary empty ZIP file
-        Path tempZipPath = Files.createTempFile("empty-folder-", ".zip");
+    private void sendShareNotification(String recipientPhone, String shareUrl, String itemName) {
+        try {
+            String message = String.format("You have received a shared file: %s. Access it here: %s", itemName, shareUrl);
 
-        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(tempZipPath))) {
-            // Create empty ZIP
+            smsOutboxService.enqueue(recipientPhone, message);
+            log.info("Share notification queued for: {}", recipientPhone);
+        } catch (Exception e) {
+            log.error("Error queueing share notification: {}", e.getMessage(), e);
         }
-
-        return new UrlResource(tempZipPath.toUri()) {
-            @Override
-            public String getFilename() {
-                return folderName + "-empty.zip";
-            }
-        };
     }
 
-    private StoragePath getUserStoragePath(Long userId) {
-        return storagePathService.findByAppUserId(userId)
+    private Long getUserStoragePathId(Long userId) {
+        return ownershipContext.findStoragePathId(userId)
                 .orElseThrow(() -> new RuntimeException("User storage path not found"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+public interface StorageMigrationService {
+
+    /**
+     * Moves files still stored flat under their owner's directory into the sharded blob
+     * layout, one bounded batch at a time. Returns the number of files moved.
+     */
+    int migrateLegacyFiles();
+}
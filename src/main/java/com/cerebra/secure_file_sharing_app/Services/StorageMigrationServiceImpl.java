@@ -0,0 +1,146 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageMigrationServiceImpl implements StorageMigrationService {
+
+    private static final String MIGRATION_LOCK = "storage-layout-migration";
+    private static final String STAGING_DIR = "blobs/tmp";
+
+    private final FileRepository fileRepository;
+    private final FileBlobService fileBlobService;
+    private final SharedLinkCache sharedLinkCache;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.root-path:/app-storage}")
+    private String rootStoragePath;
+
+    @Value("${app.storage.migration.batch-size:200}")
+    private int batchSize;
+
+    // Caps one run so it finishes well inside its lease; the rest waits for the next run
+    @Value("${app.storage.migration.max-batches:10}")
+    private int maxBatches;
+
+    @Value("${app.storage.migration.lease-ms:1800000}")
+    private long leaseMillis;
+
+    // Resumes where the previous run stopped; reset once a run reaches the end so skipped files are retried
+    private volatile long cursor;
+
+    /**
+     * Each legacy file is hashed into the blob store like a fresh upload, so it lands in the
+     * sharded layout and is deduplicated against existing content. The row is switched with a
+     * conditional update and the flat copy is removed only after that, so every committed row
+     * points at readable content. Only the node holding the migration lease runs.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.storage.migration.interval-ms:3600000}")
+    public int migrateLegacyFiles() {
+        if (!schedulerLockService.tryAcquire(MIGRATION_LOCK, Duration.ofMillis(leaseMillis))) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int migrated = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                List<File> files = fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(cursor, Limit.of(batchSize));
+                for (File file : files) {
+                    if (migrate(file)) {
+                        migrated++;
+                    }
+                    cursor = file.getId();
+                }
+                if (files.size() < batchSize) {
+                    cursor = 0;
+                    break;
+                }
+            }
+        } finally {
+            schedulerLockService.release(MIGRATION_LOCK);
+            sample.stop(meterRegistry.timer("app.storage.migration.run"));
+            meterRegistry.counter("app.storage.migration.migrated").increment(migrated);
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} legacy files into the sharded blob layout", migrated);
+        }
+        return migrated;
+    }
+
+    private boolean migrate(File file) {
+        String legacyPath = file.getPhysicalPath();
+        Path source = Paths.get(rootStoragePath).resolve(legacyPath);
+        if (!Files.isRegularFile(source)) {
+            log.warn("Skipping file {}: content missing at {}", file.getId(), legacyPath);
+            return false;
+        }
+
+        Path staged = null;
+        FileBlob blob;
+        try {
+            // Adopting consumes its source, so hand it a link and keep the original readable until the row moves
+            Path stagingDir = Paths.get(rootStoragePath, STAGING_DIR);
+            Files.createDirectories(stagingDir);
+            staged = stagingDir.resolve(UUID.randomUUID() + ".migrate");
+            stage(source, staged);
+            blob = fileBlobService.adopt(staged);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not migrate file {} from {}: {}", file.getId(), legacyPath, e.getMessage());
+            deleteQuietly(staged);
+            return false;
+        }
+
+        if (fileRepository.attachBlob(file.getId(), blob, blob.getPhysicalPath(), legacyPath) == 0) {
+            // Deleted or changed while the content was being copied
+            fileBlobService.release(blob.getId());
+            return false;
+        }
+
+        sharedLinkCache.invalidateFile(file.getId());
+        deleteQuietly(source);
+        return true;
+    }
+
+    private void stage(Path source, Path staged) throws IOException {
+        try {
+            Files.createLink(staged, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, staged);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.UploadSession;
+
+import java.io.InputStream;
+
+public interface UploadSessionService {
+
+    /**
+     * Opens a resumable upload: validates the target folder, preallocates the
+     * destination file and records an empty progress bitmap.
+     */
+    UploadSession initiateUpload(String fileName, long totalSize, String mimeType, Long folderId, Long userId);
+
+    /**
+     * Writes one chunk straight to its final offset. The offset must be chunk-aligned
+     * and the body exactly one chunk long (shorter only for the last chunk).
+     * Re-sending a chunk that already arrived is harmless.
+     */
+    UploadSession uploadChunk(String uploadId, long offset, InputStream data, long contentLength, Long userId);
+
+    UploadSession getUploadSession(String uploadId, Long userId);
+
+    /**
+     * Creates the File entity once every chunk is on disk, sharing the stored blob when
+     * identical content already exists. Repeating the call after success returns the same file;
+     * a call made while another is still completing the upload is rejected.
+     */
+    File completeUpload(String uploadId, Long userId);
+
+    void abortUpload(String uploadId, Long userId);
+
+    /**
+     * Removes expired in-progress sessions and their partial files.
+     * Returns how many sessions were deleted.
+     */
+    int deleteExpiredSessions();
+}
@@ -0,0 +1,452 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Entities.UploadSession;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.UploadSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    // Bitmap column holds 8192 bytes
+    private static final int MAX_CHUNKS = 8192 * 8;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PROGRESS_RETRIES = 10;
+    private static final String PART_SUFFIX = ".part";
+    private static final String EXPIRY_SWEEP_LOCK = "upload-session-expiry-sweep";
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileService fileService;
+    private final OwnershipContext ownershipContext;
+    private final FileBlobService fileBlobService;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.root-path:/app-storage}")
+    private String rootStoragePath;
+
+    @Value("${app.upload.chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.upload.max-file-size:10737418240}")
+    private long maxFileSize;
+
+    @Value("${app.upload.session-ttl-hours:24}")
+    private int sessionTtlHours;
+
+    @Value("${app.upload.expiry-sweep.batch-size:200}")
+    private int sweepBatchSize;
+
+    // Caps one sweep so it finishes well inside its lease; the rest waits for the next run
+    @Value("${app.upload.expiry-sweep.max-batches:10}")
+    private int sweepMaxBatches;
+
+    @Value("${app.upload.expiry-sweep.lease-ms:600000}")
+    private long sweepLeaseMillis;
+
+    // A completion still COMPLETING after this long is taken to have died with its node
+    @Value("${app.upload.completion-lease-ms:3600000}")
+    private long completionLeaseMillis;
+
+    // Completed sessions answer retried completions with the same file until they are purged
+    @Value("${app.upload.completed-retention-hours:24}")
+    private int completedRetentionHours;
+
+    @Override
+    public UploadSession initiateUpload(String fileName, long totalSize, String mimeType, Long folderId, Long userId) {
+        log.info("Initiating chunked upload of {} ({} bytes) for user: {}", fileName, totalSize, userId);
+
+        String cleanName = validateFileName(fileName);
+        if (totalSize <= 0) {
+            throw new FileStorageException("Cannot store empty file");
+        }
+        if (totalSize > maxFileSize) {
+            throw new FileStorageException("File size exceeds maximum allowed size");
+        }
+
+        StoragePath storagePath = getUserStoragePath(userId);
+        // Fail fast on a bad folder instead of after gigabytes have been sent
+        Folder targetFolder = fileService.resolveTargetFolder(folderId, userId);
+
+        // Grow chunks for huge files so the progress bitmap stays bounded
+        long minChunkSize = (totalSize + MAX_CHUNKS - 1) / MAX_CHUNKS;
+        int chunkSize = (int) Math.max(defaultChunkSize, minChunkSize);
+        int chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+
+        String physicalName = UUID.randomUUID() + getFileExtension(cleanName);
+        Path userStorageDir = Paths.get(rootStoragePath, storagePath.getBasePath());
+        Path partPath = userStorageDir.resolve(physicalName + PART_SUFFIX);
+
+        try {
+            Files.createDirectories(userStorageDir);
+            // Sparse preallocation - chunks are written in place at their offsets
+            try (RandomAccessFile raf = new RandomAccessFile(partPath.toFile(), "rw")) {
+                raf.setLength(totalSize);
+            }
+        } catch (IOException e) {
+            log.error("Failed to preallocate upload file: {}", e.getMessage(), e);
+            throw new FileStorageException("Failed to store file: " + e.getMessage());
+        }
+
+        UploadSession session = UploadSession.builder()
+                .uploadId(UUID.randomUUID().toString())
+                .fileName(cleanName)
+                .mimeType(mimeType)
+                .totalSize(totalSize)
+                .chunkSize(chunkSize)
+                .chunkCount(chunkCount)
+                .receivedChunks(new byte[(chunkCount + 7) / 8])
+                .receivedBytes(0L)
+                .physicalName(physicalName)
+                .physicalPath(userStorageDir.resolve(physicalName).toString())
+                .folderId(targetFolder.getId())
+                .status(UploadSession.Status.IN_PROGRESS)
+                .storagePath(storagePath)
+                .expiresAt(LocalDateTime.now().plusHours(sessionTtlHours))
+                .build();
+
+        UploadSession saved = uploadSessionRepository.save(session);
+        log.info("Upload session {} created: {} chunks of {} bytes", saved.getUploadId(), chunkCount, chunkSize);
+        return saved;
+    }
+
+    @Override
+    public UploadSession uploadChunk(String uploadId, long offset, InputStream data, long contentLength, Long userId) {
+        UploadSession session = getActiveSession(uploadId, userId);
+
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new FileStorageException("Chunk offset must be a multiple of " + session.getChunkSize()
+                    + " below " + session.getTotalSize());
+        }
+
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new FileStorageException("Chunk at offset " + offset + " must be " + expectedLength + " bytes");
+        }
+
+        writeChunk(partPath(session), offset, expectedLength, data);
+
+        // Parallel chunks race on the bitmap - retry on version conflicts
+        for (int attempt = 1; ; attempt++) {
+            try {
+                session.markChunkReceived(chunkIndex, expectedLength);
+                UploadSession saved = uploadSessionRepository.save(session);
+                log.debug("Upload {}: chunk {} stored ({} / {} bytes)",
+                        uploadId, chunkIndex, saved.getReceivedBytes(), saved.getTotalSize());
+                return saved;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_PROGRESS_RETRIES) {
+                    throw new FileStorageException("Upload progress is being updated concurrently, retry the chunk");
+                }
+                // The conflict may be a completion claiming the session, not just another chunk
+                session = getActiveSession(uploadId, userId);
+            }
+        }
+    }
+
+    @Override
+    public UploadSession getUploadSession(String uploadId, Long userId) {
+        UploadSession session = findSession(uploadId);
+        validateOwnership(session, userId);
+        return session;
+    }
+
+    @Override
+    public File completeUpload(String uploadId, Long userId) {
+        log.info("Completing chunked upload {} for user: {}", uploadId, userId);
+
+        UploadSession session = findSession(uploadId);
+        validateOwnership(session, userId);
+
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            // A client retrying after a lost response gets the same file back
+            return fileService.findById(session.getFileId())
+                    .orElseThrow(() -> new FileNotFoundException("File not found: " + session.getFileId()));
+        }
+        if (session.isExpired()) {
+            throw new UploadSessionNotFoundException("Upload session expired: " + uploadId);
+        }
+        if (!session.isComplete()) {
+            throw new FileStorageException("Upload is incomplete: " + session.getReceivedBytes()
+                    + " of " + session.getTotalSize() + " bytes received");
+        }
+
+        // Only the call that moves the session out of IN_PROGRESS goes on to adopt the content
+        if (uploadSessionRepository.transition(session.getId(),
+                UploadSession.Status.IN_PROGRESS, UploadSession.Status.COMPLETING, LocalDateTime.now()) == 0) {
+            throw new FileStorageException("Upload is already being completed: " + uploadId);
+        }
+
+        File savedFile;
+        try {
+            savedFile = createFile(session, userId);
+        } catch (RuntimeException e) {
+            // Hand the session back so the client can retry the completion
+            uploadSessionRepository.transition(session.getId(),
+                    UploadSession.Status.COMPLETING, UploadSession.Status.IN_PROGRESS, LocalDateTime.now());
+            throw e;
+        }
+
+        uploadSessionRepository.transitionWithFile(session.getId(), UploadSession.Status.COMPLETING,
+                UploadSession.Status.COMPLETED, savedFile.getId(), LocalDateTime.now());
+        session.setStatus(UploadSession.Status.COMPLETED);
+        session.setFileId(savedFile.getId());
+
+        log.info("Chunked upload {} completed: {} -> {}", uploadId, session.getFileName(), session.getPhysicalName());
+        return savedFile;
+    }
+
+    @Override
+    public void abortUpload(String uploadId, Long userId) {
+        log.info("Aborting chunked upload {} for user: {}", uploadId, userId);
+
+        UploadSession session = findSession(uploadId);
+        validateOwnership(session, userId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS || !discard(session)) {
+            throw new FileStorageException("Upload already completed: " + uploadId);
+        }
+    }
+
+    /**
+     * Deletes abandoned uploads and their partial files in bounded batches: expired in-progress
+     * sessions, completions whose claim outlived the completion lease (their node died before
+     * finishing), and completed sessions past their retention. Only the node holding the sweep
+     * lease runs; others return 0 straight away.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.upload.expiry-sweep.interval-ms:600000}")
+    public int deleteExpiredSessions() {
+        if (!schedulerLockService.tryAcquire(EXPIRY_SWEEP_LOCK, Duration.ofMillis(sweepLeaseMillis))) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int deleted = 0;
+        int purged = 0;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            deleted += discardInBatches(() -> uploadSessionRepository.findByStatusAndExpiresAtBeforeOrderById(
+                    UploadSession.Status.IN_PROGRESS, now, Limit.of(sweepBatchSize)), this::discard);
+
+            LocalDateTime claimCutoff = now.minus(Duration.ofMillis(completionLeaseMillis));
+            deleted += discardInBatches(() -> uploadSessionRepository.findByStatusAndUpdatedAtBeforeOrderById(
+                    UploadSession.Status.COMPLETING, claimCutoff, Limit.of(sweepBatchSize)),
+                    session -> discardStaleClaim(session, claimCutoff));
+
+            purged = purgeCompleted(now.minusHours(completedRetentionHours));
+        } finally {
+            schedulerLockService.release(EXPIRY_SWEEP_LOCK);
+            sample.stop(meterRegistry.timer("app.uploads.expiry.sweep"));
+            meterRegistry.counter("app.uploads.expired.purged").increment(deleted);
+            meterRegistry.counter("app.uploads.completed.purged").increment(purged);
+        }
+
+        if (deleted + purged > 0) {
+            log.info("Deleted {} abandoned and {} completed upload sessions", deleted, purged);
+        }
+        return deleted + purged;
+    }
+
+    private int discardInBatches(Supplier<List<UploadSession>> nextBatch, Predicate<UploadSession> discard) {
+        int deleted = 0;
+        for (int batch = 0; batch < sweepMaxBatches; batch++) {
+            List<UploadSession> sessions = nextBatch.get();
+            for (UploadSession session : sessions) {
+                if (discard.test(session)) {
+                    deleted++;
+                }
+            }
+            if (sessions.size() < sweepBatchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    // Completed sessions own no data on disk, so their rows go in bulk
+    private int purgeCompleted(LocalDateTime cutoff) {
+        int purged = 0;
+        for (int batch = 0; batch < sweepMaxBatches; batch++) {
+            List<Long> ids = uploadSessionRepository.findIdsUpdatedBefore(
+                    UploadSession.Status.COMPLETED, cutoff, Limit.of(sweepBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            purged += uploadSessionRepository.deleteStaleByIds(ids, UploadSession.Status.COMPLETED, cutoff);
+            if (ids.size() < sweepBatchSize) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private File createFile(UploadSession session, Long userId) {
+        Folder targetFolder = fileService.resolveTargetFolder(session.getFolderId(), userId);
+
+        // Chunks arrive out of order, so the content is hashed here in one sequential pass
+        FileBlob blob = fileBlobService.adopt(partPath(session));
+
+        try {
+            return fileService.save(File.builder()
+                    .displayName(session.getFileName())
+                    .physicalName(session.getPhysicalName())
+                    .physicalPath(blob.getPhysicalPath())
+                    .blob(blob)
+                    .size(session.getTotalSize())
+                    .mimeType(session.getMimeType())
+                    .storagePath(session.getStoragePath())
+                    .folder(targetFolder)
+                    .build());
+        } catch (RuntimeException e) {
+            fileBlobService.release(blob.getId());
+            throw e;
+        }
+    }
+
+    private void writeChunk(Path partPath, long offset, long length, InputStream data) {
+        try (FileChannel channel = FileChannel.open(partPath, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long position = offset;
+            long remaining = length;
+
+            while (remaining > 0) {
+                int read = data.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    // Connection dropped mid-chunk; the chunk stays unmarked and can be re-sent
+                    throw new FileStorageException("Chunk at offset " + offset + " ended after "
+                            + (length - remaining) + " of " + length + " bytes");
+                }
+                ByteBuffer slice = ByteBuffer.wrap(buffer, 0, read);
+                while (slice.hasRemaining()) {
+                    position += channel.write(slice, position);
+                }
+                remaining -= read;
+            }
+
+            if (data.read() != -1) {
+                throw new FileStorageException("Chunk at offset " + offset + " is longer than " + length + " bytes");
+            }
+        } catch (NoSuchFileException e) {
+            throw new UploadSessionNotFoundException("Upload data no longer exists");
+        } catch (IOException e) {
+            log.error("Failed to write chunk at offset {}: {}", offset, e.getMessage(), e);
+            throw new FileStorageException("Failed to store chunk: " + e.getMessage());
+        }
+    }
+
+    // The row goes first so a session claimed for completion keeps its content
+    private boolean discard(UploadSession session) {
+        if (uploadSessionRepository.deleteByIdAndStatus(session.getId(), UploadSession.Status.IN_PROGRESS) == 0) {
+            return false;
+        }
+        deletePartFile(session);
+        return true;
+    }
+
+    private boolean discardStaleClaim(UploadSession session, LocalDateTime claimCutoff) {
+        if (uploadSessionRepository.deleteStale(session.getId(), UploadSession.Status.COMPLETING, claimCutoff) == 0) {
+            return false;
+        }
+        log.warn("Upload {} was left mid-completion; discarding it", session.getUploadId());
+        deletePartFile(session);
+        return true;
+    }
+
+    private void deletePartFile(UploadSession session) {
+        try {
+            Files.deleteIfExists(partPath(session));
+        } catch (IOException e) {
+            log.warn("Could not delete partial upload {}: {}", session.getPhysicalName(), e.getMessage());
+        }
+    }
+
+    private UploadSession getActiveSession(String uploadId, Long userId) {
+        UploadSession session = findSession(uploadId);
+        validateOwnership(session, userId);
+
+        if (session.getStatus() == UploadSession.Status.COMPLETING) {
+            throw new FileStorageException("Upload is being completed: " + uploadId);
+        }
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            throw new FileStorageException("Upload already completed: " + uploadId);
+        }
+        if (session.isExpired()) {
+            throw new UploadSessionNotFoundException("Upload session expired: " + uploadId);
+        }
+        return session;
+    }
+
+    private UploadSession findSession(String uploadId) {
+        return uploadSessionRepository.findByUploadId(uploadId)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload session not found: " + uploadId));
+    }
+
+    private void validateOwnership(UploadSession session, Long userId) {
+        StoragePath userStoragePath = getUserStoragePath(userId);
+
+        if (!session.getStoragePath().getId().equals(userStoragePath.getId())) {
+            throw new FileAccessDeniedException("Access denied to upload: " + session.getUploadId());
+        }
+    }
+
+    private String validateFileName(String fileName) {
+        if (!StringUtils.hasText(fileName)) {
+            throw new FileStorageException("File name is required");
+        }
+
+        String cleanName = StringUtils.cleanPath(fileName);
+        if (cleanName.contains("..") || cleanName.contains("/")) {
+            throw new FileStorageException("Invalid file path: " + cleanName);
+        }
+        return cleanName;
+    }
+
+    private Path partPath(UploadSession session) {
+        return Paths.get(session.getPhysicalPath() + PART_SUFFIX);
+    }
+
+    private String getFileExtension(String filename) {
+        if (filename != null && filename.contains(".")) {
+            return filename.substring(filename.lastIndexOf("."));
+        }
+        return "";
+    }
+
+    private StoragePath getUserStoragePath(Long userId) {
+        return ownershipContext.findStoragePath(userId)
+                .orElseThrow(() -> new FileStorageException("User storage path not found"));
+    }
+}
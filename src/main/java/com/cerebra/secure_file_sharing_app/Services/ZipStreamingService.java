@@ -0,0 +1,39 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ZipStreamingService {
+
+    /**
+     * Writes the given entries as a ZIP archive directly to the output stream, in list order.
+     * Already-compressed content types are STORED; everything else is DEFLATED at the
+     * configured level, with chunks compressed in parallel on the shared archive pool.
+     * ZIP64 records are emitted when sizes, offsets or the entry count require them.
+     * The stream is not closed.
+     */
+    void writeZip(List<Entry> entries, OutputStream outputStream) throws IOException;
+
+    boolean isPrecompressed(String mimeType);
+
+    /**
+     * One archive member. Names use '/' separators; the source is a BlobStore key and
+     * directory entries have none.
+     */
+    record Entry(String name, String source, String mimeType, LocalDateTime lastModified) {
+
+        public static Entry file(String name, String source, String mimeType, LocalDateTime lastModified) {
+            return new Entry(name, source, mimeType, lastModified);
+        }
+
+        public static Entry directory(String name, LocalDateTime lastModified) {
+            return new Entry(name.endsWith("/") ? name : name + "/", null, null, lastModified);
+        }
+
+        public boolean isDirectory() {
+            return source == null;
+        }
+    }
+}
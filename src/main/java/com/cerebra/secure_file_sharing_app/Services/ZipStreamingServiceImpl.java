@@ -0,0 +1,619 @@
+package com.cerebra.secure_file_sharing_app.Services;
+
+import com.cerebra.secure_file_sharing_app.Storage.BlobStat;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes ZIP archives without ZipOutputStream so that DEFLATE work can be spread over a
+ * bounded worker pool. Each file is cut into fixed-size chunks that are compressed
+ * independently (primed with the previous 32 KiB as dictionary and ended with a sync
+ * flush), then written back in submission order, which yields a single valid deflate
+ * stream per entry - the same technique pigz uses.
+ */
+@Service
+@Slf4j
+public class ZipStreamingServiceImpl implements ZipStreamingService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int ZIP64_END_SIG = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int END_SIG = 0x06054b50;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int DIRECTORY_ATTRIBUTE = 0x10;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    // Deflate can grow incompressible input slightly; entries this close to 4 GiB are STORED
+    private static final long DEFLATE_SAFE_LIMIT = 0xFF000000L;
+
+    private final BlobStore blobStore;
+    private final ExecutorService deflatePool;
+    private final int deflateThreads;
+    private final ThreadLocal<Deflater> deflaters;
+
+    @Value("${app.share.zip.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${app.share.zip.stored-mime-types:image/jpeg,image/png,image/gif,image/webp,video/*,audio/*,application/zip,application/pdf,application/gzip,application/x-7z-compressed,application/x-rar-compressed}")
+    private String[] storedMimeTypes;
+
+    @Value("${app.share.zip.chunk-size:1048576}")
+    private int chunkSize;
+
+    @Value("${app.share.zip.max-inflight-chunks:0}")
+    private int maxInflightChunks;
+
+    public ZipStreamingServiceImpl(BlobStore blobStore, @Value("${app.share.zip.parallelism:0}") int parallelism) {
+        this.blobStore = blobStore;
+        this.deflateThreads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.deflatePool = Executors.newFixedThreadPool(deflateThreads, new DeflateThreadFactory());
+        // Raw deflate (no zlib header); created lazily so the injected level applies
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(compressionLevel, true));
+        log.info("ZIP deflate pool started with {} threads", deflateThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deflatePool.shutdownNow();
+    }
+
+    @Override
+    public void writeZip(List<Entry> entries, OutputStream outputStream) throws IOException {
+        log.info("Streaming ZIP with {} entries (level {})", entries.size(), compressionLevel);
+
+        ArchiveWriter writer = new ArchiveWriter(outputStream);
+        try {
+            for (Entry entry : entries) {
+                writer.add(entry);
+            }
+            writer.finish();
+        } finally {
+            writer.discardPending();
+        }
+    }
+
+    @Override
+    public boolean isPrecompressed(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return false;
+        }
+
+        String normalized = mimeType.toLowerCase(Locale.ROOT);
+        int paramIndex = normalized.indexOf(';');
+        if (paramIndex >= 0) {
+            normalized = normalized.substring(0, paramIndex);
+        }
+        normalized = normalized.trim();
+
+        for (String storedType : storedMimeTypes) {
+            String candidate = storedType.trim().toLowerCase(Locale.ROOT);
+            if (candidate.endsWith("/*")) {
+                if (normalized.startsWith(candidate.substring(0, candidate.length() - 1))) {
+                    return true;
+                }
+            } else if (normalized.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compresses one chunk on a pool thread. Non-final chunks end with a sync flush so
+     * the next chunk's output can be appended byte-aligned.
+     */
+    private byte[] deflateChunk(byte[] data, int length, byte[] dictionary, boolean last) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(data, 0, length);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 2));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                compressed.write(buffer, 0, written);
+            }
+        } else {
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                compressed.write(buffer, 0, written);
+            } while (written == buffer.length);
+        }
+        return compressed.toByteArray();
+    }
+
+    private long crc32(String source, ByteBuffer buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        Optional<Path> localPath = blobStore.localPath(source);
+        if (localPath.isPresent()) {
+            try (FileChannel channel = FileChannel.open(localPath.get(), StandardOpenOption.READ)) {
+                buffer.clear();
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+            }
+        } else {
+            try (InputStream in = blobStore.get(source)) {
+                byte[] chunk = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    crc.update(chunk, 0, read);
+                }
+            }
+        }
+        return crc.getValue();
+    }
+
+    private String uniqueEntryName(String name, Set<String> usedNames) {
+        if (usedNames.add(name)) {
+            return name;
+        }
+
+        // ZIP forbids duplicate entry names - add a counter before the extension
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        boolean hasExtension = dot > slash + 1;
+        String base = hasExtension ? name.substring(0, dot) : name;
+        String extension = hasExtension ? name.substring(dot) : "";
+
+        int counter = 1;
+        String candidate;
+        do {
+            candidate = base + " (" + counter++ + ")" + extension;
+        } while (!usedNames.add(candidate));
+        return candidate;
+    }
+
+    private static long toDosTime(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        if (value.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (long) (value.getYear() - 1980) << 25
+                | (long) value.getMonthValue() << 21
+                | (long) value.getDayOfMonth() << 16
+                | (long) value.getHour() << 11
+                | (long) value.getMinute() << 5
+                | (long) value.getSecond() >> 1;
+    }
+
+    /**
+     * Per-archive state: the output offset, the ordered queue of pending writes and
+     * the central directory collected along the way.
+     */
+    private final class ArchiveWriter {
+
+        private final CountingOutputStream out;
+        private final Deque<PendingWrite> pending = new ArrayDeque<>();
+        private final List<EntryState> written = new ArrayList<>();
+        private final Set<String> usedNames = new HashSet<>();
+        private final ByteBuffer crcBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final int inflightLimit;
+        private int inflightChunks;
+
+        ArchiveWriter(OutputStream target) {
+            this.out = new CountingOutputStream(new BufferedOutputStream(target, BUFFER_SIZE));
+            this.inflightLimit = maxInflightChunks > 0 ? maxInflightChunks : 2 * deflateThreads;
+        }
+
+        void add(Entry entry) throws IOException {
+            String name = uniqueEntryName(entry.name(), usedNames);
+            long dosTime = toDosTime(entry.lastModified());
+
+            if (entry.isDirectory()) {
+                EntryState state = new EntryState(name, METHOD_STORED, dosTime, true, false);
+                enqueue(() -> writeLocalHeader(state));
+                return;
+            }
+
+            long size = blobStore.stat(entry.source()).map(BlobStat::size)
+                    .orElseThrow(() -> new NoSuchFileException(entry.source()));
+            if (isPrecompressed(entry.mimeType()) || (size >= DEFLATE_SAFE_LIMIT && size <= ZIP64_MAGIC)) {
+                addStored(entry.source(), name, dosTime, size);
+            } else {
+                addDeflated(entry.source(), name, dosTime, size);
+            }
+        }
+
+        private void addStored(String source, String name, long dosTime, long size) throws IOException {
+            // STORED entries need size and CRC up front
+            EntryState state = new EntryState(name, METHOD_STORED, dosTime, false, size >= ZIP64_MAGIC);
+            state.crc = crc32(source, crcBuffer);
+            state.size = size;
+            state.compressedSize = size;
+
+            enqueue(() -> {
+                writeLocalHeader(state);
+                long copied;
+                try (InputStream in = blobStore.get(source)) {
+                    copied = in.transferTo(out);
+                }
+                if (copied != size) {
+                    throw new IOException("File changed while archiving: " + source);
+                }
+            });
+        }
+
+        private void addDeflated(String source, String name, long dosTime, long size) throws IOException {
+            EntryState state = new EntryState(name, METHOD_DEFLATED, dosTime, false, size > ZIP64_MAGIC);
+            state.dataDescriptor = true;
+            enqueue(() -> writeLocalHeader(state));
+
+            CRC32 crc = new CRC32();
+            long total = 0;
+            byte[] dictionary = null;
+            try (InputStream in = blobStore.get(source)) {
+                byte[] chunk = new byte[chunkSize];
+                int length = in.readNBytes(chunk, 0, chunkSize);
+                while (true) {
+                    // Look ahead one chunk so the last one can be FINISHed instead of flushed
+                    byte[] next = length == chunkSize ? new byte[chunkSize] : null;
+                    int nextLength = next != null ? in.readNBytes(next, 0, chunkSize) : 0;
+                    boolean last = nextLength == 0;
+
+                    crc.update(chunk, 0, length);
+                    total += length;
+
+                    byte[] data = chunk;
+                    int dataLength = length;
+                    byte[] priming = dictionary;
+                    CompletableFuture<byte[]> compressed = CompletableFuture.supplyAsync(
+                            () -> deflateChunk(data, dataLength, priming, last), deflatePool);
+                    enqueueChunk(state, compressed);
+
+                    if (last) {
+                        break;
+                    }
+                    int dictionaryLength = Math.min(DICTIONARY_SIZE, length);
+                    dictionary = Arrays.copyOfRange(chunk, length - dictionaryLength, length);
+                    chunk = next;
+                    length = nextLength;
+                }
+            }
+
+            if (!state.zip64 && total > ZIP64_MAGIC) {
+                throw new IOException("File grew past 4 GiB while archiving: " + source);
+            }
+            state.crc = crc.getValue();
+            state.size = total;
+            enqueue(() -> writeDataDescriptor(state));
+        }
+
+        void finish() throws IOException {
+            drain(0);
+
+            long centralStart = out.count;
+            for (EntryState state : written) {
+                writeCentralHeader(state);
+            }
+            long centralSize = out.count - centralStart;
+            writeEnd(centralStart, centralSize);
+            out.flush();
+        }
+
+        void discardPending() {
+            for (PendingWrite write : pending) {
+                if (write instanceof ChunkWrite chunkWrite) {
+                    chunkWrite.compressed.cancel(false);
+                }
+            }
+            pending.clear();
+        }
+
+        private void enqueue(PendingWrite write) throws IOException {
+            pending.addLast(write);
+            if (inflightChunks == 0) {
+                drain(0);
+            }
+        }
+
+        private void enqueueChunk(EntryState state, CompletableFuture<byte[]> compressed) throws IOException {
+            pending.addLast(new ChunkWrite(state, compressed));
+            inflightChunks++;
+            // Bound memory: wait for the oldest chunk before reading further ahead
+            drain(inflightLimit - 1);
+        }
+
+        /**
+         * Writes queued items in order until at most {@code maxInflight} chunks remain queued.
+         */
+        private void drain(int maxInflight) throws IOException {
+            while (!pending.isEmpty()) {
+                PendingWrite head = pending.peekFirst();
+                if (head instanceof ChunkWrite && inflightChunks <= maxInflight) {
+                    return;
+                }
+                pending.removeFirst();
+                if (head instanceof ChunkWrite) {
+                    inflightChunks--;
+                }
+                head.write();
+            }
+        }
+
+        private void writeLocalHeader(EntryState state) throws IOException {
+            state.localHeaderOffset = out.count;
+            written.add(state);
+
+            byte[] extra = state.zip64 ? zip64Extra(state.size, state.compressedSize, null) : new byte[0];
+            boolean knownSizes = !state.dataDescriptor;
+
+            ByteBuffer header = littleEndian(30 + state.name.length + extra.length);
+            header.putInt(LOCAL_HEADER_SIG);
+            header.putShort((short) (state.zip64 ? VERSION_ZIP64 : VERSION_DEFAULT));
+            header.putShort((short) state.flags());
+            header.putShort((short) state.method);
+            header.putInt((int) state.dosTime);
+            header.putInt(knownSizes ? (int) state.crc : 0);
+            header.putInt(state.zip64 ? (int) ZIP64_MAGIC : knownSizes ? (int) state.compressedSize : 0);
+            header.putInt(state.zip64 ? (int) ZIP64_MAGIC : knownSizes ? (int) state.size : 0);
+            header.putShort((short) state.name.length);
+            header.putShort((short) extra.length);
+            header.put(state.name);
+            header.put(extra);
+            out.write(header.array());
+        }
+
+        private void writeDataDescriptor(EntryState state) throws IOException {
+            ByteBuffer descriptor = littleEndian(state.zip64 ? 24 : 16);
+            descriptor.putInt(DATA_DESCRIPTOR_SIG);
+            descriptor.putInt((int) state.crc);
+            if (state.zip64) {
+                descriptor.putLong(state.compressedSize);
+                descriptor.putLong(state.size);
+            } else {
+                descriptor.putInt((int) state.compressedSize);
+                descriptor.putInt((int) state.size);
+            }
+            out.write(descriptor.array());
+        }
+
+        private void writeCentralHeader(EntryState state) throws IOException {
+            boolean sizeOverflow = state.size >= ZIP64_MAGIC;
+            boolean compressedOverflow = state.compressedSize >= ZIP64_MAGIC;
+            boolean offsetOverflow = state.localHeaderOffset >= ZIP64_MAGIC;
+            boolean zip64 = sizeOverflow || compressedOverflow || offsetOverflow;
+
+            byte[] extra = zip64
+                    ? zip64Extra(sizeOverflow ? state.size : null,
+                                 compressedOverflow ? state.compressedSize : null,
+                                 offsetOverflow ? state.localHeaderOffset : null)
+                    : new byte[0];
+            int version = zip64 || state.zip64 ? VERSION_ZIP64 : VERSION_DEFAULT;
+
+            ByteBuffer header = littleEndian(46 + state.name.length + extra.length);
+            header.putInt(CENTRAL_HEADER_SIG);
+            header.putShort((short) version);
+            header.putShort((short) version);
+            header.putShort((short) state.flags());
+            header.putShort((short) state.method);
+            header.putInt((int) state.dosTime);
+            header.putInt((int) state.crc);
+            header.putInt((int) (compressedOverflow ? ZIP64_MAGIC : state.compressedSize));
+            header.putInt((int) (sizeOverflow ? ZIP64_MAGIC : state.size));
+            header.putShort((short) state.name.length);
+            header.putShort((short) extra.length);
+            header.putShort((short) 0);   // comment length
+            header.putShort((short) 0);   // disk number start
+            header.putShort((short) 0);   // internal attributes
+            header.putInt(state.directory ? DIRECTORY_ATTRIBUTE : 0);
+            header.putInt((int) (offsetOverflow ? ZIP64_MAGIC : state.localHeaderOffset));
+            header.put(state.name);
+            header.put(extra);
+            out.write(header.array());
+        }
+
+        private void writeEnd(long centralStart, long centralSize) throws IOException {
+            int count = written.size();
+            boolean zip64 = count >= ZIP64_MAGIC_COUNT || centralStart >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC;
+
+            if (zip64) {
+                long zip64EndOffset = out.count;
+                ByteBuffer zip64End = littleEndian(56);
+                zip64End.putInt(ZIP64_END_SIG);
+                zip64End.putLong(44);
+                zip64End.putShort((short) VERSION_ZIP64);
+                zip64End.putShort((short) VERSION_ZIP64);
+                zip64End.putInt(0);
+                zip64End.putInt(0);
+                zip64End.putLong(count);
+                zip64End.putLong(count);
+                zip64End.putLong(centralSize);
+                zip64End.putLong(centralStart);
+                out.write(zip64End.array());
+
+                ByteBuffer locator = littleEndian(20);
+                locator.putInt(ZIP64_LOCATOR_SIG);
+                locator.putInt(0);
+                locator.putLong(zip64EndOffset);
+                locator.putInt(1);
+                out.write(locator.array());
+            }
+
+            ByteBuffer end = littleEndian(22);
+            end.putInt(END_SIG);
+            end.putShort((short) 0);
+            end.putShort((short) 0);
+            end.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+            end.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+            end.putInt((int) Math.min(centralSize, ZIP64_MAGIC));
+            end.putInt((int) Math.min(centralStart, ZIP64_MAGIC));
+            end.putShort((short) 0);
+            out.write(end.array());
+        }
+
+        private byte[] zip64Extra(Long size, Long compressedSize, Long offset) {
+            int fields = (size != null ? 1 : 0) + (compressedSize != null ? 1 : 0) + (offset != null ? 1 : 0);
+            ByteBuffer extra = littleEndian(4 + 8 * fields);
+            extra.putShort((short) ZIP64_EXTRA_ID);
+            extra.putShort((short) (8 * fields));
+            if (size != null) {
+                extra.putLong(size);
+            }
+            if (compressedSize != null) {
+                extra.putLong(compressedSize);
+            }
+            if (offset != null) {
+                extra.putLong(offset);
+            }
+            return extra.array();
+        }
+
+        private ByteBuffer littleEndian(int capacity) {
+            return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private final class ChunkWrite implements PendingWrite {
+            private final EntryState state;
+            private final CompletableFuture<byte[]> compressed;
+
+            ChunkWrite(EntryState state, CompletableFuture<byte[]> compressed) {
+                this.state = state;
+                this.compressed = compressed;
+            }
+
+            @Override
+            public void write() throws IOException {
+                byte[] bytes;
+                try {
+                    bytes = compressed.join();
+                } catch (CompletionException e) {
+                    throw new IOException("Failed to compress entry " + new String(state.name, StandardCharsets.UTF_8),
+                            e.getCause());
+                }
+                out.write(bytes);
+                state.compressedSize += bytes.length;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PendingWrite {
+        void write() throws IOException;
+    }
+
+    private static final class EntryState {
+        private final byte[] name;
+        private final int method;
+        private final long dosTime;
+        private final boolean directory;
+        private final boolean zip64;
+        private boolean dataDescriptor;
+        private long crc;
+        private long size;
+        private long compressedSize;
+        private long localHeaderOffset;
+
+        EntryState(String name, int method, long dosTime, boolean directory, boolean zip64) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.method = method;
+            this.dosTime = dosTime;
+            this.directory = directory;
+            this.zip64 = zip64;
+        }
+
+        int flags() {
+            return FLAG_UTF8 | (dataDescriptor ? FLAG_DATA_DESCRIPTOR : 0);
+        }
+    }
+
+    /**
+     * Tracks the archive offset and keeps the caller's stream open when the archive ends.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+
+    private static final class DeflateThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "zip-deflate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Paging and sort options for file listings")
+public class FilePageRequest {
+
+    @Schema(description = "Sort key: name, size or created_at", example = "name")
+    @Builder.Default
+    private String sort = "name";
+
+    @Schema(description = "Sort direction: asc or desc", example = "asc")
+    @Builder.Default
+    private String direction = "asc";
+
+    @Schema(description = "nextCursor from the previous page; omit for the first page")
+    private String cursor;
+
+    @Schema(description = "Page size (capped by the server)", example = "50")
+    @Builder.Default
+    private int limit = 50;
+}
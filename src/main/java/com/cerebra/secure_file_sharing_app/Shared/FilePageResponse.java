@@ -0,0 +1,26 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One page of a file listing")
+public class FilePageResponse {
+
+    @Schema(description = "Files on this page, in the requested order")
+    private List<FileSummaryResponse> files;
+
+    @Schema(description = "Pass as 'cursor' to fetch the next page (null on the last page)")
+    private String nextCursor;
+
+    @Schema(description = "Whether more files follow this page")
+    private boolean hasMore;
+}
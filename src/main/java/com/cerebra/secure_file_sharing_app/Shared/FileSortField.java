@@ -0,0 +1,57 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.InvalidPageRequestException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort keys for file listings. Every key is paired with the file id as a
+ * tiebreaker so the order is total and cursors stay stable.
+ */
+public enum FileSortField {
+
+    NAME("name", "displayName"),
+    SIZE("size", "size"),
+    CREATED_AT("created_at", "createdAt");
+
+    private final String param;
+    private final String attribute;
+
+    FileSortField(String param, String attribute) {
+        this.param = param;
+        this.attribute = attribute;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public static FileSortField fromParam(String value) {
+        for (FileSortField field : values()) {
+            if (field.param.equalsIgnoreCase(value) || field.attribute.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new InvalidPageRequestException("Unsupported sort: " + value + " (use name, size or created_at)");
+    }
+
+    public String keyOf(FileSummaryResponse file) {
+        return switch (this) {
+            case NAME -> file.getDisplayName();
+            case SIZE -> String.valueOf(file.getSize());
+            case CREATED_AT -> file.getCreatedAt().toString();
+        };
+    }
+
+    public Comparable<?> parseKey(String key) {
+        return switch (this) {
+            case NAME -> key;
+            case SIZE -> Long.valueOf(key);
+            case CREATED_AT -> LocalDateTime.parse(key);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "File listing entry")
+public class FileSummaryResponse {
+
+    @Schema(description = "File ID", example = "1")
+    private Long id;
+
+    @Schema(description = "File name", example = "report.pdf")
+    private String displayName;
+
+    @Schema(description = "File size in bytes", example = "1048576")
+    private Long size;
+
+    @Schema(description = "Content type", example = "application/pdf")
+    private String mimeType;
+
+    @Schema(description = "Containing folder ID (null for root files)")
+    private Long folderId;
+
+    @Schema(description = "Upload timestamp")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Last update timestamp")
+    private LocalDateTime updatedAt;
+}
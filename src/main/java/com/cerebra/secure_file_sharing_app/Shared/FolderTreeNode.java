@@ -0,0 +1,37 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One folder in a folder tree, with its loaded subfolders")
+public class FolderTreeNode {
+
+    @Schema(description = "Folder ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Folder name", example = "My Documents")
+    private String name;
+
+    @Schema(description = "Parent folder ID (null if root level)")
+    private Long parentFolderId;
+
+    @Schema(description = "Number of files directly in this folder", example = "12")
+    private long fileCount;
+
+    @Schema(description = "Subfolders, by name; empty when the depth limit stopped above them")
+    @Builder.Default
+    private List<FolderTreeNode> children = new ArrayList<>();
+
+    @Schema(description = "Pass as 'cursor' to load the subfolders the depth limit left out (null when all are loaded)")
+    private String expandCursor;
+}
@@ -0,0 +1,23 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "The user's folder tree, or the part of it below an expanded folder")
+public class FolderTreeResponse {
+
+    @Schema(description = "Top-level nodes: root folders, or the expanded folder's subfolders")
+    private List<FolderTreeNode> folders;
+
+    @Schema(description = "Number of folders in this response", example = "42")
+    private int folderCount;
+}
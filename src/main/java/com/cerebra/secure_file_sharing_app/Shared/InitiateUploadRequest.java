@@ -0,0 +1,35 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Request to start a resumable chunked upload")
+public class InitiateUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must not exceed 255 characters")
+    @Schema(description = "Original file name", example = "installer.iso")
+    private String fileName;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    @Schema(description = "Total file size in bytes", example = "4294967296")
+    private Long totalSize;
+
+    @Schema(description = "MIME type", example = "application/octet-stream")
+    private String mimeType;
+
+    @Schema(description = "Folder ID (optional - null for default folder)", example = "1")
+    private Long folderId;
+}
@@ -0,0 +1,23 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything a public download needs to know about a share token, detached from JPA so it
+ * can be cached. File shares carry the file's location and headers; folder shares only the
+ * folder id and name, since their contents are listed at download time.
+ */
+public record ResolvedShare(Long shareId,
+                            String linkToken,
+                            Long fileId,
+                            Long folderId,
+                            String itemName,
+                            String physicalPath,
+                            Long size,
+                            String mimeType,
+                            LocalDateTime expiresAt) {
+
+    public boolean isFile() {
+        return fileId != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Paging options for share listings (newest first)")
+public class SharePageRequest {
+
+    @Schema(description = "nextCursor from the previous page; omit for the first page")
+    private String cursor;
+
+    @Schema(description = "Page size (capped by the server)", example = "50")
+    @Builder.Default
+    private int limit = 50;
+}
@@ -0,0 +1,18 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Destination of a move or copy")
+public class TargetFolderRequest {
+
+    @Schema(description = "Destination folder ID (null for the root level, or the default folder for files)", example = "1")
+    private Long targetFolderId;
+}
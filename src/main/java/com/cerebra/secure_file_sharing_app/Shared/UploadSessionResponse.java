@@ -0,0 +1,42 @@
+package com.cerebra.secure_file_sharing_app.Shared;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Progress of a resumable chunked upload")
+public class UploadSessionResponse {
+
+    @Schema(description = "Upload session ID", example = "3f1c2b0e-8a4d-4a51-9a43-0d2f0c7e6b1a")
+    private String uploadId;
+
+    @Schema(description = "Original file name", example = "installer.iso")
+    private String fileName;
+
+    @Schema(description = "Total file size in bytes", example = "4294967296")
+    private Long totalSize;
+
+    @Schema(description = "Chunk size in bytes - every chunk except the last must be exactly this long", example = "8388608")
+    private Integer chunkSize;
+
+    @Schema(description = "Bytes received so far", example = "16777216")
+    private Long receivedBytes;
+
+    @Schema(description = "Offsets of chunks still to be sent (first 1000)")
+    private List<Long> missingOffsets;
+
+    @Schema(description = "Session status", example = "IN_PROGRESS")
+    private String status;
+
+    @Schema(description = "When an unfinished session is discarded")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,4 @@
+package com.cerebra.secure_file_sharing_app.Storage;
+
+public record BlobStat(long size, long lastModifiedMillis) {
+}
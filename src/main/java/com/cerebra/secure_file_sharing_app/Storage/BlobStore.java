@@ -0,0 +1,55 @@
+package com.cerebra.secure_file_sharing_app.Storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where file content lives. Keys are '/'-separated and relative to the store;
+ * the local store also accepts the absolute paths written before it existed.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the stream under the key, replacing any previous content. The stream is read to the end but not closed.
+     */
+    void put(String key, InputStream content) throws IOException;
+
+    /**
+     * Stores a copy of the file under the key; the source is left in place.
+     */
+    default void put(String key, Path source) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            put(key, in);
+        }
+    }
+
+    /**
+     * Opens the whole content. Throws {@link java.nio.file.NoSuchFileException} when nothing is stored under the key.
+     */
+    default InputStream get(String key) throws IOException {
+        return getRange(key, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens {@code length} bytes starting at {@code offset}, or fewer when the content ends first.
+     */
+    InputStream getRange(String key, long offset, long length) throws IOException;
+
+    Optional<BlobStat> stat(String key) throws IOException;
+
+    /**
+     * Removes the content; a missing key is not an error.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * The file backing the key when it sits on a local filesystem, so callers can use
+     * zero-copy transfers. Empty for remote stores.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,135 @@
+package com.cerebra.secure_file_sharing_app.Storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Blob store on the local filesystem under {@code app.storage.root-path}. Writes land in
+ * a temporary file that is atomically moved into place, so readers never see partial content.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${app.storage.root-path:/app-storage}") String rootPath) {
+        this.root = Paths.get(rootPath).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, InputStream content) throws IOException {
+        Path target = resolve(key);
+        Path staging = stagingFile(target);
+        try {
+            Files.copy(content, staging);
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Path staging = stagingFile(target);
+        try {
+            // A hard link shares the source's data without copying it; other volumes fall back to a copy
+            try {
+                Files.createLink(staging, source);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.copy(source, staging, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        if (offset == 0 && length >= channel.size()) {
+            return Channels.newInputStream(channel);
+        }
+        channel.position(offset);
+        long end = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length;
+        return new InputStream() {
+            private final InputStream in = Channels.newInputStream(channel);
+
+            @Override
+            public int read() throws IOException {
+                return channel.position() < end ? in.read() : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                long remaining = end - channel.position();
+                if (remaining <= 0) {
+                    return -1;
+                }
+                return in.read(b, off, (int) Math.min(len, remaining));
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return Optional.of(new BlobStat(attributes.size(), attributes.lastModifiedTime().toMillis()));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = Paths.get(key);
+        if (path.isAbsolute()) {
+            // Written before the blob store existed
+            return path;
+        }
+        Path resolved = root.resolve(path).normalize();
+        if (!resolved.startsWith(root)) {
+            throw new IllegalArgumentException("Blob key escapes the storage root: " + key);
+        }
+        return resolved;
+    }
+
+    private Path stagingFile(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    }
+}
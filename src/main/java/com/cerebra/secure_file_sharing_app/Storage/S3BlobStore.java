@@ -0,0 +1,469 @@
+package com.cerebra.secure_file_sharing_app.Storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blob store on any S3-compatible service (AWS S3, MinIO, Ceph RGW), addressed path-style
+ * and signed with SigV4. Content larger than one part goes up as a multipart upload whose
+ * parts are sent in parallel on a shared pool; reads are streamed, ranged GETs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final ContentType OCTET_STREAM = ContentType.APPLICATION_OCTET_STREAM;
+
+    private final URI endpoint;
+    private final String bucket;
+    private final int partSize;
+    private final int uploadParallelism;
+    private final S3RequestSigner signer;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService uploadPool;
+
+    public S3BlobStore(@Value("${app.storage.s3.endpoint}") String endpoint,
+                       @Value("${app.storage.s3.region:us-east-1}") String region,
+                       @Value("${app.storage.s3.bucket}") String bucket,
+                       @Value("${app.storage.s3.access-key}") String accessKey,
+                       @Value("${app.storage.s3.secret-key}") String secretKey,
+                       @Value("${app.storage.s3.part-size-bytes:16777216}") int partSize,
+                       @Value("${app.storage.s3.upload-parallelism:4}") int uploadParallelism,
+                       @Value("${app.storage.s3.max-connections:32}") int maxConnections) {
+        this.endpoint = URI.create(endpoint.replaceAll("/+$", ""));
+        this.bucket = bucket;
+        this.partSize = partSize;
+        this.uploadParallelism = uploadParallelism;
+        this.signer = new S3RequestSigner(accessKey, secretKey, region);
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofSeconds(10))
+                                .setSocketTimeout(Timeout.ofSeconds(60))
+                                .build())
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .build();
+
+        AtomicInteger threads = new AtomicInteger();
+        this.uploadPool = Executors.newFixedThreadPool(uploadParallelism, task -> {
+            Thread thread = new Thread(task, "s3-upload-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("S3 blob store using bucket {} at {} ({} byte parts, {} parallel)",
+                bucket, this.endpoint, partSize, uploadParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        uploadPool.shutdownNow();
+        httpClient.close();
+    }
+
+    @Override
+    public void put(String key, InputStream content) throws IOException {
+        byte[] part = content.readNBytes(partSize);
+        if (part.length < partSize) {
+            putObject(key, new ByteArrayEntity(part, OCTET_STREAM));
+            return;
+        }
+
+        // Parts are buffered, so at most uploadParallelism + 1 of them are held at once
+        String uploadId = initiateMultipart(key);
+        List<Future<String>> parts = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(uploadParallelism);
+        try {
+            int partNumber = 1;
+            while (part.length > 0) {
+                acquire(inFlight);
+                HttpEntity body = new ByteArrayEntity(part, OCTET_STREAM);
+                int number = partNumber++;
+                parts.add(uploadPool.submit(() -> {
+                    try {
+                        return uploadPart(key, uploadId, number, body);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                part = content.readNBytes(partSize);
+            }
+            completeMultipart(key, uploadId, awaitAll(parts));
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        if (size < partSize) {
+            putObject(key, new FileRegionEntity(source, 0, size));
+            return;
+        }
+
+        // Each part reads its own region of the file, so nothing is buffered
+        String uploadId = initiateMultipart(key);
+        List<Future<String>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize) {
+                HttpEntity body = new FileRegionEntity(source, offset, Math.min(partSize, size - offset));
+                int number = partNumber++;
+                parts.add(uploadPool.submit(() -> uploadPart(key, uploadId, number, body)));
+            }
+            completeMultipart(key, uploadId, awaitAll(parts));
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        HttpUriRequestBase request = request("GET", key, Map.of());
+        if (offset > 0 || length < Long.MAX_VALUE) {
+            long last = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE - 1 : offset + length - 1;
+            request.setHeader("Range", "bytes=" + offset + "-" + last);
+        }
+
+        ClassicHttpResponse response = httpClient.executeOpen(null, request, null);
+        int status = response.getCode();
+        if (status == 200 || status == 206) {
+            return new ResponseInputStream(request, response);
+        }
+        try (response) {
+            if (status == 404) {
+                throw new NoSuchFileException(key);
+            }
+            if (status == 416) {
+                return InputStream.nullInputStream();
+            }
+            throw failure(request, response);
+        }
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) throws IOException {
+        HttpUriRequestBase request = request("HEAD", key, Map.of());
+        return httpClient.execute(request, response -> {
+            if (response.getCode() == 404) {
+                return Optional.empty();
+            }
+            if (response.getCode() != 200) {
+                throw failure(request, response);
+            }
+            Header lastModified = response.getFirstHeader("Last-Modified");
+            long modifiedMillis = lastModified == null ? 0
+                    : ZonedDateTime.parse(lastModified.getValue(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                            .toInstant().toEpochMilli();
+            return Optional.of(new BlobStat(
+                    Long.parseLong(response.getFirstHeader("Content-Length").getValue()), modifiedMillis));
+        });
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpUriRequestBase request = request("DELETE", key, Map.of());
+        httpClient.execute(request, response -> {
+            if (response.getCode() / 100 != 2 && response.getCode() != 404) {
+                throw failure(request, response);
+            }
+            return null;
+        });
+    }
+
+    private void putObject(String key, HttpEntity body) throws IOException {
+        HttpUriRequestBase request = request("PUT", key, Map.of());
+        request.setEntity(body);
+        httpClient.execute(request, response -> {
+            if (response.getCode() != 200) {
+                throw failure(request, response);
+            }
+            return null;
+        });
+    }
+
+    private String initiateMultipart(String key) throws IOException {
+        HttpUriRequestBase request = request("POST", key, Map.of("uploads", ""));
+        return httpClient.execute(request, response -> {
+            String body = EntityUtils.toString(response.getEntity());
+            Matcher uploadId = UPLOAD_ID.matcher(body);
+            if (response.getCode() != 200 || !uploadId.find()) {
+                throw new IOException("S3 could not start a multipart upload of " + key + ": "
+                        + response.getCode() + " " + abbreviate(body));
+            }
+            return uploadId.group(1);
+        });
+    }
+
+    private String uploadPart(String key, String uploadId, int partNumber, HttpEntity body) throws IOException {
+        HttpUriRequestBase request = request("PUT", key,
+                Map.of("partNumber", Integer.toString(partNumber), "uploadId", uploadId));
+        request.setEntity(body);
+        return httpClient.execute(request, response -> {
+            Header eTag = response.getFirstHeader("ETag");
+            if (response.getCode() != 200 || eTag == null) {
+                throw failure(request, response);
+            }
+            EntityUtils.consume(response.getEntity());
+            return eTag.getValue();
+        });
+    }
+
+    private void completeMultipart(String key, String uploadId, List<String> eTags) throws IOException {
+        StringBuilder manifest = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < eTags.size(); i++) {
+            manifest.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(eTags.get(i)).append("</ETag></Part>");
+        }
+        manifest.append("</CompleteMultipartUpload>");
+
+        HttpUriRequestBase request = request("POST", key, Map.of("uploadId", uploadId));
+        request.setEntity(new StringEntity(manifest.toString(), ContentType.APPLICATION_XML));
+        httpClient.execute(request, response -> {
+            // S3 can report a failed completion inside a 200 response
+            String body = EntityUtils.toString(response.getEntity());
+            if (response.getCode() != 200 || body.contains("<Error>")) {
+                throw new IOException("S3 could not complete the multipart upload of " + key + ": "
+                        + response.getCode() + " " + abbreviate(body));
+            }
+            return null;
+        });
+        log.debug("Stored {} in {} parts", key, eTags.size());
+    }
+
+    private void abortMultipart(String key, String uploadId, List<Future<String>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        HttpUriRequestBase request = request("DELETE", key, Map.of("uploadId", uploadId));
+        try {
+            httpClient.execute(request, response -> {
+                EntityUtils.consume(response.getEntity());
+                return null;
+            });
+        } catch (IOException e) {
+            log.warn("Could not abort multipart upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private List<String> awaitAll(List<Future<String>> parts) throws IOException {
+        List<String> eTags = new ArrayList<>(parts.size());
+        for (Future<String> part : parts) {
+            try {
+                eTags.add(part.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while uploading parts");
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+        return eTags;
+    }
+
+    private void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading parts");
+        }
+    }
+
+    private HttpUriRequestBase request(String method, String key, Map<String, String> query) {
+        String path = endpoint.getRawPath() + "/" + S3RequestSigner.encode(bucket, true)
+                + "/" + S3RequestSigner.encode(key, false);
+        String canonicalQuery = S3RequestSigner.canonicalQuery(query);
+        URI uri = URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + path
+                + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+
+        SortedMap<String, String> signedHeaders = new TreeMap<>();
+        signedHeaders.put("host", endpoint.getRawAuthority());
+        signedHeaders.put("x-amz-content-sha256", S3RequestSigner.UNSIGNED_PAYLOAD);
+        signedHeaders.put("x-amz-date", AMZ_DATE.format(Instant.now()));
+
+        HttpUriRequestBase request = new HttpUriRequestBase(method, uri);
+        request.setHeader("x-amz-content-sha256", signedHeaders.get("x-amz-content-sha256"));
+        request.setHeader("x-amz-date", signedHeaders.get("x-amz-date"));
+        request.setHeader("Authorization", signer.authorization(
+                method, path, canonicalQuery, signedHeaders, S3RequestSigner.UNSIGNED_PAYLOAD));
+        return request;
+    }
+
+    private static IOException failure(HttpUriRequestBase request, ClassicHttpResponse response) {
+        String body = "";
+        try {
+            if (response.getEntity() != null) {
+                body = EntityUtils.toString(response.getEntity());
+            }
+        } catch (Exception e) {
+            body = e.getMessage();
+        }
+        return new IOException("S3 " + request.getMethod() + " " + request.getPath() + " failed with "
+                + response.getCode() + ": " + abbreviate(body));
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 300 ? body.substring(0, 300) + "..." : body;
+    }
+
+    /**
+     * A region of a file, sent with zero-copy transfers; repeatable so failed requests can be retried.
+     */
+    private static final class FileRegionEntity extends AbstractHttpEntity {
+        private final Path file;
+        private final long offset;
+        private final long length;
+
+        FileRegionEntity(Path file, long offset, long length) {
+            super(OCTET_STREAM, null);
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("Request bodies are only written");
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = offset;
+                long remaining = length;
+                while (remaining > 0) {
+                    long transferred = channel.transferTo(position, remaining, target);
+                    if (transferred <= 0) {
+                        throw new IOException("File truncated while uploading: " + file);
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Response body that releases the connection on close; closing before the end aborts
+     * the request instead of draining the rest of the object.
+     */
+    private static final class ResponseInputStream extends FilterInputStream {
+        private final HttpUriRequestBase request;
+        private final ClassicHttpResponse response;
+        private boolean finished;
+
+        ResponseInputStream(HttpUriRequestBase request, ClassicHttpResponse response) throws IOException {
+            super(response.getEntity() != null ? response.getEntity().getContent() : InputStream.nullInputStream());
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            finished |= b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            finished |= read == -1;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                request.cancel();
+            }
+            try {
+                super.close();
+            } catch (IOException e) {
+                // Expected after a cancel
+            } finally {
+                response.close();
+            }
+        }
+    }
+}
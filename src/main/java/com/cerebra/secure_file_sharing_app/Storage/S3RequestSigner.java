@@ -0,0 +1,119 @@
+package com.cerebra.secure_file_sharing_app.Storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * AWS Signature Version 4 for S3-compatible services. Stateless apart from the credentials.
+ */
+public class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * Builds the Authorization header value. {@code headers} are the headers to sign with
+     * lower-case names and must include host, x-amz-date and x-amz-content-sha256.
+     *
+     * @param canonicalUri   the already URI-encoded path
+     * @param canonicalQuery the query string as produced by {@link #canonicalQuery(Map)}
+     */
+    public String authorization(String method, String canonicalUri, String canonicalQuery,
+                                SortedMap<String, String> headers, String payloadHash) {
+        String amzDate = headers.get("x-amz-date");
+        String scope = amzDate.substring(0, 8) + "/" + region + "/" + SERVICE + "/aws4_request";
+
+        String canonicalHeaders = headers.entrySet().stream()
+                .map(header -> header.getKey() + ":" + header.getValue().trim() + "\n")
+                .collect(Collectors.joining());
+        String signedHeaders = String.join(";", headers.keySet());
+
+        String canonicalRequest = method + "\n"
+                + canonicalUri + "\n"
+                + canonicalQuery + "\n"
+                + canonicalHeaders + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+
+        String stringToSign = ALGORITHM + "\n"
+                + amzDate + "\n"
+                + scope + "\n"
+                + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders
+                + ", Signature=" + signature;
+    }
+
+    /**
+     * Sorted, encoded query string; parameters without a value still get a trailing '='.
+     */
+    public static String canonicalQuery(Map<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .map(parameter -> encode(parameter.getKey(), true) + "=" + encode(parameter.getValue(), true))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * RFC 3986 encoding as SigV4 expects it; '/' is kept when encoding a path.
+     */
+    public static String encode(String value, boolean encodeSlash) {
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    public static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cerebra.secure_file_sharing_app.Benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cerebra.secure_file_sharing_app.Aspects.Sanitization.SanitizationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scanning sanitizer with the regex chain it replaced.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.cerebra.secure_file_sharing_app.Benchmarks.SanitizationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SanitizationBenchmark {
+
+    @Param({
+            "My Documents",
+            "Quarterly report 2024 (final) & notes.pdf",
+            "1' UNION SELECT * FROM users; -- <script>alert('x')</script>"
+    })
+    private String input;
+
+    private final SanitizationService sanitizationService = new SanitizationService();
+
+    // Outside Spring logback defaults to DEBUG, which would measure console output instead
+    @Setup
+    public void silenceLogging() {
+        ((Logger) LoggerFactory.getLogger(SanitizationService.class)).setLevel(Level.WARN);
+    }
+
+    @Benchmark
+    public String scanner() {
+        return sanitizationService.sanitizeInput(input);
+    }
+
+    @Benchmark
+    public String regexChain() {
+        return regexChain(input);
+    }
+
+    /**
+     * The replaced implementation, kept verbatim as the baseline and as the
+     * reference output for SanitizationServiceTest.
+     */
+    public static String regexChain(String input) {
+        if (input == null || input.trim().isEmpty()) {
+            return input == null ? null : "";
+        }
+
+        String sanitized = input;
+
+        sanitized = sanitized.replaceAll("--", "")
+                .replaceAll("(?i)\\b(union|select|drop|insert|update|delete|from)\\b", "")
+                .replaceAll("'(?=\\s*(?i)(or|and|union|select|drop|insert|update|delete))", "");
+
+        sanitized = sanitized.replaceAll("'", "&#x27;")
+                .replaceAll("<", "&lt;")
+                .replaceAll(">", "&gt;")
+                .replaceAll("\"", "&quot;")
+                .replaceAll("&(?![a-zA-Z0-9#]+;)", "&amp;");
+
+        sanitized = sanitized.replaceAll("(?<!&[a-zA-Z0-9#]+);", "");
+
+        sanitized = sanitized.replaceAll("\\s+", " ").trim();
+
+        return sanitized;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SanitizationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
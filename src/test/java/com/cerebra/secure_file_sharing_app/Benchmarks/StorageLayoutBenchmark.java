@@ -0,0 +1,97 @@
+package com.cerebra.secure_file_sharing_app.Benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares looking up one file among many in the flat users/user{id}/ directory with the
+ * same lookup in the two-level blobs/ab/cd/ layout. Set -Dbenchmark.dir to put the trees
+ * on the filesystem that holds real storage; the default temp directory may be tmpfs.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.cerebra.secure_file_sharing_app.Benchmarks.StorageLayoutBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageLayoutBenchmark {
+
+    private static final int LOOKUP_KEYS = 4096;
+
+    @Param({"10000", "200000"})
+    private int fileCount;
+
+    private Path root;
+    private Path[] flatPaths;
+    private Path[] shardedPaths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createTrees() throws IOException {
+        Path parent = Path.of(System.getProperty("benchmark.dir", System.getProperty("java.io.tmpdir")));
+        root = Files.createTempDirectory(parent, "storage-layout-");
+        Path flatDir = Files.createDirectories(root.resolve("users/user1"));
+
+        // Same names in both layouts; hex names spread over the shards like SHA-256 keys do
+        Random random = new Random(42);
+        byte[] name = new byte[32];
+        flatPaths = new Path[LOOKUP_KEYS];
+        shardedPaths = new Path[LOOKUP_KEYS];
+        int stride = fileCount / LOOKUP_KEYS;
+        for (int i = 0; i < fileCount; i++) {
+            random.nextBytes(name);
+            String hex = HexFormat.of().formatHex(name);
+            Path flat = Files.createFile(flatDir.resolve(hex));
+            Path sharded = root.resolve("blobs").resolve(hex.substring(0, 2)).resolve(hex.substring(2, 4)).resolve(hex);
+            Files.createDirectories(sharded.getParent());
+            Files.createFile(sharded);
+            if (i % stride == 0 && i / stride < LOOKUP_KEYS) {
+                flatPaths[i / stride] = flat;
+                shardedPaths[i / stride] = sharded;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTrees() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long flatLookup() throws IOException {
+        return Files.readAttributes(flatPaths[nextIndex()], BasicFileAttributes.class).size();
+    }
+
+    @Benchmark
+    public long shardedLookup() throws IOException {
+        return Files.readAttributes(shardedPaths[nextIndex()], BasicFileAttributes.class).size();
+    }
+
+    // Cycle through keys spread over the whole tree so one hot entry is not all that gets measured
+    private int nextIndex() {
+        next = (next + 1) % LOOKUP_KEYS;
+        return next;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StorageLayoutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
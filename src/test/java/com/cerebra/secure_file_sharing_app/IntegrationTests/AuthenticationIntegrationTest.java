@@ -53,7 +53,8 @@ class AuthenticationIntegrationTest extends BaseIntegrationTest {
 
         String otp = otpResponse.getOtp();
 
-        // Verify SMS was called with OTP
+        // Verify SMS was queued and delivered with OTP
+        smsOutboxService.dispatchDue();
         verify(smsService, times(1)).sendSMS(eq(phoneNumber), contains(otp));
 
         // Step 2: Verify OTP and receive JWT
@@ -1,6 +1,8 @@
 package com.cerebra.secure_file_sharing_app.IntegrationTests;
 
 import com.cerebra.secure_file_sharing_app.Repositories.*;
+import com.cerebra.secure_file_sharing_app.Security.PrincipalCache;
+import com.cerebra.secure_file_sharing_app.Services.SMSOutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -34,13 +36,37 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected StoragePathRepository storagePathRepository;
 
+    @Autowired
+    protected UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    protected FileBlobRepository fileBlobRepository;
+
+    @Autowired
+    protected SMSOutboxRepository smsOutboxRepository;
+
+    @Autowired
+    protected ReclaimTaskRepository reclaimTaskRepository;
+
+    @Autowired
+    protected PrincipalCache principalCache;
+
+    @Autowired
+    protected SMSOutboxService smsOutboxService;
+
     @BeforeEach
     void cleanupDatabase() {
         sharedLinkRepository.deleteAll();
+        uploadSessionRepository.deleteAll();
         fileRepository.deleteAll();
+        fileBlobRepository.deleteAll();
         folderRepository.deleteAll();
         storagePathRepository.deleteAll();
         appUserRepository.deleteAll();
+        smsOutboxRepository.deleteAll();
+        reclaimTaskRepository.deleteAll();
+        // Users were removed behind the service's back
+        principalCache.invalidateAll();
     }
 
     protected String baseUrl() {
@@ -4,10 +4,15 @@ import com.cerebra.secure_file_sharing_app.Security.DTO.*;
 import com.cerebra.secure_file_sharing_app.Shared.*;
 import com.cerebra.secure_file_sharing_app.Entities.File;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Services.HttpSMSService;
+import com.cerebra.secure_file_sharing_app.Services.StorageMigrationService;
 import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -17,7 +22,8 @@ import org.springframework.util.MultiValueMap;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +37,15 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
     @MockitoBean
     private HttpSMSService smsService;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private StorageMigrationService storageMigrationService;
+
+    @Value("${app.storage.root-path}")
+    private String rootStoragePath;
+
     @Test
     @DisplayName("Complete File Lifecycle: Upload → DB → Filesystem → Download → Delete → Cleanup")
     void completeFileLifecycle() throws IOException {
@@ -78,7 +93,7 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
         assertThat(fileEntity.getPhysicalPath()).isNotNull();
 
         // Step 3: Verify Physical File Exists on Filesystem
-        Path physicalPath = Paths.get(fileEntity.getPhysicalPath());
+        Path physicalPath = blobStore.localPath(fileEntity.getPhysicalPath()).orElseThrow();
         assertThat(Files.exists(physicalPath)).isTrue();
         assertThat(Files.isRegularFile(physicalPath)).isTrue();
 
@@ -122,6 +137,197 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
         assertThat(Files.exists(physicalPath)).isFalse();
     }
 
+    @Test
+    @DisplayName("Deduplicated Upload: Identical Content Shares One Blob Until Last Delete")
+    void identicalUploadsShareBlob() {
+        // Setup: Two users upload the same bytes
+        String tokenA = authenticateUser("+1111111113");
+        String tokenB = authenticateUser("+1111111114");
+        uploadFileWithName(tokenA, "installer.bin", "identical installer bytes", null);
+        uploadFileWithName(tokenB, "setup.bin", "identical installer bytes", null);
+
+        // Verify: Both files point at a single stored copy
+        List<File> files = fileRepository.findAll();
+        assertThat(files).hasSize(2);
+        assertThat(files.get(0).getPhysicalPath()).isEqualTo(files.get(1).getPhysicalPath());
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+        Path blobPath = blobStore.localPath(files.get(0).getPhysicalPath()).orElseThrow();
+
+        // Delete the first file: content stays for the other owner
+        deleteFile(tokenA, files.get(0).getId());
+        assertThat(Files.exists(blobPath)).isTrue();
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+
+        // Delete the last reference: blob row and content are reclaimed
+        deleteFile(tokenB, files.get(1).getId());
+        assertThat(Files.exists(blobPath)).isFalse();
+        assertThat(fileBlobRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("File Copy And Move: Copy Shares The Blob, Move Only Changes The Folder")
+    void copyAndMoveFile() {
+        String jwtToken = authenticateUser("+1111111116");
+        uploadFileWithName(jwtToken, "report.pdf", "quarterly numbers", null);
+        File original = fileRepository.findAll().get(0);
+        Folder target = folderRepository.save(Folder.builder()
+                .name("Reports")
+                .storagePath(storagePathRepository.findAll().get(0))
+                .build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<FileSummaryResponse> copied = restTemplate.exchange(
+                baseUrl() + "/api/files/" + original.getId() + "/copy", HttpMethod.POST,
+                new HttpEntity<>(new TargetFolderRequest(target.getId()), headers), FileSummaryResponse.class);
+
+        assertThat(copied.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(copied.getBody().getFolderId()).isEqualTo(target.getId());
+        File copy = fileRepository.findById(copied.getBody().getId()).orElseThrow();
+        assertThat(copy.getPhysicalPath()).isEqualTo(original.getPhysicalPath());
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+
+        ResponseEntity<FileSummaryResponse> moved = restTemplate.exchange(
+                baseUrl() + "/api/files/" + original.getId() + "/move", HttpMethod.POST,
+                new HttpEntity<>(new TargetFolderRequest(target.getId()), headers), FileSummaryResponse.class);
+
+        assertThat(moved.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fileRepository.findByFolderId(target.getId())).hasSize(2);
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Layout Migration: Flat Legacy File Moves Into Blob Store And Stays Downloadable")
+    void legacyFileMigratesToShardedLayout() throws IOException {
+        // Setup: A file stored flat in the owner's directory before the blob store existed
+        String jwtToken = authenticateUser("+1111111115");
+        StoragePath storagePath = storagePathRepository.findAll().get(0);
+        Path legacyPath = Path.of(rootStoragePath, "users", "user" + storagePath.getAppUser().getId(), "legacy-uuid.txt");
+        Files.createDirectories(legacyPath.getParent());
+        Files.writeString(legacyPath, "stored before sharding");
+        File legacy = fileRepository.save(File.builder()
+                .displayName("old.txt")
+                .physicalName("legacy-uuid.txt")
+                .physicalPath(legacyPath.toString())
+                .size(22L)
+                .mimeType("text/plain")
+                .storagePath(storagePath)
+                .build());
+
+        // Migrate
+        assertThat(storageMigrationService.migrateLegacyFiles()).isEqualTo(1);
+
+        // Verify: Row points at a sharded blob and the flat copy is gone
+        File migrated = fileRepository.findById(legacy.getId()).orElseThrow();
+        assertThat(migrated.getPhysicalPath()).matches("blobs/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}-.+");
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+        assertThat(Files.exists(legacyPath)).isFalse();
+
+        // Verify: Download serves the same content from its new location
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        ResponseEntity<String> download = restTemplate.exchange(
+                baseUrl() + "/api/files/" + legacy.getId() + "/download",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+        assertThat(download.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(download.getBody()).isEqualTo("stored before sharding");
+
+        // A second run finds nothing left to move
+        assertThat(storageMigrationService.migrateLegacyFiles()).isZero();
+    }
+
+    @Test
+    @DisplayName("Resumable Chunked Upload: Initiate → Chunks → Resume → Complete")
+    void resumableChunkedUpload() throws IOException {
+        // Setup: Authenticate user
+        String jwtToken = authenticateUser("+1111111112");
+        byte[] content = "0123456789".repeat(2_000_000).getBytes(); // 20 MB - three 8 MB chunks
+
+        HttpHeaders jsonHeaders = new HttpHeaders();
+        jsonHeaders.setBearerAuth(jwtToken);
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+
+        // Step 1: Initiate
+        InitiateUploadRequest initiateRequest = InitiateUploadRequest.builder()
+                .fileName("large-video.bin")
+                .totalSize((long) content.length)
+                .mimeType("application/octet-stream")
+                .build();
+
+        ResponseEntity<Map> initiateResponse = restTemplate.exchange(
+                baseUrl() + "/api/files/uploads",
+                HttpMethod.POST,
+                new HttpEntity<>(initiateRequest, jsonHeaders),
+                Map.class
+        );
+        assertThat(initiateResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String uploadId = (String) initiateResponse.getBody().get("uploadId");
+        int chunkSize = (Integer) initiateResponse.getBody().get("chunkSize");
+        assertThat((List<?>) initiateResponse.getBody().get("missingOffsets")).hasSize(3);
+
+        // Step 2: Send the last and first chunk, as if the link dropped before the middle one
+        putChunk(jwtToken, uploadId, content, 2L * chunkSize, content.length);
+        putChunk(jwtToken, uploadId, content, 0, chunkSize);
+
+        // Step 3: Completing early is refused; progress reports the gap
+        ResponseEntity<Map> earlyComplete = restTemplate.exchange(
+                baseUrl() + "/api/files/uploads/" + uploadId + "/complete",
+                HttpMethod.POST,
+                new HttpEntity<>(jsonHeaders),
+                Map.class
+        );
+        assertThat(earlyComplete.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(fileRepository.findAll()).noneMatch(f -> f.getDisplayName().equals("large-video.bin"));
+
+        ResponseEntity<Map> progress = restTemplate.exchange(
+                baseUrl() + "/api/files/uploads/" + uploadId,
+                HttpMethod.GET,
+                new HttpEntity<>(jsonHeaders),
+                Map.class
+        );
+        assertThat((List<Object>) progress.getBody().get("missingOffsets")).containsExactly(chunkSize);
+
+        // Step 4: Resume and complete
+        putChunk(jwtToken, uploadId, content, chunkSize, 2L * chunkSize);
+
+        ResponseEntity<Map> completeResponse = restTemplate.exchange(
+                baseUrl() + "/api/files/uploads/" + uploadId + "/complete",
+                HttpMethod.POST,
+                new HttpEntity<>(jsonHeaders),
+                Map.class
+        );
+        assertThat(completeResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Long fileId = ((Integer) completeResponse.getBody().get("fileId")).longValue();
+        File fileEntity = fileRepository.findById(fileId).orElseThrow();
+        assertThat(fileEntity.getSize()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(blobStore.localPath(fileEntity.getPhysicalPath()).orElseThrow())).isEqualTo(content);
+    }
+
+    private void putChunk(String jwtToken, String uploadId, byte[] content, long start, long end) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        byte[] chunk = Arrays.copyOfRange(content, (int) start, (int) end);
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl() + "/api/files/uploads/" + uploadId + "?offset=" + start,
+                HttpMethod.PUT,
+                new HttpEntity<>(chunk, headers),
+                Map.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     @DisplayName("Upload File to Folder: Multi-Service Integration")
     void uploadFileToFolder() {
@@ -188,15 +394,15 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
 
         // Step 4: Query Files by Folder
         HttpEntity<Void> getRequest = new HttpEntity<>(headers);
-        ResponseEntity<List> filesInFolderResponse = restTemplate.exchange(
+        ResponseEntity<Map> filesInFolderResponse = restTemplate.exchange(
                 baseUrl() + "/api/files/folder/" + folderId,
                 HttpMethod.GET,
                 getRequest,
-                List.class
+                Map.class
         );
 
         assertThat(filesInFolderResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(filesInFolderResponse.getBody()).hasSize(1);
+        assertThat((List<?>) filesInFolderResponse.getBody().get("files")).hasSize(1);
     }
 
     @Test
@@ -292,15 +498,15 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
 
         // Step 4: List all user files (should return 5 total)
         HttpEntity<Void> getRequest = new HttpEntity<>(headers);
-        ResponseEntity<List> allFilesResponse = restTemplate.exchange(
+        ResponseEntity<Map> allFilesResponse = restTemplate.exchange(
                 baseUrl() + "/api/files/my-files",
                 HttpMethod.GET,
                 getRequest,
-                List.class
+                Map.class
         );
 
         assertThat(allFilesResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(allFilesResponse.getBody()).hasSize(5);
+        assertThat((List<?>) allFilesResponse.getBody().get("files")).hasSize(5);
 
         // Step 5: Get "My Files" folder ID (the default folder)
         ResponseEntity<List> foldersResponse = restTemplate.exchange(
@@ -323,30 +529,82 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
         Long myFilesFolderId = myFilesFolderIdInt.longValue();
 
         // Step 6: List files in "My Files" folder (should return 2)
-        ResponseEntity<List> defaultFilesResponse = restTemplate.exchange(
+        ResponseEntity<Map> defaultFilesResponse = restTemplate.exchange(
                 baseUrl() + "/api/files/folder/" + myFilesFolderId,
                 HttpMethod.GET,
                 getRequest,
-                List.class
+                Map.class
         );
 
         assertThat(defaultFilesResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(defaultFilesResponse.getBody()).hasSize(2);
+        assertThat((List<?>) defaultFilesResponse.getBody().get("files")).hasSize(2);
 
         // Step 7: List files in custom subfolder (should return 3)
-        ResponseEntity<List> folderFilesResponse = restTemplate.exchange(
+        ResponseEntity<Map> folderFilesResponse = restTemplate.exchange(
                 baseUrl() + "/api/files/folder/" + folderId,
                 HttpMethod.GET,
                 getRequest,
-                List.class
+                Map.class
         );
 
         assertThat(folderFilesResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(folderFilesResponse.getBody()).hasSize(3);
+        assertThat((List<?>) folderFilesResponse.getBody().get("files")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Paginated Listing: Keyset Pages by Name and Size Cover Every File Once")
+    void paginatedListingWalksAllPages() {
+        // Setup: Five files with distinct sizes, uploaded out of name order
+        String jwtToken = authenticateUser("+1111111115");
+        uploadFileWithName(jwtToken, "c.txt", "ccc", null);
+        uploadFileWithName(jwtToken, "a.txt", "a", null);
+        uploadFileWithName(jwtToken, "e.txt", "eeeee", null);
+        uploadFileWithName(jwtToken, "b.txt", "bb", null);
+        uploadFileWithName(jwtToken, "d.txt", "dddd", null);
+
+        // Walk by name ascending, two per page
+        assertThat(collectPages(jwtToken, "sort=name&direction=asc&limit=2", "displayName"))
+                .containsExactly("a.txt", "b.txt", "c.txt", "d.txt", "e.txt");
+
+        // Walk by size descending, two per page
+        assertThat(collectPages(jwtToken, "sort=size&direction=desc&limit=2", "size"))
+                .containsExactly(5, 4, 3, 2, 1);
+
+        // Root listing stays empty: uploads land in the default folder
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        ResponseEntity<Map> rootResponse = restTemplate.exchange(
+                baseUrl() + "/api/files/root", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        assertThat((List<?>) rootResponse.getBody().get("files")).isEmpty();
+
+        // Invalid cursor is a client error
+        ResponseEntity<Map> badCursor = restTemplate.exchange(
+                baseUrl() + "/api/files/my-files?cursor=not-a-cursor", HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        assertThat(badCursor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
     // ========== Helper Methods ==========
 
+    private List<Object> collectPages(String jwtToken, String query, String field) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        List<Object> values = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = baseUrl() + "/api/files/my-files?" + query + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            List<Map<String, Object>> files = (List<Map<String, Object>>) response.getBody().get("files");
+            assertThat(files).hasSizeLessThanOrEqualTo(2);
+            files.forEach(file -> values.add(file.get(field)));
+            cursor = (String) response.getBody().get("nextCursor");
+        } while (cursor != null);
+
+        return values;
+    }
+
     private String authenticateUser(String phoneNumber) {
         when(smsService.sendSMS(anyString(), anyString()))
                 .thenReturn(SMSResponse.success("OTP sent"));
@@ -392,4 +650,17 @@ class FileOperationsIntegrationTest extends BaseIntegrationTest {
 
         restTemplate.exchange(url, HttpMethod.POST, uploadRequest, Map.class);
     }
+
+    private void deleteFile(String jwtToken, Long fileId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl() + "/api/files/" + fileId,
+                HttpMethod.DELETE,
+                new HttpEntity<>(headers),
+                String.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
 }
\ No newline at end of file
@@ -2,20 +2,29 @@ package com.cerebra.secure_file_sharing_app.IntegrationTests;
 
 import com.cerebra.secure_file_sharing_app.Shared.*;
 import com.cerebra.secure_file_sharing_app.Security.DTO.*;
+import com.cerebra.secure_file_sharing_app.Entities.File;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
 import com.cerebra.secure_file_sharing_app.Services.HttpSMSService;
+import com.cerebra.secure_file_sharing_app.Services.SharedLinkService;
 import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -32,6 +41,12 @@ class FileSharingIntegrationTest extends BaseIntegrationTest {
     @MockitoBean
     private HttpSMSService smsService;
 
+    @MockitoSpyBean
+    private FileRepository spiedFileRepository;
+
+    @Autowired
+    private SharedLinkService sharedLinkService;
+
     @Test
     @DisplayName("Complete File Sharing Flow: Upload → Share → SMS → Public Download Without JWT")
     void completeFileSharingFlow() {
@@ -79,7 +94,9 @@ class FileSharingIntegrationTest extends BaseIntegrationTest {
         assertThat(sharedLink.getFile().getId()).isEqualTo(fileId);
         assertThat(sharedLink.getExpiresAt()).isAfter(LocalDateTime.now());
 
-        // Step 4: Verify SMS was sent with share link
+        // Step 4: Verify SMS was queued, then sent with share link by the outbox dispatcher
+        verify(smsService, never()).sendSMS(eq("+2222222222"), anyString());
+        smsOutboxService.dispatchDue();
         verify(smsService, atLeastOnce()).sendSMS(eq("+2222222222"), contains(linkToken));
 
         // Step 5: Unauthenticated user (no JWT) downloads via public link
@@ -180,6 +197,74 @@ class FileSharingIntegrationTest extends BaseIntegrationTest {
         }
     }
 
+    @Test
+    @DisplayName("Folder Share ZIP Includes Subfolders")
+    void folderShareZipIncludesSubfolders() throws IOException {
+        // Setup: Authenticate user
+        String jwtToken = authenticateUser("+3333333334");
+
+        when(smsService.sendSMS(anyString(), anyString()))
+                .thenReturn(SMSResponse.success("Share link sent"));
+
+        // Step 1: Create a three-level tree, one level left empty
+        Long folderId = createFolder(jwtToken, "Projects", null);
+        Long childId = createFolder(jwtToken, "Docs", folderId);
+        Long grandchildId = createFolder(jwtToken, "Drafts", childId);
+        Long emptyId = createFolder(jwtToken, "Empty", folderId);
+
+        uploadFile(jwtToken, "top.txt", "Top level", folderId);
+        uploadFile(jwtToken, "child.txt", "Child level", childId);
+        uploadFile(jwtToken, "draft.txt", "Grandchild level", grandchildId);
+
+        // Another user's tree must not be read for this archive
+        String otherToken = authenticateUser("+3333333335");
+        Long otherFolderId = createFolder(otherToken, "Elsewhere", null);
+        uploadFile(otherToken, "unrelated.txt", "Not shared", otherFolderId);
+
+        // Step 2: Share the top folder
+        CreateShareRequest shareRequest = new CreateShareRequest();
+        shareRequest.setRecipientPhone("+4444444445");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Map> shareResponse = restTemplate.exchange(
+                baseUrl() + "/api/folders/" + folderId + "/share",
+                HttpMethod.POST,
+                new HttpEntity<>(shareRequest, headers),
+                Map.class
+        );
+        String linkToken = (String) shareResponse.getBody().get("linkToken");
+
+        // Step 3: Public download mirrors the folder hierarchy
+        ResponseEntity<byte[]> downloadResponse = restTemplate.getForEntity(
+                baseUrl() + "/public/shared/" + linkToken,
+                byte[].class
+        );
+        assertThat(downloadResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Map<String, String> contents = new LinkedHashMap<>();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(downloadResponse.getBody()))) {
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                contents.put(entry.getName(), new String(zipIn.readAllBytes()));
+            }
+        }
+
+        assertThat(contents.keySet()).containsExactly(
+                "top.txt", "Docs/", "Docs/child.txt", "Docs/Drafts/", "Docs/Drafts/draft.txt", "Empty/");
+        assertThat(contents.get("Docs/Drafts/draft.txt")).isEqualTo("Grandchild level");
+
+        // Exactly the shared subtree was read: four folders, three files
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> folderIds = ArgumentCaptor.forClass(Collection.class);
+        verify(spiedFileRepository).findByFolderIdIn(folderIds.capture());
+        assertThat(folderIds.getValue()).containsExactlyInAnyOrder(folderId, childId, grandchildId, emptyId);
+        List<File> filesRead = fileRepository.findByFolderIdIn(folderIds.getValue());
+        assertThat(filesRead).hasSize(3);
+    }
+
     @Test
     @DisplayName("Expired Share Link Rejection")
     void expiredShareLinkRejection() {
@@ -333,6 +418,88 @@ class FileSharingIntegrationTest extends BaseIntegrationTest {
         }
     }
 
+    @Test
+    @DisplayName("My Shares: Paginated, Owner-Only, With Item Names")
+    @SuppressWarnings("unchecked")
+    void mySharesListing() {
+        // Setup: two users, each sharing their own items
+        String ownerToken = authenticateUser("+1212121212");
+        String otherToken = authenticateUser("+3434343434");
+
+        when(smsService.sendSMS(anyString(), anyString()))
+                .thenReturn(SMSResponse.success("Share link sent"));
+
+        Long fileA = uploadFile(ownerToken, "first.txt", "First", null);
+        Long fileB = uploadFile(ownerToken, "second.txt", "Second", null);
+        Long folderId = createFolder(ownerToken, "Shared Folder", null);
+        Long otherFile = uploadFile(otherToken, "not-mine.txt", "Other", null);
+
+        share(ownerToken, "/api/files/" + fileA + "/share");
+        share(ownerToken, "/api/files/" + fileB + "/share");
+        share(ownerToken, "/api/folders/" + folderId + "/share");
+        share(otherToken, "/api/files/" + otherFile + "/share");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(ownerToken);
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        // Step 1: First page, newest first
+        ResponseEntity<Map> firstPage = restTemplate.exchange(
+                baseUrl() + "/api/shared/my-shares?limit=2", HttpMethod.GET, entity, Map.class);
+
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody().get("hasMore")).isEqualTo(true);
+        List<Map<String, Object>> shares = (List<Map<String, Object>>) firstPage.getBody().get("shares");
+        assertThat(shares).extracting(share -> share.get("itemName")).containsExactly("Shared Folder", "second.txt");
+        assertThat(shares).extracting(share -> share.get("itemType")).containsExactly("folder", "file");
+
+        // Step 2: Cursor resumes after the last row
+        ResponseEntity<Map> secondPage = restTemplate.exchange(
+                baseUrl() + "/api/shared/my-shares?limit=2&cursor=" + firstPage.getBody().get("nextCursor"),
+                HttpMethod.GET, entity, Map.class);
+
+        shares = (List<Map<String, Object>>) secondPage.getBody().get("shares");
+        assertThat(shares).extracting(share -> share.get("itemName")).containsExactly("first.txt");
+        assertThat(secondPage.getBody().get("hasMore")).isEqualTo(false);
+        assertThat(secondPage.getBody().get("nextCursor")).isNull();
+
+        // Step 3: Shares are stamped with their owner's storage path
+        assertThat(sharedLinkRepository.findAll()).allSatisfy(link -> assertThat(link.getStoragePath()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Expiry Sweep: Removes Only Expired Links")
+    void expiredShareSweep() {
+        // Setup: three shares, two of them past their expiry
+        String jwtToken = authenticateUser("+5656565656");
+
+        when(smsService.sendSMS(anyString(), anyString()))
+                .thenReturn(SMSResponse.success("Share link sent"));
+
+        Long fileA = uploadFile(jwtToken, "old-a.txt", "A", null);
+        Long fileB = uploadFile(jwtToken, "old-b.txt", "B", null);
+        Long fileC = uploadFile(jwtToken, "current.txt", "C", null);
+        share(jwtToken, "/api/files/" + fileA + "/share");
+        share(jwtToken, "/api/files/" + fileB + "/share");
+        share(jwtToken, "/api/files/" + fileC + "/share");
+
+        List<SharedLink> links = sharedLinkRepository.findAll();
+        links.stream()
+                .filter(link -> !link.getFile().getId().equals(fileC))
+                .forEach(link -> {
+                    link.setExpiresAt(LocalDateTime.now().minusHours(1));
+                    sharedLinkRepository.save(link);
+                });
+
+        // Step 1: Sweep
+        int deleted = sharedLinkService.deleteExpiredLinks();
+
+        // Step 2: Only the live link is left, and a second sweep finds nothing
+        assertThat(deleted).isEqualTo(2);
+        assertThat(sharedLinkRepository.findAll()).extracting(link -> link.getFile().getId()).containsExactly(fileC);
+        assertThat(sharedLinkService.deleteExpiredLinks()).isZero();
+    }
+
     // ========== Helper Methods ==========
 
     private String authenticateUser(String phoneNumber) {
@@ -383,6 +550,16 @@ class FileSharingIntegrationTest extends BaseIntegrationTest {
         return fileIdInt.longValue();
     }
 
+    private void share(String jwtToken, String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl() + path, HttpMethod.POST, new HttpEntity<>(new CreateShareRequest(), headers), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     private Long createFolder(String jwtToken, String folderName, Long parentId) {
         CreateFolderRequest folderRequest = new CreateFolderRequest();
         folderRequest.setName(folderName);
@@ -2,19 +2,32 @@ package com.cerebra.secure_file_sharing_app.IntegrationTests;
 
 import com.cerebra.secure_file_sharing_app.Shared.*;
 import com.cerebra.secure_file_sharing_app.Security.DTO.*;
+import com.cerebra.secure_file_sharing_app.Entities.File;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
+import com.cerebra.secure_file_sharing_app.Services.FolderService;
 import com.cerebra.secure_file_sharing_app.Services.HttpSMSService;
+import com.cerebra.secure_file_sharing_app.Services.ReclaimQueueService;
 import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -26,6 +39,18 @@ class FolderOperationsIntegrationTest extends BaseIntegrationTest {
     @MockitoBean
     private HttpSMSService smsService;
 
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private ReclaimQueueService reclaimQueueService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${app.storage.root-path}")
+    private String rootStoragePath;
+
     @Test
     @DisplayName("3-Level Nested Folder Creation: Verify Parent-Child Relationships")
     void threeLeveNestedFolderHierarchy() {
@@ -283,6 +308,230 @@ class FolderOperationsIntegrationTest extends BaseIntegrationTest {
     }
 
 
+    @Test
+    @DisplayName("Materialized Paths: Subtree, Breadcrumbs And Move Stay Consistent")
+    void materializedPathsFollowCreateAndMove() {
+        // Setup: Projects/Docs/Drafts and a separate Archive root
+        String jwtToken = authenticateUser("+6666666669");
+        Long projectsId = createFolder(jwtToken, "Projects", null);
+        Long docsId = createFolder(jwtToken, "Docs", projectsId);
+        Long draftsId = createFolder(jwtToken, "Drafts", docsId);
+        Long archiveId = createFolder(jwtToken, "Archive", null);
+
+        // Verify: Paths are the id chain and depths count from zero
+        Folder drafts = folderRepository.findById(draftsId).orElseThrow();
+        assertThat(drafts.getPath()).isEqualTo("/" + projectsId + "/" + docsId + "/" + draftsId + "/");
+        assertThat(drafts.getDepth()).isEqualTo(2);
+        assertThat(folderRepository.findSubtree("/" + projectsId + "/"))
+                .extracting(FolderNodeView::getId).containsExactlyInAnyOrder(projectsId, docsId, draftsId);
+
+        // Verify: Breadcrumbs come back root first
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        ResponseEntity<List> ancestors = restTemplate.exchange(
+                baseUrl() + "/api/folders/" + draftsId + "/ancestors",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                List.class
+        );
+        assertThat(ancestors.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ancestors.getBody()).extracting(folder -> ((Map<?, ?>) folder).get("name"))
+                .containsExactly("Projects", "Docs", "Drafts");
+
+        // Move Docs under Archive: its whole subtree is re-rooted
+        Long userId = appUserRepository.findByPhoneNumber("+6666666669").orElseThrow().getId();
+        folderService.moveFolder(docsId, archiveId, userId);
+
+        Folder movedDrafts = folderRepository.findById(draftsId).orElseThrow();
+        assertThat(movedDrafts.getPath()).isEqualTo("/" + archiveId + "/" + docsId + "/" + draftsId + "/");
+        assertThat(movedDrafts.getDepth()).isEqualTo(2);
+        assertThat(folderRepository.findById(docsId).orElseThrow().getParentFolder().getId()).isEqualTo(archiveId);
+        assertThat(folderRepository.findSubtree("/" + projectsId + "/"))
+                .extracting(FolderNodeView::getId).containsExactly(projectsId);
+        assertThat(folderRepository.findSubtreeToDepth("/" + archiveId + "/", 1))
+                .extracting(FolderNodeView::getId).containsExactlyInAnyOrder(archiveId, docsId);
+    }
+
+
+    @Test
+    @DisplayName("Folder Tree: Nested Response With File Counts, Depth Limit And Expansion")
+    void folderTreeWithDepthLimitAndExpansion() {
+        // Setup: Projects/Docs/Drafts with files at two levels
+        String jwtToken = authenticateUser("+6666666670");
+        Long projectsId = createFolder(jwtToken, "Projects", null);
+        Long docsId = createFolder(jwtToken, "Docs", projectsId);
+        Long draftsId = createFolder(jwtToken, "Drafts", docsId);
+        uploadFileToFolder(jwtToken, "a.txt", "a", docsId);
+        uploadFileToFolder(jwtToken, "b.txt", "b", docsId);
+        uploadFileToFolder(jwtToken, "c.txt", "c", draftsId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        // Full tree in one request, next to the default "My Files" root
+        ResponseEntity<FolderTreeResponse> full = restTemplate.exchange(
+                baseUrl() + "/api/folders/tree", HttpMethod.GET, request, FolderTreeResponse.class);
+        assertThat(full.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(full.getBody().getFolderCount()).isEqualTo(4);
+        assertThat(full.getBody().getFolders()).extracting(FolderTreeNode::getName).containsExactly("My Files", "Projects");
+        FolderTreeNode docs = full.getBody().getFolders().get(1).getChildren().get(0);
+        assertThat(docs.getFileCount()).isEqualTo(2L);
+        assertThat(docs.getChildren()).singleElement().satisfies(drafts -> assertThat(drafts.getFileCount()).isEqualTo(1L));
+
+        // Depth-limited: Projects only, with a cursor to expand it
+        ResponseEntity<FolderTreeResponse> shallow = restTemplate.exchange(
+                baseUrl() + "/api/folders/tree?depth=1", HttpMethod.GET, request, FolderTreeResponse.class);
+        FolderTreeNode projects = shallow.getBody().getFolders().get(1);
+        assertThat(shallow.getBody().getFolders().get(0).getExpandCursor()).isNull();
+        assertThat(projects.getChildren()).isEmpty();
+        assertThat(projects.getExpandCursor()).isNotNull();
+
+        // Expanding loads the next level below Projects
+        ResponseEntity<FolderTreeResponse> expanded = restTemplate.exchange(
+                baseUrl() + "/api/folders/tree?depth=1&cursor=" + projects.getExpandCursor(),
+                HttpMethod.GET, request, FolderTreeResponse.class);
+        assertThat(expanded.getBody().getFolders()).singleElement().satisfies(node -> {
+            assertThat(node.getId()).isEqualTo(docsId);
+            assertThat(node.getFileCount()).isEqualTo(2L);
+            assertThat(node.getExpandCursor()).isNotNull();
+        });
+
+        // Another user's cursor does not expand this tree
+        String otherToken = authenticateUser("+6666666671");
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.setBearerAuth(otherToken);
+        ResponseEntity<String> denied = restTemplate.exchange(
+                baseUrl() + "/api/folders/tree?cursor=" + projects.getExpandCursor(),
+                HttpMethod.GET, new HttpEntity<>(otherHeaders), String.class);
+        assertThat(denied.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+
+    @Test
+    @DisplayName("Sibling Names: Case And Padding Variants Are Rejected, Other Locations Are Fine")
+    void siblingNamesAreUniqueIgnoringCase() {
+        String jwtToken = authenticateUser("+6666666672");
+        Long reportsId = createFolder(jwtToken, "Reports", null);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        CreateFolderRequest duplicate = new CreateFolderRequest();
+        duplicate.setName(" REPORTS ");
+        ResponseEntity<Map> rejected = restTemplate.exchange(
+                baseUrl() + "/api/folders", HttpMethod.POST, new HttpEntity<>(duplicate, headers), Map.class);
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        // Same name one level down, and for another user, is allowed
+        createFolder(jwtToken, "Reports", reportsId);
+        createFolder(authenticateUser("+6666666673"), "Reports", null);
+        assertThat(folderRepository.findAll()).filteredOn(folder -> folder.getNormalizedName().equals("reports")).hasSize(3);
+    }
+
+
+    @Test
+    @DisplayName("Recursive Delete: Subtree, Files And Shares Go At Once, Content Is Reclaimed Later")
+    void recursiveDeleteRemovesSubtreeAndReclaimsContent() {
+        String jwtToken = authenticateUser("+6666666674");
+        Long projectsId = createFolder(jwtToken, "Projects", null);
+        Long draftsId = createFolder(jwtToken, "Drafts", projectsId);
+        Long keptId = createFolder(jwtToken, "Kept", null);
+        uploadFileToFolder(jwtToken, "plan.txt", "plan", projectsId);
+        uploadFileToFolder(jwtToken, "draft.txt", "draft", draftsId);
+        uploadFileToFolder(jwtToken, "copy.txt", "plan", keptId);
+
+        File draft = fileRepository.findAll().stream()
+                .filter(file -> file.getDisplayName().equals("draft.txt")).findFirst().orElseThrow();
+        Path draftContent = blobStore.localPath(draft.getPhysicalPath()).orElseThrow();
+        sharedLinkRepository.save(SharedLink.builder()
+                .linkToken(UUID.randomUUID().toString())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .file(draft)
+                .build());
+        sharedLinkRepository.save(SharedLink.builder()
+                .linkToken(UUID.randomUUID().toString())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .folder(folderRepository.findById(draftsId).orElseThrow())
+                .build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl() + "/api/folders/" + projectsId + "?recursive=true",
+                HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+
+        // Rows are gone right away; the content waits for the reclaimer
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(folderRepository.findAllById(List.of(projectsId, draftsId))).isEmpty();
+        assertThat(fileRepository.findAll()).extracting(File::getDisplayName).containsExactly("copy.txt");
+        assertThat(sharedLinkRepository.findAll()).isEmpty();
+        assertThat(reclaimTaskRepository.count()).isEqualTo(2);
+        assertThat(Files.exists(draftContent)).isTrue();
+
+        assertThat(reclaimQueueService.reclaimQueued()).isEqualTo(2);
+
+        // Unique content is freed; content still used by the kept folder survives with one reference
+        assertThat(reclaimTaskRepository.count()).isZero();
+        assertThat(Files.exists(draftContent)).isFalse();
+        assertThat(fileBlobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+        assertThat(folderRepository.findById(keptId)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Folder Copy: Copied Files Share Blobs And Outlive The Deleted Source")
+    void copyFolderSharesContentWithSource() throws IOException {
+        String jwtToken = authenticateUser("+6666666675");
+        Long projectsId = createFolder(jwtToken, "Projects", null);
+        Long draftsId = createFolder(jwtToken, "Drafts", projectsId);
+        Long archiveId = createFolder(jwtToken, "Archive", null);
+        uploadFileToFolder(jwtToken, "plan.txt", "plan", projectsId);
+        uploadFileToFolder(jwtToken, "draft.txt", "draft", draftsId);
+
+        // A file stored before deduplication has no blob to share
+        Folder drafts = folderRepository.findById(draftsId).orElseThrow();
+        Path legacyPath = Path.of(rootStoragePath, "users", "legacy-copy-source.txt");
+        Files.createDirectories(legacyPath.getParent());
+        Files.writeString(legacyPath, "legacy");
+        fileRepository.save(File.builder()
+                .displayName("old.txt")
+                .physicalName("legacy-copy-source.txt")
+                .physicalPath(legacyPath.toString())
+                .size(6L)
+                .storagePath(drafts.getStoragePath())
+                .folder(drafts)
+                .build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<FolderResponse> response = restTemplate.exchange(
+                baseUrl() + "/api/folders/" + projectsId + "/copy", HttpMethod.POST,
+                new HttpEntity<>(new TargetFolderRequest(archiveId), headers), FolderResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        FolderResponse copy = response.getBody();
+        assertThat(copy.getName()).isEqualTo("Projects");
+        assertThat(copy.getParentFolderId()).isEqualTo(archiveId);
+        assertThat(folderRepository.findByParentFolderId(copy.getId())).singleElement()
+                .satisfies(folder -> assertThat(folder.getName()).isEqualTo("Drafts"));
+        assertThat(fileRepository.findAll()).hasSize(6);
+        // Uploaded content is referenced twice; the legacy file got one blob for its copy
+        assertThat(fileBlobRepository.findAll()).extracting(blob -> blob.getRefCount()).containsExactlyInAnyOrder(2, 2, 1);
+
+        headers.setContentType(null);
+        restTemplate.exchange(baseUrl() + "/api/folders/" + projectsId + "?recursive=true",
+                HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+        reclaimQueueService.reclaimQueued();
+
+        assertThat(fileRepository.findAll()).hasSize(3);
+        assertThat(fileBlobRepository.findAll()).hasSize(3).allSatisfy(blob -> {
+            assertThat(blob.getRefCount()).isEqualTo(1);
+            assertThat(Files.exists(blobStore.localPath(blob.getPhysicalPath()).orElseThrow())).isTrue();
+        });
+    }
+
     // ========== Helper Methods ==========
 
     private String authenticateUser(String phoneNumber) {
@@ -306,6 +555,25 @@ class FolderOperationsIntegrationTest extends BaseIntegrationTest {
         return authResponse.getBody().getToken();
     }
 
+    private Long createFolder(String jwtToken, String name, Long parentFolderId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        CreateFolderRequest request = new CreateFolderRequest();
+        request.setName(name);
+        request.setParentFolderId(parentFolderId);
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl() + "/api/folders",
+                HttpMethod.POST,
+                new HttpEntity<>(request, headers),
+                Map.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
     private void uploadFileToFolder(String jwtToken, String filename, String content, Long folderId) {
         byte[] fileBytes = content.getBytes();
 
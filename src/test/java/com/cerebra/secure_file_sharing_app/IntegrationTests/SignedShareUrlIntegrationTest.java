@@ -0,0 +1,121 @@
+package com.cerebra.secure_file_sharing_app.IntegrationTests;
+
+import com.cerebra.secure_file_sharing_app.Security.DTO.*;
+import com.cerebra.secure_file_sharing_app.Services.HttpSMSService;
+import com.cerebra.secure_file_sharing_app.Shared.CreateShareRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Signed Share URL Integration Tests")
+@TestPropertySource(properties = "app.share.signed-urls.enabled=true")
+class SignedShareUrlIntegrationTest extends BaseIntegrationTest {
+
+    @MockitoBean
+    private HttpSMSService smsService;
+
+    @Test
+    @DisplayName("Signed URL: Downloads, Survives Token Lookup Removal, Dies On Revoke")
+    void signedShareUrlLifecycle() {
+        // Setup: Authenticate user and upload a file
+        String jwtToken = authenticateUser("+7878787878");
+        Long fileId = uploadFile(jwtToken, "signed.txt", "Signed content");
+
+        // Step 1: Share it - the returned URL is signed rather than a plain token
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> shareResponse = restTemplate.exchange(
+                baseUrl() + "/api/files/" + fileId + "/share",
+                HttpMethod.POST,
+                new HttpEntity<>(new CreateShareRequest(), headers),
+                Map.class
+        );
+
+        assertThat(shareResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String shareUrl = (String) shareResponse.getBody().get("shareUrl");
+        String signedToken = shareUrl.substring(shareUrl.lastIndexOf('/') + 1);
+        assertThat(signedToken).startsWith("s1." + fileId + ".0.");
+
+        // Step 2: Download through the signed URL
+        ResponseEntity<String> download = restTemplate.getForEntity(
+                baseUrl() + "/public/shared/" + signedToken, String.class);
+
+        assertThat(download.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(download.getBody()).isEqualTo("Signed content");
+
+        // Step 3: A tampered signature is rejected
+        String tampered = signedToken.substring(0, signedToken.length() - 1)
+                + (signedToken.endsWith("A") ? "B" : "A");
+        ResponseEntity<String> forged = restTemplate.getForEntity(
+                baseUrl() + "/public/shared/" + tampered, String.class);
+
+        assertThat(forged.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        // Step 4: Revoking the share revokes the signed URL
+        Long shareId = ((Number) shareResponse.getBody().get("shareId")).longValue();
+        HttpHeaders authHeaders = new HttpHeaders();
+        authHeaders.setBearerAuth(jwtToken);
+        ResponseEntity<String> revoke = restTemplate.exchange(baseUrl() + "/api/shared/" + shareId,
+                HttpMethod.DELETE, new HttpEntity<>(authHeaders), String.class);
+
+        assertThat(revoke.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<String> afterRevoke = restTemplate.getForEntity(
+                baseUrl() + "/public/shared/" + signedToken, String.class);
+
+        assertThat(afterRevoke.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(fileRepository.findById(fileId).orElseThrow().getShareEpoch()).isEqualTo(1);
+    }
+
+    // ========== Helper Methods ==========
+
+    private String authenticateUser(String phoneNumber) {
+        when(smsService.sendSMS(anyString(), anyString()))
+                .thenReturn(SMSResponse.success("OTP sent"));
+
+        ResponseEntity<OTPResponse> otpResponse = restTemplate.postForEntity(
+                baseUrl() + "/api/auth/request-otp",
+                new OTPRequest(phoneNumber),
+                OTPResponse.class
+        );
+
+        ResponseEntity<AuthResponse> authResponse = restTemplate.postForEntity(
+                baseUrl() + "/api/auth/verify-otp",
+                new OTPVerificationRequest(phoneNumber, otpResponse.getBody().getOtp()),
+                AuthResponse.class
+        );
+
+        return authResponse.getBody().getToken();
+    }
+
+    private Long uploadFile(String jwtToken, String filename, String content) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content.getBytes()) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        });
+
+        HttpHeaders uploadHeaders = new HttpHeaders();
+        uploadHeaders.setBearerAuth(jwtToken);
+        uploadHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        ResponseEntity<Map> response = restTemplate.exchange(baseUrl() + "/api/files/upload",
+                HttpMethod.POST, new HttpEntity<>(body, uploadHeaders), Map.class);
+        return ((Integer) response.getBody().get("fileId")).longValue();
+    }
+}
@@ -13,9 +13,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -300,4 +302,77 @@ class SanitizationAspectTest {
         verify(sanitizationService, never()).sanitizeInput("123");
         verify(joinPoint).proceed(args);
     }
-}
\ No newline at end of file
+
+    // Test class whose annotated field is declared wider than String
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class TestRequestWithObjectField {
+        @SanitizedField
+        private Object payload;
+    }
+
+    @Test
+    @DisplayName("Should sanitize a wider-typed annotated field when it holds a String")
+    void sanitizeRequestBody_objectTypedFieldHoldingString_sanitizesIt() throws Throwable {
+        // Arrange
+        TestRequestWithObjectField stringPayload = new TestRequestWithObjectField("<b>");
+        TestRequestWithObjectField numberPayload = new TestRequestWithObjectField(42);
+        Object[] args = {stringPayload, numberPayload};
+
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed(args)).thenReturn("result");
+        when(sanitizationService.sanitizeInput("<b>")).thenReturn("&lt;b&gt;");
+
+        // Act
+        sanitizationAspect.sanitizeRequestBody(joinPoint);
+
+        // Assert
+        assertThat(stringPayload.getPayload()).isEqualTo("&lt;b&gt;");
+        assertThat(numberPayload.getPayload()).isEqualTo(42);
+        verify(sanitizationService, times(1)).sanitizeInput(anyString());
+    }
+
+    @Test
+    @DisplayName("Should sanitize every request of a class once its accessors are cached")
+    void sanitizeRequestBody_repeatedCalls_sanitizeEachRequest() throws Throwable {
+        // Arrange
+        TestRequest first = new TestRequest("a", "a@x.com", "raw", 1);
+        TestRequest second = new TestRequest("b", "b@x.com", "raw", 2);
+
+        when(joinPoint.proceed(any(Object[].class))).thenReturn("result");
+        when(sanitizationService.sanitizeInput(anyString())).thenAnswer(inv -> "clean_" + inv.getArgument(0));
+
+        // Act
+        when(joinPoint.getArgs()).thenReturn(new Object[]{first});
+        sanitizationAspect.sanitizeRequestBody(joinPoint);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{second});
+        sanitizationAspect.sanitizeRequestBody(joinPoint);
+
+        // Assert
+        assertThat(first.getName()).isEqualTo("clean_a");
+        assertThat(second.getName()).isEqualTo("clean_b");
+        assertThat(second.getEmail()).isEqualTo("clean_b@x.com");
+        assertThat(second.getUnsanitizedField()).isEqualTo("raw");
+    }
+
+    @Test
+    @DisplayName("Should skip uploads and string arguments without touching the sanitizer")
+    void sanitizeRequestBody_skippedArgumentTypes_areNotInspected() throws Throwable {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "<script>".getBytes());
+        Object[] args = {file, "<script>", TestEnum.VALUE};
+
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed(args)).thenReturn("result");
+
+        // Act
+        Object result = sanitizationAspect.sanitizeRequestBody(joinPoint);
+
+        // Assert
+        assertThat(result).isEqualTo("result");
+        verifyNoInteractions(sanitizationService);
+    }
+
+    enum TestEnum { VALUE }
+}
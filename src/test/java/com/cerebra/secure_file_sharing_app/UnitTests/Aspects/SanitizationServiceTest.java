@@ -1,6 +1,7 @@
 package com.cerebra.secure_file_sharing_app.UnitTests.Aspects;
 
 import com.cerebra.secure_file_sharing_app.Aspects.Sanitization.SanitizationService;
+import com.cerebra.secure_file_sharing_app.Benchmarks.SanitizationBenchmark;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(MockitoExtension.class)
@@ -243,4 +247,46 @@ class SanitizationServiceTest {
         // Remove the onclick= assertion since it will be present as escaped text
         assertThat(result).contains("onclick="); // It's there, just escaped
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should match the former regex chain on edge cases")
+    void sanitizeInput_edgeCases_matchesRegexChain() {
+        // Arrange - cases where the regex steps interact
+        List<String> inputs = List.of(
+                "sel--ect name", "un--ion all", "---", "a--b--c", "SeLeCt", "selection", "_select_", "select_",
+                "' or 1=1", "'order by", "' union select", "' unions", "''or", "'\t\nAND",
+                "&amp;", "&lt;b&gt;", "&;", "&a;;", "&a'or;", "&#x27;", "x;y", "a ; b", "&abc; def;",
+                "tom & jerry", "a&b<c", "caf\u00e9 select", "\u00e9select\u00e9", "\u0001 select \u0001",
+                "  \t  ", " a \u000B b ", "from--from", "drop;drop", "<'>\"&;");
+
+        // Act & Assert
+        for (String input : inputs) {
+            assertThat(sanitizationService.sanitizeInput(input))
+                    .as("input %s", input)
+                    .isEqualTo(SanitizationBenchmark.regexChain(input));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match the former regex chain on random input")
+    void sanitizeInput_randomInput_matchesRegexChain() {
+        // Arrange - fragments chosen so that random joins form keywords, entities and comments
+        String[] fragments = {"union", "SELECT", "drop", "Insert", "upDate", "delete", "from", "or", "AND",
+                "sel", "ect", "un", "ion", "fr", "om", "-", "--", "'", "\"", "<", ">", "&", "#", "x27", "amp", "lt",
+                ";", " ", "  ", "\t", "\n", "_", "a", "1", "\u00e9", "\u0001", "=", "*"};
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int parts = 1 + random.nextInt(12);
+            for (int p = 0; p < parts; p++) {
+                input.append(fragments[random.nextInt(fragments.length)]);
+            }
+            String value = input.toString();
+            assertThat(sanitizationService.sanitizeInput(value))
+                    .as("input %s", value)
+                    .isEqualTo(SanitizationBenchmark.regexChain(value));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Config;
+
+import com.cerebra.secure_file_sharing_app.Config.RestTemplateConfig;
+import com.cerebra.secure_file_sharing_app.Shared.SMSRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RestTemplateConfig Tests")
+class RestTemplateConfigTest {
+
+    private static final byte[] OK_BODY = "{\"success\":true,\"message\":\"sent\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer smsStub;
+    private Set<Integer> clientPorts;
+    private AtomicInteger inFlight;
+    private AtomicInteger maxInFlight;
+    private volatile CountDownLatch release;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clientPorts = ConcurrentHashMap.newKeySet();
+        inFlight = new AtomicInteger();
+        maxInFlight = new AtomicInteger();
+        release = new CountDownLatch(0);
+
+        // Local stand-in for the SMS gateway that records which client sockets it saw
+        smsStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        smsStub.setExecutor(Executors.newFixedThreadPool(8));
+        smsStub.createContext("/api/sms/send", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                release.await(5, TimeUnit.SECONDS);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, OK_BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(OK_BODY);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        smsStub.start();
+
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 10);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 2);
+        ReflectionTestUtils.setField(config, "connectTimeoutMillis", 1000L);
+        ReflectionTestUtils.setField(config, "readTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(config, "poolTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(config, "idleEvictionSeconds", 30L);
+        ReflectionTestUtils.setField(config, "connectionTtlSeconds", 300L);
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = config.smsConnectionManager(meterRegistry);
+        httpClient = config.smsHttpClient(connectionManager);
+        restTemplate = config.restTemplate(httpClient);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        smsStub.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should reuse one kept-alive connection for sequential sends")
+    void restTemplate_sequentialSends_reuseConnection() {
+        // Act
+        for (int i = 0; i < 20; i++) {
+            SMSResponse response = send();
+            assertThat(response.isSuccess()).isTrue();
+        }
+
+        // Assert
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should cap concurrent connections per route and publish pool metrics")
+    void restTemplate_concurrentSends_respectPerRouteLimit() throws Exception {
+        // Arrange - hold responses so every sender competes for a connection
+        release = new CountDownLatch(1);
+        ExecutorService senders = Executors.newFixedThreadPool(6);
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            senders.submit(this::send);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (connectionManager.getTotalStats().getPending() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        double leased = meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "sms").tag("state", "leased").gauge().value();
+        double pending = meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", "sms").gauge().value();
+        release.countDown();
+        senders.shutdown();
+        assertThat(senders.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(leased).isEqualTo(2.0);
+        assertThat(pending).isEqualTo(4.0);
+        assertThat(clientPorts).hasSize(2);
+    }
+
+    private SMSResponse send() {
+        SMSRequest request = SMSRequest.builder().phoneNumber("+1234567890").message("hello").build();
+        String url = "http://localhost:" + smsStub.getAddress().getPort() + "/api/sms/send";
+        return restTemplate.postForObject(url, request, SMSResponse.class);
+    }
+}
@@ -3,29 +3,43 @@ package com.cerebra.secure_file_sharing_app.UnitTests.Controllers;
 import com.cerebra.secure_file_sharing_app.Controllers.FileController;
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Entities.UploadSession;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.InvalidPageRequestException;
 import com.cerebra.secure_file_sharing_app.Exceptions.GlobalExceptionHandler;
+import com.cerebra.secure_file_sharing_app.Services.FileDownloadServiceImpl;
 import com.cerebra.secure_file_sharing_app.Services.FileService;
-import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Services.UploadSessionService;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
+import com.cerebra.secure_file_sharing_app.Shared.InitiateUploadRequest;
+import com.cerebra.secure_file_sharing_app.Shared.TargetFolderRequest;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -33,6 +47,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,18 +61,28 @@ class FileControllerTest {
     private FileService fileService;
 
     @Mock
-    private StoragePathService storagePathService;
+    private OwnershipContext ownershipContext;
+
+    @Mock
+    private UploadSessionService uploadSessionService;
 
     @Mock
     private Authentication authentication;
 
+    @TempDir
+    Path tempDir;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
     private AppUser mockUser;
 
     @BeforeEach
     void setUp() {
-        FileController fileController = new FileController(fileService, storagePathService);
+        FileDownloadServiceImpl fileDownloadService = new FileDownloadServiceImpl(new LocalBlobStore(tempDir.toString()));
+        ReflectionTestUtils.setField(fileDownloadService, "maxRanges", 16);
+
+        FileController fileController = new FileController(fileService, ownershipContext, fileDownloadService,
+                uploadSessionService);
         mockMvc = MockMvcBuilders.standaloneSetup(fileController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -147,24 +172,50 @@ class FileControllerTest {
     void downloadFile_validFileId_returnsFileResource() throws Exception {
         // Arrange
         Long fileId = 1L;
+        Path physicalFile = Files.writeString(tempDir.resolve("stored.txt"), "test content");
 
         File fileEntity = File.builder()
                 .id(fileId)
                 .displayName("test.txt")
+                .physicalPath(physicalFile.toString())
                 .mimeType("text/plain")
                 .build();
 
-        Resource mockResource = new ByteArrayResource("test content".getBytes());
-
-        when(fileService.downloadFile(fileId, 1L)).thenReturn(mockResource);
-        when(fileService.findById(fileId)).thenReturn(Optional.of(fileEntity));
+        when(fileService.getFileForDownload(fileId, 1L)).thenReturn(fileEntity);
 
         // Act & Assert
         mockMvc.perform(get("/api/files/{fileId}/download", fileId)
                         .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("text/plain"))
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"test.txt\""));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"test.txt\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().string("test content"));
+    }
+
+    @Test
+    @DisplayName("Should return partial content for ranged download")
+    void downloadFile_rangeHeader_returnsPartialContent() throws Exception {
+        // Arrange
+        Long fileId = 1L;
+        Path physicalFile = Files.writeString(tempDir.resolve("stored.txt"), "0123456789");
+
+        File fileEntity = File.builder()
+                .id(fileId)
+                .displayName("digits.txt")
+                .physicalPath(physicalFile.toString())
+                .mimeType("text/plain")
+                .build();
+
+        when(fileService.getFileForDownload(fileId, 1L)).thenReturn(fileEntity);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/{fileId}/download", fileId)
+                        .header("Range", "bytes=2-5")
+                        .principal(authentication))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
     }
 
     @Test
@@ -180,28 +231,98 @@ class FileControllerTest {
                 .andExpect(content().string("File deleted successfully"));
     }
 
+    @Test
+    @DisplayName("Should copy a file into the requested folder")
+    void copyFile_validRequest_returnsCopySummary() throws Exception {
+        // Arrange
+        File copy = File.builder()
+                .id(8L)
+                .displayName("report.pdf")
+                .size(2048L)
+                .mimeType("application/pdf")
+                .folder(Folder.builder().id(3L).build())
+                .build();
+        when(fileService.copyFile(1L, 3L, 1L)).thenReturn(copy);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files/{fileId}/copy", 1L)
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TargetFolderRequest(3L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(8))
+                .andExpect(jsonPath("$.folderId").value(3));
+    }
+
+    @Test
+    @DisplayName("Should move a file into the requested folder")
+    void moveFile_validRequest_returnsMovedSummary() throws Exception {
+        // Arrange
+        File moved = File.builder()
+                .id(1L)
+                .displayName("report.pdf")
+                .folder(Folder.builder().id(3L).build())
+                .build();
+        when(fileService.moveFile(1L, 3L, 1L)).thenReturn(moved);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files/{fileId}/move", 1L)
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TargetFolderRequest(3L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.folderId").value(3));
+    }
+
     @Test
     @DisplayName("Should get user files successfully")
     void getMyFiles_authenticatedUser_returnsUserFiles() throws Exception {
         // Arrange
-        List<File> userFiles = Arrays.asList(
-                File.builder().id(1L).displayName("file1.txt").build(),
-                File.builder().id(2L).displayName("file2.pdf").build()
-        );
+        FilePageResponse page = FilePageResponse.builder()
+                .files(Arrays.asList(
+                        FileSummaryResponse.builder().id(1L).displayName("file1.txt").build(),
+                        FileSummaryResponse.builder().id(2L).displayName("file2.pdf").build()))
+                .nextCursor("next-page")
+                .hasMore(true)
+                .build();
 
-        when(fileService.getUserFiles(1L)).thenReturn(userFiles);
+        when(fileService.getUserFilesPage(eq(1L), any(FilePageRequest.class))).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/files/my-files")
                         .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].displayName").value("file1.txt"))
-                .andExpect(jsonPath("$[1].id").value(2L))
-                .andExpect(jsonPath("$[1].displayName").value("file2.pdf"));
+                .andExpect(jsonPath("$.files").isArray())
+                .andExpect(jsonPath("$.files.length()").value(2))
+                .andExpect(jsonPath("$.files[0].id").value(1L))
+                .andExpect(jsonPath("$.files[0].displayName").value("file1.txt"))
+                .andExpect(jsonPath("$.files[1].id").value(2L))
+                .andExpect(jsonPath("$.files[1].displayName").value("file2.pdf"))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("Should bind sort, direction, cursor and limit from the query string")
+    void getMyFiles_pagingParameters_passedToService() throws Exception {
+        // Arrange
+        when(fileService.getUserFilesPage(eq(1L), any(FilePageRequest.class)))
+                .thenReturn(FilePageResponse.builder().files(Collections.emptyList()).build());
+
+        // Act
+        mockMvc.perform(get("/api/files/my-files")
+                        .param("sort", "size")
+                        .param("direction", "desc")
+                        .param("cursor", "abc")
+                        .param("limit", "10")
+                        .principal(authentication))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(fileService).getUserFilesPage(1L, FilePageRequest.builder()
+                .sort("size").direction("desc").cursor("abc").limit(10).build());
     }
 
     @Test
@@ -210,22 +331,24 @@ class FileControllerTest {
         // Arrange
         Long folderId = 5L;
 
-        List<File> folderFiles = Arrays.asList(
-                File.builder().id(3L).displayName("folder-file1.txt").build(),
-                File.builder().id(4L).displayName("folder-file2.jpg").build()
-        );
+        FilePageResponse page = FilePageResponse.builder()
+                .files(Arrays.asList(
+                        FileSummaryResponse.builder().id(3L).displayName("folder-file1.txt").folderId(folderId).build(),
+                        FileSummaryResponse.builder().id(4L).displayName("folder-file2.jpg").folderId(folderId).build()))
+                .build();
 
-        when(fileService.getFolderFiles(folderId, 1L)).thenReturn(folderFiles);
+        when(fileService.getFolderFilesPage(eq(folderId), eq(1L), any(FilePageRequest.class))).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/files/folder/{folderId}", folderId)
                         .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].displayName").value("folder-file1.txt"))
-                .andExpect(jsonPath("$[1].displayName").value("folder-file2.jpg"));
+                .andExpect(jsonPath("$.files.length()").value(2))
+                .andExpect(jsonPath("$.files[0].displayName").value("folder-file1.txt"))
+                .andExpect(jsonPath("$.files[1].displayName").value("folder-file2.jpg"))
+                .andExpect(jsonPath("$.files[0].folderId").value(5L))
+                .andExpect(jsonPath("$.hasMore").value(false));
     }
 
     @Test
@@ -234,36 +357,52 @@ class FileControllerTest {
         // Arrange
         StoragePath storagePath = StoragePath.builder().id(10L).basePath("/user1").build();
 
-        List<File> rootFiles = Arrays.asList(
-                File.builder().id(5L).displayName("root-file1.txt").build()
-        );
+        FilePageResponse page = FilePageResponse.builder()
+                .files(List.of(FileSummaryResponse.builder().id(5L).displayName("root-file1.txt").build()))
+                .build();
 
-        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.of(storagePath));
-        when(fileService.findRootFiles(10L)).thenReturn(rootFiles);
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(storagePath.getId()));
+        when(fileService.getRootFilesPage(eq(10L), any(FilePageRequest.class))).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/files/root")
                         .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].displayName").value("root-file1.txt"));
+                .andExpect(jsonPath("$.files.length()").value(1))
+                .andExpect(jsonPath("$.files[0].displayName").value("root-file1.txt"));
     }
 
     @Test
     @DisplayName("Should return empty list when user has no files")
     void getMyFiles_userWithNoFiles_returnsEmptyList() throws Exception {
         // Arrange
-        when(fileService.getUserFiles(1L)).thenReturn(Collections.emptyList());
+        when(fileService.getUserFilesPage(eq(1L), any(FilePageRequest.class)))
+                .thenReturn(FilePageResponse.builder().files(Collections.emptyList()).build());
 
         // Act & Assert
         mockMvc.perform(get("/api/files/my-files")
                         .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.files").isArray())
+                .andExpect(jsonPath("$.files.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an invalid sort or cursor")
+    void getMyFiles_invalidPageRequest_returnsBadRequest() throws Exception {
+        // Arrange
+        when(fileService.getUserFilesPage(eq(1L), any(FilePageRequest.class)))
+                .thenThrow(new InvalidPageRequestException("Invalid cursor"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/my-files")
+                        .param("cursor", "garbage")
+                        .principal(authentication))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
     }
 
     @Test
@@ -295,7 +434,7 @@ class FileControllerTest {
         // Arrange
         Long fileId = 999L;
 
-        when(fileService.downloadFile(fileId, 1L))
+        when(fileService.getFileForDownload(fileId, 1L))
                 .thenThrow(new FileNotFoundException("File not found"));
 
         // Act & Assert
@@ -319,7 +458,7 @@ class FileControllerTest {
     @DisplayName("Should handle storage path not found for root files")
     void getRootFiles_storagePathNotFound_returnsInternalServerError() throws Exception {
         // Arrange
-        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.empty());
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/api/files/root")
@@ -327,4 +466,100 @@ class FileControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should open a chunked upload session")
+    void initiateUpload_validRequest_returnsSession() throws Exception {
+        // Arrange
+        InitiateUploadRequest request = InitiateUploadRequest.builder()
+                .fileName("big.iso")
+                .totalSize(20L)
+                .mimeType("application/octet-stream")
+                .build();
+
+        when(uploadSessionService.initiateUpload("big.iso", 20L, "application/octet-stream", null, 1L))
+                .thenReturn(uploadSession(new byte[]{0}));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.uploadId").value("upload-1"))
+                .andExpect(jsonPath("$.chunkSize").value(8))
+                .andExpect(jsonPath("$.missingOffsets[0]").value(0))
+                .andExpect(jsonPath("$.missingOffsets[2]").value(16))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    @DisplayName("Should reject chunked upload without a size")
+    void initiateUpload_missingSize_returnsBadRequest() throws Exception {
+        // Arrange
+        InitiateUploadRequest request = InitiateUploadRequest.builder().fileName("big.iso").build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .principal(authentication))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.totalSize").exists());
+    }
+
+    @Test
+    @DisplayName("Should pass raw chunk body and offset to the upload service")
+    void uploadChunk_rawBody_reportsRemainingOffsets() throws Exception {
+        // Arrange - chunks 0 and 2 received, chunk 1 missing
+        when(uploadSessionService.uploadChunk(eq("upload-1"), eq(16L), any(InputStream.class), eq(4L), eq(1L)))
+                .thenReturn(uploadSession(new byte[]{0b101}));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/files/uploads/{uploadId}", "upload-1")
+                        .param("offset", "16")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("last".getBytes())
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missingOffsets.length()").value(1))
+                .andExpect(jsonPath("$.missingOffsets[0]").value(8));
+
+        verify(uploadSessionService).uploadChunk(eq("upload-1"), eq(16L), any(InputStream.class), eq(4L), eq(1L));
+    }
+
+    @Test
+    @DisplayName("Should return the created file when the upload completes")
+    void completeUpload_allChunksReceived_returnsFileUploadResponse() throws Exception {
+        // Arrange
+        File uploadedFile = File.builder()
+                .id(7L)
+                .displayName("big.iso")
+                .size(20L)
+                .mimeType("application/octet-stream")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(uploadSessionService.completeUpload("upload-1", 1L)).thenReturn(uploadedFile);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files/uploads/{uploadId}/complete", "upload-1")
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileId").value(7L))
+                .andExpect(jsonPath("$.fileSize").value(20L));
+    }
+
+    private UploadSession uploadSession(byte[] receivedChunks) {
+        return UploadSession.builder()
+                .uploadId("upload-1")
+                .fileName("big.iso")
+                .totalSize(20L)
+                .chunkSize(8)
+                .chunkCount(3)
+                .receivedChunks(receivedChunks)
+                .receivedBytes(0L)
+                .status(UploadSession.Status.IN_PROGRESS)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
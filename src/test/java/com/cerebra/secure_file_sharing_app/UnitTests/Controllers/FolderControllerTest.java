@@ -6,7 +6,10 @@ import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Exceptions.GlobalExceptionHandler;
 import com.cerebra.secure_file_sharing_app.Services.FolderService;
-import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeNode;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeResponse;
+import com.cerebra.secure_file_sharing_app.Shared.TargetFolderRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +32,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -42,7 +45,7 @@ class FolderControllerTest {
     private FolderService folderService;
 
     @Mock
-    private StoragePathService storagePathService;
+    private OwnershipContext ownershipContext;
 
     @Mock
     private Authentication authentication;
@@ -54,7 +57,7 @@ class FolderControllerTest {
 
     @BeforeEach
     void setUp() {
-        FolderController folderController = new FolderController(folderService, storagePathService);
+        FolderController folderController = new FolderController(folderService, ownershipContext);
         mockMvc = MockMvcBuilders.standaloneSetup(folderController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -76,7 +79,7 @@ class FolderControllerTest {
         // Default authentication setup
         when(authentication.getName()).thenReturn("+1234567890");
         when(authentication.getPrincipal()).thenReturn(mockUser);
-        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.of(mockStoragePath));
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(mockStoragePath.getId()));
     }
 
     @Test
@@ -160,6 +163,58 @@ class FolderControllerTest {
                 .andExpect(content().string("Folder deleted successfully"));
     }
 
+    @Test
+    @DisplayName("Should move a folder under the requested parent")
+    void moveFolder_validRequest_returnsMovedFolder() throws Exception {
+        // Arrange
+        Folder parent = Folder.builder().id(3L).name("Archive").build();
+        Folder moved = Folder.builder().id(1L).name("Projects").parentFolder(parent).build();
+        when(folderService.moveFolder(1L, 3L, 1L)).thenReturn(moved);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/folders/{folderId}/move", 1L)
+                .principal(authentication)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TargetFolderRequest(3L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.parentFolderId").value(3));
+    }
+
+    @Test
+    @DisplayName("Should copy a folder to the root level when no target is given")
+    void copyFolder_noTarget_copiesToRootLevel() throws Exception {
+        // Arrange
+        Folder copy = Folder.builder().id(9L).name("Projects").build();
+        when(folderService.copyFolder(1L, null, 1L)).thenReturn(copy);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/folders/{folderId}/copy", 1L)
+                .principal(authentication)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(9))
+                .andExpect(jsonPath("$.parentFolderId").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should delete the whole subtree when recursive is set")
+    void deleteFolder_recursive_deletesSubtree() throws Exception {
+        // Arrange
+        Long folderId = 1L;
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/folders/{folderId}", folderId)
+                .param("recursive", "true")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Folder deleted successfully"));
+
+        verify(folderService).deleteFolderRecursive(folderId, 1L);
+        verify(folderService, never()).deleteFolder(anyLong(), anyLong());
+    }
+
     @Test
     @DisplayName("Should get user folders successfully")
     void getMyFolders_authenticatedUser_returnsFolderList() throws Exception {
@@ -230,6 +285,47 @@ class FolderControllerTest {
                 .andExpect(jsonPath("$[1].name").value("Subfolder 2"));
     }
 
+    @Test
+    @DisplayName("Should get the nested folder tree with depth and cursor passed through")
+    void getFolderTree_withDepth_returnsNestedTree() throws Exception {
+        // Arrange
+        FolderTreeNode child = FolderTreeNode.builder().id(2L).name("Docs").parentFolderId(1L).fileCount(3).build();
+        FolderTreeNode root = FolderTreeNode.builder().id(1L).name("Projects").fileCount(1)
+                .children(List.of(child)).build();
+        when(folderService.getFolderTree(1L, 2, null))
+                .thenReturn(FolderTreeResponse.builder().folders(List.of(root)).folderCount(2).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/folders/tree")
+                .param("depth", "2")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.folderCount").value(2))
+                .andExpect(jsonPath("$.folders[0].name").value("Projects"))
+                .andExpect(jsonPath("$.folders[0].children[0].name").value("Docs"))
+                .andExpect(jsonPath("$.folders[0].children[0].fileCount").value(3));
+    }
+
+    @Test
+    @DisplayName("Should get folder breadcrumbs from the root down")
+    void getAncestors_nestedFolder_returnsRootFirst() throws Exception {
+        // Arrange
+        Long folderId = 7L;
+        Folder root = Folder.builder().id(3L).name("Projects").createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        Folder child = Folder.builder().id(7L).name("Drafts").parentFolder(root).createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+
+        when(folderService.findAncestors(folderId, 1L)).thenReturn(List.of(root, child));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/folders/{folderId}/ancestors", folderId)
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Projects"))
+                .andExpect(jsonPath("$[1].name").value("Drafts"))
+                .andExpect(jsonPath("$[1].parentFolderId").value(3L));
+    }
+
     @Test
     @DisplayName("Should get folder details successfully")
     void getFolderDetails_validFolderId_returnsFolderDetails() throws Exception {
@@ -242,8 +338,7 @@ class FolderControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(folderService.hasAccess(folderId, 1L)).thenReturn(true);
-        when(folderService.findById(folderId)).thenReturn(Optional.of(folder));
+        when(ownershipContext.findOwnedFolder(folderId, 1L)).thenReturn(Optional.of(folder));
 
         // Act & Assert
         mockMvc.perform(get("/api/folders/{folderId}", folderId)
@@ -277,7 +372,7 @@ class FolderControllerTest {
         // Arrange
         Long folderId = 1L;
 
-        when(folderService.hasAccess(folderId, 1L)).thenReturn(false);
+        when(ownershipContext.findOwnedFolder(folderId, 1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/api/folders/{folderId}", folderId)
@@ -292,8 +387,7 @@ class FolderControllerTest {
         // Arrange
         Long folderId = 999L;
 
-        when(folderService.hasAccess(folderId, 1L)).thenReturn(true);
-        when(folderService.findById(folderId)).thenReturn(Optional.empty());
+        when(ownershipContext.findOwnedFolder(folderId, 1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/api/folders/{folderId}", folderId)
@@ -344,7 +438,7 @@ class FolderControllerTest {
     @DisplayName("Should handle storage path not found")
     void getMyFolders_storagePathNotFound_returnsInternalServerError() throws Exception {
         // Arrange
-        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.empty());
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/api/folders/my-folders")
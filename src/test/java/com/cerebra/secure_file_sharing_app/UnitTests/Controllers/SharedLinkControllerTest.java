@@ -7,24 +7,34 @@ import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.ShareNotFoundException;
 import com.cerebra.secure_file_sharing_app.Exceptions.GlobalExceptionHandler;
+import com.cerebra.secure_file_sharing_app.Services.FileDownloadServiceImpl;
 import com.cerebra.secure_file_sharing_app.Services.SharedLinkService;
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.ShareResponse;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -32,6 +42,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,13 +58,19 @@ class SharedLinkControllerTest {
     @Mock
     private Authentication authentication;
 
+    @TempDir
+    Path tempDir;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
     private AppUser mockUser;
 
     @BeforeEach
     void setUp() {
-        SharedLinkController sharedLinkController = new SharedLinkController(sharedLinkService);
+        FileDownloadServiceImpl fileDownloadService = new FileDownloadServiceImpl(new LocalBlobStore(tempDir.toString()));
+        ReflectionTestUtils.setField(fileDownloadService, "maxRanges", 16);
+
+        SharedLinkController sharedLinkController = new SharedLinkController(sharedLinkService, fileDownloadService);
         mockMvc = MockMvcBuilders.standaloneSetup(sharedLinkController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -97,6 +114,7 @@ class SharedLinkControllerTest {
                 .build();
 
         when(sharedLinkService.createFileShare(fileId, 1L, "+1234567890")).thenReturn(sharedLink);
+        when(sharedLinkService.shareUrl(sharedLink)).thenReturn("http://localhost:8080/public/shared/test-token-123");
 
         // Act & Assert
         mockMvc.perform(post("/api/files/{fileId}/share", fileId)
@@ -160,27 +178,37 @@ class SharedLinkControllerTest {
     void downloadSharedFile_validToken_returnsFileResource() throws Exception {
         // Arrange
         String linkToken = "valid-token-123";
-        
-        File file = File.builder()
-                .displayName("document.pdf")
-                .mimeType("application/pdf")
-                .build();
+        Path physicalFile = Files.writeString(tempDir.resolve("document.bin"), "file content");
 
-        SharedLink sharedLink = SharedLink.builder()
-                .linkToken(linkToken)
-                .file(file)
-                .build();
+        ResolvedShare share = fileShare(linkToken, "document.pdf", physicalFile, "application/pdf");
 
-        Resource mockResource = new ByteArrayResource("file content".getBytes());
-
-        when(sharedLinkService.downloadSharedFile(linkToken)).thenReturn(mockResource);
-        when(sharedLinkService.findByLinkToken(linkToken)).thenReturn(Optional.of(sharedLink));
+        when(sharedLinkService.resolveSharedItem(linkToken)).thenReturn(share);
 
         // Act & Assert
         mockMvc.perform(get("/public/shared/{linkToken}", linkToken))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/pdf"))
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"document.pdf\""));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"document.pdf\""))
+                .andExpect(content().string("file content"));
+    }
+
+    @Test
+    @DisplayName("Should serve byte range of shared file")
+    void downloadSharedFile_rangeHeader_returnsPartialContent() throws Exception {
+        // Arrange
+        String linkToken = "valid-token-123";
+        Path physicalFile = Files.writeString(tempDir.resolve("video.bin"), "abcdefghij");
+
+        ResolvedShare share = fileShare(linkToken, "video.mp4", physicalFile, "video/mp4");
+
+        when(sharedLinkService.resolveSharedItem(linkToken)).thenReturn(share);
+
+        // Act & Assert
+        mockMvc.perform(get("/public/shared/{linkToken}", linkToken)
+                        .header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-9/10"))
+                .andExpect(content().string("hij"));
     }
 
     @Test
@@ -189,25 +217,24 @@ class SharedLinkControllerTest {
         // Arrange
         String linkToken = "folder-token-456";
         
-        Folder folder = Folder.builder()
-                .name("My Folder")
-                .build();
-
-        SharedLink sharedLink = SharedLink.builder()
-                .linkToken(linkToken)
-                .folder(folder)
-                .build();
+        ResolvedShare share = new ResolvedShare(2L, linkToken, null, 5L, "My Folder",
+                null, null, null, LocalDateTime.now().plusDays(1));
 
-        Resource mockResource = new ByteArrayResource("zip content".getBytes());
+        StreamingResponseBody body = outputStream -> outputStream.write("zip content".getBytes());
 
-        when(sharedLinkService.downloadSharedFile(linkToken)).thenReturn(mockResource);
-        when(sharedLinkService.findByLinkToken(linkToken)).thenReturn(Optional.of(sharedLink));
+        when(sharedLinkService.resolveSharedItem(linkToken)).thenReturn(share);
+        when(sharedLinkService.streamFolderAsZip(share)).thenReturn(body);
 
         // Act & Assert
-        mockMvc.perform(get("/public/shared/{linkToken}", linkToken))
+        MvcResult mvcResult = mockMvc.perform(get("/public/shared/{linkToken}", linkToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/zip"))
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"My Folder.zip\""));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"My Folder.zip\""))
+                .andExpect(content().string("zip content"));
     }
 
     @Test
@@ -216,21 +243,11 @@ class SharedLinkControllerTest {
         // Arrange
         String shareUrl = "http://localhost:8080/public/shared/12345678-1234-1234-1234-123456789012";
         String linkToken = "12345678-1234-1234-1234-123456789012";
+        Path physicalFile = Files.writeString(tempDir.resolve("test.bin"), "content");
         
-        File file = File.builder()
-                .displayName("test.txt")
-                .mimeType("text/plain")
-                .build();
-
-        SharedLink sharedLink = SharedLink.builder()
-                .linkToken(linkToken)
-                .file(file)
-                .build();
-
-        Resource mockResource = new ByteArrayResource("content".getBytes());
+        ResolvedShare share = fileShare(linkToken, "test.txt", physicalFile, "text/plain");
 
-        when(sharedLinkService.downloadSharedFile(linkToken)).thenReturn(mockResource);
-        when(sharedLinkService.findByLinkToken(linkToken)).thenReturn(Optional.of(sharedLink));
+        when(sharedLinkService.resolveSharedItem(linkToken)).thenReturn(share);
 
         // Act & Assert
         mockMvc.perform(get("/public/shared")
@@ -300,44 +317,29 @@ class SharedLinkControllerTest {
     @DisplayName("Should get user shares successfully")
     void getMyShares_authenticatedUser_returnsUserShares() throws Exception {
         // Arrange
-        File file = File.builder()
-                .id(1L)
-                .displayName("file.txt")
+        SharePageResponse page = SharePageResponse.builder()
+                .shares(List.of(
+                        ShareResponse.builder().shareId(2L).linkToken("folder-token").itemType("folder").itemName("folder").build(),
+                        ShareResponse.builder().shareId(1L).linkToken("file-token").itemType("file").itemName("file.txt").build()))
+                .nextCursor("next")
+                .hasMore(true)
                 .build();
 
-        Folder folder = Folder.builder()
-                .id(2L)
-                .name("folder")
-                .build();
-
-        List<SharedLink> shares = Arrays.asList(
-                SharedLink.builder()
-                        .id(1L)
-                        .linkToken("file-token")
-                        .file(file)
-                        .expiresAt(LocalDateTime.now().plusDays(7))
-                        .createdAt(LocalDateTime.now())
-                        .build(),
-                SharedLink.builder()
-                        .id(2L)
-                        .linkToken("folder-token")
-                        .folder(folder)
-                        .expiresAt(LocalDateTime.now().plusDays(7))
-                        .createdAt(LocalDateTime.now())
-                        .build()
-        );
-
-        when(sharedLinkService.getUserShares(1L)).thenReturn(shares);
+        when(sharedLinkService.getUserSharesPage(eq(1L), any(SharePageRequest.class))).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/shared/my-shares")
+                .param("limit", "2")
                 .principal(authentication))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].itemType").value("file"))
-                .andExpect(jsonPath("$[1].itemType").value("folder"));
+                .andExpect(jsonPath("$.shares.length()").value(2))
+                .andExpect(jsonPath("$.shares[0].itemType").value("folder"))
+                .andExpect(jsonPath("$.shares[1].itemName").value("file.txt"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(sharedLinkService).getUserSharesPage(eq(1L), argThat(request -> request.getLimit() == 2));
     }
 
     @Test
@@ -377,7 +379,7 @@ class SharedLinkControllerTest {
         // Arrange
         String invalidToken = "invalid-token";
 
-        when(sharedLinkService.downloadSharedFile(invalidToken))
+        when(sharedLinkService.resolveSharedItem(invalidToken))
                 .thenThrow(new ShareNotFoundException("Share not found"));
 
         // Act & Assert
@@ -478,26 +480,17 @@ class SharedLinkControllerTest {
 
     @Test
     @DisplayName("Should handle missing resource info for download")
-    void downloadSharedFile_missingResourceInfo_returnsDefaultValues() throws Exception {
+    void downloadSharedFile_missingResourceInfo_returnsNotFound() throws Exception {
         // Arrange
         String linkToken = "no-resource-token";
-        
-        SharedLink sharedLink = SharedLink.builder()
-                .linkToken(linkToken)
-                .file(null)
-                .folder(null)
-                .build();
 
-        Resource mockResource = new ByteArrayResource("content".getBytes());
-
-        when(sharedLinkService.downloadSharedFile(linkToken)).thenReturn(mockResource);
-        when(sharedLinkService.findByLinkToken(linkToken)).thenReturn(Optional.of(sharedLink));
+        when(sharedLinkService.resolveSharedItem(linkToken))
+                .thenThrow(new ShareNotFoundException("Invalid share - no file or folder associated"));
 
         // Act & Assert
         mockMvc.perform(get("/public/shared/{linkToken}", linkToken))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType("application/octet-stream"))
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"shared-item\""));
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Requested resource not found"));
     }
 
     @Test
@@ -556,4 +549,9 @@ class SharedLinkControllerTest {
                 .andExpect(jsonPath("$.message").value("Validation failed"))
                 .andExpect(jsonPath("$.validationErrors.recipientPhone").value("Invalid phone number format"));
     }
-}
\ No newline at end of file
+
+    private ResolvedShare fileShare(String linkToken, String displayName, Path physicalFile, String mimeType) {
+        return new ResolvedShare(1L, linkToken, 10L, null, displayName,
+                physicalFile.toString(), null, mimeType, LocalDateTime.now().plusDays(1));
+    }
+}
@@ -7,6 +7,7 @@ import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.InvalidOT
 import com.cerebra.secure_file_sharing_app.Security.DTO.AuthResponse;
 import com.cerebra.secure_file_sharing_app.Security.DTO.OTPResponse;
 import com.cerebra.secure_file_sharing_app.Security.JWT.JwtService;
+import com.cerebra.secure_file_sharing_app.Security.OTP.InMemoryOTPStore;
 import com.cerebra.secure_file_sharing_app.Services.*;
 import com.cerebra.secure_file_sharing_app.Shared.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -29,18 +31,25 @@ import static org.mockito.Mockito.*;
 @DisplayName("AuthService Tests")
 class AuthServiceTest {
 
-    @Mock private HttpSMSService smsService;
+    @Mock private SMSOutboxService smsOutboxService;
     @Mock private JwtService jwtService;
     @Mock private AppUserService appUserService;
     @Mock private StoragePathService storagePathService;
     @Mock private FolderService folderService;
 
+    private InMemoryOTPStore otpStore;
     private AuthServiceImpl authService;
 
     @BeforeEach
     void setUp() {
-        // Constructor order: HttpSMSService, JwtService, AppUserService, StoragePathService, FolderService
-        authService = new AuthServiceImpl(smsService, jwtService, appUserService, storagePathService, folderService);
+        otpStore = new InMemoryOTPStore();
+        ReflectionTestUtils.setField(otpStore, "maxEntries", 100);
+        ReflectionTestUtils.setField(otpStore, "maxRequestsPerPhone", 3);
+        ReflectionTestUtils.setField(otpStore, "requestWindowSeconds", 900L);
+        ReflectionTestUtils.setField(otpStore, "maxAttempts", 3);
+
+        // Constructor order: SMSOutboxService, JwtService, AppUserService, StoragePathService, FolderService, OTPStore
+        authService = new AuthServiceImpl(smsOutboxService, jwtService, appUserService, storagePathService, folderService, otpStore);
     }
 
     @Test
@@ -48,9 +57,6 @@ class AuthServiceTest {
     void requestOTP_validPhoneNumber_generatesOTPAndSendsSMS() {
         // Arrange
         String phoneNumber = "+1234567890";
-        SMSResponse smsResponse = SMSResponse.success("SMS sent successfully");
-
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(smsResponse);
 
         // Act
         OTPResponse result = authService.requestOTP(phoneNumber);
@@ -61,9 +67,9 @@ class AuthServiceTest {
         assertThat(result.getExpiresAt()).isAfter(LocalDateTime.now());
         assertThat(result.getExpiresAt()).isBefore(LocalDateTime.now().plusMinutes(6));
 
-        // Verify SMS was sent with OTP
+        // Verify SMS was queued with OTP
         ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-        verify(smsService).sendSMS(eq(phoneNumber), messageCaptor.capture());
+        verify(smsOutboxService).enqueue(eq(phoneNumber), messageCaptor.capture());
 
         String sentMessage = messageCaptor.getValue();
         assertThat(sentMessage).contains("verification code");
@@ -71,22 +77,26 @@ class AuthServiceTest {
     }
 
     @Test
-    @DisplayName("Should remove OTP when SMS sending fails")
-    void requestOTP_smsServiceFails_removesOTPAndReturnsFail() {
+    @DisplayName("Should revoke OTP when the SMS cannot be queued")
+    void requestOTP_enqueueFails_revokesOTPAndReturnsFailure() {
         // Arrange
         String phoneNumber = "+1234567890";
-        SMSResponse smsResponse = SMSResponse.failure("SMS service unavailable");
-
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(smsResponse);
+        doThrow(new RuntimeException("Database unavailable"))
+                .when(smsOutboxService).enqueue(eq(phoneNumber), anyString());
 
         // Act
         OTPResponse result = authService.requestOTP(phoneNumber);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getMessage()).contains("Failed to send OTP");
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("Internal server error");
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        verify(smsOutboxService).enqueue(eq(phoneNumber), messageCaptor.capture());
+        String issuedOTP = messageCaptor.getValue().replaceAll(".*?(\\d{6}).*", "$1");
 
-        verify(smsService).sendSMS(eq(phoneNumber), anyString());
+        assertThatThrownBy(() -> authService.verifyOTP(phoneNumber, issuedOTP))
+                .isInstanceOf(InvalidOTPException.class)
+                .hasMessageContaining("Invalid or expired OTP");
     }
 
     @Test
@@ -102,7 +112,6 @@ class AuthServiceTest {
                 .build();
 
         // First request OTP to set it up
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         OTPResponse otpResponse = authService.requestOTP(phoneNumber);
 
         // Extract the actual OTP that was generated
@@ -151,7 +160,6 @@ class AuthServiceTest {
                 .build();
 
         // First request OTP to set it up
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         OTPResponse otpResponse = authService.requestOTP(phoneNumber);
 
         // Extract the actual OTP that was generated
@@ -187,7 +195,6 @@ class AuthServiceTest {
         String invalidOTP = "999999";
 
         // First request OTP to set it up
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         authService.requestOTP(phoneNumber);
 
         // Act & Assert
@@ -207,7 +214,6 @@ class AuthServiceTest {
         String otp = "123456";
 
         // Mock OTP that expires immediately
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         authService.requestOTP(phoneNumber);
 
         // Wait for expiration (simulate by manual checking since we can't control the internal LocalDateTime)
@@ -242,7 +248,6 @@ class AuthServiceTest {
         String phoneNumber = "+1234567890";
 
         // First request OTP to set it up
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         OTPResponse otpResponse = authService.requestOTP(phoneNumber);
 
         // Extract the actual OTP that was generated
@@ -267,14 +272,13 @@ class AuthServiceTest {
     void requestOTP_validPhoneNumber_generates6DigitOTP() {
         // Arrange
         String phoneNumber = "+1234567890";
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(SMSResponse.success("SMS sent"));
 
         // Act
         authService.requestOTP(phoneNumber);
 
         // Assert
         ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-        verify(smsService).sendSMS(eq(phoneNumber), messageCaptor.capture());
+        verify(smsOutboxService).enqueue(eq(phoneNumber), messageCaptor.capture());
 
         String sentMessage = messageCaptor.getValue();
         // Extract OTP from message (assuming format contains the OTP)
@@ -287,9 +291,6 @@ class AuthServiceTest {
     void requestOTP_existingOTP_replacesWithNewOTP() {
         // Arrange
         String phoneNumber = "+1234567890";
-        SMSResponse smsResponse = SMSResponse.success("SMS sent successfully");
-
-        when(smsService.sendSMS(eq(phoneNumber), anyString())).thenReturn(smsResponse);
 
         // Act - Request OTP twice
         OTPResponse firstResponse = authService.requestOTP(phoneNumber);
@@ -300,8 +301,48 @@ class AuthServiceTest {
         assertThat(secondResponse).isNotNull();
         assertThat(secondResponse.getExpiresAt()).isAfterOrEqualTo(firstResponse.getExpiresAt());
 
-        // Verify SMS was sent twice
-        verify(smsService, times(2)).sendSMS(eq(phoneNumber), anyString());
+        // Verify SMS was queued twice
+        verify(smsOutboxService, times(2)).enqueue(eq(phoneNumber), anyString());
+    }
+
+    @Test
+    @DisplayName("Should refuse further OTP requests once the per-phone cap is reached")
+    void requestOTP_requestCapReached_returnsFailureWithoutSMS() {
+        // Arrange
+        String phoneNumber = "+1234567890";
+        for (int i = 0; i < 3; i++) {
+            authService.requestOTP(phoneNumber);
+        }
+
+        // Act
+        OTPResponse result = authService.requestOTP(phoneNumber);
+
+        // Assert
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("Too many OTP requests");
+        verify(smsOutboxService, times(3)).enqueue(eq(phoneNumber), anyString());
+    }
+
+    @Test
+    @DisplayName("Should discard the OTP after too many wrong attempts")
+    void verifyOTP_tooManyWrongAttempts_discardsOTP() {
+        // Arrange
+        String phoneNumber = "+1234567890";
+        String actualOTP = extractOTPFromResponse(authService.requestOTP(phoneNumber));
+        String wrongOTP = actualOTP.equals("000000") ? "111111" : "000000";
+
+        assertThatThrownBy(() -> authService.verifyOTP(phoneNumber, wrongOTP)).isInstanceOf(InvalidOTPException.class);
+        assertThatThrownBy(() -> authService.verifyOTP(phoneNumber, wrongOTP)).isInstanceOf(InvalidOTPException.class);
+
+        // Act & Assert - the third miss burns the code, so the right one no longer works
+        assertThatThrownBy(() -> authService.verifyOTP(phoneNumber, wrongOTP))
+                .isInstanceOf(InvalidOTPException.class)
+                .hasMessageContaining("too many attempts");
+        assertThatThrownBy(() -> authService.verifyOTP(phoneNumber, actualOTP))
+                .isInstanceOf(InvalidOTPException.class)
+                .hasMessageContaining("Invalid or expired OTP");
+
+        verify(jwtService, never()).generateToken(any(AppUser.class));
     }
 
     private String extractOTPFromResponse(OTPResponse otpResponse) {
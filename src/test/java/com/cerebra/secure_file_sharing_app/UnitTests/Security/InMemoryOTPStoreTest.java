@@ -0,0 +1,138 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Security;
+
+import com.cerebra.secure_file_sharing_app.Security.OTP.InMemoryOTPStore;
+import com.cerebra.secure_file_sharing_app.Security.OTP.OTPStore.VerifyResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryOTPStore Tests")
+class InMemoryOTPStoreTest {
+
+    private static final String PHONE = "+1234567890";
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration EXPIRED = Duration.ofMillis(-1);
+
+    private InMemoryOTPStore otpStore;
+
+    @BeforeEach
+    void setUp() {
+        otpStore = new InMemoryOTPStore();
+        ReflectionTestUtils.setField(otpStore, "maxEntries", 2);
+        ReflectionTestUtils.setField(otpStore, "maxRequestsPerPhone", 2);
+        ReflectionTestUtils.setField(otpStore, "requestWindowSeconds", 900L);
+        ReflectionTestUtils.setField(otpStore, "maxAttempts", 3);
+    }
+
+    @Test
+    @DisplayName("Should verify a matching code once and then forget it")
+    void verify_matchingCode_isConsumed() {
+        // Arrange
+        otpStore.issue(PHONE, "123456", TTL);
+
+        // Act
+        VerifyResult first = otpStore.verify(PHONE, "123456");
+        VerifyResult second = otpStore.verify(PHONE, "123456");
+
+        // Assert
+        assertThat(first).isEqualTo(VerifyResult.VERIFIED);
+        assertThat(second).isEqualTo(VerifyResult.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should replace the previous code on resend")
+    void issue_resend_replacesCode() {
+        // Arrange
+        otpStore.issue(PHONE, "111111", TTL);
+        otpStore.issue(PHONE, "222222", TTL);
+
+        // Act & Assert
+        assertThat(otpStore.verify(PHONE, "111111")).isEqualTo(VerifyResult.MISMATCH);
+        assertThat(otpStore.verify(PHONE, "222222")).isEqualTo(VerifyResult.VERIFIED);
+    }
+
+    @Test
+    @DisplayName("Should cap requests per phone even after a code is revoked")
+    void issue_capReached_isRefused() {
+        // Arrange
+        assertThat(otpStore.issue(PHONE, "111111", TTL)).isTrue();
+        otpStore.revoke(PHONE);
+        assertThat(otpStore.issue(PHONE, "222222", TTL)).isTrue();
+
+        // Act
+        boolean third = otpStore.issue(PHONE, "333333", TTL);
+
+        // Assert - the refused request leaves the outstanding code intact
+        assertThat(third).isFalse();
+        assertThat(otpStore.verify(PHONE, "222222")).isEqualTo(VerifyResult.VERIFIED);
+    }
+
+    @Test
+    @DisplayName("Should discard the code once the attempt limit is reached")
+    void verify_attemptLimit_discardsCode() {
+        // Arrange
+        otpStore.issue(PHONE, "123456", TTL);
+
+        // Act
+        VerifyResult first = otpStore.verify(PHONE, "000000");
+        VerifyResult second = otpStore.verify(PHONE, "000000");
+        VerifyResult third = otpStore.verify(PHONE, "000000");
+
+        // Assert
+        assertThat(first).isEqualTo(VerifyResult.MISMATCH);
+        assertThat(second).isEqualTo(VerifyResult.MISMATCH);
+        assertThat(third).isEqualTo(VerifyResult.TOO_MANY_ATTEMPTS);
+        assertThat(otpStore.verify(PHONE, "123456")).isEqualTo(VerifyResult.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should report an expired code")
+    void verify_expiredCode_returnsExpired() {
+        // Arrange
+        otpStore.issue(PHONE, "123456", EXPIRED);
+
+        // Act & Assert
+        assertThat(otpStore.verify(PHONE, "123456")).isEqualTo(VerifyResult.EXPIRED);
+        assertThat(otpStore.verify(PHONE, "123456")).isEqualTo(VerifyResult.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should sweep only entries whose code and request window have both expired")
+    void purgeExpired_removesOnlyFinishedEntries() {
+        // Arrange
+        ReflectionTestUtils.setField(otpStore, "requestWindowSeconds", 0L);
+        otpStore.issue("+1111111111", "111111", EXPIRED);
+        otpStore.issue("+2222222222", "222222", TTL);
+
+        // Act
+        int removed = otpStore.purgeExpired();
+
+        // Assert
+        assertThat(removed).isEqualTo(1);
+        assertThat(otpStore.size()).isEqualTo(1);
+        assertThat(otpStore.verify("+2222222222", "222222")).isEqualTo(VerifyResult.VERIFIED);
+    }
+
+    @Test
+    @DisplayName("Should refuse new phones when full until expired entries are swept")
+    void issue_storeFull_refusesNewPhones() {
+        // Arrange
+        ReflectionTestUtils.setField(otpStore, "requestWindowSeconds", 0L);
+        otpStore.issue("+1111111111", "111111", TTL);
+        otpStore.issue("+2222222222", "222222", EXPIRED);
+
+        // Act - the expired entry is swept to make room
+        boolean third = otpStore.issue("+3333333333", "333333", TTL);
+        boolean fourth = otpStore.issue("+4444444444", "444444", TTL);
+
+        // Assert
+        assertThat(third).isTrue();
+        assertThat(fourth).isFalse();
+        assertThat(otpStore.size()).isEqualTo(2);
+    }
+}
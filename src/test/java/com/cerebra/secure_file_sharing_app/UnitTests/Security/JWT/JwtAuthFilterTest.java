@@ -0,0 +1,101 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Security.JWT;
+
+import com.cerebra.secure_file_sharing_app.Entities.AppUser;
+import com.cerebra.secure_file_sharing_app.Security.JWT.JwtAuthFilter;
+import com.cerebra.secure_file_sharing_app.Security.JWT.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtAuthFilter Tests")
+class JwtAuthFilterTest {
+
+    @Mock private JwtService jwtService;
+    @Mock private UserDetailsService userDetailsService;
+    @Mock private FilterChain filterChain;
+
+    private JwtAuthFilter jwtAuthFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        jwtAuthFilter = new JwtAuthFilter(jwtService, userDetailsService);
+        request = new MockHttpServletRequest("GET", "/api/files");
+        response = new MockHttpServletResponse();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should authenticate the request from a single token validation")
+    void doFilter_validToken_setsAuthentication() throws ServletException, IOException {
+        // Arrange
+        Claims claims = Jwts.claims().setSubject("+1234567890");
+        AppUser user = AppUser.builder().id(1L).phoneNumber("+1234567890").build();
+        request.addHeader("Authorization", "Bearer good-token");
+        when(jwtService.validateToken("good-token")).thenReturn(Optional.of(claims));
+        when(userDetailsService.loadUserByUsername("+1234567890")).thenReturn(user);
+
+        // Act
+        jwtAuthFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(user);
+        verify(jwtService, times(1)).validateToken(anyString());
+        verifyNoMoreInteractions(jwtService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Should continue unauthenticated when the token is invalid")
+    void doFilter_invalidToken_leavesRequestUnauthenticated() throws ServletException, IOException {
+        // Arrange
+        request.addHeader("Authorization", "Bearer bad-token");
+        when(jwtService.validateToken("bad-token")).thenReturn(Optional.empty());
+
+        // Act
+        jwtAuthFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Should skip token handling when no bearer header is present")
+    void doFilter_noBearerHeader_passesThrough() throws ServletException, IOException {
+        // Act
+        jwtAuthFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        verifyNoInteractions(jwtService, userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+}
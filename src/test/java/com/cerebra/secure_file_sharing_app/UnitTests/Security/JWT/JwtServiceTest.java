@@ -4,7 +4,9 @@ import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Security.JWT.JwtService;
 import com.cerebra.secure_file_sharing_app.Security.SecurityUtils;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.AfterEach;
@@ -15,10 +17,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.crypto.SecretKey;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +36,7 @@ class JwtServiceTest {
     private MockedStatic<SecurityUtils> securityUtilsMock;
     private JwtService jwtService;
     private AppUser testUser;
+    private SecretKey testSecretKey;
 
     @BeforeEach
     void setUp() throws NoSuchAlgorithmException {
@@ -39,12 +45,13 @@ class JwtServiceTest {
 
         // Setup mocks
         String testSecret = "testSecretKeyThatIsLongEnoughForHS256Algorithm";
-        SecretKey testSecretKey = Keys.hmacShaKeyFor(testSecret.getBytes());
+        testSecretKey = Keys.hmacShaKeyFor(testSecret.getBytes());
 
         securityUtilsMock.when(SecurityUtils::secretKey).thenReturn(testSecret);
         securityUtilsMock.when(() -> SecurityUtils.getSignInKey(anyString())).thenReturn(testSecretKey);
 
         jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", 100);
         testUser = AppUser.builder()
                 .id(1L)
                 .phoneNumber("+1234567890")
@@ -239,4 +246,78 @@ class JwtServiceTest {
 
         assertThat(tokenExpiration).isBetween(expectedMinExpiration, expectedMaxExpiration);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return claims from one parse and serve repeats from the cache")
+    void validateToken_validToken_returnsCachedClaims() {
+        // Arrange
+        String token = jwtService.generateToken(testUser);
+
+        // Act
+        Optional<Claims> first = jwtService.validateToken(token);
+        Optional<Claims> second = jwtService.validateToken(token);
+
+        // Assert
+        assertThat(first).isPresent();
+        assertThat(first.get().getSubject()).isEqualTo("+1234567890");
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(verifiedTokens()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed, tampered and expired tokens without caching them")
+    void validateToken_invalidTokens_returnsEmpty() {
+        // Arrange
+        String tampered = jwtService.generateToken(testUser) + "x";
+        String expired = signedToken("+1234567890", System.currentTimeMillis() - 1000);
+
+        // Act & Assert
+        assertThat(jwtService.validateToken("invalid.jwt.token")).isEmpty();
+        assertThat(jwtService.validateToken(tampered)).isEmpty();
+        assertThat(jwtService.validateToken(expired)).isEmpty();
+        assertThat(jwtService.validateToken(null)).isEmpty();
+        assertThat(verifiedTokens()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop answering from the cache once the token expires")
+    void validateToken_cachedTokenExpires_returnsEmpty() throws InterruptedException {
+        // Arrange
+        String token = signedToken("+1234567890", System.currentTimeMillis() + 1000);
+        assertThat(jwtService.validateToken(token)).isPresent();
+
+        // Act
+        Thread.sleep(1100);
+
+        // Assert
+        assertThat(jwtService.validateToken(token)).isEmpty();
+        assertThat(verifiedTokens()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the cache within its configured size")
+    void validateToken_moreTokensThanCacheSize_staysBounded() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", 2);
+        long expiry = System.currentTimeMillis() + 60_000;
+
+        // Act & Assert - uncached tokens are still validated
+        for (int i = 0; i < 5; i++) {
+            assertThat(jwtService.validateToken(signedToken("+100000000" + i, expiry))).isPresent();
+        }
+        assertThat(verifiedTokens()).hasSize(2);
+    }
+
+    private String signedToken(String subject, long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(new Date(expiresAtMillis - 60_000))
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(testSecretKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Map<?, ?> verifiedTokens() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+    }
+}
@@ -0,0 +1,124 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Security;
+
+import com.cerebra.secure_file_sharing_app.Entities.AppUser;
+import com.cerebra.secure_file_sharing_app.Security.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PrincipalCache Tests")
+class PrincipalCacheTest {
+
+    private static final String PHONE = "+1234567890";
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private AtomicInteger loads;
+    private AppUser testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(meterRegistry);
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100);
+
+        loads = new AtomicInteger();
+        testUser = AppUser.builder().id(1L).phoneNumber(PHONE).build();
+    }
+
+    @Test
+    @DisplayName("Should load once and answer repeat lookups from the cache")
+    void get_repeatedLookups_loadsOnce() {
+        // Act
+        Optional<AppUser> first = principalCache.get(PHONE, loader(testUser));
+        Optional<AppUser> second = principalCache.get(PHONE, loader(testUser));
+
+        // Assert
+        assertThat(first).contains(testUser);
+        assertThat(second.get().getId()).isEqualTo(1L);
+        assertThat(second.get()).isNotSameAs(testUser);
+        assertThat(loads).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1.0);
+        assertThat(count("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users")
+    void get_unknownUser_isNotCached() {
+        // Act
+        principalCache.get(PHONE, loader(null));
+        Optional<AppUser> result = principalCache.get(PHONE, loader(testUser));
+
+        // Assert
+        assertThat(result).contains(testUser);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation by phone number or user id")
+    void invalidate_cachedUser_forcesReload() {
+        // Arrange
+        principalCache.get(PHONE, loader(testUser));
+
+        // Act
+        principalCache.invalidate(PHONE);
+        principalCache.get(PHONE, loader(testUser));
+        principalCache.invalidate(1L);
+        principalCache.get(PHONE, loader(testUser));
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should always load when the TTL is zero")
+    void get_zeroTtl_bypassesCache() {
+        // Arrange
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 0L);
+        principalCache.get(PHONE, loader(testUser));
+
+        // Act
+        principalCache.get(PHONE, loader(testUser));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+        assertThat(count("hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop caching once the size limit is reached")
+    void get_cacheFull_skipsCaching() {
+        // Arrange
+        ReflectionTestUtils.setField(principalCache, "maxSize", 1);
+        AppUser other = AppUser.builder().id(2L).phoneNumber("+1999999999").build();
+        principalCache.get(PHONE, loader(testUser));
+
+        // Act
+        principalCache.get("+1999999999", loader(other));
+        principalCache.get("+1999999999", loader(other));
+
+        // Assert
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("app.security.principal.cache.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    private Supplier<Optional<AppUser>> loader(AppUser user) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(user);
+        };
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("app.security.principal.cache").tag("result", result).counter().count();
+    }
+}
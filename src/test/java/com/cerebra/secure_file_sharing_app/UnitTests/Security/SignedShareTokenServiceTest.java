@@ -0,0 +1,92 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Security;
+
+import com.cerebra.secure_file_sharing_app.Security.SecurityUtils;
+import com.cerebra.secure_file_sharing_app.Security.SignedShareTokenService;
+import com.cerebra.secure_file_sharing_app.Security.SignedShareTokenService.SignedShare;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SignedShareTokenService Tests")
+class SignedShareTokenServiceTest {
+
+    private String secret;
+    private SignedShareTokenService tokenService;
+    private LocalDateTime expiresAt;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        secret = SecurityUtils.secretKey();
+        tokenService = new SignedShareTokenService(true, secret);
+        expiresAt = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should verify a token it signed and return its claims")
+    void verify_signedToken_returnsClaims() {
+        // Arrange
+        String token = tokenService.sign(42L, 3, expiresAt);
+
+        // Act
+        Optional<SignedShare> claims = tokenService.verify(token);
+
+        // Assert
+        assertThat(tokenService.isSignedToken(token)).isTrue();
+        assertThat(claims).contains(new SignedShare(42L, 3, expiresAt));
+    }
+
+    @Test
+    @DisplayName("Should accept tokens signed by another instance sharing the secret")
+    void verify_sameSecretOtherInstance_accepts() {
+        // Arrange
+        String token = tokenService.sign(42L, 0, expiresAt);
+
+        // Act
+        Optional<SignedShare> claims = new SignedShareTokenService(true, secret).verify(token);
+
+        // Assert
+        assertThat(claims).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens whose claims or signature were altered")
+    void verify_tamperedToken_returnsEmpty() {
+        // Arrange
+        String token = tokenService.sign(42L, 3, expiresAt);
+        String otherFile = token.replaceFirst("^s1\\.42\\.", "s1.43.");
+        String otherEpoch = token.replaceFirst("^s1\\.42\\.3\\.", "s1.42.2.");
+        char last = token.charAt(token.length() - 1);
+        String otherSignature = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        // Act & Assert
+        assertThat(tokenService.verify(otherFile)).isEmpty();
+        assertThat(tokenService.verify(otherEpoch)).isEmpty();
+        assertThat(tokenService.verify(otherSignature)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens signed with a different secret")
+    void verify_differentSecret_returnsEmpty() throws Exception {
+        // Arrange
+        String token = new SignedShareTokenService(true, SecurityUtils.secretKey()).sign(42L, 3, expiresAt);
+
+        // Act & Assert
+        assertThat(tokenService.verify(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not treat plain link tokens or garbage as signed tokens")
+    void isSignedToken_otherFormats_returnsFalse() {
+        // Act & Assert
+        assertThat(tokenService.isSignedToken("12345678-1234-1234-1234-123456789012")).isFalse();
+        assertThat(tokenService.isSignedToken("s1.1.2.3.short")).isFalse();
+        assertThat(tokenService.isSignedToken(null)).isFalse();
+        assertThat(tokenService.verify("s1.1.2.3.short")).isEmpty();
+    }
+}
@@ -2,6 +2,7 @@ package com.cerebra.secure_file_sharing_app.UnitTests.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Repositories.AppUserRepository;
+import com.cerebra.secure_file_sharing_app.Security.PrincipalCache;
 import com.cerebra.secure_file_sharing_app.Services.AppUserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,6 +26,7 @@ import static org.mockito.Mockito.*;
 class AppUserServiceTest {
 
     @Mock private AppUserRepository appUserRepository;
+    @Mock private PrincipalCache principalCache;
 
     private AppUserServiceImpl appUserService;
 
@@ -32,7 +34,7 @@ class AppUserServiceTest {
 
     @BeforeEach
     void setUp() {
-        appUserService = new AppUserServiceImpl(appUserRepository);
+        appUserService = new AppUserServiceImpl(appUserRepository, principalCache);
 
         testUser = AppUser.builder()
                 .id(1L)
@@ -70,6 +72,7 @@ class AppUserServiceTest {
         assertThat(result.getUpdatedAt()).isNotNull();
 
         verify(appUserRepository).save(userToSave);
+        verify(principalCache).invalidate("+1234567890");
     }
 
     @Test
@@ -247,6 +250,7 @@ class AppUserServiceTest {
 
         // Assert
         verify(appUserRepository).deleteById(userId);
+        verify(principalCache).invalidate(userId);
     }
 
     @Test
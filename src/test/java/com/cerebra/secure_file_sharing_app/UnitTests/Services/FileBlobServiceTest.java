@@ -0,0 +1,205 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
+import com.cerebra.secure_file_sharing_app.Repositories.FileBlobRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobServiceImpl;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileBlobService Tests")
+class FileBlobServiceTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock private FileBlobRepository fileBlobRepository;
+
+    private FileBlobServiceImpl fileBlobService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        fileBlobService = new FileBlobServiceImpl(fileBlobRepository, new LocalBlobStore(tempDir.toString()));
+        ReflectionTestUtils.setField(fileBlobService, "rootStoragePath", tempDir.toString());
+
+        lenient().when(fileBlobRepository.saveAndFlush(any(FileBlob.class))).thenAnswer(inv -> {
+            FileBlob blob = inv.getArgument(0);
+            blob.setId(1L);
+            return blob;
+        });
+    }
+
+    @Test
+    @DisplayName("Should hash new content and store it under its digest")
+    void store_newContent_createsBlob() throws IOException {
+        // Arrange
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.empty());
+
+        // Act
+        FileBlob blob = fileBlobService.store(stream("hello"));
+
+        // Assert
+        assertThat(blob.getSha256()).isEqualTo(HELLO_SHA256);
+        assertThat(blob.getSize()).isEqualTo(5L);
+        assertThat(blob.getRefCount()).isEqualTo(1);
+        assertThat(blob.getPhysicalPath()).startsWith("blobs/2c/f2/" + HELLO_SHA256);
+        assertThat(Files.readString(tempDir.resolve(blob.getPhysicalPath()))).isEqualTo("hello");
+        assertThat(tempDir.resolve("blobs/tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should reference existing content instead of storing it twice")
+    void store_duplicateContent_incrementsRefCount() {
+        // Arrange
+        FileBlob existing = blob(5L, tempDir.resolve("existing").toString(), 1);
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.of(existing));
+        when(fileBlobRepository.incrementRefCount(5L)).thenReturn(1);
+
+        // Act
+        FileBlob blob = fileBlobService.store(stream("hello"));
+
+        // Assert
+        assertThat(blob).isSameAs(existing);
+        assertThat(blob.getRefCount()).isEqualTo(2);
+        assertThat(tempDir.resolve("blobs/tmp")).isEmptyDirectory();
+        verify(fileBlobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should finish reclaiming a blob that lost its last reference and store afresh")
+    void store_blobBeingReclaimed_storesNewCopy() throws IOException {
+        // Arrange
+        Path stalePath = Files.writeString(tempDir.resolve("stale"), "hello");
+        FileBlob dead = blob(5L, stalePath.toString(), 0);
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.of(dead), Optional.empty());
+        when(fileBlobRepository.incrementRefCount(5L)).thenReturn(0);
+        when(fileBlobRepository.deleteIfUnreferenced(5L)).thenReturn(1);
+
+        // Act
+        FileBlob blob = fileBlobService.store(stream("hello"));
+
+        // Assert
+        assertThat(stalePath).doesNotExist();
+        assertThat(blob.getPhysicalPath()).isNotEqualTo(stalePath.toString());
+        assertThat(Files.readString(tempDir.resolve(blob.getPhysicalPath()))).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("Should join the winner when a concurrent upload creates the blob first")
+    void store_concurrentInsert_referencesWinningBlob() {
+        // Arrange
+        FileBlob winner = blob(9L, tempDir.resolve("winner").toString(), 1);
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(fileBlobRepository.saveAndFlush(any(FileBlob.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate sha256"));
+        when(fileBlobRepository.incrementRefCount(9L)).thenReturn(1);
+
+        // Act
+        FileBlob blob = fileBlobService.store(stream("hello"));
+
+        // Assert - our copy is discarded, only the winner's content remains
+        assertThat(blob).isSameAs(winner);
+        assertThat(tempDir.resolve("blobs/2c/f2")).isEmptyDirectory();
+        assertThat(tempDir.resolve("blobs/tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should move an assembled file into the blob store")
+    void adopt_newContent_movesSourceFile() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("upload.part"), "hello");
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.empty());
+
+        // Act
+        FileBlob blob = fileBlobService.adopt(source);
+
+        // Assert
+        assertThat(source).doesNotExist();
+        assertThat(blob.getSize()).isEqualTo(5L);
+        assertThat(Files.readString(tempDir.resolve(blob.getPhysicalPath()))).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("Should delete content only when the last reference is released")
+    void release_lastReference_deletesContent() throws IOException {
+        // Arrange
+        Path shared = Files.writeString(tempDir.resolve("shared"), "hello");
+        Path last = Files.writeString(tempDir.resolve("last"), "bye");
+        when(fileBlobRepository.decrementRefCount(anyLong())).thenReturn(1);
+        when(fileBlobRepository.findPhysicalPathById(1L)).thenReturn(Optional.of(shared.toString()));
+        when(fileBlobRepository.findPhysicalPathById(2L)).thenReturn(Optional.of(last.toString()));
+        when(fileBlobRepository.deleteIfUnreferenced(1L)).thenReturn(0);
+        when(fileBlobRepository.deleteIfUnreferenced(2L)).thenReturn(1);
+
+        // Act
+        fileBlobService.release(1L);
+        fileBlobService.release(2L);
+
+        // Assert
+        assertThat(shared).exists();
+        assertThat(last).doesNotExist();
+    }
+
+    private FileBlob blob(Long id, String physicalPath, int refCount) {
+        return FileBlob.builder()
+                .id(id)
+                .sha256(HELLO_SHA256)
+                .size(5L)
+                .physicalPath(physicalPath)
+                .refCount(refCount)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should refuse to share content whose last reference is already gone")
+    void retain_blobBeingReclaimed_throwsFileNotFoundException() {
+        // Arrange
+        when(fileBlobRepository.incrementRefCount(1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileBlobService.retain(1L))
+                .isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should copy content stored outside the blob store and keep the source")
+    void storeCopy_legacyContent_storesBlobAndKeepsSource() throws IOException {
+        // Arrange
+        Path legacy = Files.writeString(tempDir.resolve("old.txt"), "hello");
+        when(fileBlobRepository.findBySha256(HELLO_SHA256)).thenReturn(Optional.empty());
+
+        // Act
+        FileBlob blob = fileBlobService.storeCopy("old.txt");
+
+        // Assert
+        assertThat(legacy).exists();
+        assertThat(blob.getSha256()).isEqualTo(HELLO_SHA256);
+        assertThat(Files.readString(tempDir.resolve(blob.getPhysicalPath()))).isEqualTo("hello");
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
@@ -0,0 +1,247 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
+import com.cerebra.secure_file_sharing_app.Services.FileDownloadServiceImpl;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FileDownloadService Tests")
+class FileDownloadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    private FileDownloadServiceImpl fileDownloadService;
+
+    @TempDir
+    Path tempDir;
+
+    private Path testFile;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileDownloadService = new FileDownloadServiceImpl(new LocalBlobStore(tempDir.toString()));
+        ReflectionTestUtils.setField(fileDownloadService, "sendfileEnabled", true);
+        ReflectionTestUtils.setField(fileDownloadService, "maxRanges", 16);
+
+        testFile = Files.writeString(tempDir.resolve("stored.bin"), CONTENT);
+
+        request = new MockHttpServletRequest("GET", "/api/files/1/download");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Should stream whole file when no Range header is sent")
+    void streamFile_noRange_returnsFullContent() throws IOException {
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length());
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("ETag")).isNotBlank();
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"report.txt\"");
+    }
+
+    @Test
+    @DisplayName("Should return 206 with Content-Range for single range")
+    void streamFile_singleRange_returnsPartialContent() throws IOException {
+        // Arrange
+        request.addHeader("Range", "bytes=10-14");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 10-14/20");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(response.getContentAsString()).isEqualTo("abcde");
+    }
+
+    @Test
+    @DisplayName("Should clamp open-ended range to end of file")
+    void streamFile_openEndedRange_returnsRemainder() throws IOException {
+        // Arrange
+        request.addHeader("Range", "bytes=15-");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 15-19/20");
+        assertThat(response.getContentAsString()).isEqualTo("fghij");
+    }
+
+    @Test
+    @DisplayName("Should return multipart/byteranges for multiple ranges")
+    void streamFile_multipleRanges_returnsMultipartBody() throws IOException {
+        // Arrange
+        request.addHeader("Range", "bytes=0-1,18-19");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+
+        String body = response.getContentAsString();
+        assertThat(body).contains("Content-Range: bytes 0-1/20\r\n\r\n01");
+        assertThat(body).contains("Content-Range: bytes 18-19/20\r\n\r\nij");
+        assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Should return 416 when no range is satisfiable")
+    void streamFile_unsatisfiableRange_returns416() throws IOException {
+        // Arrange
+        request.addHeader("Range", "bytes=50-60");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed Range header and send full file")
+    void streamFile_malformedRange_returnsFullContent() throws IOException {
+        // Arrange
+        request.addHeader("Range", "items=1-2");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should honour Range when If-Range matches the current ETag")
+    void streamFile_ifRangeMatches_returnsPartialContent() throws IOException {
+        // Arrange
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+        String eTag = response.getHeader("ETag");
+
+        MockHttpServletRequest rangedRequest = new MockHttpServletRequest("GET", "/api/files/1/download");
+        rangedRequest.addHeader("Range", "bytes=0-3");
+        rangedRequest.addHeader("If-Range", eTag);
+        MockHttpServletResponse rangedResponse = new MockHttpServletResponse();
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", rangedRequest, rangedResponse);
+
+        // Assert
+        assertThat(rangedResponse.getStatus()).isEqualTo(206);
+        assertThat(rangedResponse.getContentAsString()).isEqualTo("0123");
+    }
+
+    @Test
+    @DisplayName("Should send full file when If-Range validator is stale")
+    void streamFile_ifRangeStale_returnsFullContent() throws IOException {
+        // Arrange
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", "\"stale-etag\"");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should hand range to connector via sendfile attributes when supported")
+    void streamFile_sendfileSupported_setsSendfileAttributes() throws IOException {
+        // Arrange
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=5-9");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(testFile.toRealPath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(5L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stream ranges through the blob store when content is not on local disk")
+    void streamFile_remoteStore_streamsRangesWithoutSendfile() throws IOException {
+        // Arrange - same content, but the store exposes no local file
+        FileDownloadServiceImpl remoteDownloads = new FileDownloadServiceImpl(new LocalBlobStore(tempDir.toString()) {
+            @Override
+            public Optional<Path> localPath(String key) {
+                return Optional.empty();
+            }
+        });
+        ReflectionTestUtils.setField(remoteDownloads, "sendfileEnabled", true);
+        ReflectionTestUtils.setField(remoteDownloads, "maxRanges", 16);
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=0-1,10-11");
+
+        // Act
+        remoteDownloads.streamFile(testFile.toString(), "report.txt", "text/plain", request, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+        assertThat(response.getContentAsString()).contains("Content-Range: bytes 0-1/20\r\n\r\n01")
+                .contains("Content-Range: bytes 10-11/20\r\n\r\nab");
+        assertThat(response.getContentAsByteArray()).hasSize((int) response.getContentLengthLong());
+    }
+
+    @Test
+    @DisplayName("Should write headers only for HEAD requests")
+    void streamFile_headRequest_writesNoBody() throws IOException {
+        // Arrange
+        MockHttpServletRequest headRequest = new MockHttpServletRequest("HEAD", "/api/files/1/download");
+
+        // Act
+        fileDownloadService.streamFile(testFile.toString(), "report.txt", "text/plain", headRequest, response);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should throw FileNotFoundException when physical file is missing")
+    void streamFile_missingFile_throwsFileNotFoundException() {
+        // Arrange
+        Path missing = tempDir.resolve("missing.bin");
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileDownloadService.streamFile(missing.toString(), "missing.bin", null, request, response))
+                .isInstanceOf(FileNotFoundException.class)
+                .hasMessage("File not found or not readable");
+    }
+}
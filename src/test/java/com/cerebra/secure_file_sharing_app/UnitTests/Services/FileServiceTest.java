@@ -2,28 +2,41 @@ package com.cerebra.secure_file_sharing_app.UnitTests.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.FileListingQuery;
 import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobService;
 import com.cerebra.secure_file_sharing_app.Services.FileServiceImpl;
 import com.cerebra.secure_file_sharing_app.Services.FolderService;
-import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Services.SharedLinkCache;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.FilePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.FileSortField;
+import com.cerebra.secure_file_sharing_app.Shared.FileSummaryResponse;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -38,8 +51,10 @@ import static org.mockito.Mockito.*;
 class FileServiceTest {
 
     @Mock private FileRepository fileRepository;
-    @Mock private StoragePathService storagePathService;
+    @Mock private OwnershipContext ownershipContext;
     @Mock private FolderService folderService;
+    @Mock private FileBlobService fileBlobService;
+    @Mock private SharedLinkCache sharedLinkCache;
 
     private FileServiceImpl fileService;
 
@@ -52,14 +67,16 @@ class FileServiceTest {
 
     @BeforeEach
     void setUp() throws IOException {
-        // Correct constructor order: FileRepository, StoragePathService, FolderService
-        fileService = new FileServiceImpl(fileRepository, storagePathService, folderService);
+        // Correct constructor order: FileRepository, OwnershipContext, FolderService, FileBlobService
+        fileService = new FileServiceImpl(fileRepository, ownershipContext, folderService, fileBlobService, sharedLinkCache,
+                new LocalBlobStore(tempDir.toString()));
 
         // Set up test storage directory
         Path userStorageDir = tempDir.resolve("user1");
         Files.createDirectories(userStorageDir);
 
-        ReflectionTestUtils.setField(fileService, "rootStoragePath", tempDir.toString());
+        ReflectionTestUtils.setField(fileService, "maxMultipartSize", 50L * 1024 * 1024);
+        ReflectionTestUtils.setField(fileService, "maxPageSize", 200);
 
         // Set up test entities
         testUser = AppUser.builder()
@@ -79,6 +96,14 @@ class FileServiceTest {
                 .storagePath(testStoragePath)
                 .parentFolder(null)
                 .build();
+
+        lenient().when(fileBlobService.store(any())).thenAnswer(inv -> FileBlob.builder()
+                .id(10L)
+                .sha256("abc123")
+                .size((long) ((InputStream) inv.getArgument(0)).readAllBytes().length)
+                .physicalPath(tempDir.resolve("blobs").resolve("abc123").toString())
+                .refCount(1)
+                .build());
     }
 
     @Test
@@ -104,8 +129,8 @@ class FileServiceTest {
                 .folder(testFolder)
                 .build();
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderService.findById(folderId)).thenReturn(Optional.of(testFolder));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testFolder));
         when(fileRepository.save(any(File.class))).thenReturn(savedFile);
 
         // Act
@@ -118,9 +143,9 @@ class FileServiceTest {
         assertThat(result.getSize()).isEqualTo(17L);
         assertThat(result.getFolder()).isEqualTo(testFolder);
 
-        // Allow multiple calls since service calls it multiple times for validation
-        verify(storagePathService, atLeast(1)).findByAppUserId(userId);
-        verify(folderService).findById(folderId);
+        verify(ownershipContext).findStoragePath(userId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
+        verify(folderService, never()).findById(anyLong());
         verify(fileRepository).save(any(File.class));
     }
 
@@ -150,7 +175,7 @@ class FileServiceTest {
                 .storagePath(testStoragePath)
                 .build();
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
         when(folderService.findByStoragePathIdAndParentFolderIsNull(testStoragePath.getId()))
                 .thenReturn(Arrays.asList(defaultFolder));
         when(fileRepository.save(any(File.class))).thenReturn(savedFile);
@@ -166,6 +191,27 @@ class FileServiceTest {
         verify(fileRepository).save(any(File.class));
     }
 
+    @Test
+    @DisplayName("Should use the default folder a concurrent upload created first")
+    void uploadFile_defaultFolderCreatedConcurrently_usesExistingFolder() {
+        // Arrange
+        MultipartFile mockFile = new MockMultipartFile("file", "test.txt", "text/plain", "content".getBytes());
+        Folder defaultFolder = Folder.builder().id(2L).name("My Files").storagePath(testStoragePath).build();
+
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(folderService.findByStoragePathIdAndParentFolderIsNull(testStoragePath.getId()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(defaultFolder));
+        when(folderService.save(any(Folder.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(fileRepository.save(any(File.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        File result = fileService.uploadFile(mockFile, null, 1L);
+
+        // Assert
+        assertThat(result.getFolder()).isEqualTo(defaultFolder);
+    }
+
     @Test
     @DisplayName("Should throw exception when user has no storage path")
     void uploadFile_userWithoutStoragePath_throwsException() {
@@ -173,15 +219,15 @@ class FileServiceTest {
         MultipartFile mockFile = new MockMultipartFile("file", "test.txt", "text/plain", "content".getBytes());
         Long userId = 1L;
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.empty());
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> fileService.uploadFile(mockFile, null, userId))
                 .isInstanceOf(FileStorageException.class)
                 .hasMessageContaining("User storage path not found");
 
-        verify(storagePathService).findByAppUserId(userId);
-        verify(folderService, never()).findById(anyLong());
+        verify(ownershipContext).findStoragePath(userId);
+        verify(ownershipContext, never()).findOwnedFolder(anyLong(), anyLong());
     }
 
     @Test
@@ -192,7 +238,8 @@ class FileServiceTest {
         Long userId = 1L;
         Long folderId = 999L;
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.empty());
         when(folderService.findById(folderId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -222,7 +269,8 @@ class FileServiceTest {
                 .storagePath(otherStoragePath)
                 .build();
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.empty());
         when(folderService.findById(folderId)).thenReturn(Optional.of(otherFolder));
 
         // Act & Assert
@@ -287,8 +335,7 @@ class FileServiceTest {
                 .storagePath(testStoragePath)
                 .build();
 
-        when(fileRepository.findById(fileId)).thenReturn(Optional.of(testFile));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.of(testFile));
 
         // Act
         Resource result = fileService.downloadFile(fileId, userId);
@@ -298,8 +345,8 @@ class FileServiceTest {
         assertThat(result.exists()).isTrue();
         assertThat(result.isReadable()).isTrue();
 
-        verify(fileRepository).findById(fileId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
+        verify(fileRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -309,14 +356,14 @@ class FileServiceTest {
         Long fileId = 999L;
         Long userId = 1L;
 
-        when(fileRepository.findById(fileId)).thenReturn(Optional.empty());
+        when(fileRepository.existsById(fileId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> fileService.downloadFile(fileId, userId))
                 .isInstanceOf(FileNotFoundException.class)
                 .hasMessageContaining("File not found");
 
-        verify(fileRepository).findById(fileId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
     }
 
     @Test
@@ -326,59 +373,35 @@ class FileServiceTest {
         Long fileId = 1L;
         Long userId = 1L;
 
-        // Different user's storage path
-        StoragePath otherStoragePath = StoragePath.builder()
-                .id(2L)
-                .basePath("user2")
-                .build();
-
-        File otherFile = File.builder()
-                .id(fileId)
-                .displayName("test.txt")
-                .storagePath(otherStoragePath)
-                .build();
-
-        when(fileRepository.findById(fileId)).thenReturn(Optional.of(otherFile));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        // The file exists but belongs to another user's storage path
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.empty());
+        when(fileRepository.existsById(fileId)).thenReturn(true);
 
         // Act & Assert
         assertThatThrownBy(() -> fileService.downloadFile(fileId, userId))
                 .isInstanceOf(FileAccessDeniedException.class)
                 .hasMessageContaining("Access denied to file");
 
-        verify(fileRepository).findById(fileId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
     }
 
     @Test
-    @DisplayName("Should download shared file without user validation")
-    void downloadSharedFile_validFile_returnsResourceWithoutUserValidation() throws IOException {
+    @DisplayName("Should resolve file for download after access validation")
+    void getFileForDownload_validFileAndUser_returnsEntity() {
         // Arrange
-        Long fileId = 1L;
-
-        // Create actual test file
-        Path testFilePath = tempDir.resolve("user1").resolve("shared.txt");
-        Files.createDirectories(testFilePath.getParent());
-        Files.write(testFilePath, "Shared file content".getBytes());
-
-        File testFile = File.builder()
-                .id(fileId)
-                .displayName("shared.txt")
-                .physicalPath(testFilePath.toString())
+        File file = File.builder()
+                .id(1L)
+                .displayName("test.txt")
+                .storagePath(testStoragePath)
                 .build();
 
-        when(fileRepository.findById(fileId)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(file));
 
         // Act
-        Resource result = fileService.downloadSharedFile(fileId);
+        File result = fileService.getFileForDownload(1L, 1L);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.exists()).isTrue();
-        assertThat(result.isReadable()).isTrue();
-
-        verify(fileRepository).findById(fileId);
-        verify(storagePathService, never()).findByAppUserId(anyLong()); // No user validation
+        assertThat(result).isEqualTo(file);
     }
 
     @Test
@@ -400,8 +423,7 @@ class FileServiceTest {
                 .storagePath(testStoragePath)
                 .build();
 
-        when(fileRepository.findById(fileId)).thenReturn(Optional.of(testFile));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.of(testFile));
 
         // Act
         fileService.deleteFile(fileId, userId);
@@ -409,9 +431,158 @@ class FileServiceTest {
         // Assert
         assertThat(Files.exists(testFilePath)).isFalse(); // Physical file deleted
 
-        verify(fileRepository).findById(fileId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
+        verify(fileRepository, never()).findById(anyLong());
         verify(fileRepository).deleteById(fileId); // Database record deleted
+        verify(sharedLinkCache).invalidateFile(fileId); // Its shares went with it
+        verify(fileBlobService, never()).release(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should release the shared blob instead of deleting its content")
+    void deleteFile_deduplicatedFile_releasesBlob() throws IOException {
+        // Arrange
+        Path blobPath = tempDir.resolve("shared-blob");
+        Files.write(blobPath, "Shared content".getBytes());
+
+        File testFile = File.builder()
+                .id(1L)
+                .displayName("copy.txt")
+                .physicalPath(blobPath.toString())
+                .blob(FileBlob.builder().id(10L).physicalPath(blobPath.toString()).build())
+                .storagePath(testStoragePath)
+                .build();
+
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(testFile));
+
+        // Act
+        fileService.deleteFile(1L, 1L);
+
+        // Assert - the blob service decides whether other files still need the content
+        assertThat(Files.exists(blobPath)).isTrue();
+
+        verify(fileRepository).deleteById(1L);
+        verify(fileBlobService).release(10L);
+    }
+
+    @Test
+    @DisplayName("Should move a file by repointing its folder only")
+    void moveFile_ownedFileAndFolder_updatesFolder() {
+        // Arrange
+        File testFile = File.builder().id(1L).displayName("report.pdf").physicalPath("blobs/ab/cd/abcd")
+                .storagePath(testStoragePath).build();
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileRepository.save(any(File.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        File result = fileService.moveFile(1L, 1L, 1L);
+
+        // Assert
+        assertThat(result.getFolder()).isSameAs(testFolder);
+        assertThat(result.getPhysicalPath()).isEqualTo("blobs/ab/cd/abcd");
+        verifyNoInteractions(fileBlobService);
+    }
+
+    @Test
+    @DisplayName("Should copy a deduplicated file as one more reference on the same blob")
+    void copyFile_deduplicatedFile_sharesBlob() {
+        // Arrange
+        FileBlob blob = FileBlob.builder().id(10L).physicalPath("blobs/ab/cd/abcd").build();
+        File testFile = File.builder().id(1L).displayName("report.pdf").physicalPath("blobs/ab/cd/abcd")
+                .blob(blob).size(2048L).mimeType("application/pdf").storagePath(testStoragePath).build();
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileRepository.save(any(File.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        File copy = fileService.copyFile(1L, 1L, 1L);
+
+        // Assert
+        assertThat(copy).isNotSameAs(testFile);
+        assertThat(copy.getBlob()).isSameAs(blob);
+        assertThat(copy.getPhysicalPath()).isEqualTo("blobs/ab/cd/abcd");
+        assertThat(copy.getPhysicalName()).endsWith(".pdf");
+        assertThat(copy.getSize()).isEqualTo(2048L);
+        assertThat(copy.getFolder()).isSameAs(testFolder);
+        verify(fileBlobService).retain(10L);
+        verify(fileBlobService, never()).store(any());
+    }
+
+    @Test
+    @DisplayName("Should store one blob for a file kept from before deduplication")
+    void copyFile_legacyFile_storesContentInBlobStore() {
+        // Arrange
+        File testFile = File.builder().id(1L).displayName("old.txt").physicalPath("users/user1/old.txt")
+                .size(3L).storagePath(testStoragePath).build();
+        FileBlob stored = FileBlob.builder().id(11L).physicalPath("blobs/ef/01/ef01").size(3L).build();
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileBlobService.storeCopy("users/user1/old.txt")).thenReturn(stored);
+        when(fileRepository.save(any(File.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        File copy = fileService.copyFile(1L, 1L, 1L);
+
+        // Assert
+        assertThat(copy.getBlob()).isSameAs(stored);
+        assertThat(copy.getPhysicalPath()).isEqualTo("blobs/ef/01/ef01");
+        assertThat(testFile.getBlob()).isNull();
+        verify(fileBlobService, never()).retain(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should give the extra reference back when the copy cannot be saved")
+    void copyFile_saveFails_releasesReference() {
+        // Arrange
+        File testFile = File.builder().id(1L).displayName("report.pdf").physicalPath("blobs/ab/cd/abcd")
+                .blob(FileBlob.builder().id(10L).build()).size(1L).storagePath(testStoragePath).build();
+        when(ownershipContext.findOwnedFile(1L, 1L)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileRepository.save(any(File.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.copyFile(1L, 1L, 1L))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(fileBlobService).retain(10L);
+        verify(fileBlobService).release(10L);
+    }
+
+    @Test
+    @DisplayName("Should point the new file at the blob holding its content")
+    void uploadFile_validFile_referencesStoredBlob() {
+        // Arrange
+        MultipartFile mockFile = new MockMultipartFile("file", "test.txt", "text/plain", "Test file content".getBytes());
+
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileRepository.save(any(File.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        File result = fileService.uploadFile(mockFile, 1L, 1L);
+
+        // Assert
+        assertThat(result.getBlob().getId()).isEqualTo(10L);
+        assertThat(result.getPhysicalPath()).isEqualTo(result.getBlob().getPhysicalPath());
+        assertThat(result.getSize()).isEqualTo(17L);
+        assertThat(result.getPhysicalName()).endsWith(".txt");
+    }
+
+    @Test
+    @DisplayName("Should give the blob reference back when the file row cannot be saved")
+    void uploadFile_saveFails_releasesBlob() {
+        // Arrange
+        MultipartFile mockFile = new MockMultipartFile("file", "test.txt", "text/plain", "Test file content".getBytes());
+
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testFolder));
+        when(fileRepository.save(any(File.class))).thenThrow(new IllegalStateException("db down"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.uploadFile(mockFile, 1L, 1L))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(fileBlobService).release(10L);
     }
 
     @Test
@@ -425,7 +596,7 @@ class FileServiceTest {
                 File.builder().id(2L).displayName("file2.txt").build()
         );
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
         when(fileRepository.findByStoragePathId(testStoragePath.getId())).thenReturn(userFiles);
 
         // Act
@@ -435,7 +606,7 @@ class FileServiceTest {
         assertThat(result).hasSize(2);
         assertThat(result).extracting(File::getDisplayName).contains("file1.txt", "file2.txt");
 
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findStoragePath(userId);
         verify(fileRepository).findByStoragePathId(testStoragePath.getId());
     }
 
@@ -452,8 +623,7 @@ class FileServiceTest {
         );
 
         // Mock folder validation
-        when(folderService.findById(folderId)).thenReturn(Optional.of(testFolder));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testFolder));
         when(fileRepository.findByFolderId(folderId)).thenReturn(folderFiles);
 
         // Act
@@ -463,8 +633,7 @@ class FileServiceTest {
         assertThat(result).hasSize(2);
         assertThat(result).extracting(File::getDisplayName).contains("folder-file1.txt", "folder-file2.txt");
 
-        verify(folderService).findById(folderId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
         verify(fileRepository).findByFolderId(folderId);
     }
 
@@ -490,7 +659,7 @@ class FileServiceTest {
                 .folder(testFolder)
                 .build();
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
         when(folderService.findByStoragePathIdAndParentFolderIsNull(testStoragePath.getId()))
                 .thenReturn(Arrays.asList(testFolder));
         when(fileRepository.save(any(File.class))).thenReturn(savedFile);
@@ -518,7 +687,7 @@ class FileServiceTest {
         );
         Long userId = 1L;
 
-        // Don't stub storagePathService - validation happens before that call
+        // Don't stub ownershipContext - validation happens before that call
 
         // Act & Assert
         assertThatThrownBy(() -> fileService.uploadFile(mockFile, null, userId))
@@ -527,4 +696,118 @@ class FileServiceTest {
 
         // No verification needed - validation happens before service calls
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a cursor that resumes after the last row of the page")
+    void getUserFilesPage_morePagesAvailable_returnsResumableCursor() {
+        // Arrange
+        LocalDateTime created = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678000);
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(fileRepository.findPage(any(FileListingQuery.class))).thenReturn(
+                List.of(summary(7L, "a.txt", created), summary(8L, "b|c.txt", created), summary(9L, "d.txt", created)),
+                List.of(summary(9L, "d.txt", created)));
+
+        FilePageRequest firstRequest = FilePageRequest.builder().sort("created_at").direction("desc").limit(2).build();
+
+        // Act
+        FilePageResponse first = fileService.getUserFilesPage(1L, firstRequest);
+        FilePageResponse second = fileService.getUserFilesPage(1L, FilePageRequest.builder()
+                .sort("created_at").direction("desc").limit(2).cursor(first.getNextCursor()).build());
+
+        // Assert
+        assertThat(first.getFiles()).extracting(FileSummaryResponse::getId).containsExactly(7L, 8L);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getFiles()).extracting(FileSummaryResponse::getId).containsExactly(9L);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        ArgumentCaptor<FileListingQuery> captor = ArgumentCaptor.forClass(FileListingQuery.class);
+        verify(fileRepository, times(2)).findPage(captor.capture());
+        FileListingQuery firstQuery = captor.getAllValues().get(0);
+        FileListingQuery secondQuery = captor.getAllValues().get(1);
+        assertThat(firstQuery.storagePathId()).isEqualTo(1L);
+        assertThat(firstQuery.limit()).isEqualTo(3); // one extra row to detect the next page
+        assertThat(firstQuery.afterId()).isNull();
+        assertThat(secondQuery.sort()).isEqualTo(FileSortField.CREATED_AT);
+        assertThat(secondQuery.descending()).isTrue();
+        assertThat(secondQuery.afterId()).isEqualTo(8L);
+        assertThat(secondQuery.afterKey()).isEqualTo(created);
+    }
+
+    @Test
+    @DisplayName("Should list root files only and cap the page size")
+    void getRootFilesPage_hugeLimit_isCapped() {
+        // Arrange
+        when(fileRepository.findPage(any(FileListingQuery.class))).thenReturn(List.of());
+
+        // Act
+        FilePageResponse page = fileService.getRootFilesPage(1L, FilePageRequest.builder().limit(100_000).build());
+
+        // Assert
+        assertThat(page.getFiles()).isEmpty();
+        verify(fileRepository).findPage(argThat(query ->
+                query.rootOnly() && query.storagePathId() == 1L && query.limit() == 201
+                        && query.sort() == FileSortField.NAME && !query.descending()));
+    }
+
+    @Test
+    @DisplayName("Should validate folder access before listing a folder")
+    void getFolderFilesPage_noFolderAccess_throwsFileAccessDeniedException() {
+        // Arrange
+        StoragePath otherStoragePath = StoragePath.builder().id(2L).basePath("user2").build();
+        Folder otherFolder = Folder.builder().id(3L).storagePath(otherStoragePath).build();
+        when(ownershipContext.findOwnedFolder(3L, 1L)).thenReturn(Optional.empty());
+        when(folderService.findById(3L)).thenReturn(Optional.of(otherFolder));
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.getFolderFilesPage(3L, 1L, new FilePageRequest()))
+                .isInstanceOf(FileAccessDeniedException.class);
+
+        verify(fileRepository, never()).findPage(any());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sorts and cursors from another sort order")
+    void getUserFilesPage_invalidRequest_throwsInvalidPageRequestException() {
+        // Arrange
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(fileRepository.findPage(any(FileListingQuery.class))).thenReturn(List.of(
+                summary(1L, "a.txt", LocalDateTime.now()), summary(2L, "b.txt", LocalDateTime.now())));
+        String nameCursor = fileService.getUserFilesPage(1L, FilePageRequest.builder().limit(1).build()).getNextCursor();
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.getUserFilesPage(1L, FilePageRequest.builder().sort("owner").build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessageContaining("Unsupported sort");
+        assertThatThrownBy(() -> fileService.getUserFilesPage(1L, FilePageRequest.builder().direction("up").build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessageContaining("Unsupported direction");
+        assertThatThrownBy(() -> fileService.getUserFilesPage(1L,
+                FilePageRequest.builder().sort("size").cursor(nameCursor).build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Cursor was issued for a different sort order");
+        assertThatThrownBy(() -> fileService.getUserFilesPage(1L, FilePageRequest.builder().cursor("%%%").build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private FileSummaryResponse summary(Long id, String displayName, LocalDateTime createdAt) {
+        return FileSummaryResponse.builder()
+                .id(id)
+                .displayName(displayName)
+                .size(10L)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should bump the share epoch and drop cached shares when signed URLs are revoked")
+    void revokeSignedShares_bumpsEpochAndInvalidatesCache() {
+        // Act
+        fileService.revokeSignedShares(1L);
+
+        // Assert
+        verify(fileRepository).incrementShareEpoch(1L);
+        verify(sharedLinkCache).invalidateFile(1L);
+    }
+}
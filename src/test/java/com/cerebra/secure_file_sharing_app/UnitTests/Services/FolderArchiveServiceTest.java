@@ -0,0 +1,141 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
+import com.cerebra.secure_file_sharing_app.Services.FolderArchiveServiceImpl;
+import com.cerebra.secure_file_sharing_app.Services.ZipStreamingService.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FolderArchiveService Tests")
+class FolderArchiveServiceTest {
+
+    @Mock private FolderRepository folderRepository;
+    @Mock private FileRepository fileRepository;
+
+    private FolderArchiveServiceImpl folderArchiveService;
+    private Folder rootFolder;
+
+    @BeforeEach
+    void setUp() {
+        folderArchiveService = new FolderArchiveServiceImpl(folderRepository, fileRepository);
+        rootFolder = Folder.builder().id(1L).name("Projects").path("/1/").depth(0).build();
+    }
+
+    @Test
+    @DisplayName("Should mirror the folder hierarchy in entry names")
+    void collectEntries_nestedFolders_buildsHierarchicalPaths() {
+        // Arrange
+        when(folderRepository.findSubtree("/1/")).thenReturn(List.of(
+                node(1L, null, "Projects"),
+                node(2L, 1L, "Docs"),
+                node(3L, 2L, "Drafts"),
+                node(4L, 1L, "Archive")));
+        when(fileRepository.findByFolderIdIn(anyCollection())).thenReturn(List.of(
+                file("top.txt", 1L),
+                file("child.txt", 2L),
+                file("draft.txt", 3L)));
+
+        // Act
+        List<Entry> entries = folderArchiveService.collectEntries(rootFolder);
+
+        // Assert - files before subfolders, siblings by name
+        assertThat(entries).extracting(Entry::name).containsExactly(
+                "top.txt",
+                "Archive/",
+                "Docs/",
+                "Docs/child.txt",
+                "Docs/Drafts/",
+                "Docs/Drafts/draft.txt");
+        assertThat(entries.get(1).isDirectory()).isTrue();
+        assertThat(entries.get(3).source().toString()).isEqualTo("/storage/child.txt");
+
+        verify(folderRepository).findSubtree("/1/");
+        verify(fileRepository).findByFolderIdIn(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should not let names escape their directory")
+    void collectEntries_namesWithSeparators_areSanitized() {
+        // Arrange
+        when(folderRepository.findSubtree("/1/")).thenReturn(List.of(node(1L, null, "Projects"), node(2L, 1L, "..")));
+        when(fileRepository.findByFolderIdIn(anyCollection())).thenReturn(List.of(file("../../etc/passwd", 2L)));
+
+        // Act
+        List<Entry> entries = folderArchiveService.collectEntries(rootFolder);
+
+        // Assert
+        assertThat(entries).extracting(Entry::name).containsExactly("_/", "_/.._.._etc_passwd");
+    }
+
+    @Test
+    @DisplayName("Should return no entries for an empty folder")
+    void collectEntries_emptyFolder_returnsEmptyList() {
+        // Arrange
+        when(folderRepository.findSubtree("/1/")).thenReturn(List.of(node(1L, null, "Projects")));
+        when(fileRepository.findByFolderIdIn(List.of(1L))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThat(folderArchiveService.collectEntries(rootFolder)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse a folder without a path instead of matching the wrong subtree")
+    void collectEntries_folderWithoutPath_throwsException() {
+        // Arrange
+        Folder stub = Folder.builder().id(1L).name("Projects").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderArchiveService.collectEntries(stub))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(folderRepository, fileRepository);
+    }
+
+    private FolderNodeView node(Long id, Long parentId, String name) {
+        return new FolderNodeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getParentFolderId() {
+                return parentId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getDepth() {
+                return null;
+            }
+        };
+    }
+
+    private File file(String displayName, Long folderId) {
+        return File.builder()
+                .displayName(displayName)
+                .physicalPath("/storage/" + displayName.replace("../", ""))
+                .mimeType("text/plain")
+                .folder(Folder.builder().id(folderId).build())
+                .build();
+    }
+}
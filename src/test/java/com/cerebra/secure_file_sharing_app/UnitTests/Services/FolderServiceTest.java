@@ -2,20 +2,38 @@ package com.cerebra.secure_file_sharing_app.UnitTests.Services;
 
 import com.cerebra.secure_file_sharing_app.Entities.AppUser;
 import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
 import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FileNotFoundException;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FolderAccessDeniedException;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.FolderNotFoundException;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.InvalidFolderNameException;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.InvalidPageRequestException;
+import com.cerebra.secure_file_sharing_app.Repositories.FileBlobRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
 import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderFileCountView;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.FolderNodeView;
+import com.cerebra.secure_file_sharing_app.Repositories.ReclaimTaskRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.SharedLinkRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobService;
 import com.cerebra.secure_file_sharing_app.Services.FolderServiceImpl;
-import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Services.SharedLinkCache;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeNode;
+import com.cerebra.secure_file_sharing_app.Shared.FolderTreeResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -32,7 +50,14 @@ import static org.mockito.Mockito.*;
 class FolderServiceTest {
 
     @Mock private FolderRepository folderRepository;
-    @Mock private StoragePathService storagePathService;
+    @Mock private FileRepository fileRepository;
+    @Mock private FileBlobRepository fileBlobRepository;
+    @Mock private SharedLinkRepository sharedLinkRepository;
+    @Mock private ReclaimTaskRepository reclaimTaskRepository;
+    @Mock private FileBlobService fileBlobService;
+    @Mock private OwnershipContext ownershipContext;
+    @Mock private SharedLinkCache sharedLinkCache;
+    @Mock private TransactionTemplate transactionTemplate;
 
     private FolderServiceImpl folderService;
 
@@ -43,7 +68,11 @@ class FolderServiceTest {
 
     @BeforeEach
     void setUp() {
-        folderService = new FolderServiceImpl(folderRepository, storagePathService);
+        folderService = new FolderServiceImpl(folderRepository, fileRepository, fileBlobRepository,
+                sharedLinkRepository, reclaimTaskRepository, fileBlobService, ownershipContext, sharedLinkCache,
+                transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         
         // Set up test entities
         testUser = AppUser.builder()
@@ -62,6 +91,8 @@ class FolderServiceTest {
                 .name("Parent Folder")
                 .storagePath(testStoragePath)
                 .parentFolder(null)
+                .path("/1/")
+                .depth(0)
                 .build();
         
         testChildFolder = Folder.builder()
@@ -69,6 +100,8 @@ class FolderServiceTest {
                 .name("Child Folder")
                 .storagePath(testStoragePath)
                 .parentFolder(testParentFolder)
+                .path("/1/2/")
+                .depth(1)
                 .build();
     }
 
@@ -87,9 +120,9 @@ class FolderServiceTest {
                 .parentFolder(testParentFolder)
                 .build();
 
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderRepository.findById(parentFolderId)).thenReturn(Optional.of(testParentFolder));
-        when(folderRepository.findByParentFolderId(parentFolderId)).thenReturn(Collections.emptyList());
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(parentFolderId, userId)).thenReturn(Optional.of(testParentFolder));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 1L, "new folder")).thenReturn(false);
         when(folderRepository.save(any(Folder.class))).thenReturn(savedFolder);
 
         // Act
@@ -101,9 +134,10 @@ class FolderServiceTest {
         assertThat(result.getStoragePath()).isEqualTo(testStoragePath);
         assertThat(result.getParentFolder()).isEqualTo(testParentFolder);
 
-        // Service calls findByAppUserId multiple times (for user storage path + parent folder validation)
-        verify(storagePathService, atLeast(1)).findByAppUserId(userId);
-        verify(folderRepository).findById(parentFolderId);
+        // Storage path resolved once, parent authorized by a single ownership query
+        verify(ownershipContext).findStoragePath(userId);
+        verify(ownershipContext).findOwnedFolder(parentFolderId, userId);
+        verify(folderRepository, never()).findById(anyLong());
         verify(folderRepository).save(any(Folder.class));
     }
 
@@ -121,9 +155,9 @@ class FolderServiceTest {
                 .parentFolder(null)
                 .build();
         
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderRepository.findByStoragePathIdAndParentFolderIsNull(testStoragePath.getId()))
-                .thenReturn(Collections.emptyList());
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 0L, "root folder"))
+                .thenReturn(false);
         when(folderRepository.save(any(Folder.class))).thenReturn(savedFolder);
         
         // Act
@@ -135,8 +169,8 @@ class FolderServiceTest {
         assertThat(result.getParentFolder()).isNull();
         assertThat(result.getStoragePath()).isEqualTo(testStoragePath);
         
-        verify(storagePathService).findByAppUserId(userId);
-        verify(folderRepository).findByStoragePathIdAndParentFolderIsNull(testStoragePath.getId());
+        verify(ownershipContext).findStoragePath(userId);
+        verify(folderRepository).existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 0L, "root folder");
         verify(folderRepository).save(any(Folder.class));
     }
 
@@ -147,14 +181,14 @@ class FolderServiceTest {
         String folderName = "Test Folder";
         Long userId = 1L;
         
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.empty());
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(folderName, null, userId))
                 .isInstanceOf(FolderAccessDeniedException.class)
                 .hasMessageContaining("User storage path not found");
         
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findStoragePath(userId);
         verify(folderRepository, never()).save(any(Folder.class));
     }
 
@@ -166,15 +200,15 @@ class FolderServiceTest {
         Long parentFolderId = 999L;
         Long userId = 1L;
         
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderRepository.findById(parentFolderId)).thenReturn(Optional.empty());
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(folderRepository.existsById(parentFolderId)).thenReturn(false);
         
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(folderName, parentFolderId, userId))
                 .isInstanceOf(FolderNotFoundException.class)
                 .hasMessageContaining("Folder not found");
         
-        verify(folderRepository).findById(parentFolderId);
+        verify(ownershipContext).findOwnedFolder(parentFolderId, userId);
         verify(folderRepository, never()).save(any(Folder.class));
     }
 
@@ -186,19 +220,10 @@ class FolderServiceTest {
         Long parentFolderId = 1L;
         Long userId = 1L;
         
-        // Different user's storage path
-        StoragePath otherStoragePath = StoragePath.builder()
-                .id(2L)
-                .basePath("/users/user2")
-                .build();
-        
-        Folder otherUserFolder = Folder.builder()
-                .id(1L)
-                .storagePath(otherStoragePath)
-                .build();
-        
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderRepository.findById(parentFolderId)).thenReturn(Optional.of(otherUserFolder));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        // The folder exists but belongs to another user's storage path
+        when(ownershipContext.findOwnedFolder(parentFolderId, userId)).thenReturn(Optional.empty());
+        when(folderRepository.existsById(parentFolderId)).thenReturn(true);
         
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(folderName, parentFolderId, userId))
@@ -216,14 +241,9 @@ class FolderServiceTest {
         Long parentFolderId = 1L;
         Long userId = 1L;
         
-        Folder existingFolder = Folder.builder()
-                .id(5L)
-                .name(folderName)
-                .build();
-        
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(folderRepository.findById(parentFolderId)).thenReturn(Optional.of(testParentFolder));
-        when(folderRepository.findByParentFolderId(parentFolderId)).thenReturn(Arrays.asList(existingFolder));
+        when(ownershipContext.findStoragePath(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(parentFolderId, userId)).thenReturn(Optional.of(testParentFolder));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 1L, "existing folder")).thenReturn(true);
         
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(folderName, parentFolderId, userId))
@@ -233,6 +253,35 @@ class FolderServiceTest {
         verify(folderRepository, never()).save(any(Folder.class));
     }
 
+    @Test
+    @DisplayName("Should report a concurrent create that won the name as a duplicate")
+    void createFolder_uniqueIndexViolation_throwsInvalidFolderNameException() {
+        // Arrange
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 0L, "reports")).thenReturn(false);
+        when(folderRepository.save(any(Folder.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry '1-0-reports' for key 'folders.UK_folders_sibling_name'")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.createFolder(" Reports ", null, 1L))
+                .isInstanceOf(InvalidFolderNameException.class)
+                .hasMessageContaining("already exists in this location");
+    }
+
+    @Test
+    @DisplayName("Should not mistake other integrity violations for a duplicate name")
+    void createFolder_otherIntegrityViolation_isRethrown() {
+        // Arrange
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 0L, "reports")).thenReturn(false);
+        when(folderRepository.save(any(Folder.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Cannot add or update a child row: a foreign key constraint fails")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.createFolder("Reports", null, 1L))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     @DisplayName("Should delete empty folder successfully")
     void deleteFolder_emptyFolder_deletesSuccessfully() {
@@ -240,8 +289,7 @@ class FolderServiceTest {
         Long folderId = 2L;
         Long userId = 1L;
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.of(testChildFolder));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testChildFolder));
         when(folderRepository.findByParentFolderId(folderId)).thenReturn(Collections.emptyList());
         when(folderRepository.findFilesByFolderId(folderId)).thenReturn(Collections.emptyList());
         
@@ -249,11 +297,11 @@ class FolderServiceTest {
         folderService.deleteFolder(folderId, userId);
         
         // Assert
-        verify(folderRepository).findById(folderId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
         verify(folderRepository).findByParentFolderId(folderId);
         verify(folderRepository).findFilesByFolderId(folderId);
         verify(folderRepository).deleteById(folderId);
+        verify(sharedLinkCache).invalidateFolder(folderId);
     }
 
     @Test
@@ -265,8 +313,7 @@ class FolderServiceTest {
         
         List<Folder> childFolders = Arrays.asList(testChildFolder);
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.of(testParentFolder));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testParentFolder));
         when(folderRepository.findByParentFolderId(folderId)).thenReturn(childFolders);
         
         // Act & Assert
@@ -289,8 +336,7 @@ class FolderServiceTest {
                 .displayName("test.txt")
                 .build();
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.of(testChildFolder));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testChildFolder));
         when(folderRepository.findByParentFolderId(folderId)).thenReturn(Collections.emptyList());
         when(folderRepository.findFilesByFolderId(folderId)).thenReturn(Arrays.asList(testFile));
         
@@ -309,7 +355,7 @@ class FolderServiceTest {
         Long folderId = 999L;
         Long userId = 1L;
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.empty());
+        when(folderRepository.existsById(folderId)).thenReturn(false);
         
         // Act & Assert
         assertThatThrownBy(() -> folderService.deleteFolder(folderId, userId))
@@ -319,6 +365,180 @@ class FolderServiceTest {
         verify(folderRepository, never()).deleteById(folderId);
     }
 
+    @Test
+    @DisplayName("Should delete a whole subtree with set-based statements and queue its content")
+    void deleteFolderRecursive_folderWithContent_deletesSubtreeAndQueuesContent() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testParentFolder));
+        when(reclaimTaskRepository.enqueueSubtree("/1/")).thenReturn(3);
+        when(folderRepository.deleteSubtree("/1/")).thenReturn(2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            int queued = folderService.deleteFolderRecursive(1L, 1L);
+
+            // Assert
+            assertThat(queued).isEqualTo(3);
+            var inOrder = inOrder(reclaimTaskRepository, sharedLinkRepository, fileRepository, folderRepository);
+            inOrder.verify(reclaimTaskRepository).enqueueSubtree("/1/");
+            inOrder.verify(sharedLinkRepository).deleteBySubtree("/1/");
+            inOrder.verify(fileRepository).deleteBySubtree("/1/");
+            inOrder.verify(folderRepository).detachSubtree("/1/");
+            inOrder.verify(folderRepository).deleteSubtree("/1/");
+            verify(folderRepository, never()).findByParentFolderId(anyLong());
+
+            // The share cache is only cleared once the deletes are committed
+            verify(sharedLinkCache, never()).invalidateAll();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(sharedLinkCache).invalidateAll();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not delete anything when the folder belongs to another user")
+    void deleteFolderRecursive_otherUsersFolder_throwsFolderAccessDeniedException() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(1L, 2L)).thenReturn(Optional.empty());
+        when(folderRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.deleteFolderRecursive(1L, 2L))
+                .isInstanceOf(FolderAccessDeniedException.class);
+
+        verifyNoInteractions(reclaimTaskRepository, sharedLinkRepository, fileRepository);
+        verify(folderRepository, never()).deleteSubtree(anyString());
+    }
+
+    @Test
+    @DisplayName("Should copy a subtree parent first and share the file content")
+    void copyFolder_folderWithContent_copiesTreeAndSharesBlobs() {
+        // Arrange
+        Folder target = Folder.builder().id(5L).name("Archive").storagePath(testStoragePath).path("/5/").depth(0).build();
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testParentFolder));
+        when(ownershipContext.findOwnedFolder(5L, 1L)).thenReturn(Optional.of(target));
+        when(folderRepository.findMaxSubtreeDepth("/1/")).thenReturn(1);
+        // Child listed first: copies must still be created parent first
+        when(folderRepository.findSubtree("/1/")).thenReturn(List.of(node(2L, 1L, "Child Folder", 1), node(1L, null, "Parent Folder", 0)));
+        long[] nextId = {100L};
+        when(folderRepository.save(any(Folder.class))).thenAnswer(inv -> {
+            Folder folder = inv.getArgument(0);
+            folder.setId(nextId[0]++);
+            folder.setPath((folder.getParentFolder() != null ? folder.getParentFolder().getPath() : "/") + folder.getId() + "/");
+            return folder;
+        });
+        when(fileRepository.countDistinctBlobsInSubtree("/5/100/")).thenReturn(3L);
+        when(fileBlobRepository.retainSubtree("/5/100/")).thenReturn(3);
+
+        // Act
+        Folder copy = folderService.copyFolder(1L, 5L, 1L);
+
+        // Assert
+        assertThat(copy.getId()).isEqualTo(100L);
+        assertThat(copy.getName()).isEqualTo("Parent Folder");
+        assertThat(copy.getParentFolder()).isSameAs(target);
+        verify(fileRepository).copyBlobFilesToFolder(1L, 100L);
+        verify(fileRepository).copyBlobFilesToFolder(2L, 101L);
+        verify(fileBlobRepository).retainSubtree("/5/100/");
+        verifyNoInteractions(fileBlobService);
+    }
+
+    @Test
+    @DisplayName("Should store files from before deduplication as new blobs in the copy")
+    void copyFolder_legacyFiles_storesContentOnce() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(folderRepository.findSubtree("/1/2/")).thenReturn(List.of(node(2L, 1L, "Child Folder", 1)));
+        when(folderRepository.save(any(Folder.class))).thenAnswer(inv -> {
+            Folder folder = inv.getArgument(0);
+            folder.setId(100L);
+            folder.setPath("/100/");
+            return folder;
+        });
+        File legacy = File.builder().id(7L).displayName("old.txt").physicalPath("users/user1/old.txt")
+                .folder(testChildFolder).storagePath(testStoragePath).build();
+        when(fileRepository.findLegacyInSubtree("/1/2/")).thenReturn(List.of(legacy));
+        when(fileBlobService.storeCopy("users/user1/old.txt"))
+                .thenReturn(FileBlob.builder().id(9L).physicalPath("blobs/ab/cd/abcd").size(3L).build());
+
+        // Act
+        folderService.copyFolder(2L, null, 1L);
+
+        // Assert
+        verify(fileRepository).save(argThat(file -> file.getFolder().getId().equals(100L)
+                && file.getBlob().getId().equals(9L)
+                && file.getPhysicalName().equals("copy-100-7")));
+        verify(fileBlobService, never()).release(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should copy legacy content before the transaction and release it when the copy fails")
+    void copyFolder_legacyFilesCopyFails_releasesStoredContent() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(folderRepository.findSubtree("/1/2/")).thenReturn(List.of(node(2L, 1L, "Child Folder", 1)));
+        when(folderRepository.save(any(Folder.class))).thenAnswer(inv -> {
+            Folder folder = inv.getArgument(0);
+            folder.setId(100L);
+            folder.setPath("/100/");
+            return folder;
+        });
+        File legacy = File.builder().id(7L).displayName("old.txt").physicalPath("users/user1/old.txt")
+                .folder(testChildFolder).storagePath(testStoragePath).build();
+        when(fileRepository.findLegacyInSubtree("/1/2/")).thenReturn(List.of(legacy));
+        when(fileBlobService.storeCopy("users/user1/old.txt"))
+                .thenReturn(FileBlob.builder().id(9L).physicalPath("blobs/ab/cd/abcd").size(3L).build());
+        when(fileRepository.countDistinctBlobsInSubtree("/100/")).thenReturn(1L);
+        when(fileBlobRepository.retainSubtree("/100/")).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.copyFolder(2L, null, 1L))
+                .isInstanceOf(FileNotFoundException.class);
+        var inOrder = inOrder(fileBlobService, transactionTemplate);
+        inOrder.verify(fileBlobService).storeCopy("users/user1/old.txt");
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(fileBlobService).release(9L);
+        verify(fileRepository, never()).save(any(File.class));
+    }
+
+    @Test
+    @DisplayName("Should fail the copy when shared content vanished while copying")
+    void copyFolder_blobReclaimedMeanwhile_throwsFileNotFoundException() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(folderRepository.findSubtree("/1/2/")).thenReturn(List.of(node(2L, 1L, "Child Folder", 1)));
+        when(folderRepository.save(any(Folder.class))).thenAnswer(inv -> {
+            Folder folder = inv.getArgument(0);
+            folder.setId(100L);
+            folder.setPath("/100/");
+            return folder;
+        });
+        when(fileRepository.countDistinctBlobsInSubtree("/100/")).thenReturn(2L);
+        when(fileBlobRepository.retainSubtree("/100/")).thenReturn(1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.copyFolder(2L, null, 1L))
+                .isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject copying a folder into its own subtree")
+    void copyFolder_targetInsideSource_throwsFolderAccessDeniedException() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testParentFolder));
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.copyFolder(1L, 2L, 1L))
+                .isInstanceOf(FolderAccessDeniedException.class)
+                .hasMessageContaining("into itself");
+        verify(folderRepository, never()).save(any());
+        verify(fileRepository, never()).copyBlobFilesToFolder(anyLong(), anyLong());
+        verifyNoInteractions(fileBlobService);
+    }
+
     @Test
     @DisplayName("Should return true for valid folder access")
     void hasAccess_validAccess_returnsTrue() {
@@ -326,8 +546,7 @@ class FolderServiceTest {
         Long folderId = 1L;
         Long userId = 1L;
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.of(testParentFolder));
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testParentFolder));
         
         // Act
         boolean result = folderService.hasAccess(folderId, userId);
@@ -335,8 +554,7 @@ class FolderServiceTest {
         // Assert
         assertThat(result).isTrue();
         
-        verify(folderRepository).findById(folderId);
-        verify(storagePathService).findByAppUserId(userId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
     }
 
     @Test
@@ -346,7 +564,7 @@ class FolderServiceTest {
         Long folderId = 1L;
         Long userId = 1L;
         
-        when(folderRepository.findById(folderId)).thenReturn(Optional.empty());
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.empty());
         
         // Act
         boolean result = folderService.hasAccess(folderId, userId);
@@ -354,7 +572,7 @@ class FolderServiceTest {
         // Assert
         assertThat(result).isFalse();
         
-        verify(folderRepository).findById(folderId);
+        verify(folderRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -416,7 +634,7 @@ class FolderServiceTest {
         String emptyName = "";
         Long userId = 1L;
 
-        // Don't stub storagePathService - validation happens before that call
+        // Don't stub ownershipContext - validation happens before that call
 
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(emptyName, null, userId))
@@ -424,7 +642,7 @@ class FolderServiceTest {
                 .hasMessageContaining("Folder name cannot be empty");
 
         verify(folderRepository, never()).save(any(Folder.class));
-        // No verification for storagePathService since validation fails before that call
+        // No verification for ownershipContext since validation fails before that call
     }
 
     @Test
@@ -434,7 +652,7 @@ class FolderServiceTest {
         String invalidName = "Invalid/Name";
         Long userId = 1L;
 
-        // Don't stub storagePathService - validation happens before that call
+        // Don't stub ownershipContext - validation happens before that call
 
         // Act & Assert
         assertThatThrownBy(() -> folderService.createFolder(invalidName, null, userId))
@@ -442,7 +660,7 @@ class FolderServiceTest {
                 .hasMessageContaining("invalid character");
 
         verify(folderRepository, never()).save(any(Folder.class));
-        // No verification for storagePathService since validation fails before that call
+        // No verification for ownershipContext since validation fails before that call
     }
 
     @Test
@@ -534,4 +752,239 @@ class FolderServiceTest {
         
         verify(folderRepository).findById(folderId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should refuse to nest a folder beyond the path length limit")
+    void createFolder_parentTooDeep_throwsInvalidFolderNameException() {
+        // Arrange
+        Folder deepParent = Folder.builder().id(9L).name("Deep").storagePath(testStoragePath)
+                .path("/1".repeat(370) + "/").depth(369).build();
+        when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        when(ownershipContext.findOwnedFolder(9L, 1L)).thenReturn(Optional.of(deepParent));
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.createFolder("Deeper", 9L, 1L))
+                .isInstanceOf(InvalidFolderNameException.class)
+                .hasMessage("Folders are nested too deeply");
+
+        verify(folderRepository, never()).save(any(Folder.class));
+    }
+
+    @Test
+    @DisplayName("Should return breadcrumbs read by the ids in the folder path")
+    void findAncestors_nestedFolder_queriesPathIds() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(folderRepository.findByIdInOrderByDepthAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(testParentFolder, testChildFolder));
+
+        // Act
+        List<Folder> result = folderService.findAncestors(2L, 1L);
+
+        // Assert
+        assertThat(result).containsExactly(testParentFolder, testChildFolder);
+    }
+
+    @Test
+    @DisplayName("Should move a folder and rebase its subtree paths in one update")
+    void moveFolder_toOtherParent_rebasesSubtree() {
+        // Arrange
+        Folder target = Folder.builder().id(5L).name("Archive").storagePath(testStoragePath)
+                .path("/5/").depth(0).build();
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(ownershipContext.findOwnedFolder(5L, 1L)).thenReturn(Optional.of(target));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 5L, "child folder")).thenReturn(false);
+        when(folderRepository.findMaxSubtreeDepth("/1/2/")).thenReturn(3);
+        when(folderRepository.saveAndFlush(any(Folder.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        Folder moved = folderService.moveFolder(2L, 5L, 1L);
+
+        // Assert
+        assertThat(moved.getParentFolder()).isEqualTo(target);
+        assertThat(moved.getPath()).isEqualTo("/5/2/");
+        assertThat(moved.getDepth()).isEqualTo(1);
+        verify(folderRepository).rebaseSubtree("/1/2/", "/5/2/", 0);
+    }
+
+    @Test
+    @DisplayName("Should move a folder to the root level when no target is given")
+    void moveFolder_toRoot_shortensPaths() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 0L, "child folder")).thenReturn(false);
+        when(folderRepository.findMaxSubtreeDepth("/1/2/")).thenReturn(1);
+        when(folderRepository.saveAndFlush(any(Folder.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        Folder moved = folderService.moveFolder(2L, null, 1L);
+
+        // Assert
+        assertThat(moved.getParentFolder()).isNull();
+        assertThat(moved.getPath()).isEqualTo("/2/");
+        assertThat(moved.getDepth()).isZero();
+        verify(folderRepository).rebaseSubtree("/1/2/", "/2/", -1);
+    }
+
+    @Test
+    @DisplayName("Should refuse to move a folder into its own subtree")
+    void moveFolder_intoOwnSubtree_throwsFolderAccessDeniedException() {
+        // Arrange
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testParentFolder));
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.moveFolder(1L, 2L, 1L))
+                .isInstanceOf(FolderAccessDeniedException.class)
+                .hasMessageContaining("into itself or one of its subfolders");
+
+        verify(folderRepository, never()).rebaseSubtree(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should refuse a move that would clash with a sibling's name")
+    void moveFolder_duplicateNameAtTarget_throwsInvalidFolderNameException() {
+        // Arrange
+        Folder target = Folder.builder().id(5L).name("Archive").storagePath(testStoragePath)
+                .path("/5/").depth(0).build();
+        when(ownershipContext.findOwnedFolder(2L, 1L)).thenReturn(Optional.of(testChildFolder));
+        when(ownershipContext.findOwnedFolder(5L, 1L)).thenReturn(Optional.of(target));
+        when(folderRepository.existsByStoragePathIdAndParentScopeAndNormalizedName(1L, 5L, "child folder")).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.moveFolder(2L, 5L, 1L))
+                .isInstanceOf(InvalidFolderNameException.class);
+
+        verify(folderRepository, never()).rebaseSubtree(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should assemble the whole tree with file counts and children by name")
+    void getFolderTree_noDepth_buildsNestedTree() {
+        // Arrange
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(1L));
+        when(folderRepository.findTreeToDepth(1L, Integer.MAX_VALUE)).thenReturn(List.of(
+                node(1L, null, "Projects", 0),
+                node(4L, null, "Archive", 0),
+                node(2L, 1L, "zeta", 1),
+                node(3L, 1L, "Alpha", 1),
+                node(5L, 3L, "Drafts", 2)));
+        when(folderRepository.countFilesInTree(1L, Integer.MAX_VALUE - 1))
+                .thenReturn(List.of(count(1L, 2L), count(5L, 7L)));
+
+        // Act
+        FolderTreeResponse tree = folderService.getFolderTree(1L, null, null);
+
+        // Assert
+        assertThat(tree.getFolderCount()).isEqualTo(5);
+        assertThat(tree.getFolders()).extracting(FolderTreeNode::getName).containsExactly("Archive", "Projects");
+        FolderTreeNode projects = tree.getFolders().get(1);
+        assertThat(projects.getFileCount()).isEqualTo(2L);
+        assertThat(projects.getChildren()).extracting(FolderTreeNode::getName).containsExactly("Alpha", "zeta");
+        FolderTreeNode drafts = projects.getChildren().get(0).getChildren().get(0);
+        assertThat(drafts.getName()).isEqualTo("Drafts");
+        assertThat(drafts.getFileCount()).isEqualTo(7L);
+        assertThat(drafts.getExpandCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stop at the depth limit and give cut-off folders an expand cursor")
+    void getFolderTree_depthLimit_marksExpandableFolders() {
+        // Arrange
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(1L));
+        when(folderRepository.findTreeToDepth(1L, 1)).thenReturn(List.of(
+                node(1L, null, "Projects", 0),
+                node(4L, null, "Archive", 0),
+                node(2L, 1L, "Docs", 1)));
+        when(folderRepository.countFilesInTree(1L, 0)).thenReturn(List.of());
+
+        // Act
+        FolderTreeResponse tree = folderService.getFolderTree(1L, 1, null);
+
+        // Assert
+        assertThat(tree.getFolderCount()).isEqualTo(2);
+        FolderTreeNode archive = tree.getFolders().get(0);
+        FolderTreeNode projects = tree.getFolders().get(1);
+        assertThat(projects.getChildren()).isEmpty();
+        assertThat(projects.getExpandCursor()).isNotNull();
+        assertThat(archive.getExpandCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should load the levels below a folder from its expand cursor")
+    void getFolderTree_expandCursor_loadsSubtreeBelowFolder() {
+        // Arrange
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(1L));
+        when(folderRepository.findTreeToDepth(1L, 1)).thenReturn(List.of(
+                node(1L, null, "Parent Folder", 0),
+                node(2L, 1L, "Child Folder", 1)));
+        String cursor = folderService.getFolderTree(1L, 1, null).getFolders().get(0).getExpandCursor();
+
+        when(ownershipContext.findOwnedFolder(1L, 1L)).thenReturn(Optional.of(testParentFolder));
+        when(folderRepository.findSubtreeToDepth("/1/", 2)).thenReturn(List.of(
+                node(1L, null, "Parent Folder", 0),
+                node(2L, 1L, "Child Folder", 1)));
+        when(folderRepository.countFilesInSubtree("/1/", 1)).thenReturn(List.of(count(2L, 3L)));
+
+        // Act
+        FolderTreeResponse expanded = folderService.getFolderTree(1L, 1, cursor);
+
+        // Assert
+        assertThat(expanded.getFolders()).singleElement().satisfies(child -> {
+            assertThat(child.getId()).isEqualTo(2L);
+            assertThat(child.getFileCount()).isEqualTo(3L);
+            assertThat(child.getExpandCursor()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should reject a tree request with an invalid depth or cursor")
+    void getFolderTree_invalidArguments_throwsInvalidPageRequestException() {
+        // Act & Assert
+        assertThatThrownBy(() -> folderService.getFolderTree(1L, 0, null))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> folderService.getFolderTree(1L, null, "not-a-cursor"))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Invalid cursor");
+
+        verifyNoInteractions(folderRepository);
+    }
+
+    private FolderNodeView node(Long id, Long parentId, String name, int depth) {
+        return new FolderNodeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getParentFolderId() {
+                return parentId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getDepth() {
+                return depth;
+            }
+        };
+    }
+
+    private FolderFileCountView count(Long folderId, Long fileCount) {
+        return new FolderFileCountView() {
+            @Override
+            public Long getFolderId() {
+                return folderId;
+            }
+
+            @Override
+            public Long getFileCount() {
+                return fileCount;
+            }
+        };
+    }
+}
@@ -35,7 +35,6 @@ class HttpSMSServiceTest {
         
         // Set up configuration values
         ReflectionTestUtils.setField(smsService, "smsServiceUrl", "http://localhost:8081");
-        ReflectionTestUtils.setField(smsService, "maxRetryAttempts", 3);
     }
 
     @Test
@@ -61,8 +60,8 @@ class HttpSMSServiceTest {
     }
 
     @Test
-    @DisplayName("Should retry and fall back to console when service is unavailable")
-    void sendSMS_serviceUnavailable_retriesAndFallsBack() {
+    @DisplayName("Should report failure without retrying when service is unavailable")
+    void sendSMS_serviceUnavailable_returnsFailureAfterOneAttempt() {
         // Arrange
         String phoneNumber = "+1234567890";
         String message = "Test message";
@@ -74,39 +73,16 @@ class HttpSMSServiceTest {
         SMSResponse result = smsService.sendSMS(phoneNumber, message);
         
         // Assert
-        assertThat(result.isSuccess()).isTrue(); // Fallback returns success
-        assertThat(result.getMessage()).contains("SMS service unavailable");
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("Service unavailable");
         
-        // Verify RestTemplate was called 3 times (max retries)
-        verify(restTemplate, times(3)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
-    }
-
-    @Test
-    @DisplayName("Should succeed on second retry attempt")
-    void sendSMS_firstRetrySucceeds_returnsSuccessWithoutFallback() {
-        // Arrange
-        String phoneNumber = "+1234567890";
-        String message = "Test message";
-        SMSResponse successResponse = SMSResponse.success("SMS sent successfully");
-        
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class)))
-                .thenThrow(new RestClientException("Temporary failure"))
-                .thenReturn(new ResponseEntity<>(successResponse, HttpStatus.OK));
-        
-        // Act
-        SMSResponse result = smsService.sendSMS(phoneNumber, message);
-        
-        // Assert
-        assertThat(result.isSuccess()).isTrue();
-        assertThat(result.getMessage()).isEqualTo("SMS sent successfully");
-        
-        // Verify RestTemplate was called exactly 2 times (failed once, succeeded on retry)
-        verify(restTemplate, times(2)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
+        // Retries are scheduled by the outbox, never made on the caller's thread
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
     }
 
     @Test
     @DisplayName("Should handle SMS service returning error response")
-    void sendSMS_serviceReturnsError_retriesAndFallsBack() {
+    void sendSMS_serviceReturnsError_returnsFailure() {
         // Arrange
         String phoneNumber = "+1234567890";
         String message = "Test message";
@@ -119,11 +95,10 @@ class HttpSMSServiceTest {
         SMSResponse result = smsService.sendSMS(phoneNumber, message);
         
         // Assert
-        assertThat(result.isSuccess()).isTrue(); // Fallback returns success
-        assertThat(result.getMessage()).contains("SMS service unavailable");
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).isEqualTo("SMS sending failed");
         
-        // Verify all retry attempts were made
-        verify(restTemplate, times(3)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
     }
 
     @Test
@@ -167,10 +142,10 @@ class HttpSMSServiceTest {
         SMSResponse result = smsService.sendSMS(phoneNumber, message);
         
         // Assert
-        assertThat(result.isSuccess()).isTrue(); // Should still return success (fallback)
+        assertThat(result.isSuccess()).isFalse();
         
         // SMS service should still be called (let service handle validation)
-        verify(restTemplate, atLeast(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
     }
 
     @Test
@@ -206,57 +181,14 @@ class HttpSMSServiceTest {
         SMSResponse result = smsService.sendSMS(phoneNumber, message);
         
         // Assert
-        assertThat(result.isSuccess()).isTrue(); // Should fall back to console logging
-        verify(restTemplate, times(3)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
-    }
-
-    @Test
-    @DisplayName("Should implement exponential backoff between retries")
-    void sendSMS_multipleFailures_implementsExponentialBackoff() {
-        // Arrange
-        String phoneNumber = "+1234567890";
-        String message = "Test message";
-
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class)))
-                .thenThrow(new RestClientException("Service unavailable"));
-
-        // Act
-        long startTime = System.currentTimeMillis();
-        smsService.sendSMS(phoneNumber, message);
-        long endTime = System.currentTimeMillis();
-
-        // Assert
-        long totalTime = endTime - startTime;
-        // With exponential backoff: 1s + 2s = 3s minimum (plus processing time)
-        // Check for at least 2.5 seconds to account for test execution time
-        assertThat(totalTime).isGreaterThan(2500);
-        assertThat(totalTime).isLessThan(5000); // Upper bound to ensure it's not too slow
-
-        verify(restTemplate, times(3)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
-    }
-
-    @Test
-    @DisplayName("Should respect configured retry attempts")
-    void sendSMS_customRetryAttempts_respectsConfiguration() {
-        // Arrange
-        ReflectionTestUtils.setField(smsService, "maxRetryAttempts", 2); // Change to 2 retries
-        
-        String phoneNumber = "+1234567890";
-        String message = "Test message";
-        
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class)))
-                .thenThrow(new RestClientException("Service unavailable"));
-        
-        // Act
-        smsService.sendSMS(phoneNumber, message);
-        
-        // Assert
-        verify(restTemplate, times(2)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("Empty response");
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
     }
 
     @Test
     @DisplayName("Should handle HTTP timeout exceptions")
-    void sendSMS_timeoutException_retriesAndFallsBack() {
+    void sendSMS_timeoutException_returnsFailure() {
         // Arrange
         String phoneNumber = "+1234567890";
         String message = "Test message";
@@ -268,34 +200,8 @@ class HttpSMSServiceTest {
         SMSResponse result = smsService.sendSMS(phoneNumber, message);
         
         // Assert
-        assertThat(result.isSuccess()).isTrue();
-        assertThat(result.getMessage()).contains("SMS service unavailable");
-        verify(restTemplate, times(3)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
-    }
-
-    @Test
-    @DisplayName("Should not retry when Thread is interrupted")
-    void sendSMS_threadInterrupted_stopsRetrying() {
-        // Arrange
-        String phoneNumber = "+1234567890";
-        String message = "Test message";
-        
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class)))
-                .thenThrow(new RestClientException("Service unavailable"));
-        
-        // Interrupt current thread to simulate interruption during sleep
-        Thread.currentThread().interrupt();
-        
-        // Act
-        SMSResponse result = smsService.sendSMS(phoneNumber, message);
-        
-        // Assert
-        assertThat(result.isSuccess()).isTrue(); // Should still return success via fallback
-        
-        // Should have attempted at least once, but may not complete all retries due to interruption
-        verify(restTemplate, atLeast(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
-        
-        // Clear interrupted status
-        Thread.interrupted();
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("Read timeout");
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class), eq(SMSResponse.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Repositories.FolderRepository;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContextImpl;
+import com.cerebra.secure_file_sharing_app.Services.StoragePathService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OwnershipContext Tests")
+class OwnershipContextTest {
+
+    @Mock private StoragePathService storagePathService;
+    @Mock private FileRepository fileRepository;
+    @Mock private FolderRepository folderRepository;
+
+    private OwnershipContextImpl ownershipContext;
+    private StoragePath testStoragePath;
+
+    @BeforeEach
+    void setUp() {
+        ownershipContext = new OwnershipContextImpl(storagePathService, fileRepository, folderRepository);
+        testStoragePath = StoragePath.builder().id(10L).basePath("user1").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should resolve the storage path once per request")
+    void findStoragePath_sameRequest_queriesOnce() {
+        // Arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.of(testStoragePath));
+
+        // Act
+        Optional<StoragePath> first = ownershipContext.findStoragePath(1L);
+        Optional<Long> second = ownershipContext.findStoragePathId(1L);
+
+        // Assert
+        assertThat(first).contains(testStoragePath);
+        assertThat(second).contains(10L);
+        verify(storagePathService, times(1)).findByAppUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should resolve again for a new request or outside any request")
+    void findStoragePath_noSharedRequest_queriesEachTime() {
+        // Arrange
+        when(storagePathService.findByAppUserId(1L)).thenReturn(Optional.of(testStoragePath));
+
+        // Act
+        ownershipContext.findStoragePath(1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        ownershipContext.findStoragePath(1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        ownershipContext.findStoragePath(1L);
+
+        // Assert
+        verify(storagePathService, times(3)).findByAppUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should authorize a file with the single ownership query")
+    void findOwnedFile_ownedFile_usesOwnershipQuery() {
+        // Arrange
+        File file = File.builder().id(5L).storagePath(testStoragePath).build();
+        when(fileRepository.findOwnedFile(5L, 1L)).thenReturn(Optional.of(file));
+
+        // Act
+        Optional<File> result = ownershipContext.findOwnedFile(5L, 1L);
+
+        // Assert
+        assertThat(result).contains(file);
+        verify(fileRepository, never()).findById(any());
+        verifyNoInteractions(storagePathService);
+    }
+
+    @Test
+    @DisplayName("Should deny access without querying when an id is missing")
+    void findOwnedFolder_nullIds_returnsEmpty() {
+        // Act & Assert
+        assertThat(ownershipContext.findOwnedFolder(null, 1L)).isEmpty();
+        assertThat(ownershipContext.findOwnedFile(5L, null)).isEmpty();
+        verifyNoInteractions(fileRepository, folderRepository);
+    }
+}
@@ -0,0 +1,142 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.ReclaimTask;
+import com.cerebra.secure_file_sharing_app.Repositories.ReclaimTaskRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobService;
+import com.cerebra.secure_file_sharing_app.Services.ReclaimQueueServiceImpl;
+import com.cerebra.secure_file_sharing_app.Storage.BlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReclaimQueueService Tests")
+class ReclaimQueueServiceTest {
+
+    @Mock private ReclaimTaskRepository reclaimTaskRepository;
+    @Mock private FileBlobService fileBlobService;
+    @Mock private BlobStore blobStore;
+
+    private ReclaimQueueServiceImpl reclaimQueueService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reclaimQueueService = new ReclaimQueueServiceImpl(reclaimTaskRepository, fileBlobService, blobStore, meterRegistry);
+        ReflectionTestUtils.setField(reclaimQueueService, "batchSize", 2);
+        ReflectionTestUtils.setField(reclaimQueueService, "maxBatches", 3);
+    }
+
+    @Test
+    @DisplayName("Should drop the blob reference of a claimed task")
+    void reclaimQueued_blobTask_releasesReference() throws IOException {
+        // Arrange
+        when(reclaimTaskRepository.findBatch(any(Limit.class)))
+                .thenReturn(List.of(task(1L, 7L, null)));
+        when(reclaimTaskRepository.claim(1L)).thenReturn(1);
+
+        // Act
+        int reclaimed = reclaimQueueService.reclaimQueued();
+
+        // Assert
+        assertThat(reclaimed).isEqualTo(1);
+        verify(fileBlobService).release(7L);
+        verifyNoInteractions(blobStore);
+        assertThat(meterRegistry.counter("app.storage.reclaim.reclaimed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should delete content of files stored before deduplication")
+    void reclaimQueued_legacyTask_deletesContent() throws IOException {
+        // Arrange
+        when(reclaimTaskRepository.findBatch(any(Limit.class)))
+                .thenReturn(List.of(task(1L, null, "users/user1/old.txt")));
+        when(reclaimTaskRepository.claim(1L)).thenReturn(1);
+
+        // Act
+        int reclaimed = reclaimQueueService.reclaimQueued();
+
+        // Assert
+        assertThat(reclaimed).isEqualTo(1);
+        verify(blobStore).delete("users/user1/old.txt");
+        verifyNoInteractions(fileBlobService);
+    }
+
+    @Test
+    @DisplayName("Should leave tasks claimed by another reclaimer alone")
+    void reclaimQueued_taskClaimedElsewhere_skipsIt() {
+        // Arrange
+        when(reclaimTaskRepository.findBatch(any(Limit.class)))
+                .thenReturn(List.of(task(1L, 7L, null), task(2L, 8L, null)))
+                .thenReturn(List.of());
+        when(reclaimTaskRepository.claim(1L)).thenReturn(0);
+        when(reclaimTaskRepository.claim(2L)).thenReturn(1);
+
+        // Act
+        int reclaimed = reclaimQueueService.reclaimQueued();
+
+        // Assert
+        assertThat(reclaimed).isEqualTo(1);
+        verify(fileBlobService, never()).release(7L);
+        verify(fileBlobService).release(8L);
+    }
+
+    @Test
+    @DisplayName("Should carry on with the batch when one task fails")
+    void reclaimQueued_releaseFails_continuesWithNextTask() throws IOException {
+        // Arrange
+        when(reclaimTaskRepository.findBatch(any(Limit.class)))
+                .thenReturn(List.of(task(1L, null, "missing"), task(2L, 8L, null)))
+                .thenReturn(List.of());
+        when(reclaimTaskRepository.claim(anyLong())).thenReturn(1);
+        doThrow(new IOException("disk gone")).when(blobStore).delete("missing");
+
+        // Act
+        int reclaimed = reclaimQueueService.reclaimQueued();
+
+        // Assert
+        assertThat(reclaimed).isEqualTo(2);
+        verify(fileBlobService).release(8L);
+    }
+
+    @Test
+    @DisplayName("Should stop at the batch cap and leave the rest for the next run")
+    void reclaimQueued_backlogLargerThanCap_stopsAtCap() {
+        // Arrange
+        ReflectionTestUtils.setField(reclaimQueueService, "maxBatches", 1);
+        when(reclaimTaskRepository.findBatch(any(Limit.class)))
+                .thenReturn(List.of(task(1L, 7L, null), task(2L, 8L, null)));
+        when(reclaimTaskRepository.claim(anyLong())).thenReturn(1);
+
+        // Act
+        int reclaimed = reclaimQueueService.reclaimQueued();
+
+        // Assert
+        assertThat(reclaimed).isEqualTo(2);
+        verify(reclaimTaskRepository, times(1)).findBatch(any(Limit.class));
+    }
+
+    private ReclaimTask task(Long id, Long blobId, String physicalPath) {
+        return ReclaimTask.builder()
+                .id(id)
+                .blobId(blobId)
+                .physicalPath(physicalPath)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.SMSOutboxMessage;
+import com.cerebra.secure_file_sharing_app.Repositories.SMSOutboxRepository;
+import com.cerebra.secure_file_sharing_app.Services.HttpSMSService;
+import com.cerebra.secure_file_sharing_app.Services.SMSOutboxServiceImpl;
+import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SMSOutboxService Tests")
+class SMSOutboxServiceTest {
+
+    @Mock private SMSOutboxRepository outboxRepository;
+    @Mock private HttpSMSService smsService;
+
+    private SMSOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new SMSOutboxServiceImpl(outboxRepository, smsService);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoffMillis", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMillis", 300000L);
+        ReflectionTestUtils.setField(outboxService, "leaseMillis", 60000L);
+        ReflectionTestUtils.setField(outboxService, "failureThreshold", 2);
+        ReflectionTestUtils.setField(outboxService, "openMillis", 60000L);
+
+        lenient().when(outboxRepository.claim(anyLong(), eq(SMSOutboxMessage.Status.PENDING), any(), any()))
+                .thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("Should store the message as pending without calling the SMS service")
+    void enqueue_storesPendingMessage() {
+        // Arrange
+        when(outboxRepository.save(any(SMSOutboxMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        outboxService.enqueue("+1234567890", "Your code is 123456");
+
+        // Assert
+        ArgumentCaptor<SMSOutboxMessage> captor = ArgumentCaptor.forClass(SMSOutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(SMSOutboxMessage.Status.PENDING);
+        assertThat(captor.getValue().getAttempts()).isZero();
+        assertThat(captor.getValue().getNextAttemptAt()).isBeforeOrEqualTo(LocalDateTime.now());
+        verifyNoInteractions(smsService);
+    }
+
+    @Test
+    @DisplayName("Should send due messages and mark them sent")
+    void dispatchDue_successfulSend_marksSentAndClearsBody() {
+        // Arrange
+        SMSOutboxMessage message = pending(1L, 0);
+        when(outboxRepository.findDue(eq(SMSOutboxMessage.Status.PENDING), any(), eq(Limit.of(50))))
+                .thenReturn(List.of(message));
+        when(smsService.sendSMS("+1234567890", "hello")).thenReturn(SMSResponse.success("sent"));
+
+        // Act
+        int sent = outboxService.dispatchDue();
+
+        // Assert
+        assertThat(sent).isEqualTo(1);
+        assertThat(message.getStatus()).isEqualTo(SMSOutboxMessage.Status.SENT);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getMessage()).isNull();
+        verify(outboxRepository).save(message);
+    }
+
+    @Test
+    @DisplayName("Should reschedule a failed send with exponential backoff")
+    void dispatchDue_failedSend_reschedulesWithBackoff() {
+        // Arrange
+        SMSOutboxMessage message = pending(1L, 1);
+        when(outboxRepository.findDue(any(), any(), any())).thenReturn(List.of(message));
+        when(smsService.sendSMS(anyString(), anyString())).thenThrow(new RestClientException("timeout"));
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        int sent = outboxService.dispatchDue();
+
+        // Assert - second attempt failed, so the next one waits 2s
+        assertThat(sent).isZero();
+        assertThat(message.getStatus()).isEqualTo(SMSOutboxMessage.Status.PENDING);
+        assertThat(message.getAttempts()).isEqualTo(2);
+        assertThat(message.getLastError()).isEqualTo("timeout");
+        assertThat(message.getNextAttemptAt()).isBetween(before.plusSeconds(2), LocalDateTime.now().plusSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should give up once the attempt limit is reached")
+    void dispatchDue_lastAttemptFails_marksFailed() {
+        // Arrange
+        SMSOutboxMessage message = pending(1L, 2);
+        when(outboxRepository.findDue(any(), any(), any())).thenReturn(List.of(message));
+        when(smsService.sendSMS(anyString(), anyString())).thenReturn(SMSResponse.failure("rejected"));
+
+        // Act
+        outboxService.dispatchDue();
+
+        // Assert
+        assertThat(message.getStatus()).isEqualTo(SMSOutboxMessage.Status.FAILED);
+        assertThat(message.getAttempts()).isEqualTo(3);
+        verify(outboxRepository).save(message);
+    }
+
+    @Test
+    @DisplayName("Should skip messages claimed by another dispatcher")
+    void dispatchDue_alreadyClaimed_skipsMessage() {
+        // Arrange
+        when(outboxRepository.findDue(any(), any(), any())).thenReturn(List.of(pending(1L, 0)));
+        when(outboxRepository.claim(eq(1L), any(), any(), any())).thenReturn(0);
+
+        // Act
+        int sent = outboxService.dispatchDue();
+
+        // Assert
+        assertThat(sent).isZero();
+        verifyNoInteractions(smsService);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after consecutive failures and stop calling the service")
+    void dispatchDue_consecutiveFailures_opensCircuit() {
+        // Arrange
+        when(outboxRepository.findDue(any(), any(), any()))
+                .thenReturn(List.of(pending(1L, 0), pending(2L, 0), pending(3L, 0)));
+        when(smsService.sendSMS(anyString(), anyString())).thenReturn(SMSResponse.failure("down"));
+
+        // Act
+        outboxService.dispatchDue();
+        int secondPass = outboxService.dispatchDue();
+
+        // Assert - the batch stops at the threshold and the next poll does not even query
+        assertThat(secondPass).isZero();
+        verify(smsService, times(2)).sendSMS(anyString(), anyString());
+        verify(outboxRepository, times(1)).findDue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should send a single trial message once the circuit half-opens and close on success")
+    void dispatchDue_halfOpenTrialSucceeds_closesCircuit() {
+        // Arrange
+        ReflectionTestUtils.setField(outboxService, "openMillis", 0L);
+        when(outboxRepository.findDue(any(), any(), any()))
+                .thenReturn(List.of(pending(1L, 0), pending(2L, 0)))
+                .thenReturn(List.of(pending(3L, 0)))
+                .thenReturn(List.of(pending(4L, 0), pending(5L, 0)));
+        when(smsService.sendSMS(anyString(), anyString()))
+                .thenReturn(SMSResponse.failure("down"), SMSResponse.failure("down"))
+                .thenReturn(SMSResponse.success("sent"));
+
+        // Act
+        outboxService.dispatchDue();
+        int trial = outboxService.dispatchDue();
+        int closed = outboxService.dispatchDue();
+
+        // Assert
+        assertThat(trial).isEqualTo(1);
+        assertThat(closed).isEqualTo(2);
+        verify(outboxRepository).findDue(any(), any(), eq(Limit.of(1)));
+        verify(outboxRepository, times(2)).findDue(any(), any(), eq(Limit.of(50)));
+    }
+
+    @Test
+    @DisplayName("Should purge sent and failed messages past the retention period")
+    void purgeFinished_deletesOldFinishedMessages() {
+        // Arrange
+        ReflectionTestUtils.setField(outboxService, "retentionHours", 24L);
+        when(outboxRepository.deleteFinishedBefore(anyCollection(), any())).thenReturn(4);
+
+        // Act
+        int removed = outboxService.purgeFinished();
+
+        // Assert
+        assertThat(removed).isEqualTo(4);
+        verify(outboxRepository).deleteFinishedBefore(
+                argThat(statuses -> statuses.contains(SMSOutboxMessage.Status.SENT)
+                        && statuses.contains(SMSOutboxMessage.Status.FAILED)
+                        && !statuses.contains(SMSOutboxMessage.Status.PENDING)),
+                argThat(cutoff -> cutoff.isBefore(LocalDateTime.now().minusHours(23))));
+    }
+
+    private SMSOutboxMessage pending(Long id, int attempts) {
+        return SMSOutboxMessage.builder()
+                .id(id)
+                .phoneNumber("+1234567890")
+                .message("hello")
+                .status(SMSOutboxMessage.Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Repositories.SchedulerLockRepository;
+import com.cerebra.secure_file_sharing_app.Services.SchedulerLockServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SchedulerLockService Tests")
+class SchedulerLockServiceTest {
+
+    @Mock private SchedulerLockRepository lockRepository;
+
+    private SchedulerLockServiceImpl lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new SchedulerLockServiceImpl(lockRepository);
+    }
+
+    @Test
+    @DisplayName("Should take over an expired lease")
+    void tryAcquire_leaseExpired_acquires() {
+        // Arrange
+        when(lockRepository.acquire(eq("job"), anyString(), any(), any())).thenReturn(1);
+
+        // Act
+        boolean acquired = lockService.tryAcquire("job", Duration.ofMinutes(10));
+
+        // Assert
+        assertThat(acquired).isTrue();
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(lockRepository).acquire(eq("job"), anyString(), now.capture(), until.capture());
+        assertThat(until.getValue()).isEqualTo(now.getValue().plusMinutes(10));
+        verify(lockRepository, never()).create(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should not acquire while another node holds the lease")
+    void tryAcquire_leaseHeld_returnsFalse() {
+        // Arrange
+        when(lockRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById("job")).thenReturn(true);
+
+        // Act
+        boolean acquired = lockService.tryAcquire("job", Duration.ofMinutes(10));
+
+        // Assert
+        assertThat(acquired).isFalse();
+        verify(lockRepository, never()).create(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should create the lock row on the first run")
+    void tryAcquire_noRow_createsIt() {
+        // Arrange
+        when(lockRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById("job")).thenReturn(false);
+        when(lockRepository.create(eq("job"), anyString(), any())).thenReturn(1);
+
+        // Act
+        boolean acquired = lockService.tryAcquire("job", Duration.ofMinutes(10));
+
+        // Assert
+        assertThat(acquired).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should lose gracefully when another node creates the lock row first")
+    void tryAcquire_concurrentCreate_returnsFalse() {
+        // Arrange
+        when(lockRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(lockRepository.existsById("job")).thenReturn(false);
+        when(lockRepository.create(anyString(), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        boolean acquired = lockService.tryAcquire("job", Duration.ofMinutes(10));
+
+        // Assert
+        assertThat(acquired).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should release only the lease held by this node")
+    void release_releasesWithOwnIdentity() {
+        // Arrange
+        when(lockRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(1);
+        lockService.tryAcquire("job", Duration.ofMinutes(10));
+        ArgumentCaptor<String> acquiredBy = ArgumentCaptor.forClass(String.class);
+        verify(lockRepository).acquire(anyString(), acquiredBy.capture(), any(), any());
+
+        // Act
+        lockService.release("job");
+
+        // Assert
+        verify(lockRepository).release(eq("job"), eq(acquiredBy.getValue()), any());
+    }
+}
@@ -0,0 +1,175 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Services.SharedLinkCache;
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SharedLinkCache Tests")
+class SharedLinkCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SharedLinkCache sharedLinkCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sharedLinkCache = new SharedLinkCache(meterRegistry);
+        ReflectionTestUtils.setField(sharedLinkCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(sharedLinkCache, "negativeTtlSeconds", 10L);
+        ReflectionTestUtils.setField(sharedLinkCache, "maxSize", 10);
+
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should load once and answer repeat lookups from the cache")
+    void get_repeatedLookups_loadsOnce() {
+        // Arrange
+        ResolvedShare share = fileShare(1L, "token", 10L);
+
+        // Act
+        Optional<ResolvedShare> first = sharedLinkCache.get("token", loader(share));
+        Optional<ResolvedShare> second = sharedLinkCache.get("token", loader(share));
+
+        // Assert
+        assertThat(first).contains(share);
+        assertThat(second).contains(share);
+        assertThat(loads).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1.0);
+        assertThat(count("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should cache unknown tokens for the negative TTL only")
+    void get_unknownToken_cachedForNegativeTtl() {
+        // Act
+        sharedLinkCache.get("missing", loader(null));
+        Optional<ResolvedShare> cached = sharedLinkCache.get("missing", loader(null));
+        ReflectionTestUtils.setField(sharedLinkCache, "negativeTtlSeconds", 0L);
+        sharedLinkCache.get("other", loader(null));
+        sharedLinkCache.get("other", loader(null));
+
+        // Assert
+        assertThat(cached).isEmpty();
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation by token, share, file or folder")
+    void invalidate_cachedShares_forcesReload() {
+        // Arrange
+        ResolvedShare fileShare = fileShare(1L, "file-token", 10L);
+        ResolvedShare folderShare = new ResolvedShare(2L, "folder-token", null, 20L, "Docs",
+                null, null, null, LocalDateTime.now().plusDays(1));
+        sharedLinkCache.get("file-token", loader(fileShare));
+        sharedLinkCache.get("folder-token", loader(folderShare));
+
+        // Act & Assert
+        sharedLinkCache.invalidate("file-token");
+        sharedLinkCache.get("file-token", loader(fileShare));
+        assertThat(loads).hasValue(3);
+
+        sharedLinkCache.invalidateShares(List.of(1L));
+        sharedLinkCache.get("file-token", loader(fileShare));
+        assertThat(loads).hasValue(4);
+
+        sharedLinkCache.invalidateFile(10L);
+        sharedLinkCache.get("file-token", loader(fileShare));
+        sharedLinkCache.get("folder-token", loader(folderShare));
+        assertThat(loads).hasValue(5);
+
+        sharedLinkCache.invalidateFolder(20L);
+        sharedLinkCache.get("folder-token", loader(folderShare));
+        assertThat(loads).hasValue(6);
+    }
+
+    @Test
+    @DisplayName("Should keep signed-URL entries, which have no share id, when invalidating by share")
+    void invalidateShares_signedEntry_isKept() {
+        // Arrange
+        ResolvedShare signed = fileShare(null, "s1.10.0.1.sig", 10L);
+        sharedLinkCache.get("s1.10.0.1.sig", loader(signed));
+
+        // Act
+        sharedLinkCache.invalidateShares(List.of(1L));
+        sharedLinkCache.get("s1.10.0.1.sig", loader(signed));
+
+        // Assert
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a share that was invalidated while it was being loaded")
+    void get_invalidatedDuringLoad_isNotCached() {
+        // Arrange
+        ResolvedShare share = fileShare(1L, "token", 10L);
+        Supplier<Optional<ResolvedShare>> racingLoader = () -> {
+            loads.incrementAndGet();
+            sharedLinkCache.invalidateShares(List.of(1L)); // revoked between the query and the put
+            return Optional.of(share);
+        };
+
+        // Act
+        sharedLinkCache.get("token", racingLoader);
+        sharedLinkCache.get("token", loader(share));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should stay within its size bound")
+    void get_moreTokensThanCapacity_evicts() {
+        // Act
+        for (long i = 0; i < 50; i++) {
+            sharedLinkCache.get("token-" + i, loader(fileShare(i, "token-" + i, i)));
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("app.shares.cache.size").gauge().value()).isLessThanOrEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("Should bypass caching entirely when the TTL is zero")
+    void get_cacheDisabled_alwaysLoads() {
+        // Arrange
+        ReflectionTestUtils.setField(sharedLinkCache, "ttlSeconds", 0L);
+        ResolvedShare share = fileShare(1L, "token", 10L);
+
+        // Act
+        sharedLinkCache.get("token", loader(share));
+        sharedLinkCache.get("token", loader(share));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    private Supplier<Optional<ResolvedShare>> loader(ResolvedShare share) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(share);
+        };
+    }
+
+    private ResolvedShare fileShare(Long shareId, String token, Long fileId) {
+        return new ResolvedShare(shareId, token, fileId, null, "file.txt",
+                "/storage/file.txt", 4L, "text/plain", LocalDateTime.now().plusDays(1));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("app.shares.cache").tag("result", result).counter().count();
+    }
+}
@@ -5,27 +5,45 @@ import com.cerebra.secure_file_sharing_app.Entities.Folder;
 import com.cerebra.secure_file_sharing_app.Entities.SharedLink;
 import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
 import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.Projections.ShareListingView;
 import com.cerebra.secure_file_sharing_app.Repositories.SharedLinkRepository;
+import com.cerebra.secure_file_sharing_app.Security.SignedShareTokenService;
 import com.cerebra.secure_file_sharing_app.Services.*;
-import com.cerebra.secure_file_sharing_app.Shared.SMSResponse;
+import com.cerebra.secure_file_sharing_app.Shared.ResolvedShare;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageRequest;
+import com.cerebra.secure_file_sharing_app.Shared.SharePageResponse;
+import com.cerebra.secure_file_sharing_app.Shared.ShareResponse;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -39,11 +57,15 @@ class SharedLinkServiceTest {
     @Mock private SharedLinkRepository sharedLinkRepository;
     @Mock private FileService fileService;
     @Mock private FolderService folderService;
-    @Mock private HttpSMSService smsService;
-    @Mock private StoragePathService storagePathService;
-    @Mock private Resource mockResource;
+    @Mock private SMSOutboxService smsOutboxService;
+    @Mock private OwnershipContext ownershipContext;
+    @Mock private FolderArchiveService folderArchiveService;
+    @Mock private SchedulerLockService schedulerLockService;
 
     private SharedLinkServiceImpl sharedLinkService;
+    private SimpleMeterRegistry meterRegistry;
+    private SharedLinkCache sharedLinkCache;
+    private SignedShareTokenService signedShareTokens;
 
     @TempDir
     Path tempDir;
@@ -55,13 +77,31 @@ class SharedLinkServiceTest {
 
     @BeforeEach
     void setUp() {
+        ZipStreamingServiceImpl zipStreamingService = new ZipStreamingServiceImpl(new LocalBlobStore(tempDir.toString()), 2);
+        ReflectionTestUtils.setField(zipStreamingService, "compressionLevel", 6);
+        ReflectionTestUtils.setField(zipStreamingService, "storedMimeTypes", new String[]{"image/jpeg", "application/zip"});
+        ReflectionTestUtils.setField(zipStreamingService, "chunkSize", 64 * 1024);
+
+        meterRegistry = new SimpleMeterRegistry();
+        sharedLinkCache = new SharedLinkCache(meterRegistry);
+        ReflectionTestUtils.setField(sharedLinkCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(sharedLinkCache, "negativeTtlSeconds", 10L);
+        ReflectionTestUtils.setField(sharedLinkCache, "maxSize", 100);
+
+        signedShareTokens = new SignedShareTokenService(false, "");
+
         sharedLinkService = new SharedLinkServiceImpl(
-            sharedLinkRepository, fileService, folderService, smsService, storagePathService
+            sharedLinkRepository, fileService, folderService, smsOutboxService, ownershipContext, zipStreamingService,
+            folderArchiveService, schedulerLockService, meterRegistry, sharedLinkCache, signedShareTokens
         );
         
         // Set configuration values
         ReflectionTestUtils.setField(sharedLinkService, "shareExpirationDays", 7);
         ReflectionTestUtils.setField(sharedLinkService, "baseUrl", "http://localhost:8080");
+        ReflectionTestUtils.setField(sharedLinkService, "maxPageSize", 200);
+        ReflectionTestUtils.setField(sharedLinkService, "sweepBatchSize", 2);
+        ReflectionTestUtils.setField(sharedLinkService, "sweepMaxBatches", 3);
+        ReflectionTestUtils.setField(sharedLinkService, "sweepLeaseMillis", 600000L);
         
         // Set up test entities
         testStoragePath = StoragePath.builder()
@@ -151,9 +191,8 @@ class SharedLinkServiceTest {
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .build();
         
-        when(fileService.findById(fileId)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.of(testFile));
         when(sharedLinkRepository.save(any(SharedLink.class))).thenReturn(savedLink);
-        when(smsService.sendSMS(eq(recipientPhone), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         
         // Act
         SharedLink result = sharedLinkService.createFileShare(fileId, userId, recipientPhone);
@@ -164,9 +203,9 @@ class SharedLinkServiceTest {
         assertThat(result.getLinkToken()).isNotNull();
         assertThat(result.getExpiresAt()).isAfter(LocalDateTime.now());
         
-        verify(fileService).findById(fileId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
         verify(sharedLinkRepository).save(any(SharedLink.class));
-        verify(smsService).sendSMS(eq(recipientPhone), anyString());
+        verify(smsOutboxService).enqueue(eq(recipientPhone), anyString());
     }
 
     @Test
@@ -183,7 +222,7 @@ class SharedLinkServiceTest {
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .build();
         
-        when(fileService.findById(fileId)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.of(testFile));
         when(sharedLinkRepository.save(any(SharedLink.class))).thenReturn(savedLink);
         
         // Act
@@ -193,9 +232,9 @@ class SharedLinkServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getFile()).isEqualTo(testFile);
         
-        verify(fileService).findById(fileId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
         verify(sharedLinkRepository).save(any(SharedLink.class));
-        verify(smsService, never()).sendSMS(anyString(), anyString());
+        verify(smsOutboxService, never()).enqueue(anyString(), anyString());
     }
 
     @Test
@@ -205,17 +244,31 @@ class SharedLinkServiceTest {
         Long fileId = 999L;
         Long userId = 1L;
         
-        when(fileService.findById(fileId)).thenReturn(Optional.empty());
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThatThrownBy(() -> sharedLinkService.createFileShare(fileId, userId, null))
                 .isInstanceOf(FileNotFoundException.class)
                 .hasMessageContaining("File not found");
         
-        verify(fileService).findById(fileId);
+        verify(ownershipContext).findOwnedFile(fileId, userId);
         verify(sharedLinkRepository, never()).save(any(SharedLink.class));
     }
 
+    @Test
+    @DisplayName("Should refuse to share another user's file")
+    void createFileShare_otherUsersFile_throwsFileNotFoundException() {
+        // Arrange
+        when(ownershipContext.findOwnedFile(1L, 2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.createFileShare(1L, 2L, "+1234567890"))
+                .isInstanceOf(FileNotFoundException.class)
+                .hasMessageContaining("access denied");
+        verify(sharedLinkRepository, never()).save(any(SharedLink.class));
+        verifyNoInteractions(smsOutboxService, fileService);
+    }
+
     @Test
     @DisplayName("Should create folder share successfully")
     void createFolderShare_validFolderAndUser_createsSharedLink() {
@@ -231,10 +284,8 @@ class SharedLinkServiceTest {
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .build();
         
-        when(folderService.hasAccess(folderId, userId)).thenReturn(true);
-        when(folderService.findById(folderId)).thenReturn(Optional.of(testFolder));
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.of(testFolder));
         when(sharedLinkRepository.save(any(SharedLink.class))).thenReturn(savedLink);
-        when(smsService.sendSMS(eq(recipientPhone), anyString())).thenReturn(SMSResponse.success("SMS sent"));
         
         // Act
         SharedLink result = sharedLinkService.createFolderShare(folderId, userId, recipientPhone);
@@ -245,10 +296,10 @@ class SharedLinkServiceTest {
         assertThat(result.getFile()).isNull();
         assertThat(result.getLinkToken()).isNotNull();
         
-        verify(folderService).hasAccess(folderId, userId);
-        verify(folderService).findById(folderId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
+        verify(folderService, never()).findById(anyLong());
         verify(sharedLinkRepository).save(any(SharedLink.class));
-        verify(smsService).sendSMS(eq(recipientPhone), anyString());
+        verify(smsOutboxService).enqueue(eq(recipientPhone), anyString());
     }
 
     @Test
@@ -258,77 +309,85 @@ class SharedLinkServiceTest {
         Long folderId = 1L;
         Long userId = 1L;
         
-        when(folderService.hasAccess(folderId, userId)).thenReturn(false);
+        when(ownershipContext.findOwnedFolder(folderId, userId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThatThrownBy(() -> sharedLinkService.createFolderShare(folderId, userId, null))
                 .isInstanceOf(FolderNotFoundException.class)
                 .hasMessageContaining("Folder not found or access denied");
         
-        verify(folderService).hasAccess(folderId, userId);
+        verify(ownershipContext).findOwnedFolder(folderId, userId);
         verify(sharedLinkRepository, never()).save(any(SharedLink.class));
     }
 
     @Test
-    @DisplayName("Should download shared file successfully")
-    void downloadSharedFile_validToken_returnsFileResource() {
+    @DisplayName("Should stream shared folder tree as ZIP without temp files")
+    void streamFolderAsZip_folderWithFiles_writesArchiveToStream() throws IOException {
         // Arrange
-        String linkToken = "valid-token";
-        
-        when(sharedLinkRepository.findByLinkToken(linkToken)).thenReturn(Optional.of(testSharedLink));
-        when(fileService.downloadSharedFile(testFile.getId())).thenReturn(mockResource);
-        
+        Path testFilePath = tempDir.resolve("stored.txt");
+        Files.write(testFilePath, "test content".getBytes());
+        Path nestedFilePath = tempDir.resolve("nested.txt");
+        Files.write(nestedFilePath, "nested content".getBytes());
+
+        when(folderArchiveService.collectEntries(testFolder)).thenReturn(List.of(
+                ZipStreamingService.Entry.file("test.txt", testFilePath.toString(), "text/plain", null),
+                ZipStreamingService.Entry.directory("Sub", null),
+                ZipStreamingService.Entry.file("Sub/nested.txt", nestedFilePath.toString(), "text/plain", null)));
+
         // Act
-        Resource result = sharedLinkService.downloadSharedFile(linkToken);
-        
+        StreamingResponseBody body = sharedLinkService.streamFolderAsZip(testFolder);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
         // Assert
-        assertThat(result).isEqualTo(mockResource);
-        
-        verify(sharedLinkRepository).findByLinkToken(linkToken);
-        verify(fileService).downloadSharedFile(testFile.getId());
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry = zipIn.getNextEntry();
+            assertThat(entry).isNotNull();
+            assertThat(entry.getName()).isEqualTo("test.txt");
+            assertThat(new String(zipIn.readAllBytes())).isEqualTo("test content");
+            assertThat(zipIn.getNextEntry().isDirectory()).isTrue();
+            entry = zipIn.getNextEntry();
+            assertThat(entry.getName()).isEqualTo("Sub/nested.txt");
+            assertThat(new String(zipIn.readAllBytes())).isEqualTo("nested content");
+            assertThat(zipIn.getNextEntry()).isNull();
+        }
+        verify(folderArchiveService).collectEntries(testFolder);
     }
 
     @Test
-    @DisplayName("Should download shared folder as ZIP")
-    void downloadSharedFile_folderToken_returnsZipResource() throws IOException {
+    @DisplayName("Should archive a folder share from the stored folder, path included")
+    void streamFolderAsZip_resolvedShare_loadsFolderWithPath() {
         // Arrange
-        String linkToken = "folder-token";
-        SharedLink folderShare = SharedLink.builder()
-                .linkToken(linkToken)
-                .expiresAt(LocalDateTime.now().plusDays(1))
-                .folder(testFolder)
-                .build();
-        
-        List<File> folderFiles = Arrays.asList(testFile);
-        
-        when(sharedLinkRepository.findByLinkToken(linkToken)).thenReturn(Optional.of(folderShare));
-        when(fileService.getFolderFiles(testFolder.getId(), null)).thenReturn(folderFiles);
-        
-        // Create a mock file for the test
-        Path testFilePath = tempDir.resolve("test.txt");
-        Files.write(testFilePath, "test content".getBytes());
-        testFile = File.builder()
-                .id(1L)
-                .displayName("test.txt")
-                .physicalPath(testFilePath.toString())
-                .build();
-        folderFiles = Arrays.asList(testFile);
-        when(fileService.getFolderFiles(testFolder.getId(), null)).thenReturn(folderFiles);
-        
+        Folder storedFolder = Folder.builder().id(20L).name("Docs").path("/3/20/").build();
+        ResolvedShare share = new ResolvedShare(2L, "folder-token", null, 20L, "Docs",
+                null, null, null, LocalDateTime.now().plusDays(1));
+        when(folderService.findById(20L)).thenReturn(Optional.of(storedFolder));
+        when(folderArchiveService.collectEntries(storedFolder)).thenReturn(List.of());
+
         // Act
-        Resource result = sharedLinkService.downloadSharedFile(linkToken);
-        
+        sharedLinkService.streamFolderAsZip(share);
+
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getFilename()).contains(".zip");
-        
-        verify(sharedLinkRepository).findByLinkToken(linkToken);
-        verify(fileService).getFolderFiles(testFolder.getId(), null);
+        verify(folderArchiveService).collectEntries(argThat(folder -> "/3/20/".equals(folder.getPath())));
+    }
+
+    @Test
+    @DisplayName("Should fail a folder share whose folder is gone")
+    void streamFolderAsZip_resolvedShareFolderMissing_throwsException() {
+        // Arrange
+        ResolvedShare share = new ResolvedShare(2L, "folder-token", null, 20L, "Docs",
+                null, null, null, LocalDateTime.now().plusDays(1));
+        when(folderService.findById(20L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.streamFolderAsZip(share))
+                .isInstanceOf(FolderNotFoundException.class);
+        verifyNoInteractions(folderArchiveService);
     }
 
     @Test
     @DisplayName("Should throw exception for expired share link")
-    void downloadSharedFile_expiredToken_throwsShareExpiredException() {
+    void resolveShare_expiredToken_throwsShareExpiredException() {
         // Arrange
         String linkToken = "expired-token";
         SharedLink expiredLink = SharedLink.builder()
@@ -340,30 +399,60 @@ class SharedLinkServiceTest {
         when(sharedLinkRepository.findByLinkToken(linkToken)).thenReturn(Optional.of(expiredLink));
         
         // Act & Assert
-        assertThatThrownBy(() -> sharedLinkService.downloadSharedFile(linkToken))
+        assertThatThrownBy(() -> sharedLinkService.resolveShare(linkToken))
                 .isInstanceOf(ShareExpiredException.class)
                 .hasMessageContaining("Share link has expired");
         
         verify(sharedLinkRepository).findByLinkToken(linkToken);
-        verify(fileService, never()).downloadSharedFile(anyLong());
     }
 
     @Test
     @DisplayName("Should throw exception for invalid share token")
-    void downloadSharedFile_invalidToken_throwsShareNotFoundException() {
+    void resolveShare_invalidToken_throwsShareNotFoundException() {
         // Arrange
         String linkToken = "invalid-token";
         
         when(sharedLinkRepository.findByLinkToken(linkToken)).thenReturn(Optional.empty());
         
         // Act & Assert
-        assertThatThrownBy(() -> sharedLinkService.downloadSharedFile(linkToken))
+        assertThatThrownBy(() -> sharedLinkService.resolveShare(linkToken))
                 .isInstanceOf(ShareNotFoundException.class)
                 .hasMessageContaining("Invalid or expired share link");
         
         verify(sharedLinkRepository).findByLinkToken(linkToken);
     }
 
+    @Test
+    @DisplayName("Should resolve valid share without touching file content")
+    void resolveShare_validToken_returnsSharedLink() {
+        // Arrange
+        when(sharedLinkRepository.findByLinkToken("test-token-123")).thenReturn(Optional.of(testSharedLink));
+
+        // Act
+        SharedLink result = sharedLinkService.resolveShare("test-token-123");
+
+        // Assert
+        assertThat(result).isEqualTo(testSharedLink);
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    @DisplayName("Should reject share that references neither file nor folder")
+    void resolveShare_noItem_throwsShareNotFoundException() {
+        // Arrange
+        SharedLink emptyLink = SharedLink.builder()
+                .linkToken("empty-token")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+
+        when(sharedLinkRepository.findByLinkToken("empty-token")).thenReturn(Optional.of(emptyLink));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveShare("empty-token"))
+                .isInstanceOf(ShareNotFoundException.class)
+                .hasMessageContaining("no file or folder associated");
+    }
+
     @Test
     @DisplayName("Should revoke share successfully")
     void revokeShare_validShareAndUser_deletesShare() {
@@ -372,6 +461,7 @@ class SharedLinkServiceTest {
         Long userId = 1L;
         
         when(sharedLinkRepository.findById(shareId)).thenReturn(Optional.of(testSharedLink));
+        when(ownershipContext.findOwnedFile(testFile.getId(), userId)).thenReturn(Optional.of(testFile));
         
         // Act
         sharedLinkService.revokeShare(shareId, userId);
@@ -379,6 +469,40 @@ class SharedLinkServiceTest {
         // Assert
         verify(sharedLinkRepository).findById(shareId);
         verify(sharedLinkRepository).deleteById(shareId);
+        verify(fileService, never()).revokeSignedShares(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should refuse to revoke another user's share before deleting or revoking signed URLs")
+    void revokeShare_notOwner_throwsBeforeAnyChange() {
+        // Arrange
+        enableSignedUrls();
+        when(sharedLinkRepository.findById(1L)).thenReturn(Optional.of(testSharedLink));
+        when(ownershipContext.findOwnedFile(testFile.getId(), 2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.revokeShare(1L, 2L))
+                .isInstanceOf(ShareNotFoundException.class)
+                .hasMessageContaining("access denied");
+        verify(sharedLinkRepository, never()).deleteById(anyLong());
+        verify(fileService, never()).revokeSignedShares(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should revoke a folder share only for the folder's owner")
+    void revokeShare_folderShareOwner_deletesShare() {
+        // Arrange
+        SharedLink folderShare = SharedLink.builder().id(3L).linkToken("folder-token")
+                .expiresAt(LocalDateTime.now().plusDays(1)).folder(testFolder).build();
+        when(sharedLinkRepository.findById(3L)).thenReturn(Optional.of(folderShare));
+        when(ownershipContext.findOwnedFolder(testFolder.getId(), 1L)).thenReturn(Optional.of(testFolder));
+
+        // Act
+        sharedLinkService.revokeShare(3L, 1L);
+
+        // Assert
+        verify(sharedLinkRepository).deleteById(3L);
+        verify(fileService, never()).revokeSignedShares(anyLong());
     }
 
     @Test
@@ -400,24 +524,51 @@ class SharedLinkServiceTest {
     }
 
     @Test
-    @DisplayName("Should get user shares successfully")
-    void getUserShares_validUser_returnsUserShares() {
+    @DisplayName("Should list the user's shares from the owner index with item names")
+    void getUserSharesPage_morePagesAvailable_returnsResumableCursor() {
         // Arrange
         Long userId = 1L;
-        List<SharedLink> allShares = Arrays.asList(testSharedLink);
-        
-        when(storagePathService.findByAppUserId(userId)).thenReturn(Optional.of(testStoragePath));
-        when(sharedLinkRepository.findAll()).thenReturn(allShares);
-        
+        LocalDateTime created = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678000);
+        when(ownershipContext.findStoragePathId(userId)).thenReturn(Optional.of(10L));
+        when(sharedLinkRepository.findSharePage(10L, Limit.of(3))).thenReturn(List.of(
+                shareRow(9L, 100L, "report.pdf", null, null, created),
+                shareRow(8L, null, null, 200L, "Photos", created),
+                shareRow(7L, 101L, "notes.txt", null, null, created)));
+        when(sharedLinkRepository.findSharePageAfter(10L, created, 8L, Limit.of(3))).thenReturn(List.of(
+                shareRow(7L, 101L, "notes.txt", null, null, created)));
+
         // Act
-        List<SharedLink> result = sharedLinkService.getUserShares(userId);
-        
+        SharePageResponse first = sharedLinkService.getUserSharesPage(userId, SharePageRequest.builder().limit(2).build());
+        SharePageResponse second = sharedLinkService.getUserSharesPage(userId,
+                SharePageRequest.builder().limit(2).cursor(first.getNextCursor()).build());
+
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result).contains(testSharedLink);
-        
-        verify(storagePathService).findByAppUserId(userId);
-        verify(sharedLinkRepository).findAll();
+        assertThat(first.getShares()).extracting(ShareResponse::getItemName).containsExactly("report.pdf", "Photos");
+        assertThat(first.getShares()).extracting(ShareResponse::getItemType).containsExactly("file", "folder");
+        assertThat(first.getShares()).extracting(ShareResponse::getItemId).containsExactly(100L, 200L);
+        assertThat(first.getShares().get(0).getShareUrl()).endsWith("/public/shared/token-9");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getShares()).extracting(ShareResponse::getShareId).containsExactly(7L);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        verify(sharedLinkRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed share cursor")
+    void getUserSharesPage_invalidCursor_throwsInvalidPageRequestException() {
+        // Arrange
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(10L));
+        String notATimestamp = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.getUserSharesPage(1L, SharePageRequest.builder().cursor("%%%").build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> sharedLinkService.getUserSharesPage(1L, SharePageRequest.builder().cursor(notATimestamp).build()))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Invalid cursor");
     }
 
     @Test
@@ -457,48 +608,249 @@ class SharedLinkServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete expired links successfully")
-    void deleteExpiredLinks_expiredLinksExist_deletesExpiredLinks() {
+    @DisplayName("Should resolve a file share once and answer repeat downloads from the cache")
+    void resolveSharedItem_repeatedDownloads_queriesOnce() {
         // Arrange
-        List<SharedLink> expiredLinks = Arrays.asList(testSharedLink);
-        
-        when(sharedLinkRepository.findByExpiresAtBefore(any(LocalDateTime.class))).thenReturn(expiredLinks);
-        
+        testFile.setMimeType("text/plain");
+        testFile.setSize(12L);
+        when(sharedLinkRepository.findWithItemByLinkToken("test-token-123")).thenReturn(Optional.of(testSharedLink));
+
         // Act
-        sharedLinkService.deleteExpiredLinks();
-        
+        ResolvedShare first = sharedLinkService.resolveSharedItem("test-token-123");
+        ResolvedShare second = sharedLinkService.resolveSharedItem("test-token-123");
+
         // Assert
-        verify(sharedLinkRepository).findByExpiresAtBefore(any(LocalDateTime.class));
-        verify(sharedLinkRepository).deleteAll(expiredLinks);
+        assertThat(second).isEqualTo(first);
+        assertThat(first.isFile()).isTrue();
+        assertThat(first.fileId()).isEqualTo(testFile.getId());
+        assertThat(first.itemName()).isEqualTo("test.txt");
+        assertThat(first.physicalPath()).isEqualTo("/path/to/test.txt");
+        assertThat(first.mimeType()).isEqualTo("text/plain");
+        assertThat(first.size()).isEqualTo(12L);
+        verify(sharedLinkRepository, times(1)).findWithItemByLinkToken("test-token-123");
+        verifyNoInteractions(fileService);
     }
 
     @Test
-    @DisplayName("Should handle empty folder ZIP creation")
-    void downloadSharedFile_emptyFolder_returnsEmptyZip() throws IOException {
+    @DisplayName("Should cache unknown tokens and keep rejecting them without querying")
+    void resolveSharedItem_unknownToken_isNegativelyCached() {
         // Arrange
-        String linkToken = "empty-folder-token";
-        SharedLink folderShare = SharedLink.builder()
-                .linkToken(linkToken)
-                .expiresAt(LocalDateTime.now().plusDays(1))
-                .folder(testFolder)
+        when(sharedLinkRepository.findWithItemByLinkToken("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem("missing"))
+                .isInstanceOf(ShareNotFoundException.class);
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem("missing"))
+                .isInstanceOf(ShareNotFoundException.class);
+        verify(sharedLinkRepository, times(1)).findWithItemByLinkToken("missing");
+    }
+
+    @Test
+    @DisplayName("Should reject a cached share once it has expired")
+    void resolveSharedItem_cachedShareExpired_throwsShareExpiredException() {
+        // Arrange
+        when(sharedLinkRepository.findWithItemByLinkToken("test-token-123")).thenReturn(Optional.of(testSharedLink));
+        sharedLinkService.resolveSharedItem("test-token-123");
+        testSharedLink.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        sharedLinkCache.invalidateAll();
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem("test-token-123"))
+                .isInstanceOf(ShareExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("Should drop the cached share when it is revoked")
+    void revokeShare_cachedShare_isInvalidated() {
+        // Arrange
+        testSharedLink.setId(1L);
+        when(sharedLinkRepository.findWithItemByLinkToken("test-token-123")).thenReturn(Optional.of(testSharedLink));
+        when(sharedLinkRepository.findById(1L)).thenReturn(Optional.of(testSharedLink));
+        when(ownershipContext.findOwnedFile(testFile.getId(), 1L)).thenReturn(Optional.of(testFile));
+        sharedLinkService.resolveSharedItem("test-token-123");
+
+        // Act
+        sharedLinkService.revokeShare(1L, 1L);
+        when(sharedLinkRepository.findWithItemByLinkToken("test-token-123")).thenReturn(Optional.empty());
+
+        // Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem("test-token-123"))
+                .isInstanceOf(ShareNotFoundException.class);
+        verify(sharedLinkRepository, times(2)).findWithItemByLinkToken("test-token-123");
+    }
+
+    @Test
+    @DisplayName("Should send a signed URL and serve it without touching shared_links")
+    void resolveSharedItem_signedUrlMode_skipsShareLookup() {
+        // Arrange
+        enableSignedUrls();
+        testFile.setShareEpoch(2);
+        SharedLink savedLink = SharedLink.builder()
+                .id(1L)
+                .linkToken("generated-token")
+                .file(testFile)
+                .expiresAt(LocalDateTime.now().plusDays(7))
                 .build();
-        
-        when(sharedLinkRepository.findByLinkToken(linkToken)).thenReturn(Optional.of(folderShare));
-        when(fileService.getFolderFiles(testFolder.getId(), null)).thenReturn(Collections.emptyList());
-        
+        when(ownershipContext.findOwnedFile(testFile.getId(), 1L)).thenReturn(Optional.of(testFile));
+        when(fileService.findById(testFile.getId())).thenReturn(Optional.of(testFile));
+        when(sharedLinkRepository.save(any(SharedLink.class))).thenReturn(savedLink);
+
+        sharedLinkService.createFileShare(testFile.getId(), 1L, "+1234567890");
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(smsOutboxService).enqueue(eq("+1234567890"), message.capture());
+        String token = message.getValue().substring(message.getValue().lastIndexOf('/') + 1);
+
         // Act
-        Resource result = sharedLinkService.downloadSharedFile(linkToken);
-        
+        ResolvedShare first = sharedLinkService.resolveSharedItem(token);
+        ResolvedShare second = sharedLinkService.resolveSharedItem(token);
+
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getFilename()).contains("empty");
-        
-        verify(fileService).getFolderFiles(testFolder.getId(), null);
+        assertThat(token).startsWith("s1." + testFile.getId() + ".2.");
+        assertThat(second).isEqualTo(first);
+        assertThat(first.physicalPath()).isEqualTo("/path/to/test.txt");
+        verify(fileService).findById(testFile.getId()); // first download only, the second is cached
+        verify(sharedLinkRepository, never()).findWithItemByLinkToken(anyString());
+        verify(sharedLinkRepository, never()).findByLinkToken(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a signed URL once the file's share epoch has moved on")
+    void resolveSharedItem_staleEpoch_throwsShareNotFoundException() {
+        // Arrange
+        enableSignedUrls();
+        String token = signedShareTokens.sign(testFile.getId(), 0, LocalDateTime.now().plusDays(1));
+        testFile.setShareEpoch(1);
+        when(fileService.findById(testFile.getId())).thenReturn(Optional.of(testFile));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem(token))
+                .isInstanceOf(ShareNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject an expired signed URL without any lookup")
+    void resolveSharedItem_expiredSignedUrl_throwsShareExpiredException() {
+        // Arrange
+        enableSignedUrls();
+        String token = signedShareTokens.sign(testFile.getId(), 0, LocalDateTime.now().minusMinutes(1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem(token))
+                .isInstanceOf(ShareExpiredException.class);
+        verifyNoInteractions(fileService, sharedLinkRepository);
+    }
+
+    @Test
+    @DisplayName("Should not honour signed URLs while the mode is disabled")
+    void resolveSharedItem_signedUrlModeDisabled_throwsShareNotFoundException() {
+        // Arrange
+        String token = signedShareTokens.sign(testFile.getId(), 0, LocalDateTime.now().plusDays(1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sharedLinkService.resolveSharedItem(token))
+                .isInstanceOf(ShareNotFoundException.class);
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    @DisplayName("Should delete all of the file's shares and bump its share epoch when a share is revoked in signed URL mode")
+    void revokeShare_signedUrlMode_revokesAllSharesOfFile() {
+        // Arrange
+        enableSignedUrls();
+        when(sharedLinkRepository.findById(1L)).thenReturn(Optional.of(testSharedLink));
+        when(ownershipContext.findOwnedFile(testFile.getId(), 1L)).thenReturn(Optional.of(testFile));
+        when(sharedLinkRepository.findIdsByFileId(testFile.getId())).thenReturn(List.of(1L, 2L));
+
+        // Act
+        sharedLinkService.revokeShare(1L, 1L);
+
+        // Assert
+        verify(sharedLinkRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(fileService).revokeSignedShares(testFile.getId());
+        verify(sharedLinkRepository, never()).deleteById(anyLong());
     }
 
     @Test
-    @DisplayName("Should handle SMS sending failure gracefully")
-    void createFileShare_smsFailure_stillCreatesShare() {
+    @DisplayName("Should list file shares with the signed URL they were created with in signed URL mode")
+    void getUserSharesPage_signedUrlMode_listsSignedFileUrls() {
+        // Arrange
+        enableSignedUrls();
+        LocalDateTime created = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        testFile.setShareEpoch(3);
+        testSharedLink.setExpiresAt(created.plusDays(7));
+        when(ownershipContext.findStoragePathId(1L)).thenReturn(Optional.of(10L));
+        when(sharedLinkRepository.findSharePage(10L, Limit.of(3))).thenReturn(List.of(
+                shareRow(1L, testFile.getId(), "report.pdf", null, null, created),
+                shareRow(2L, null, null, 200L, "Photos", created)));
+
+        // Act
+        SharePageResponse page = sharedLinkService.getUserSharesPage(1L, SharePageRequest.builder().limit(2).build());
+
+        // Assert
+        assertThat(page.getShares().get(0).getShareUrl()).isEqualTo(sharedLinkService.shareUrl(testSharedLink));
+        assertThat(page.getShares().get(0).getShareUrl()).doesNotEndWith("/public/shared/token-1");
+        assertThat(page.getShares().get(1).getShareUrl()).endsWith("/public/shared/token-2");
+    }
+
+    @Test
+    @DisplayName("Should delete expired links in batches until a short batch and record metrics")
+    void deleteExpiredLinks_expiredLinksExist_deletesInBatches() {
+        // Arrange
+        when(schedulerLockService.tryAcquire(eq("shared-link-expiry-sweep"), any(Duration.class))).thenReturn(true);
+        when(sharedLinkRepository.findExpiredIds(any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(sharedLinkRepository.deleteExpiredByIds(anyList(), any(LocalDateTime.class)))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        // Act
+        int deleted = sharedLinkService.deleteExpiredLinks();
+
+        // Assert
+        assertThat(deleted).isEqualTo(3);
+        verify(sharedLinkRepository).deleteExpiredByIds(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(sharedLinkRepository).deleteExpiredByIds(eq(List.of(3L)), any(LocalDateTime.class));
+        verify(sharedLinkRepository, never()).deleteAll(anyList());
+        verify(schedulerLockService).release("shared-link-expiry-sweep");
+        assertThat(meterRegistry.get("app.shares.expired.purged").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("app.shares.expiry.sweep").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop after the per-sweep batch cap and leave the rest for the next run")
+    void deleteExpiredLinks_backlogLargerThanCap_stopsAtMaxBatches() {
+        // Arrange
+        when(schedulerLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn(true);
+        when(sharedLinkRepository.findExpiredIds(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(sharedLinkRepository.deleteExpiredByIds(anyList(), any(LocalDateTime.class))).thenReturn(2);
+
+        // Act
+        int deleted = sharedLinkService.deleteExpiredLinks();
+
+        // Assert
+        assertThat(deleted).isEqualTo(6);
+        verify(sharedLinkRepository, times(3)).deleteExpiredByIds(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should skip the sweep when another node holds the lease")
+    void deleteExpiredLinks_leaseHeldElsewhere_doesNothing() {
+        // Arrange
+        when(schedulerLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        int deleted = sharedLinkService.deleteExpiredLinks();
+
+        // Assert
+        assertThat(deleted).isZero();
+        verifyNoInteractions(sharedLinkRepository);
+        verify(schedulerLockService, never()).release(anyString());
+    }
+
+    @Test
+    @DisplayName("Should still create the share when the SMS cannot be queued")
+    void createFileShare_enqueueFails_stillCreatesShare() {
         // Arrange
         Long fileId = 1L;
         Long userId = 1L;
@@ -510,15 +862,36 @@ class SharedLinkServiceTest {
                 .file(testFile)
                 .build();
         
-        when(fileService.findById(fileId)).thenReturn(Optional.of(testFile));
+        when(ownershipContext.findOwnedFile(fileId, userId)).thenReturn(Optional.of(testFile));
         when(sharedLinkRepository.save(any(SharedLink.class))).thenReturn(savedLink);
-        when(smsService.sendSMS(eq(recipientPhone), anyString())).thenReturn(SMSResponse.failure("SMS failed"));
+        doThrow(new RuntimeException("Database unavailable"))
+                .when(smsOutboxService).enqueue(eq(recipientPhone), anyString());
         
         // Act
         SharedLink result = sharedLinkService.createFileShare(fileId, userId, recipientPhone);
         
         // Assert
         assertThat(result).isNotNull();
-        verify(smsService).sendSMS(eq(recipientPhone), anyString());
+        verify(smsOutboxService).enqueue(eq(recipientPhone), anyString());
+    }
+
+    private ShareListingView shareRow(Long shareId, Long fileId, String fileName,
+                                      Long folderId, String folderName, LocalDateTime createdAt) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("shareId", shareId);
+        row.put("linkToken", "token-" + shareId);
+        row.put("fileId", fileId);
+        row.put("fileName", fileName);
+        row.put("fileShareEpoch", fileId != null ? 3 : null);
+        row.put("folderId", folderId);
+        row.put("folderName", folderName);
+        row.put("expiresAt", createdAt.plusDays(7));
+        row.put("createdAt", createdAt);
+        return new SpelAwareProxyProjectionFactory().createProjection(ShareListingView.class, row);
+    }
+
+    private void enableSignedUrls() {
+        signedShareTokens = new SignedShareTokenService(true, "");
+        ReflectionTestUtils.setField(sharedLinkService, "signedShareTokens", signedShareTokens);
     }
-}
\ No newline at end of file
+}
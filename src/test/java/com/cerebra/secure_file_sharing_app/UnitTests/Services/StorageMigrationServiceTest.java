@@ -0,0 +1,180 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Repositories.FileRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobService;
+import com.cerebra.secure_file_sharing_app.Services.SchedulerLockService;
+import com.cerebra.secure_file_sharing_app.Services.SharedLinkCache;
+import com.cerebra.secure_file_sharing_app.Services.StorageMigrationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageMigrationService Tests")
+class StorageMigrationServiceTest {
+
+    @Mock private FileRepository fileRepository;
+    @Mock private FileBlobService fileBlobService;
+    @Mock private SharedLinkCache sharedLinkCache;
+    @Mock private SchedulerLockService schedulerLockService;
+
+    private StorageMigrationServiceImpl migrationService;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<String> adoptedContent = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        migrationService = new StorageMigrationServiceImpl(
+                fileRepository, fileBlobService, sharedLinkCache, schedulerLockService, meterRegistry);
+        ReflectionTestUtils.setField(migrationService, "rootStoragePath", tempDir.toString());
+        ReflectionTestUtils.setField(migrationService, "batchSize", 2);
+        ReflectionTestUtils.setField(migrationService, "maxBatches", 3);
+        ReflectionTestUtils.setField(migrationService, "leaseMillis", 600000L);
+
+        lenient().when(schedulerLockService.tryAcquire(eq("storage-layout-migration"), any(Duration.class))).thenReturn(true);
+        // Adopting consumes the staged file, as the real blob service does
+        lenient().when(fileBlobService.adopt(any(Path.class))).thenAnswer(inv -> {
+            Path staged = inv.getArgument(0);
+            adoptedContent.add(Files.readString(staged));
+            Files.delete(staged);
+            return FileBlob.builder().id(9L).physicalPath("blobs/ab/cd/abcd-12345678").refCount(1).build();
+        });
+    }
+
+    @Test
+    @DisplayName("Should move a flat file into the blob store and repoint its row")
+    void migrateLegacyFiles_legacyFile_movesContentAndUpdatesRow() throws IOException {
+        // Arrange
+        Path legacy = legacyFile("user1/report.pdf", "report");
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(file(1L, legacy.toString())));
+        when(fileRepository.attachBlob(eq(1L), any(FileBlob.class), eq("blobs/ab/cd/abcd-12345678"), eq(legacy.toString())))
+                .thenReturn(1);
+
+        // Act
+        int migrated = migrationService.migrateLegacyFiles();
+
+        // Assert
+        assertThat(migrated).isEqualTo(1);
+        assertThat(adoptedContent).containsExactly("report");
+        assertThat(legacy).doesNotExist();
+        assertThat(tempDir.resolve("blobs/tmp")).isEmptyDirectory();
+        verify(sharedLinkCache).invalidateFile(1L);
+        verify(fileBlobService, never()).release(anyLong());
+        verify(schedulerLockService).release("storage-layout-migration");
+        assertThat(meterRegistry.counter("app.storage.migration.migrated").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should give the blob reference back when the row changed during the copy")
+    void migrateLegacyFiles_rowChanged_releasesBlobAndKeepsSource() throws IOException {
+        // Arrange
+        Path legacy = legacyFile("user1/notes.txt", "notes");
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(file(1L, legacy.toString())));
+        when(fileRepository.attachBlob(anyLong(), any(FileBlob.class), anyString(), anyString())).thenReturn(0);
+
+        // Act
+        int migrated = migrationService.migrateLegacyFiles();
+
+        // Assert
+        assertThat(migrated).isZero();
+        verify(fileBlobService).release(9L);
+        verify(sharedLinkCache, never()).invalidateFile(anyLong());
+        assertThat(legacy).exists();
+    }
+
+    @Test
+    @DisplayName("Should skip files whose content is missing and carry on with the batch")
+    void migrateLegacyFiles_missingContent_skipsFile() throws IOException {
+        // Arrange
+        Path legacy = legacyFile("user1/present.txt", "present");
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(file(1L, tempDir.resolve("user1/gone.txt").toString()), file(2L, legacy.toString())));
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class)))
+                .thenReturn(List.of());
+        when(fileRepository.attachBlob(eq(2L), any(FileBlob.class), anyString(), anyString())).thenReturn(1);
+
+        // Act
+        int migrated = migrationService.migrateLegacyFiles();
+
+        // Assert
+        assertThat(migrated).isEqualTo(1);
+        assertThat(adoptedContent).containsExactly("present");
+        verify(fileRepository, never()).attachBlob(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should stop at the batch cap and resume after the last file on the next run")
+    void migrateLegacyFiles_backlogLargerThanCap_resumesFromCursor() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(migrationService, "maxBatches", 1);
+        Path first = legacyFile("user1/a", "a");
+        Path second = legacyFile("user1/b", "b");
+        Path third = legacyFile("user1/c", "c");
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(file(1L, first.toString()), file(2L, second.toString())));
+        when(fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class)))
+                .thenReturn(List.of(file(3L, third.toString())));
+        when(fileRepository.attachBlob(anyLong(), any(FileBlob.class), anyString(), anyString())).thenReturn(1);
+
+        // Act
+        int firstRun = migrationService.migrateLegacyFiles();
+        int secondRun = migrationService.migrateLegacyFiles();
+
+        // Assert
+        assertThat(firstRun).isEqualTo(2);
+        assertThat(secondRun).isEqualTo(1);
+        assertThat(adoptedContent).containsExactly("a", "b", "c");
+        assertThat(ReflectionTestUtils.getField(migrationService, "cursor")).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when another node holds the migration lease")
+    void migrateLegacyFiles_leaseHeldElsewhere_returnsZero() {
+        // Arrange
+        when(schedulerLockService.tryAcquire(anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        int migrated = migrationService.migrateLegacyFiles();
+
+        // Assert
+        assertThat(migrated).isZero();
+        verifyNoInteractions(fileRepository, fileBlobService);
+        verify(schedulerLockService, never()).release(anyString());
+    }
+
+    private Path legacyFile(String relative, String content) throws IOException {
+        Path path = tempDir.resolve("users").resolve(relative);
+        Files.createDirectories(path.getParent());
+        return Files.writeString(path, content);
+    }
+
+    private File file(Long id, String physicalPath) {
+        return File.builder().id(id).displayName("file-" + id).physicalPath(physicalPath).size(1L).build();
+    }
+}
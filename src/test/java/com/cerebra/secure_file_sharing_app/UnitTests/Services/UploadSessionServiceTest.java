@@ -0,0 +1,424 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Entities.File;
+import com.cerebra.secure_file_sharing_app.Entities.FileBlob;
+import com.cerebra.secure_file_sharing_app.Entities.Folder;
+import com.cerebra.secure_file_sharing_app.Entities.StoragePath;
+import com.cerebra.secure_file_sharing_app.Entities.UploadSession;
+import com.cerebra.secure_file_sharing_app.Exceptions.CustomExceptions.*;
+import com.cerebra.secure_file_sharing_app.Repositories.UploadSessionRepository;
+import com.cerebra.secure_file_sharing_app.Services.FileBlobService;
+import com.cerebra.secure_file_sharing_app.Services.FileService;
+import com.cerebra.secure_file_sharing_app.Services.OwnershipContext;
+import com.cerebra.secure_file_sharing_app.Services.SchedulerLockService;
+import com.cerebra.secure_file_sharing_app.Services.UploadSessionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UploadSessionService Tests")
+class UploadSessionServiceTest {
+
+    @Mock private UploadSessionRepository uploadSessionRepository;
+    @Mock private FileService fileService;
+    @Mock private OwnershipContext ownershipContext;
+    @Mock private FileBlobService fileBlobService;
+    @Mock private SchedulerLockService schedulerLockService;
+
+    private UploadSessionServiceImpl uploadSessionService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    private StoragePath testStoragePath;
+    private Folder testFolder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uploadSessionService = new UploadSessionServiceImpl(uploadSessionRepository, fileService, ownershipContext,
+                fileBlobService, schedulerLockService, meterRegistry);
+        ReflectionTestUtils.setField(uploadSessionService, "rootStoragePath", tempDir.toString());
+        ReflectionTestUtils.setField(uploadSessionService, "defaultChunkSize", 8);
+        ReflectionTestUtils.setField(uploadSessionService, "maxFileSize", 1024L);
+        ReflectionTestUtils.setField(uploadSessionService, "sessionTtlHours", 24);
+        ReflectionTestUtils.setField(uploadSessionService, "sweepBatchSize", 2);
+        ReflectionTestUtils.setField(uploadSessionService, "sweepMaxBatches", 3);
+        ReflectionTestUtils.setField(uploadSessionService, "sweepLeaseMillis", 60000L);
+
+        testStoragePath = StoragePath.builder().id(1L).basePath("user1").build();
+        testFolder = Folder.builder().id(5L).name("My Files").storagePath(testStoragePath).build();
+
+        lenient().when(ownershipContext.findStoragePath(1L)).thenReturn(Optional.of(testStoragePath));
+        lenient().when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should preallocate the file and size the progress bitmap")
+    void initiateUpload_validRequest_preallocatesPartFile() {
+        // Arrange
+        when(fileService.resolveTargetFolder(null, 1L)).thenReturn(testFolder);
+
+        // Act
+        UploadSession session = uploadSessionService.initiateUpload("big.bin", 20L, "application/octet-stream", null, 1L);
+
+        // Assert
+        assertThat(session.getChunkSize()).isEqualTo(8);
+        assertThat(session.getChunkCount()).isEqualTo(3);
+        assertThat(session.getFolderId()).isEqualTo(5L);
+        assertThat(session.getStatus()).isEqualTo(UploadSession.Status.IN_PROGRESS);
+        assertThat(Paths.get(session.getPhysicalPath() + ".part")).exists().hasSize(20);
+        assertThat(Paths.get(session.getPhysicalPath())).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should reject files above the configured maximum")
+    void initiateUpload_tooLarge_throwsFileStorageException() {
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.initiateUpload("big.bin", 2048L, null, null, 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessage("File size exceeds maximum allowed size");
+
+        verify(uploadSessionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should write chunks at their offsets in any order and complete")
+    void uploadChunk_outOfOrder_assemblesFileAndCompletes() throws IOException {
+        // Arrange
+        UploadSession session = initiate("0123456789abcdefghij".length());
+
+        // Act - last chunk first, then a duplicate resend
+        uploadSessionService.uploadChunk("upload-1", 16, stream("ghij"), 4, 1L);
+        uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L);
+        uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L);
+        UploadSession progress = uploadSessionService.uploadChunk("upload-1", 8, stream("89abcdef"), -1, 1L);
+
+        when(uploadSessionRepository.transition(eq(session.getId()), eq(UploadSession.Status.IN_PROGRESS),
+                eq(UploadSession.Status.COMPLETING), any(LocalDateTime.class))).thenReturn(1);
+        when(fileService.resolveTargetFolder(5L, 1L)).thenReturn(testFolder);
+        when(fileBlobService.adopt(any(Path.class))).thenAnswer(inv -> {
+            Path blobPath = Files.move(inv.getArgument(0), tempDir.resolve("blob"));
+            return FileBlob.builder().id(7L).physicalPath(blobPath.toString()).size(20L).refCount(1).build();
+        });
+        when(fileService.save(any(File.class))).thenAnswer(inv -> {
+            File file = inv.getArgument(0);
+            file.setId(42L);
+            return file;
+        });
+        File created = uploadSessionService.completeUpload("upload-1", 1L);
+
+        // Assert
+        assertThat(progress.getReceivedBytes()).isEqualTo(20L);
+        assertThat(created.getId()).isEqualTo(42L);
+        assertThat(created.getSize()).isEqualTo(20L);
+        assertThat(created.getFolder()).isEqualTo(testFolder);
+        assertThat(created.getBlob().getId()).isEqualTo(7L);
+        assertThat(Files.readString(Paths.get(created.getPhysicalPath()))).isEqualTo("0123456789abcdefghij");
+        assertThat(Paths.get(session.getPhysicalPath() + ".part")).doesNotExist();
+        verify(uploadSessionRepository).transitionWithFile(eq(session.getId()), eq(UploadSession.Status.COMPLETING),
+                eq(UploadSession.Status.COMPLETED), eq(42L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should let only the call that claims the session complete it")
+    void completeUpload_claimedByConcurrentCall_throwsFileStorageException() {
+        // Arrange
+        initiate(4);
+        uploadSessionService.uploadChunk("upload-1", 0, stream("0123"), 4, 1L);
+        when(uploadSessionRepository.transition(any(), eq(UploadSession.Status.IN_PROGRESS),
+                eq(UploadSession.Status.COMPLETING), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.completeUpload("upload-1", 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessageContaining("already being completed");
+        verify(fileBlobService, never()).adopt(any());
+        verify(fileService, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should release the blob and hand the session back when the file cannot be saved")
+    void completeUpload_saveFails_releasesClaim() {
+        // Arrange
+        UploadSession session = initiate(4);
+        uploadSessionService.uploadChunk("upload-1", 0, stream("0123"), 4, 1L);
+        when(uploadSessionRepository.transition(eq(session.getId()), eq(UploadSession.Status.IN_PROGRESS),
+                eq(UploadSession.Status.COMPLETING), any(LocalDateTime.class))).thenReturn(1);
+        when(fileService.resolveTargetFolder(5L, 1L)).thenReturn(testFolder);
+        when(fileBlobService.adopt(any(Path.class)))
+                .thenReturn(FileBlob.builder().id(7L).physicalPath("blob").size(4L).refCount(1).build());
+        when(fileService.save(any(File.class))).thenThrow(new FileStorageException("Folder is gone"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.completeUpload("upload-1", 1L))
+                .isInstanceOf(FileStorageException.class);
+        verify(fileBlobService).release(7L);
+        verify(uploadSessionRepository).transition(eq(session.getId()), eq(UploadSession.Status.COMPLETING),
+                eq(UploadSession.Status.IN_PROGRESS), any(LocalDateTime.class));
+        verify(uploadSessionRepository, never()).transitionWithFile(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject misaligned offsets and wrong chunk lengths")
+    void uploadChunk_invalidChunk_throwsFileStorageException() {
+        // Arrange
+        initiate(20);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 3, stream("x"), 1, 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessageContaining("multiple of 8");
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 0, stream("0123"), 4, 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessageContaining("must be 8 bytes");
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 0, stream("0123"), -1, 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessageContaining("ended after 4 of 8 bytes");
+    }
+
+    @Test
+    @DisplayName("Should retry progress update after a concurrent chunk wins the version race")
+    void uploadChunk_versionConflict_reloadsAndRetries() {
+        // Arrange
+        UploadSession session = initiate(20);
+        when(uploadSessionRepository.save(any(UploadSession.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UploadSession.class, 1L))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        UploadSession progress = uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L);
+
+        // Assert
+        assertThat(progress.isChunkReceived(0)).isTrue();
+        verify(uploadSessionRepository, times(2)).findByUploadId("upload-1");
+        assertThat(session.getReceivedBytes()).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("Should not merge a chunk into a session claimed for completion during the retry")
+    void uploadChunk_versionConflictWithCompletion_throwsFileStorageException() {
+        // Arrange
+        UploadSession session = initiate(20);
+        UploadSession claimed = UploadSession.builder()
+                .uploadId("upload-1")
+                .status(UploadSession.Status.COMPLETING)
+                .storagePath(testStoragePath)
+                .expiresAt(session.getExpiresAt())
+                .build();
+        when(uploadSessionRepository.save(any(UploadSession.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UploadSession.class, 1L));
+        when(uploadSessionRepository.findByUploadId("upload-1"))
+                .thenReturn(Optional.of(session))
+                .thenReturn(Optional.of(claimed));
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessageContaining("being completed");
+        verify(uploadSessionRepository, times(2)).save(any(UploadSession.class));
+        assertThat(claimed.getReceivedBytes()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse to complete while chunks are missing")
+    void completeUpload_missingChunks_throwsFileStorageException() {
+        // Arrange
+        initiate(20);
+        uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.completeUpload("upload-1", 1L))
+                .isInstanceOf(FileStorageException.class)
+                .hasMessage("Upload is incomplete: 8 of 20 bytes received");
+
+        verify(fileService, never()).save(any());
+        verify(fileBlobService, never()).adopt(any());
+    }
+
+    @Test
+    @DisplayName("Should deny access to another user's upload")
+    void uploadChunk_otherUser_throwsFileAccessDeniedException() {
+        // Arrange
+        initiate(20);
+        when(ownershipContext.findStoragePath(2L))
+                .thenReturn(Optional.of(StoragePath.builder().id(2L).basePath("user2").build()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 2L))
+                .isInstanceOf(FileAccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw UploadSessionNotFoundException for unknown or expired sessions")
+    void uploadChunk_unknownOrExpired_throwsUploadSessionNotFoundException() {
+        // Arrange
+        UploadSession session = initiate(20);
+        session.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(uploadSessionRepository.findByUploadId("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("missing", 0, stream("01234567"), 8, 1L))
+                .isInstanceOf(UploadSessionNotFoundException.class);
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk("upload-1", 0, stream("01234567"), 8, 1L))
+                .isInstanceOf(UploadSessionNotFoundException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    @DisplayName("Should delete partial data when an upload is aborted")
+    void abortUpload_inProgress_deletesPartFileAndSession() {
+        // Arrange
+        UploadSession session = initiate(20);
+
+        when(uploadSessionRepository.deleteByIdAndStatus(session.getId(), UploadSession.Status.IN_PROGRESS))
+                .thenReturn(1);
+
+        // Act
+        uploadSessionService.abortUpload("upload-1", 1L);
+
+        // Assert
+        assertThat(Paths.get(session.getPhysicalPath() + ".part")).doesNotExist();
+        verify(uploadSessionRepository).deleteByIdAndStatus(session.getId(), UploadSession.Status.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Should keep the data of an upload claimed for completion in the meantime")
+    void abortUpload_claimedForCompletion_keepsPartFile() {
+        // Arrange
+        UploadSession session = initiate(20);
+        when(uploadSessionRepository.deleteByIdAndStatus(session.getId(), UploadSession.Status.IN_PROGRESS))
+                .thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.abortUpload("upload-1", 1L))
+                .isInstanceOf(FileStorageException.class);
+        assertThat(Paths.get(session.getPhysicalPath() + ".part")).exists();
+    }
+
+    @Test
+    @DisplayName("Should delete expired sessions in batches until a short batch and record metrics")
+    void deleteExpiredSessions_expiredSessionsExist_deletesInBatches() throws IOException {
+        // Arrange
+        when(schedulerLockService.tryAcquire(eq("upload-session-expiry-sweep"), any(Duration.class))).thenReturn(true);
+        UploadSession first = expiredSession(1L);
+        UploadSession second = expiredSession(2L);
+        UploadSession third = expiredSession(3L);
+        when(uploadSessionRepository.findByStatusAndExpiresAtBeforeOrderById(
+                eq(UploadSession.Status.IN_PROGRESS), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(uploadSessionRepository.deleteByIdAndStatus(any(), eq(UploadSession.Status.IN_PROGRESS))).thenReturn(1);
+        // Completed between the scan and the delete
+        when(uploadSessionRepository.deleteByIdAndStatus(2L, UploadSession.Status.IN_PROGRESS)).thenReturn(0);
+
+        // Act
+        int deleted = uploadSessionService.deleteExpiredSessions();
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        assertThat(Paths.get(first.getPhysicalPath() + ".part")).doesNotExist();
+        assertThat(Paths.get(second.getPhysicalPath() + ".part")).exists();
+        assertThat(Paths.get(third.getPhysicalPath() + ".part")).doesNotExist();
+        verify(schedulerLockService).release("upload-session-expiry-sweep");
+        assertThat(meterRegistry.counter("app.uploads.expired.purged").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.timer("app.uploads.expiry.sweep").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should discard completions left behind by a dead node and purge old completed sessions")
+    void deleteExpiredSessions_staleClaimsAndCompletedSessions_areRemoved() throws IOException {
+        // Arrange
+        when(schedulerLockService.tryAcquire(eq("upload-session-expiry-sweep"), any(Duration.class))).thenReturn(true);
+        UploadSession stuck = expiredSession(4L);
+        stuck.setStatus(UploadSession.Status.COMPLETING);
+        when(uploadSessionRepository.findByStatusAndExpiresAtBeforeOrderById(
+                eq(UploadSession.Status.IN_PROGRESS), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+        when(uploadSessionRepository.findByStatusAndUpdatedAtBeforeOrderById(
+                eq(UploadSession.Status.COMPLETING), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(stuck));
+        when(uploadSessionRepository.deleteStale(eq(4L), eq(UploadSession.Status.COMPLETING), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(uploadSessionRepository.findIdsUpdatedBefore(
+                eq(UploadSession.Status.COMPLETED), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(8L));
+        when(uploadSessionRepository.deleteStaleByIds(eq(List.of(8L)), eq(UploadSession.Status.COMPLETED),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        int deleted = uploadSessionService.deleteExpiredSessions();
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        assertThat(Paths.get(stuck.getPhysicalPath() + ".part")).doesNotExist();
+        verify(uploadSessionRepository, never()).deleteByIdAndStatus(any(), any());
+        assertThat(meterRegistry.counter("app.uploads.expired.purged").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("app.uploads.completed.purged").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should skip the sweep when another node holds the lease")
+    void deleteExpiredSessions_leaseHeldElsewhere_doesNothing() {
+        // Arrange
+        when(schedulerLockService.tryAcquire(eq("upload-session-expiry-sweep"), any(Duration.class))).thenReturn(false);
+
+        // Act
+        int deleted = uploadSessionService.deleteExpiredSessions();
+
+        // Assert
+        assertThat(deleted).isZero();
+        verifyNoInteractions(uploadSessionRepository);
+        verify(schedulerLockService, never()).release(any());
+    }
+
+    private UploadSession expiredSession(Long id) throws IOException {
+        Path part = Files.createFile(tempDir.resolve("expired-" + id + ".bin.part"));
+        return UploadSession.builder()
+                .id(id)
+                .uploadId("expired-" + id)
+                .physicalPath(part.toString().replace(".part", ""))
+                .status(UploadSession.Status.IN_PROGRESS)
+                .expiresAt(LocalDateTime.now().minusHours(1))
+                .build();
+    }
+
+    private UploadSession initiate(long totalSize) {
+        lenient().when(fileService.resolveTargetFolder(null, 1L)).thenReturn(testFolder);
+        UploadSession session = uploadSessionService.initiateUpload("big.bin", totalSize, null, null, 1L);
+        session.setUploadId("upload-1");
+
+        ArgumentCaptor<UploadSession> captor = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(captor.capture());
+        lenient().when(uploadSessionRepository.findByUploadId("upload-1")).thenReturn(Optional.of(captor.getValue()));
+        return session;
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
@@ -0,0 +1,180 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Services;
+
+import com.cerebra.secure_file_sharing_app.Services.ZipStreamingService.Entry;
+import com.cerebra.secure_file_sharing_app.Services.ZipStreamingServiceImpl;
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ZipStreamingService Tests")
+class ZipStreamingServiceTest {
+
+    private ZipStreamingServiceImpl zipStreamingService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        zipStreamingService = new ZipStreamingServiceImpl(new LocalBlobStore(tempDir.toString()), 4);
+        ReflectionTestUtils.setField(zipStreamingService, "compressionLevel", 6);
+        ReflectionTestUtils.setField(zipStreamingService, "storedMimeTypes",
+                new String[]{"image/jpeg", "video/*", "application/zip", "application/pdf"});
+        ReflectionTestUtils.setField(zipStreamingService, "chunkSize", 64 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        zipStreamingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should STORE precompressed types and DEFLATE the rest")
+    void writeZip_mixedTypes_usesStoredForPrecompressed() throws IOException {
+        // Arrange
+        Entry photo = createEntry("photo.jpg", "image/jpeg", "jpeg-bytes");
+        Entry notes = createEntry("notes.txt", "text/plain", "plain text notes ".repeat(50));
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zipStreamingService.writeZip(List.of(photo, notes), out);
+
+        // Assert
+        List<ZipEntry> entries = new ArrayList<>();
+        List<String> contents = new ArrayList<>();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                entries.add(entry);
+                contents.add(new String(zipIn.readAllBytes()));
+            }
+        }
+
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).getName()).isEqualTo("photo.jpg");
+        assertThat(entries.get(0).getMethod()).isEqualTo(ZipEntry.STORED);
+        assertThat(contents.get(0)).isEqualTo("jpeg-bytes");
+        assertThat(entries.get(1).getName()).isEqualTo("notes.txt");
+        assertThat(entries.get(1).getMethod()).isEqualTo(ZipEntry.DEFLATED);
+        assertThat(contents.get(1)).isEqualTo("plain text notes ".repeat(50));
+    }
+
+    @Test
+    @DisplayName("Should reassemble files deflated in parallel chunks")
+    void writeZip_multiChunkFiles_roundTripsThroughCentralDirectory() throws IOException {
+        // Arrange - several chunks per file, mixing compressible and random data
+        Random random = new Random(42);
+        byte[] randomBytes = new byte[300 * 1024];
+        random.nextBytes(randomBytes);
+        byte[] textBytes = "The quick brown fox jumps over the lazy dog. ".repeat(8000).getBytes();
+
+        Path randomFile = Files.write(tempDir.resolve("random.bin"), randomBytes);
+        Path textFile = Files.write(tempDir.resolve("text.txt"), textBytes);
+        Path emptyFile = Files.write(tempDir.resolve("empty.txt"), new byte[0]);
+
+        List<Entry> entries = List.of(
+                Entry.file("random.bin", randomFile.toString(), "application/octet-stream", null),
+                Entry.directory("docs", null),
+                Entry.file("docs/text.txt", textFile.toString(), "text/plain", null),
+                Entry.file("docs/empty.txt", emptyFile.toString(), "text/plain", null));
+
+        // Act
+        Path archive = tempDir.resolve("archive.zip");
+        try (var out = Files.newOutputStream(archive)) {
+            zipStreamingService.writeZip(entries, out);
+        }
+
+        // Assert - ZipFile reads the central directory, ZipInputStream the local headers
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            assertThat(Collections.list(zipFile.entries())).extracting(ZipEntry::getName)
+                    .containsExactly("random.bin", "docs/", "docs/text.txt", "docs/empty.txt");
+            assertThat(zipFile.getEntry("docs/").isDirectory()).isTrue();
+            assertThat(zipFile.getInputStream(zipFile.getEntry("random.bin")).readAllBytes()).isEqualTo(randomBytes);
+            assertThat(zipFile.getInputStream(zipFile.getEntry("docs/text.txt")).readAllBytes()).isEqualTo(textBytes);
+            assertThat(zipFile.getEntry("docs/text.txt").getCompressedSize()).isLessThan(textBytes.length / 10);
+            assertThat(zipFile.getInputStream(zipFile.getEntry("docs/empty.txt")).readAllBytes()).isEmpty();
+        }
+
+        try (ZipInputStream zipIn = new ZipInputStream(Files.newInputStream(archive))) {
+            assertThat(zipIn.getNextEntry().getName()).isEqualTo("random.bin");
+            assertThat(zipIn.readAllBytes()).isEqualTo(randomBytes);
+            assertThat(zipIn.getNextEntry().getName()).isEqualTo("docs/");
+            assertThat(zipIn.getNextEntry().getName()).isEqualTo("docs/text.txt");
+            assertThat(zipIn.readAllBytes()).isEqualTo(textBytes);
+        }
+    }
+
+    @Test
+    @DisplayName("Should rename duplicate display names instead of failing")
+    void writeZip_duplicateNames_addsCounter() throws IOException {
+        // Arrange
+        Entry first = createEntry("report.txt", "text/plain", "first");
+        Entry second = createEntry("report.txt", "text/plain", "second");
+        Entry nested = createEntry("sub.dir/README", "text/plain", "third");
+        Entry nestedDuplicate = createEntry("sub.dir/README", "text/plain", "fourth");
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zipStreamingService.writeZip(List.of(first, second, nested, nestedDuplicate), out);
+
+        // Assert
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+
+        assertThat(names).containsExactly("report.txt", "report (1).txt", "sub.dir/README", "sub.dir/README (1)");
+    }
+
+    @Test
+    @DisplayName("Should write a valid empty archive for no files")
+    void writeZip_noFiles_writesEmptyArchive() throws IOException {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zipStreamingService.writeZip(Collections.emptyList(), out);
+
+        // Assert
+        assertThat(out.size()).isEqualTo(22);
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(zipIn.getNextEntry()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should match MIME wildcards and ignore parameters")
+    void isPrecompressed_variousTypes_matchesConfiguredList() {
+        assertThat(zipStreamingService.isPrecompressed("video/mp4")).isTrue();
+        assertThat(zipStreamingService.isPrecompressed("application/PDF")).isTrue();
+        assertThat(zipStreamingService.isPrecompressed("image/jpeg; charset=binary")).isTrue();
+        assertThat(zipStreamingService.isPrecompressed("text/plain")).isFalse();
+        assertThat(zipStreamingService.isPrecompressed(null)).isFalse();
+    }
+
+    private Entry createEntry(String name, String mimeType, String content) throws IOException {
+        Path path = Files.createTempFile(tempDir, "blob-", ".bin");
+        Files.writeString(path, content);
+        return Entry.file(name, path.toString(), mimeType, null);
+    }
+}
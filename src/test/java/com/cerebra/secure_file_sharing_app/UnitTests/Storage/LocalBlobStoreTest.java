@@ -0,0 +1,90 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Storage;
+
+import com.cerebra.secure_file_sharing_app.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LocalBlobStore Tests")
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(tempDir.toString());
+    }
+
+    @Test
+    @DisplayName("Should store a stream under its key and read whole content and ranges back")
+    void put_stream_roundTripsContentAndRanges() throws IOException {
+        // Act
+        blobStore.put("blobs/ab/cd/key", new ByteArrayInputStream("0123456789".getBytes()));
+
+        // Assert
+        assertThat(tempDir.resolve("blobs/ab/cd/key")).hasContent("0123456789");
+        assertThat(tempDir.resolve("blobs/ab/cd")).isDirectoryNotContaining("glob:**.tmp");
+        try (InputStream in = blobStore.get("blobs/ab/cd/key")) {
+            assertThat(in.readAllBytes()).isEqualTo("0123456789".getBytes());
+        }
+        try (InputStream in = blobStore.getRange("blobs/ab/cd/key", 3, 4)) {
+            assertThat(in.readAllBytes()).isEqualTo("3456".getBytes());
+        }
+        try (InputStream in = blobStore.getRange("blobs/ab/cd/key", 8, 100)) {
+            assertThat(in.readAllBytes()).isEqualTo("89".getBytes());
+        }
+        assertThat(blobStore.stat("blobs/ab/cd/key")).get()
+                .satisfies(stat -> assertThat(stat.size()).isEqualTo(10L));
+        assertThat(blobStore.localPath("blobs/ab/cd/key")).contains(tempDir.resolve("blobs/ab/cd/key"));
+    }
+
+    @Test
+    @DisplayName("Should copy a file into the store and leave the source in place")
+    void put_file_leavesSource() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("upload.part"), "hello");
+
+        // Act
+        blobStore.put("blobs/copy", source);
+
+        // Assert
+        assertThat(source).hasContent("hello");
+        assertThat(tempDir.resolve("blobs/copy")).hasContent("hello");
+    }
+
+    @Test
+    @DisplayName("Should resolve absolute legacy paths and delete idempotently")
+    void legacyAbsolutePath_readableAndDeletable() throws IOException {
+        // Arrange
+        Path legacy = Files.writeString(tempDir.resolve("legacy.txt"), "old");
+
+        // Act & Assert
+        assertThat(blobStore.stat(legacy.toString())).isPresent();
+        blobStore.delete(legacy.toString());
+        blobStore.delete(legacy.toString());
+        assertThat(legacy).doesNotExist();
+        assertThat(blobStore.stat(legacy.toString())).isEmpty();
+        assertThatThrownBy(() -> blobStore.get(legacy.toString())).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject relative keys that escape the storage root")
+    void put_keyEscapingRoot_rejected() {
+        assertThatThrownBy(() -> blobStore.put("../outside", new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,360 @@
+package com.cerebra.secure_file_sharing_app.UnitTests.Storage;
+
+import com.cerebra.secure_file_sharing_app.Storage.BlobStat;
+import com.cerebra.secure_file_sharing_app.Storage.S3BlobStore;
+import com.cerebra.secure_file_sharing_app.Storage.S3RequestSigner;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("S3BlobStore Tests")
+class S3BlobStoreTest {
+
+    private static final String BUCKET = "test-bucket";
+    private static final String ACCESS_KEY = "AKIATESTKEY";
+    private static final String SECRET_KEY = "test-secret";
+    private static final int PART_SIZE = 1024;
+
+    private HttpServer s3Stub;
+    private Map<String, byte[]> objects;
+    private Map<String, ConcurrentSkipListMap<Integer, byte[]>> uploads;
+    private Set<String> abortedUploads;
+    private AtomicInteger singlePuts;
+    private AtomicInteger partsInFlight;
+    private AtomicInteger maxPartsInFlight;
+    private volatile CountDownLatch partGate;
+    private volatile int failingPart;
+
+    private S3BlobStore blobStore;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        objects = new ConcurrentHashMap<>();
+        uploads = new ConcurrentHashMap<>();
+        abortedUploads = ConcurrentHashMap.newKeySet();
+        singlePuts = new AtomicInteger();
+        partsInFlight = new AtomicInteger();
+        maxPartsInFlight = new AtomicInteger();
+        partGate = new CountDownLatch(0);
+        failingPart = -1;
+
+        // Minimal MinIO-style stand-in: path-style addressing, SigV4 checked on every request
+        s3Stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        s3Stub.setExecutor(Executors.newFixedThreadPool(8));
+        s3Stub.createContext("/", this::handle);
+        s3Stub.start();
+
+        blobStore = new S3BlobStore("http://localhost:" + s3Stub.getAddress().getPort(), "us-east-1", BUCKET,
+                ACCESS_KEY, SECRET_KEY, PART_SIZE, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        blobStore.shutdown();
+        s3Stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should store small content with a single PUT and read it back")
+    void put_smallStream_singlePutRoundTrip() throws IOException {
+        // Act
+        blobStore.put("blobs/ab/cd/small", new ByteArrayInputStream("hello".getBytes()));
+
+        // Assert
+        assertThat(singlePuts).hasValue(1);
+        assertThat(uploads).isEmpty();
+        try (InputStream in = blobStore.get("blobs/ab/cd/small")) {
+            assertThat(in.readAllBytes()).isEqualTo("hello".getBytes());
+        }
+        Optional<BlobStat> stat = blobStore.stat("blobs/ab/cd/small");
+        assertThat(stat).isPresent();
+        assertThat(stat.get().size()).isEqualTo(5L);
+        assertThat(stat.get().lastModifiedMillis()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should upload a large stream as parallel multipart parts")
+    void put_largeStream_uploadsPartsInParallel() throws IOException {
+        // Arrange - the first two parts wait for each other, so they must be in flight together
+        byte[] content = randomBytes(5 * PART_SIZE + 100);
+        partGate = new CountDownLatch(2);
+
+        // Act
+        blobStore.put("blobs/large", new ByteArrayInputStream(content));
+
+        // Assert
+        assertThat(objects.get("blobs/large")).isEqualTo(content);
+        assertThat(uploads).isEmpty();
+        assertThat(singlePuts).hasValue(0);
+        assertThat(maxPartsInFlight.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should upload a large file in parts read straight from disk")
+    void put_largeFile_multipartMatchesSource() throws IOException {
+        // Arrange
+        byte[] content = randomBytes(3 * PART_SIZE + 7);
+        Path source = Files.write(tempDir.resolve("upload.part"), content);
+
+        // Act
+        blobStore.put("blobs/from-file", source);
+
+        // Assert
+        assertThat(objects.get("blobs/from-file")).isEqualTo(content);
+        assertThat(source).exists();
+    }
+
+    @Test
+    @DisplayName("Should read a byte range and stop early without draining the object")
+    void getRange_returnsRequestedBytes() throws IOException {
+        // Arrange
+        byte[] content = randomBytes(4 * PART_SIZE);
+        objects.put("blobs/ranged", content);
+
+        // Act & Assert
+        try (InputStream in = blobStore.getRange("blobs/ranged", 100, 50)) {
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(content, 100, 150));
+        }
+        try (InputStream in = blobStore.get("blobs/ranged")) {
+            assertThat(in.readNBytes(10)).isEqualTo(Arrays.copyOf(content, 10));
+        }
+        // The pool is still usable after an early close
+        assertThat(blobStore.stat("blobs/ranged")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should report missing keys and delete idempotently")
+    void missingAndDelete_behaveLikeAFilesystem() throws IOException {
+        // Arrange
+        objects.put("blobs/doomed", "bye".getBytes());
+
+        // Act
+        blobStore.delete("blobs/doomed");
+        blobStore.delete("blobs/doomed");
+
+        // Assert
+        assertThat(objects).doesNotContainKey("blobs/doomed");
+        assertThat(blobStore.stat("blobs/doomed")).isEmpty();
+        assertThatThrownBy(() -> blobStore.get("blobs/doomed")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    @DisplayName("Should abort the multipart upload when a part fails")
+    void put_partFails_abortsUpload() {
+        // Arrange
+        failingPart = 2;
+
+        // Act & Assert
+        assertThatThrownBy(() -> blobStore.put("blobs/broken", new ByteArrayInputStream(randomBytes(3 * PART_SIZE))))
+                .isInstanceOf(IOException.class);
+        assertThat(abortedUploads).hasSize(1);
+        assertThat(uploads).isEmpty();
+        assertThat(objects).doesNotContainKey("blobs/broken");
+    }
+
+    // ========== S3 stub ==========
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (!signatureMatches(exchange)) {
+                respond(exchange, 403, "<Error><Code>SignatureDoesNotMatch</Code></Error>");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getRawPath();
+            String key = URLDecoder.decode(path.substring(("/" + BUCKET + "/").length()), StandardCharsets.UTF_8);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if (method.equals("POST") && query.containsKey("uploads")) {
+                String uploadId = UUID.randomUUID().toString();
+                uploads.put(uploadId, new ConcurrentSkipListMap<>());
+                respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + uploadId
+                        + "</UploadId></InitiateMultipartUploadResult>");
+            } else if (method.equals("PUT") && query.containsKey("partNumber")) {
+                uploadPart(exchange, query, body);
+            } else if (method.equals("POST") && query.containsKey("uploadId")) {
+                completeUpload(exchange, key, query.get("uploadId"), new String(body, StandardCharsets.UTF_8));
+            } else if (method.equals("DELETE") && query.containsKey("uploadId")) {
+                abortedUploads.add(query.get("uploadId"));
+                uploads.remove(query.get("uploadId"));
+                exchange.sendResponseHeaders(204, -1);
+            } else if (method.equals("PUT")) {
+                singlePuts.incrementAndGet();
+                objects.put(key, body);
+                exchange.getResponseHeaders().add("ETag", "\"single\"");
+                exchange.sendResponseHeaders(200, -1);
+            } else if (method.equals("DELETE")) {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            } else if (method.equals("HEAD")) {
+                byte[] object = objects.get(key);
+                if (object == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().add("Last-Modified",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+                exchange.getResponseHeaders().add("Content-Length", Integer.toString(object.length));
+                exchange.sendResponseHeaders(200, -1);
+            } else if (method.equals("GET")) {
+                getObject(exchange, key);
+            } else {
+                respond(exchange, 405, "");
+            }
+        }
+    }
+
+    private void uploadPart(HttpExchange exchange, Map<String, String> query, byte[] body) throws IOException {
+        int partNumber = Integer.parseInt(query.get("partNumber"));
+        maxPartsInFlight.accumulateAndGet(partsInFlight.incrementAndGet(), Math::max);
+        try {
+            partGate.countDown();
+            partGate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            partsInFlight.decrementAndGet();
+        }
+
+        ConcurrentSkipListMap<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+        if (partNumber == failingPart || parts == null) {
+            respond(exchange, 500, "<Error><Code>InternalError</Code></Error>");
+            return;
+        }
+        parts.put(partNumber, body);
+        exchange.getResponseHeaders().add("ETag", "\"part-" + partNumber + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void completeUpload(HttpExchange exchange, String key, String uploadId, String manifest)
+            throws IOException {
+        ConcurrentSkipListMap<Integer, byte[]> parts = uploads.remove(uploadId);
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        Matcher part = Pattern.compile("<PartNumber>(\\d+)</PartNumber><ETag>\"part-(\\d+)\"</ETag>").matcher(manifest);
+        int expected = 1;
+        while (part.find()) {
+            int number = Integer.parseInt(part.group(1));
+            if (number != expected++ || !part.group(2).equals(part.group(1)) || !parts.containsKey(number)) {
+                respond(exchange, 200, "<Error><Code>InvalidPart</Code></Error>");
+                return;
+            }
+            assembled.write(parts.get(number));
+        }
+        objects.put(key, assembled.toByteArray());
+        respond(exchange, 200, "<CompleteMultipartUploadResult><Key>" + key + "</Key></CompleteMultipartUploadResult>");
+    }
+
+    private void getObject(HttpExchange exchange, String key) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            respond(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = object.length - 1;
+        int status = 200;
+        if (range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = (int) Math.min(end, Long.parseLong(bounds[1]));
+            status = 206;
+        }
+        exchange.sendResponseHeaders(status, end - start + 1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(object, start, end - start + 1);
+        } catch (IOException e) {
+            // Client closed early
+        }
+    }
+
+    private boolean signatureMatches(HttpExchange exchange) {
+        String amzDate = exchange.getRequestHeaders().getFirst("x-amz-date");
+        String payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (amzDate == null || payloadHash == null || authorization == null) {
+            return false;
+        }
+        SortedMap<String, String> headers = new TreeMap<>();
+        headers.put("host", exchange.getRequestHeaders().getFirst("Host"));
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("x-amz-date", amzDate);
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        String expected = new S3RequestSigner(ACCESS_KEY, SECRET_KEY, "us-east-1").authorization(
+                exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(),
+                rawQuery == null ? "" : rawQuery, headers, payloadHash);
+        return expected.equals(authorization);
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int eq = parameter.indexOf('=');
+                query.put(URLDecoder.decode(eq < 0 ? parameter : parameter.substring(0, eq), StandardCharsets.UTF_8),
+                        eq < 0 ? "" : URLDecoder.decode(parameter.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}